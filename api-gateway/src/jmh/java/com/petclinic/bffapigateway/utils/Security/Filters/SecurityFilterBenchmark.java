@@ -0,0 +1,97 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per request work of the previous security filter chain (linear AntPathMatcher scan of the whitelist
+ * and role strings parsed on every request) with the current one (WhitelistMatcher trie and roles normalized once).
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityFilterBenchmark {
+
+    private static final List<String> GATEWAY_WHITELIST = List.of(
+            "/context-path/swagger-ui", "/custom/swagger-ui.html", "/swagger-resources", "/swagger-resources/**",
+            "/configuration/ui", "/configuration/security", "/swagger-ui.html", "/webjars/**", "/api-docs",
+            "/api-docs/**", "/swagger-ui/**", "/scripts/**", "/css/**", "/images/**", "/images/*",
+            "/actuator/health", "/health");
+
+    private static final List<String> REQUEST_PATHS = List.of(
+            "/api/v2/gateway/owners/e6c7398e-8ac4-4e10-9ee0-03ef33f0361a/pets",
+            "/api/v2/gateway/visits",
+            "/api/gateway/bills/customer/e6c7398e-8ac4-4e10-9ee0-03ef33f0361a",
+            "/css/app.css",
+            "/actuator/health");
+
+    @Param({"17", "100", "500"})
+    public int routeCount;
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private Map<String, String> authWhitelist;
+
+    private WhitelistMatcher whitelistMatcher;
+
+    private List<PathContainer> parsedPaths;
+
+    private final Set<Roles> rolesAllowed = EnumSet.of(Roles.ADMIN, Roles.VET);
+
+    private final List<String> tokenRoles = List.of("[OWNER", " VET]");
+
+    private final Set<Roles> tokenRoleSet = Roles.fromTokenRoles(tokenRoles);
+
+    @Setup
+    public void setUp() {
+        List<String> patterns = new ArrayList<>(GATEWAY_WHITELIST);
+
+        for (int i = patterns.size(); i < routeCount; i++) {
+            patterns.add(i % 2 == 0 ? "/static/module" + i + "/**" : "/docs/v" + i + "/index.html");
+        }
+
+        authWhitelist = new HashMap<>();
+        patterns.forEach(pattern -> authWhitelist.put(pattern, pattern));
+
+        whitelistMatcher = new WhitelistMatcher(patterns);
+        parsedPaths = REQUEST_PATHS.stream().map(PathContainer::parsePath).toList();
+    }
+
+    @Benchmark
+    public void previousChain(Blackhole blackhole) {
+        for (String path : REQUEST_PATHS) {
+            boolean whitelisted = authWhitelist.keySet().stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
+            blackhole.consume(whitelisted || previousRoleCheck());
+        }
+    }
+
+    @Benchmark
+    public void currentChain(Blackhole blackhole) {
+        for (PathContainer path : parsedPaths) {
+            boolean whitelisted = whitelistMatcher.matches(path);
+            blackhole.consume(whitelisted || !Collections.disjoint(rolesAllowed, tokenRoleSet));
+        }
+    }
+
+    private boolean previousRoleCheck() {
+        List<Roles> allowed = List.copyOf(rolesAllowed);
+
+        for (String role : tokenRoles) {
+            role = role.replace("[", "").replace("]", "").replace(",", "").trim();
+
+            if (allowed.contains(Roles.valueOf(role.toUpperCase()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
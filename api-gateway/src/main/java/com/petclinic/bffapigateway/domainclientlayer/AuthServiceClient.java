@@ -25,6 +25,7 @@ import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
@@ -62,12 +63,7 @@ public class AuthServiceClient {
     }
 
     public Flux<UserDetails> getAllUsers(String jwtToken) {
-        return webClientBuilder.build()
-                .get()
-                .uri(authServiceUrl + "/users/all")
-                .cookie("Bearer", jwtToken)
-                .retrieve()
-                .bodyToFlux(UserDetails.class);
+        return streamUsers(jwtToken, null);
     }
 
     public Mono<Void> deleteUser(String jwtToken, String userId) {
@@ -97,24 +93,52 @@ public class AuthServiceClient {
 
     //TODO username is unique so it should be a mono, not a flux
     public Flux<UserDetails> getUsersByUsername(String jwtToken, String username) {
+        return streamUsers(jwtToken, username);
+    }
+
+    public Mono<UserPageResponseDTO> getUsersPage(String jwtToken, String username, String sort, String direction,
+                                                  String cursor, int size) {
         return webClientBuilder
                 .baseUrl(authServiceUrl)
                 .build()
                 .get()
                 .uri(uriBuilder -> uriBuilder
-                        .path("/users/")
-                        .queryParam("username", username)
+                        .path("/users/page")
+                        .queryParamIfPresent("username", Optional.ofNullable(username))
+                        .queryParam("sort", sort)
+                        .queryParam("direction", direction)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParam("size", size)
                         .build())
                 .cookie("Bearer", jwtToken)
                 .retrieve()
-                .bodyToFlux(UserDetails.class);
+                .onStatus(status -> status.value() == HttpStatus.UNAUTHORIZED.value() || status.value() == HttpStatus.FORBIDDEN.value(),
+                        clientResponse -> Mono.error(new GenericHttpException("Not allowed to list users", HttpStatus.valueOf(clientResponse.statusCode().value()))))
+                .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> Mono.error(new GenericHttpException("Invalid user page request", HttpStatus.BAD_REQUEST)))
+                .bodyToMono(UserPageResponseDTO.class);
     }
 
     public Flux<UserDetails> getUsers(String jwtToken) {
-        return webClientBuilder.build().get()
-                .uri(authServiceUrl + "/users/withoutPages")
+        return streamUsers(jwtToken, null);
+    }
+
+    /**
+     * Relays the ndjson user stream of the auth-service one user at a time, without collecting the users here.
+     */
+    private Flux<UserDetails> streamUsers(String jwtToken, String username) {
+        return webClientBuilder
+                .baseUrl(authServiceUrl)
+                .build()
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/users/stream")
+                        .queryParamIfPresent("username", Optional.ofNullable(username))
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
                 .cookie("Bearer", jwtToken)
                 .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.UNAUTHORIZED.value() || status.value() == HttpStatus.FORBIDDEN.value(),
+                        clientResponse -> Mono.error(new GenericHttpException("Not allowed to list users", HttpStatus.valueOf(clientResponse.statusCode().value()))))
                 .bodyToFlux(UserDetails.class);
     }
 
@@ -510,18 +534,18 @@ public class AuthServiceClient {
     }
 
     public Mono<Boolean> checkUsernameAvailability(String username, String jwtToken) {
-        return webClientBuilder.build()
+        return webClientBuilder
+                .baseUrl(authServiceUrl)
+                .build()
                 .get()
-                .uri(authServiceUrl + "/users/withoutPages")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/users/username/available")
+                        .queryParam("username", username)
+                        .build())
                 .cookie("Bearer", jwtToken)
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, n -> rethrower.rethrow(n,
                         x -> new GenericHttpException(x.get("message").toString(), (HttpStatus) n.statusCode())))
-                .bodyToFlux(UserDetails.class)
-                .collectList()
-                .map(users -> {
-                    return users.stream()
-                            .noneMatch(user -> user.getUsername().equals(username));
-                });
+                .bodyToMono(Boolean.class);
     }
 }
\ No newline at end of file
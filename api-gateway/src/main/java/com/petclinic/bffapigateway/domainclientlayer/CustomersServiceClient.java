@@ -1,11 +1,14 @@
 package com.petclinic.bffapigateway.domainclientlayer;
 
 import com.petclinic.bffapigateway.dtos.Files.FileDetails;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerPageResponseDTO;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerProfileResponseDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerRequestDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerResponseDTO;
 import com.petclinic.bffapigateway.dtos.Pets.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
@@ -51,6 +54,18 @@ public class CustomersServiceClient {
                 .bodyToMono(OwnerResponseDTO.class);
     }
 
+    /**
+     * Gets an owner with their pets in a single call, their photos by id only, empty if there is no such owner
+     */
+    public Mono<OwnerProfileResponseDTO> getOwnerProfile(final String ownerId) {
+        return webClientBuilder.build().get()
+                .uri(customersServiceUrl + "/owners/{ownerId}/profile", ownerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatus.NOT_FOUND::equals, response -> Mono.empty())
+                .bodyToMono(OwnerProfileResponseDTO.class);
+    }
+
     public Flux<OwnerResponseDTO> getAllOwners() {
         return webClientBuilder.build().get()
                 .uri(customersServiceUrl + "/owners")
@@ -66,22 +81,7 @@ public class CustomersServiceClient {
         builder.queryParam("page", page);
         builder.queryParam("size",size);
 
-        // Add query parameters conditionally if they are not null or empty
-        if (ownerId != null && !ownerId.isEmpty()) {
-            builder.queryParam("ownerId", ownerId);
-        }
-        if (firstName != null && !firstName.isEmpty()) {
-            builder.queryParam("firstName", firstName);
-        }
-        if (lastName != null && !lastName.isEmpty()) {
-            builder.queryParam("lastName", lastName);
-        }
-        if (phoneNumber != null && !phoneNumber.isEmpty()) {
-            builder.queryParam("phoneNumber", phoneNumber);
-        }
-        if (city != null && !city.isEmpty()) {
-            builder.queryParam("city", city);
-        }
+        addOwnerFilters(builder, ownerId, firstName, lastName, phoneNumber, city);
 
         return webClientBuilder.build()
                 .get()
@@ -91,17 +91,27 @@ public class CustomersServiceClient {
                 .bodyToFlux(OwnerResponseDTO.class);
     }
 
-    public Mono<Long> getTotalNumberOfOwners(){
-        return webClientBuilder.build().get()
-                .uri(customersServiceUrl + "/owners/owners-count")
+    /**
+     * Gets a page of owners and the number of owners matching the same filters in a single call
+     */
+    public Mono<OwnerPageResponseDTO> getOwnersPage(Optional<Integer> page, Optional<Integer> size, String ownerId, String firstName, String lastName, String phoneNumber, String city) {
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(customersServiceUrl + "/owners/owners-page");
+
+        builder.queryParam("page", page);
+        builder.queryParam("size", size);
+        addOwnerFilters(builder, ownerId, firstName, lastName, phoneNumber, city);
+
+        return webClientBuilder.build()
+                .get()
+                .uri(builder.build().toUri())
+                .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(Long.class);
+                .bodyToMono(OwnerPageResponseDTO.class);
     }
 
-    public Mono<Long> getTotalNumberOfOwnersWithFilters(String ownerId, String firstName, String lastName, String phoneNumber, String city){
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(customersServiceUrl + "/owners/owners-filtered-count");
-
-        // Add query parameters conditionally if they are not null or empty
+    // Add query parameters conditionally if they are not null or empty
+    private static void addOwnerFilters(UriComponentsBuilder builder, String ownerId, String firstName, String lastName, String phoneNumber, String city) {
         if (ownerId != null && !ownerId.isEmpty()) {
             builder.queryParam("ownerId", ownerId);
         }
@@ -117,6 +127,19 @@ public class CustomersServiceClient {
         if (city != null && !city.isEmpty()) {
             builder.queryParam("city", city);
         }
+    }
+
+    public Mono<Long> getTotalNumberOfOwners(){
+        return webClientBuilder.build().get()
+                .uri(customersServiceUrl + "/owners/owners-count")
+                .retrieve()
+                .bodyToMono(Long.class);
+    }
+
+    public Mono<Long> getTotalNumberOfOwnersWithFilters(String ownerId, String firstName, String lastName, String phoneNumber, String city){
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(customersServiceUrl + "/owners/owners-filtered-count");
+
+        addOwnerFilters(builder, ownerId, firstName, lastName, phoneNumber, city);
 
         return webClientBuilder.build()
                 .get()
@@ -4,6 +4,7 @@ import com.petclinic.bffapigateway.dtos.Vets.*;
 import com.petclinic.bffapigateway.dtos.Files.FileDetails;
 import com.petclinic.bffapigateway.exceptions.ExistingRatingNotFoundException;
 import com.petclinic.bffapigateway.exceptions.ExistingVetNotFoundException;
+import com.petclinic.bffapigateway.exceptions.GenericHttpException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
@@ -14,14 +15,17 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.webjars.NotFoundException;
 import reactor.core.publisher.Flux;
@@ -30,6 +34,7 @@ import reactor.core.publisher.Mono;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
@@ -40,13 +45,27 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @Component
 @Slf4j
 public class VetsServiceClient {
+    private static final List<String> ALBUM_PHOTO_REQUEST_HEADERS = List.of(HttpHeaders.RANGE, HttpHeaders.IF_NONE_MATCH);
+    private static final List<String> ALBUM_PHOTO_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_RANGE, HttpHeaders.ACCEPT_RANGES, HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL);
+
     private final WebClient.Builder webClientBuilder;
     private String vetsServiceUrl;
+    /**
+     * Largest photo, in bytes, passed on to the vet service
+     */
+    private long maxPhotoSize = DataSize.ofMegabytes(16).toBytes();
 
     public void setVetsServiceUrl(String vetsServiceUrl) {
         this.vetsServiceUrl = vetsServiceUrl;
     }
 
+    @Value("${app.vet-service.max-photo-size:16MB}")
+    public void setMaxPhotoSize(DataSize maxPhotoSize) {
+        this.maxPhotoSize = maxPhotoSize.toBytes();
+    }
+
     public VetsServiceClient(
             WebClient.Builder webClientBuilder,
             @Value("${app.vet-service.host}") String vetsServiceHost,
@@ -143,57 +162,66 @@ public class VetsServiceClient {
         }
     }
 
-    public Mono<Resource> addPhotoToVet(String vetId, String photoName, FilePart filePart) {
-        return filePart.content()
-                .map(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    return bytes;
-                })
-                .reduce((byte[] a, byte[] b) -> {
-                    byte[] combined = new byte[a.length + b.length];
-                    System.arraycopy(a, 0, combined, 0, a.length);
-                    System.arraycopy(b, 0, combined, a.length, b.length);
-                    return combined;
-                })
-                .flatMap(bytes -> {
-                    String contentType = filePart.headers().getContentType() != null 
-                            ? filePart.headers().getContentType().toString() : "image/jpeg";
-                    PhotoRequestDTO photoRequest = PhotoRequestDTO.builder()
-                            .vetId(vetId)
-                            .filename(photoName)
-                            .imgType(contentType)
-                            .data(bytes)
-                            .build();
-                    return webClientBuilder.build()
-                            .post()
-                            .uri(vetsServiceUrl + "/" + vetId + "/photos")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .accept(MediaType.APPLICATION_JSON)
-                            .bodyValue(photoRequest)
-                            .retrieve()
-                            .onStatus(HttpStatusCode::is4xxClientError, error -> {
-                                if (error.statusCode().equals(NOT_FOUND)) {
-                                    return Mono.error(new NotFoundException("Photo for vet " + vetId + " not found"));
-                                }
-                                return Mono.error(new IllegalArgumentException("Client error"));
-                            })
-                            .onStatus(HttpStatusCode::is5xxServerError,
-                                    error -> Mono.error(new IllegalArgumentException("Server error")))
-                            .bodyToMono(PhotoResponseDTO.class)
-                            .map(dto -> {
-                                byte[] data = dto.getResource() != null ? dto.getResource() : 
-                                              (dto.getResourceBase64() != null ? java.util.Base64.getDecoder().decode(dto.getResourceBase64()) : new byte[0]);
-                                return (Resource) new org.springframework.core.io.ByteArrayResource(data);
-                            });
-                });
+    public Mono<Void> addPhotoToVet(String vetId, String photoName, FilePart filePart) {
+        MediaType contentType = filePart.headers().getContentType() != null
+                ? filePart.headers().getContentType() : MediaType.IMAGE_JPEG;
+        return webClientBuilder.build()
+                .post()
+                .uri(vetsServiceUrl + "/" + vetId + "/photos/" + photoName)
+                .contentType(contentType)
+                .body(BodyInserters.fromDataBuffers(limitPhotoSize(filePart.content())))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, error -> {
+                    if (error.statusCode().equals(NOT_FOUND)) {
+                        return Mono.error(new NotFoundException("Photo for vet " + vetId + " not found"));
+                    }
+                    return Mono.error(new IllegalArgumentException("Client error"));
+                })
+                .onStatus(HttpStatusCode::is5xxServerError,
+                        error -> Mono.error(new IllegalArgumentException("Server error")))
+                .toBodilessEntity()
+                .onErrorMap(VetsServiceClient::isPhotoTooLarge, Throwable::getCause)
+                .then();
+    }
+
+    /**
+     * Passes a photo on a buffer at a time as it is read, failing as soon as it gets bigger than the maximum photo size
+     */
+    private Flux<DataBuffer> limitPhotoSize(Flux<DataBuffer> content) {
+        return Flux.defer(() -> {
+                    AtomicLong size = new AtomicLong();
+                    return content.<DataBuffer>handle((buffer, sink) -> {
+                        if (size.addAndGet(buffer.readableByteCount()) > maxPhotoSize) {
+                            DataBufferUtils.release(buffer);
+                            sink.error(photoTooLarge());
+                        } else {
+                            sink.next(buffer);
+                        }
+                    });
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private GenericHttpException photoTooLarge() {
+        return new GenericHttpException("Photo is larger than " + maxPhotoSize + " bytes", HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    /**
+     * The web client reports an upload failing as it is read as a failed request
+     */
+    private static boolean isPhotoTooLarge(Throwable error) {
+        return error instanceof WebClientRequestException && error.getCause() instanceof GenericHttpException;
     }
 
 
     public Mono<Resource> updatePhotoOfVet(String vetId, String photoName, Mono<Resource> image){
         return image.flatMap(resource -> {
             try {
-                byte[] data = resource.getInputStream().readAllBytes();
+                if (resource.contentLength() > maxPhotoSize) {
+                    return Mono.error(photoTooLarge());
+                }
+                // The decoded body is already in memory, so this reads it without copying it
+                byte[] data = resource.getContentAsByteArray();
                 PhotoRequestDTO photoRequest = PhotoRequestDTO.builder()
                         .vetId(vetId)
                         .filename(photoName)
@@ -759,6 +787,35 @@ public class VetsServiceClient {
                 .bodyToFlux(Album.class);
     }
 
+    /**
+     * Streams an album photo as sent by the vets service, so that ranges and ETags are answered by it
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAlbumPhoto(String vetId, Integer Id, HttpHeaders requestHeaders) {
+        return webClientBuilder.build()
+                .get()
+                .uri(vetsServiceUrl + "/" + vetId + "/albums/" + Id + "/photo")
+                .headers(headers -> ALBUM_PHOTO_REQUEST_HEADERS.forEach(name -> {
+                    if (requestHeaders.containsKey(name)) {
+                        headers.put(name, requestHeaders.get(name));
+                    }
+                }))
+                .retrieve()
+                .onStatus(status -> status.equals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE), error -> Mono.empty())
+                .onStatus(status -> status.equals(HttpStatus.NOT_FOUND),
+                        error -> Mono.error(new NotFoundException("Album photo not found: " + Id)))
+                .onStatus(HttpStatusCode::is5xxServerError, error -> Mono.error(new IllegalArgumentException("Server error")))
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    ALBUM_PHOTO_RESPONSE_HEADERS.forEach(name -> {
+                        if (entity.getHeaders().containsKey(name)) {
+                            headers.put(name, entity.getHeaders().get(name));
+                        }
+                    });
+                    return ResponseEntity.status(entity.getStatusCode()).headers(headers).body(entity.getBody());
+                });
+    }
+
     public Mono<Void> deletePhotoByVetId(String vetId) {
         return webClientBuilder
                 .build()
@@ -816,28 +873,22 @@ public Mono<Album> addAlbumPhotoFromBytes(String vetId, String photoName, byte[]
 }
 
 public Mono<Album> addAlbumPhoto(String vetId, String photoName, FilePart filePart) {
-    return DataBufferUtils.join(filePart.content())
-            .map(buf -> {
-                byte[] bytes = new byte[buf.readableByteCount()];
-                buf.read(bytes);
-                DataBufferUtils.release(buf);
-                return bytes;
+    return webClientBuilder.build()
+            .post()
+            .uri(vetsServiceUrl + "/" + vetId + "/albums/photos/" + photoName)
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(BodyInserters.fromDataBuffers(limitPhotoSize(filePart.content())))
+            .retrieve()
+            .onStatus(HttpStatusCode::is4xxClientError, error -> {
+                if (error.statusCode().equals(NOT_FOUND)) {
+                    return Mono.error(new NotFoundException("Album source not found for vet " + vetId));
+                }
+                return Mono.error(new IllegalArgumentException("Client error while adding album photo"));
             })
-            .flatMap(bytes -> webClientBuilder.build()
-                    .post()
-                    .uri(vetsServiceUrl + "/" + vetId + "/albums/photos/" + photoName)
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .bodyValue(bytes)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, error -> {
-                        if (error.statusCode().equals(NOT_FOUND)) {
-                            return Mono.error(new NotFoundException("Album source not found for vet " + vetId));
-                        }
-                        return Mono.error(new IllegalArgumentException("Client error while adding album photo"));
-                    })
-                    .onStatus(HttpStatusCode::is5xxServerError,
-                            error -> Mono.error(new IllegalArgumentException("Server error while adding album photo")))
-                    .bodyToMono(Album.class));
+            .onStatus(HttpStatusCode::is5xxServerError,
+                    error -> Mono.error(new IllegalArgumentException("Server error while adding album photo")))
+            .bodyToMono(Album.class)
+            .onErrorMap(VetsServiceClient::isPhotoTooLarge, Throwable::getCause);
 }
 
     public Mono<VetResponseDTO> getVet(final String vetId, boolean includePhoto) {
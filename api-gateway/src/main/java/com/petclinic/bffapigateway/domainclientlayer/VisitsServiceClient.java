@@ -19,8 +19,9 @@ import com.petclinic.bffapigateway.utils.Rethrower;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -28,10 +29,13 @@ import org.springframework.web.util.UriComponentsBuilder;
 import org.webjars.NotFoundException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
@@ -46,7 +50,12 @@ import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
 @Component
 public class VisitsServiceClient {
 
+    private static final List<String> CSV_EXPORT_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
     private final WebClient webClient;
+    // does not decompress, so that an encoded export is relayed as it is along with its Content-Encoding
+    private final WebClient exportWebClient;
     private final WebClient availabilityWebClient;
     private final String reviewUrl;
     private final String visitServiceUrl;
@@ -62,6 +71,10 @@ public class VisitsServiceClient {
         this.webClient = WebClient.builder()
                 .baseUrl(reviewUrl)
                 .build();
+        this.exportWebClient = WebClient.builder()
+                .baseUrl(reviewUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .build();
 
         String baseUrl = "http://" + visitsServiceHost + ":" + visitsServicePort;
         this.availabilityWebClient = WebClient.builder()
@@ -362,14 +375,30 @@ public class VisitsServiceClient {
     }
 
 
-    public Mono<InputStreamResource> exportVisitsToCSV() {
-        return webClient
+    /**
+     * Streams the CSV export as sent by the visits service, without loading it here
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportVisitsToCSV(LocalDate from, LocalDate to, Status status, boolean gzip) {
+        return exportWebClient
                 .get()
-                .uri("/export")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/export")
+                        .queryParamIfPresent("from", Optional.ofNullable(from))
+                        .queryParamIfPresent("to", Optional.ofNullable(to))
+                        .queryParamIfPresent("status", Optional.ofNullable(status))
+                        .queryParam("gzip", gzip)
+                        .build())
                 .retrieve()
-                .bodyToMono(byte[].class)   // Retrieve the CSV data as a byte array
-                .map(ByteArrayInputStream::new)  // Convert byte array to ByteArrayInputStream
-                .map(InputStreamResource::new);  // Wrap in InputStreamResource
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    CSV_EXPORT_RESPONSE_HEADERS.forEach(name -> {
+                        if (entity.getHeaders().containsKey(name)) {
+                            headers.put(name, entity.getHeaders().get(name));
+                        }
+                    });
+                    return ResponseEntity.status(entity.getStatusCode()).headers(headers).body(entity.getBody());
+                });
     }
 
     public Flux<VetResponseDTO> getAllVetsForAvailability() {
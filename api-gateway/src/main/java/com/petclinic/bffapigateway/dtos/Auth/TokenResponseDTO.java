@@ -1,11 +1,14 @@
 package com.petclinic.bffapigateway.dtos.Auth;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Set;
 
 @Data
 @AllArgsConstructor
@@ -18,4 +21,8 @@ public class TokenResponseDTO {
         private String email;
         private List<String> roles;
 
+        // roles normalized once when the token is validated by the gateway
+        @JsonIgnore
+        private Set<Roles> roleSet;
+
 }
@@ -0,0 +1,18 @@
+package com.petclinic.bffapigateway.dtos.Auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserPageResponseDTO {
+
+    private List<UserDetails> users;
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.petclinic.bffapigateway.dtos.CustomerDTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of owners along with the number of owners matching the same filters
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerPageResponseDTO {
+    private List<OwnerResponseDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+}
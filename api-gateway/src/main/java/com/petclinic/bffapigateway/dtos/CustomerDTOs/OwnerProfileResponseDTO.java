@@ -0,0 +1,30 @@
+package com.petclinic.bffapigateway.dtos.CustomerDTOs;
+
+import com.petclinic.bffapigateway.dtos.Files.FileDetails;
+import com.petclinic.bffapigateway.dtos.Pets.PetResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An owner with their pets, as shown on the owner's profile. Photos only carry their file id, their images being
+ * fetched one at a time.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerProfileResponseDTO {
+    private String ownerId;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String city;
+    private String province;
+    private String telephone;
+    private FileDetails photo;
+    private List<PetResponseDTO> pets;
+}
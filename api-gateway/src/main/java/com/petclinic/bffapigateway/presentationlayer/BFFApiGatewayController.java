@@ -314,14 +314,14 @@ public class BFFApiGatewayController {
             value = "vets/{vetId}/photos",
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE
     )
-    public Mono<ResponseEntity<Resource>> addPhotoByVetIdMultipart(
+    public Mono<ResponseEntity<Void>> addPhotoByVetIdMultipart(
             @PathVariable String vetId,
             @RequestPart("photoName") String photoName,
             @RequestPart("file") Mono<FilePart> file) {
 
         return file
-                .flatMap(fp -> vetsServiceClient.addPhotoToVet(vetId, photoName, fp))
-                .map(r -> ResponseEntity.status(HttpStatus.CREATED).body(r))
+                .flatMap(fp -> vetsServiceClient.addPhotoToVet(vetId, photoName, fp)
+                        .thenReturn(ResponseEntity.status(HttpStatus.CREATED).<Void>build()))
                 .defaultIfEmpty(ResponseEntity.badRequest().build());
     }
 
@@ -2,6 +2,8 @@ package com.petclinic.bffapigateway.presentationlayer.v1;
 
 import com.petclinic.bffapigateway.domainclientlayer.CustomersServiceClient;
 import com.petclinic.bffapigateway.dtos.Files.FileDetails;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerPageResponseDTO;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerProfileResponseDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerRequestDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerResponseDTO;
 import com.petclinic.bffapigateway.dtos.Pets.PetRequestDTO;
@@ -63,6 +65,19 @@ public class OwnerControllerV1 {
         return customersServiceClient.getOwnersByPagination(page,size,ownerId,firstName,lastName,phoneNumber,city);
     }
 
+    @SecuredEndpoint(allowedRoles = {Roles.ADMIN,Roles.VET,Roles.RECEPTIONIST})
+    @GetMapping(value = "/owners-page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OwnerPageResponseDTO> getOwnersPage(@RequestParam Optional<Integer> page,
+                                                    @RequestParam Optional<Integer> size,
+                                                    @RequestParam(required = false) String ownerId,
+                                                    @RequestParam(required = false) String firstName,
+                                                    @RequestParam(required = false) String lastName,
+                                                    @RequestParam(required = false) String phoneNumber,
+                                                    @RequestParam(required = false) String city) {
+        return customersServiceClient.getOwnersPage(Optional.of(page.orElse(0)), Optional.of(size.orElse(5)),
+                ownerId, firstName, lastName, phoneNumber, city);
+    }
+
     @SecuredEndpoint(allowedRoles = {Roles.ADMIN,Roles.VET,Roles.RECEPTIONIST})
     @GetMapping(value = "/owners-count")
     public Mono<Long> getTotalNumberOfOwners(){
@@ -96,6 +111,14 @@ public class OwnerControllerV1 {
 
 
 
+    @IsUserSpecific(idToMatch = {"ownerId"}, bypassRoles = {Roles.ADMIN,Roles.RECEPTIONIST})
+    @GetMapping(value = "/{ownerId}/profile", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<OwnerProfileResponseDTO>> getOwnerProfile(final @PathVariable String ownerId) {
+        return customersServiceClient.getOwnerProfile(ownerId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @IsUserSpecific(idToMatch = {"ownerId"}, bypassRoles = {Roles.ADMIN,Roles.RECEPTIONIST})
     @PutMapping("/{ownerId}")
     public Mono<ResponseEntity<OwnerResponseDTO>> updateOwner(
@@ -60,6 +60,18 @@ public class UserController {
         return authServiceClient.getAllUsers(jwtToken);
     }
 
+    @SecuredEndpoint(allowedRoles = {Roles.ADMIN})
+    @GetMapping("/users/page")
+    public Mono<ResponseEntity<UserPageResponseDTO>> getUsersPage(@RequestParam(required = false) String username,
+                                                                  @RequestParam(defaultValue = "id") String sort,
+                                                                  @RequestParam(defaultValue = "ASC") String direction,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size,
+                                                                  @CookieValue("Bearer") String jwtToken) {
+        return authServiceClient.getUsersPage(jwtToken, username, sort, direction, cursor, size)
+                .map(ResponseEntity::ok);
+    }
+
     @SecuredEndpoint(allowedRoles = {Roles.ADMIN})
     @GetMapping("/users/{userId}")
     public Mono<ResponseEntity<UserDetails>> getUserById(@PathVariable final String userId, @CookieValue("Bearer") String jwtToken) {
@@ -20,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.validation.annotation.Validated;
@@ -235,6 +236,15 @@ public class VetController {
     }
 
 
+    @SecuredEndpoint(allowedRoles = {Roles.ANONYMOUS})
+    @GetMapping("{vetId}/albums/{Id}/photo")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAlbumPhoto(@PathVariable String vetId,
+                                                                @PathVariable Integer Id,
+                                                                @RequestHeader HttpHeaders headers) {
+        return vetsServiceClient.getAlbumPhoto(vetId, Id, headers)
+                .onErrorResume(NotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
     @SecuredEndpoint(allowedRoles = {Roles.ADMIN, Roles.VET})
     @DeleteMapping("{vetId}/photo")
     public Mono<ResponseEntity<Void>> deletePhotoByVetId(@PathVariable String vetId) {
@@ -5,7 +5,6 @@ import com.petclinic.bffapigateway.dtos.Auth.TokenResponseDTO;
 import com.petclinic.bffapigateway.exceptions.ForbiddenAccessException;
 import com.petclinic.bffapigateway.exceptions.InvalidInputException;
 import com.petclinic.bffapigateway.exceptions.InvalidTokenException;
-import com.petclinic.bffapigateway.utils.Security.Annotations.IsUserSpecific;
 import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
 import com.petclinic.bffapigateway.utils.Utility;
 import lombok.Generated;
@@ -14,16 +13,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -45,22 +43,21 @@ public class IsUserFilter implements WebFilter {
             }
         }
 
-        HandlerMethod handler = utility.getHandler(exchange);
-
-        if (handler.getMethod().getAnnotation(IsUserSpecific.class) == null) {
-            return chain.filter(exchange);
-        }
+        return utility.getRouteSecurity(exchange).flatMap(routeSecurity -> {
 
+            if (!routeSecurity.isUserSpecific()) {
+                return chain.filter(exchange);
+            }
 
-        if (Arrays.stream(handler.getMethod().getAnnotation(IsUserSpecific.class).bypassRoles()).anyMatch(role -> role == Roles.ALL)
-        || Arrays.stream(handler.getMethod().getAnnotation(IsUserSpecific.class).bypassRoles()).anyMatch(role -> role == Roles.ANONYMOUS)) {
+            Set<Roles> bypassRoles = routeSecurity.bypassRoles();
 
-            if(Arrays.stream(handler.getMethod().getAnnotation(IsUserSpecific.class).bypassRoles()).anyMatch(role -> role == Roles.ANONYMOUS))
-                log.error("Endpoint is not secured, anyone can access it and annotation is redundant. This is likely caused because the bypassRoles array contains ANONYMOUS.");
+            if (bypassRoles.contains(Roles.ALL) || bypassRoles.contains(Roles.ANONYMOUS)) {
 
+                if (bypassRoles.contains(Roles.ANONYMOUS))
+                    log.error("Endpoint is not secured, anyone can access it and annotation is redundant. This is likely caused because the bypassRoles array contains ANONYMOUS.");
 
-        }
-        else {
+                return chain.filter(exchange);
+            }
 
 
             TokenResponseDTO tokenResponseDTO = exchange.getAttribute("tokenValues");
@@ -71,7 +68,7 @@ public class IsUserFilter implements WebFilter {
                 return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap("No token provided".getBytes())));
             }
 
-            List<String> roles = tokenResponseDTO.getRoles();
+            Set<Roles> roles = tokenResponseDTO.getRoleSet();
 
 
 
@@ -81,18 +78,11 @@ public class IsUserFilter implements WebFilter {
             }
 
 
-            for (String role : roles) {
-                role = role.replace("[", "")
-                        .replace("]", "")
-                        .replace(",","")
-                        .trim();
-
-               if(Arrays.toString(handler.getMethod().getAnnotation(IsUserSpecific.class).bypassRoles()).contains(role)){
-                   return chain.filter(exchange);
-               }
+            if (!Collections.disjoint(bypassRoles, roles)) {
+                return chain.filter(exchange);
             }
 
-            String[] idToMatch = handler.getMethod().getAnnotation(IsUserSpecific.class).idToMatch();
+            String[] idToMatch = routeSecurity.idToMatch();
 
 
 
@@ -101,7 +91,7 @@ public class IsUserFilter implements WebFilter {
 
 
             if (pathVariables == null){
-                throw new ForbiddenAccessException("You are not allowed to access this resource");
+                return Mono.error(new ForbiddenAccessException("You are not allowed to access this resource"));
             }
 
             String tokenId = tokenResponseDTO.getUserId();
@@ -109,16 +99,14 @@ public class IsUserFilter implements WebFilter {
 
             for (String id : idToMatch) {
                 if (pathVariables.get(id) == null) {
-                    throw new InvalidInputException("This is likely error is caused by assigning the wrong id to the annotation");
+                    return Mono.error(new InvalidInputException("This is likely error is caused by assigning the wrong id to the annotation"));
                 }
                 if (!pathVariables.get(id).equals(tokenId)) {
-                    throw new ForbiddenAccessException("You are not allowed to access this resource");
+                    return Mono.error(new ForbiddenAccessException("You are not allowed to access this resource"));
                 }
             }
 
-
-        }
-        return chain.filter(exchange);
-
+            return chain.filter(exchange);
+        });
     }
 }
@@ -0,0 +1,75 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petclinic.bffapigateway.dtos.Auth.TokenResponseDTO;
+import lombok.Generated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Bounded cache of the claims of tokens already verified by the gateway.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the token and hold only its claims, so raw tokens are never kept in memory
+ * longer than the request.
+ * An entry lives for at most the configured ttl and never past the expiry of the token itself.
+ * </p>
+ */
+@Component
+@Generated
+public class JwtClaimsCache {
+
+    private final Cache<String, CachedClaims> cache;
+
+    public JwtClaimsCache(@Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                          @Value("${security.jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public TokenResponseDTO get(String token) {
+        String key = hash(token);
+        CachedClaims cached = cache.getIfPresent(key);
+
+        if (cached == null) {
+            return null;
+        }
+
+        if (cached.expiresAt() != null && !cached.expiresAt().isAfter(Instant.now())) {
+            cache.invalidate(key);
+            return null;
+        }
+
+        return cached.tokenValues();
+    }
+
+    public void put(String token, TokenResponseDTO tokenValues, Date expiration) {
+        cache.put(hash(token), new CachedClaims(tokenValues, expiration == null ? null : expiration.toInstant()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedClaims(TokenResponseDTO tokenValues, Instant expiresAt) {
+    }
+}
@@ -2,7 +2,7 @@ package com.petclinic.bffapigateway.utils.Security.Filters;
 
 import com.petclinic.bffapigateway.domainclientlayer.AuthServiceClient;
 import com.petclinic.bffapigateway.dtos.Auth.TokenResponseDTO;
-import com.petclinic.bffapigateway.utils.Security.Annotations.SecuredEndpoint;
+import com.petclinic.bffapigateway.exceptions.InvalidTokenException;
 import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
 import com.petclinic.bffapigateway.utils.Utility;
 import lombok.Generated;
@@ -14,14 +14,11 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Objects;
 
@@ -31,8 +28,6 @@ import java.util.Objects;
 @Generated
 public class JwtTokenFilter implements WebFilter {
 
-    AntPathMatcher antPathMatcher = new AntPathMatcher();
-
     private final AuthServiceClient authValidationService;
 
     private final JwtTokenUtil jwtTokenUtil;
@@ -42,9 +37,17 @@ public class JwtTokenFilter implements WebFilter {
     private final HashMap<String, String> AUTH_WHITELIST = new HashMap<>();
     // fill up the hashmap with the endpoints that are whitelisted
 
+    // compiled once from AUTH_WHITELIST
+    private final WhitelistMatcher whitelistMatcher;
+
     @Value("${frontend.url}")
     private String frontendOrigin;
 
+    // opt-in fallback, when true every token is sent to the auth-service instead of being verified here,
+    // as it is anyway when no SECRET_KEY is set
+    @Value("${security.jwt.remote-validation:false}")
+    private boolean remoteValidation;
+
 
     public JwtTokenFilter(AuthServiceClient authValidationService, JwtTokenUtil jwtTokenUtil, Utility utility) {
         this.authValidationService = authValidationService;
@@ -70,6 +73,8 @@ public class JwtTokenFilter implements WebFilter {
 
         AUTH_WHITELIST.put("/actuator/health", "/actuator/health");
         AUTH_WHITELIST.put("/health", "/health");
+
+        whitelistMatcher = new WhitelistMatcher(AUTH_WHITELIST.keySet());
     }
 
     @SuppressWarnings("NullableProblems")
@@ -86,9 +91,8 @@ public class JwtTokenFilter implements WebFilter {
 
         exchange.getResponse().getHeaders().add("Access-Control-Allow-Headers", "Content-Type");
 
-        // todo optimize this
         if (exchange.getRequest().getMethod().equals(HttpMethod.OPTIONS)
-                || AUTH_WHITELIST.keySet().stream().anyMatch(pattern -> antPathMatcher.match(pattern, path))) {
+                || whitelistMatcher.matches(exchange.getRequest().getPath().pathWithinApplication())) {
             exchange.getAttributes().put("whitelisted", true);
 
             return chain.filter(exchange);
@@ -101,17 +105,18 @@ public class JwtTokenFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        HandlerMethod handler = utility.getHandler(exchange);
-
-        if (handler.getMethod().getAnnotation(SecuredEndpoint.class) != null) {
-            if (Arrays.asList(handler.getMethod().getAnnotation(SecuredEndpoint.class).allowedRoles())
-                    .contains(Roles.ANONYMOUS)) {
+        return utility.getRouteSecurity(exchange).flatMap(routeSecurity -> {
+            if (routeSecurity.isAnonymous()) {
                 exchange.getAttributes().put("whitelisted", true);
 
                 return chain.filter(exchange);
             }
-        }
 
+            return authenticate(exchange, chain);
+        });
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain) {
         String token = jwtTokenUtil.getTokenFromRequest(exchange);
 
         if (token == null) {
@@ -120,12 +125,28 @@ public class JwtTokenFilter implements WebFilter {
                     .writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap("No token provided".getBytes())));
         }
 
+        if (!remoteValidation && jwtTokenUtil.canValidateLocally()) {
+            TokenResponseDTO tokenValues;
+            try {
+                tokenValues = jwtTokenUtil.validateToken(token);
+            } catch (InvalidTokenException e) {
+                return Mono.error(e);
+            }
+
+            exchange.getAttributes().put("tokenValues", tokenValues);
+
+            return chain.filter(exchange);
+        }
+
         Mono<ResponseEntity<TokenResponseDTO>> validationResponse = authValidationService.validateToken(token);
 
         return validationResponse.flatMap(responseEntity -> {
             if (responseEntity.getStatusCode() == HttpStatus.OK && responseEntity.getBody() != null) {
                 // Token is valid, proceed with the request
-                exchange.getAttributes().put("tokenValues", responseEntity.getBody());
+                TokenResponseDTO tokenValues = responseEntity.getBody();
+                tokenValues.setRoleSet(Roles.fromTokenRoles(tokenValues.getRoles()));
+
+                exchange.getAttributes().put("tokenValues", tokenValues);
 
                 return chain.filter(exchange);
             } else {
@@ -1,14 +1,17 @@
 package com.petclinic.bffapigateway.utils.Security.Filters;
 
+import com.petclinic.bffapigateway.dtos.Auth.TokenResponseDTO;
 import com.petclinic.bffapigateway.exceptions.InvalidTokenException;
 import com.petclinic.bffapigateway.exceptions.NoTokenFoundException;
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
 import com.petclinic.bffapigateway.utils.Security.Variables.SecurityConst;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.Generated;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -19,13 +22,40 @@ import java.util.*;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @Generated
 public class JwtTokenUtil implements Serializable {
 
 
+    private static final String CLAIM_KEY_ROLES = "roles";
+    private static final String CLAIM_KEY_ID = "id";
+
     private final SecurityConst securityConst;
 
+    private final transient JwtClaimsCache jwtClaimsCache;
+
+    // built once, the signing key and parser are thread safe and reused for every request
+    // null when no SECRET_KEY is set, tokens then being left to the auth-service
+    private final transient JwtParser jwtParser;
+
+
+    public JwtTokenUtil(SecurityConst securityConst, JwtClaimsCache jwtClaimsCache) {
+        this.securityConst = securityConst;
+        this.jwtClaimsCache = jwtClaimsCache;
+
+        if (securityConst.getSECRET() == null || securityConst.getSECRET().isBlank()) {
+            log.warn("SECRET_KEY is not set, tokens will be validated by the auth-service");
+            this.jwtParser = null;
+        } else {
+            this.jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(securityConst.getSECRET().getBytes()))
+                    .build();
+        }
+    }
+
+    public boolean canValidateLocally() {
+        return jwtParser != null;
+    }
+
 
     public String getTokenFromRequest(ServerWebExchange exchange) {
         final List<String> cookies = exchange.getRequest().getHeaders().get("Cookie");
@@ -52,4 +82,60 @@ public class JwtTokenUtil implements Serializable {
     }
 
 
+    /**
+     * Verifies the signature and expiry of the token locally and returns its claims.
+     * Tokens verified recently are served from the {@link JwtClaimsCache} without being parsed again.
+     * The returned claims do not carry the token itself, since they are cached.
+     *
+     * @throws InvalidTokenException if the token is malformed, tampered with or expired
+     * @throws IllegalStateException if no SECRET_KEY is set, see {@link #canValidateLocally()}
+     */
+    public TokenResponseDTO validateToken(String token) {
+        if (jwtParser == null) {
+            throw new IllegalStateException("SECRET_KEY is not set, tokens cannot be verified locally");
+        }
+
+        TokenResponseDTO cached = jwtClaimsCache.get(token);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token refused : {}", e.getMessage());
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        Object id = claims.get(CLAIM_KEY_ID);
+
+        List<String> roles = getRolesFromClaims(claims);
+
+        TokenResponseDTO tokenResponseDTO = TokenResponseDTO.builder()
+                .userId(id == null ? null : id.toString())
+                .email(claims.getSubject())
+                .roles(roles)
+                .roleSet(Roles.fromTokenRoles(roles))
+                .build();
+
+        jwtClaimsCache.put(token, tokenResponseDTO, claims.getExpiration());
+
+        return tokenResponseDTO;
+    }
+
+    private List<String> getRolesFromClaims(Claims claims) {
+        Object roles = claims.get(CLAIM_KEY_ROLES);
+
+        if (roles == null) {
+            return null;
+        }
+
+        if (roles instanceof Collection<?> roleCollection) {
+            return roleCollection.stream().map(Object::toString).toList();
+        }
+
+        return Arrays.asList(roles.toString().split(","));
+    }
 }
@@ -0,0 +1,63 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import com.petclinic.bffapigateway.utils.Security.Annotations.IsUserSpecific;
+import com.petclinic.bffapigateway.utils.Security.Annotations.SecuredEndpoint;
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
+import lombok.Generated;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Security metadata of a single route, read once from the {@link SecuredEndpoint} and {@link IsUserSpecific}
+ * annotations of its handler method.
+ *
+ * @param allowedRoles roles allowed by {@link SecuredEndpoint}, {@link Roles#ALL} when the annotation is absent
+ * @param bypassRoles  roles bypassing {@link IsUserSpecific}, empty when the annotation is absent
+ * @param idToMatch    path variables to match with the token id, null when the route is not user specific
+ */
+@Generated
+public record RouteSecurity(Set<Roles> allowedRoles, Set<Roles> bypassRoles, String[] idToMatch) {
+
+    public static RouteSecurity of(Method method) {
+        SecuredEndpoint securedEndpoint = method.getAnnotation(SecuredEndpoint.class);
+        IsUserSpecific isUserSpecific = method.getAnnotation(IsUserSpecific.class);
+
+        Set<Roles> allowedRoles = securedEndpoint == null
+                ? EnumSet.of(Roles.ALL)
+                : toSet(securedEndpoint.allowedRoles());
+
+        Set<Roles> bypassRoles = isUserSpecific == null
+                ? EnumSet.noneOf(Roles.class)
+                : toSet(isUserSpecific.bypassRoles());
+
+        return new RouteSecurity(
+                Collections.unmodifiableSet(allowedRoles),
+                Collections.unmodifiableSet(bypassRoles),
+                isUserSpecific == null ? null : isUserSpecific.idToMatch());
+    }
+
+    private static Set<Roles> toSet(Roles[] roles) {
+        Set<Roles> set = EnumSet.noneOf(Roles.class);
+        set.addAll(Arrays.asList(roles));
+        return set;
+    }
+
+    public boolean isAnonymous() {
+        return allowedRoles.contains(Roles.ANONYMOUS);
+    }
+
+    /**
+     * @return true when any authenticated user can reach the route, whatever their roles
+     */
+    public boolean allowsAnyRole() {
+        return allowedRoles.isEmpty() || allowedRoles.contains(Roles.ALL);
+    }
+
+    public boolean isUserSpecific() {
+        return idToMatch != null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import lombok.Generated;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index from the handler method of every request mapping of the gateway to its {@link RouteSecurity}, a method
+ * mapped to several routes sharing one entry.
+ * <p>
+ * Built once when the application starts so the security filters never reflect over annotations on a request.
+ * </p>
+ */
+@Slf4j
+@Component
+@Generated
+public class RouteSecurityIndex implements SmartInitializingSingleton {
+
+    private final RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    private volatile Map<Method, RouteSecurity> routes = Map.of();
+
+    public RouteSecurityIndex(RequestMappingHandlerMapping requestMappingHandlerMapping) {
+        this.requestMappingHandlerMapping = requestMappingHandlerMapping;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Method, RouteSecurity> index = new HashMap<>();
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : requestMappingHandlerMapping.getHandlerMethods().entrySet()) {
+            Method method = entry.getValue().getMethod();
+            index.computeIfAbsent(method, RouteSecurity::of);
+        }
+
+        routes = Map.copyOf(index);
+        log.info("Indexed security metadata of {} routes", routes.size());
+    }
+
+    public RouteSecurity get(HandlerMethod handlerMethod) {
+        RouteSecurity routeSecurity = routes.get(handlerMethod.getMethod());
+
+        // only happens for mappings registered after startup
+        return routeSecurity != null ? routeSecurity : RouteSecurity.of(handlerMethod.getMethod());
+    }
+}
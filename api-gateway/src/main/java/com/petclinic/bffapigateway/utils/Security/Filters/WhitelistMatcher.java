@@ -0,0 +1,92 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches request paths against the whitelisted path patterns of the gateway.
+ * <p>
+ * Every pattern is parsed once into a {@link PathPattern} and stored in a trie under its leading literal segments,
+ * so a path is only tested against the patterns sharing its prefix instead of the whole whitelist.
+ * </p>
+ */
+public class WhitelistMatcher {
+
+    private final Node root = new Node();
+
+    public WhitelistMatcher(Collection<String> patterns) {
+        PathPatternParser parser = new PathPatternParser();
+
+        for (String pattern : patterns) {
+            Node node = root;
+
+            for (String segment : pattern.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (!isLiteral(segment)) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+
+            node.patterns.add(parser.parse(pattern));
+        }
+    }
+
+    public boolean matches(String path) {
+        return matches(PathContainer.parsePath(path));
+    }
+
+    public boolean matches(PathContainer path) {
+        Node node = root;
+
+        if (node.matches(path)) {
+            return true;
+        }
+
+        for (PathContainer.Element element : path.elements()) {
+            if (!(element instanceof PathContainer.PathSegment segment)) {
+                continue;
+            }
+
+            node = node.children.get(segment.valueToMatch());
+
+            if (node == null) {
+                return false;
+            }
+            if (node.matches(path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isLiteral(String segment) {
+        return segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('{') < 0;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private final List<PathPattern> patterns = new ArrayList<>();
+
+        private boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
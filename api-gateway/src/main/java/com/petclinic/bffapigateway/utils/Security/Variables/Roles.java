@@ -1,5 +1,9 @@
 package com.petclinic.bffapigateway.utils.Security.Variables;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enum for roles in the application
  *
@@ -25,4 +29,30 @@ public enum Roles {
     public String toString() {
         return this.role;
     }
+
+    /**
+     * Normalizes the role names of a token, as sent by the auth-service, into a set of roles.
+     * Leftover list delimiters are stripped and unknown role names are ignored.
+     *
+     * @return the roles, or null when the token has no roles
+     */
+    public static Set<Roles> fromTokenRoles(Collection<String> roleNames) {
+        if (roleNames == null) {
+            return null;
+        }
+
+        Set<Roles> roles = EnumSet.noneOf(Roles.class);
+
+        for (String roleName : roleNames) {
+            String name = roleName.replace("[", "").replace("]", "").replace(",", "").trim().toUpperCase();
+
+            for (Roles role : values()) {
+                if (role.role.equals(name)) {
+                    roles.add(role);
+                }
+            }
+        }
+
+        return roles;
+    }
 }
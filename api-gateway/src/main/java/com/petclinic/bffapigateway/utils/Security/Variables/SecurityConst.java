@@ -11,11 +11,13 @@ public class SecurityConst {
 
 
     private final long EXPIRATION_TIME_MINUTES;     // 1 hour
+    private final String SECRET;     // jwt secret, the SECRET_KEY the auth-service signs with, blank when not set
     private final String TOKEN_PREFIX;     // Bearer
 
 
-    public SecurityConst(@Value("${EXPIRATION_TIME_MINUTES}") long EXPIRATION_TIME_MINUTES,@Value("${TOKEN_PREFIX}") String TOKEN_PREFIX) {
+    public SecurityConst(@Value("${EXPIRATION_TIME_MINUTES}") long EXPIRATION_TIME_MINUTES, @Value("${SECRET_KEY:}") String SECRET, @Value("${TOKEN_PREFIX}") String TOKEN_PREFIX) {
         this.EXPIRATION_TIME_MINUTES = EXPIRATION_TIME_MINUTES;
+        this.SECRET = SECRET;
         this.TOKEN_PREFIX = TOKEN_PREFIX;
     }
 }
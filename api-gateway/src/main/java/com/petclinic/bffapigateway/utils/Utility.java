@@ -2,37 +2,47 @@ package com.petclinic.bffapigateway.utils;
 
 
 import com.petclinic.bffapigateway.exceptions.HandlerIsNullException;
+import com.petclinic.bffapigateway.utils.Security.Filters.RouteSecurity;
+import com.petclinic.bffapigateway.utils.Security.Filters.RouteSecurityIndex;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
-
-import java.util.concurrent.ExecutionException;
+import reactor.core.publisher.Mono;
 
 @Component
 public class Utility {
 
+    public static final String ROUTE_SECURITY_ATTRIBUTE = "routeSecurity";
+
     private final RequestMappingHandlerMapping requestMappingHandlerMapping;
 
-    public Utility(RequestMappingHandlerMapping requestMappingHandlerMapping) {
+    private final RouteSecurityIndex routeSecurityIndex;
+
+    public Utility(RequestMappingHandlerMapping requestMappingHandlerMapping, RouteSecurityIndex routeSecurityIndex) {
         this.requestMappingHandlerMapping = requestMappingHandlerMapping;
+        this.routeSecurityIndex = routeSecurityIndex;
     }
 
 
-    public HandlerMethod getHandler(ServerWebExchange exchange){
-        HandlerMethod handler;
-        try {
-            handler = (HandlerMethod) requestMappingHandlerMapping.getHandler(exchange).toFuture().get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new HandlerIsNullException(e.getMessage());
-        }
+    /**
+     * Resolves the security metadata of the route matching the exchange without blocking.
+     * The first filter to call this stores the result on the exchange, the following filters reuse it.
+     */
+    public Mono<RouteSecurity> getRouteSecurity(ServerWebExchange exchange) {
+        RouteSecurity routeSecurity = exchange.getAttribute(ROUTE_SECURITY_ATTRIBUTE);
 
-        if (handler == null) {
-            throw new HandlerIsNullException("Handler is null, check if the endpoint is valid");
+        if (routeSecurity != null) {
+            return Mono.just(routeSecurity);
         }
 
-        return handler;
-
+        return requestMappingHandlerMapping.getHandler(exchange)
+                .switchIfEmpty(Mono.error(new HandlerIsNullException("Handler is null, check if the endpoint is valid")))
+                .map(handler -> {
+                    RouteSecurity resolved = routeSecurityIndex.get((HandlerMethod) handler);
+                    exchange.getAttributes().put(ROUTE_SECURITY_ATTRIBUTE, resolved);
+                    return resolved;
+                });
     }
 
 
@@ -19,6 +19,7 @@ import org.springframework.web.reactive.function.client.ClientResponse;
 import lombok.RequiredArgsConstructor;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -55,7 +56,7 @@ import static reactor.core.publisher.Mono.when;
 public class AuthServiceClientIntegrationTest {
 
     private final SecurityConst securityConst = new SecurityConst(60
-            ,"Bearer");
+            ,"test-secret","Bearer");
 
     @MockBean
     CustomersServiceClient customersServiceClient;
@@ -374,8 +375,8 @@ public class AuthServiceClientIntegrationTest {
         String validToken = "jvhgvgvgjkvgjvgj";
         final MockResponse mockResponse = new MockResponse();
         mockResponse
-                .setBody(objectMapper.writeValueAsString(List.of(user1,user2)))
-                .setHeader("Content-Type", "application/json")
+                .setBody(objectMapper.writeValueAsString(user1) + "\n" + objectMapper.writeValueAsString(user2) + "\n")
+                .setHeader("Content-Type", "application/x-ndjson")
                 .setResponseCode(200);
 
         server.enqueue(mockResponse);
@@ -424,11 +425,11 @@ public class AuthServiceClientIntegrationTest {
                 .email("email2")
                 .build();
 
-        String userDetailsJson = new ObjectMapper().writeValueAsString(List.of(user1, user2));
+        String userDetailsJson = objectMapper.writeValueAsString(user1) + "\n" + objectMapper.writeValueAsString(user2) + "\n";
 
         final MockResponse mockResponse = new MockResponse();
         mockResponse
-                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Type", "application/x-ndjson")
                 .setResponseCode(200)
                 .setBody(userDetailsJson);
 
@@ -440,6 +441,35 @@ public class AuthServiceClientIntegrationTest {
                 .expectNext(user1)
                 .expectNext(user2)
                 .verifyComplete();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/users/stream?username=usernames", request.getPath());
+        assertEquals("application/x-ndjson", request.getHeader("Accept"));
+    }
+
+    @Test
+    void getAllUsers_ShouldPassAuthFailuresThrough() {
+        server.enqueue(new MockResponse().setResponseCode(403));
+
+        StepVerifier.create(authServiceClient.getAllUsers("jwtToken"))
+                .expectErrorMatches(e -> e instanceof GenericHttpException
+                        && ((GenericHttpException) e).getHttpStatus() == HttpStatus.FORBIDDEN)
+                .verify();
+    }
+
+    @Test
+    void getUsersPage_ShouldPassAuthFailuresThrough() {
+        server.enqueue(new MockResponse().setResponseCode(403));
+        server.enqueue(new MockResponse().setResponseCode(422));
+
+        StepVerifier.create(authServiceClient.getUsersPage("jwtToken", null, "id", "ASC", null, 20))
+                .expectErrorMatches(e -> e instanceof GenericHttpException
+                        && ((GenericHttpException) e).getHttpStatus() == HttpStatus.FORBIDDEN)
+                .verify();
+        StepVerifier.create(authServiceClient.getUsersPage("jwtToken", null, "password", "ASC", null, 20))
+                .expectErrorMatches(e -> e instanceof GenericHttpException
+                        && ((GenericHttpException) e).getHttpStatus() == HttpStatus.BAD_REQUEST)
+                .verify();
     }
 
 
@@ -769,19 +799,11 @@ public class AuthServiceClientIntegrationTest {
         String username = "availableuser";
         String jwtToken = "valid-jwt-token";
 
-        UserDetails existingUser = UserDetails.builder()
-                .username("existinguser")
-                .userId("user123")
-                .email("existing@example.com")
-                .build();
-
-        String usersJson = new ObjectMapper().writeValueAsString(List.of(existingUser));
-
         final MockResponse mockResponse = new MockResponse();
         mockResponse
                 .setHeader("Content-Type", "application/json")
                 .setResponseCode(200)
-                .setBody(usersJson);
+                .setBody("true");
 
         server.enqueue(mockResponse);
 
@@ -790,6 +812,8 @@ public class AuthServiceClientIntegrationTest {
         StepVerifier.create(result)
                 .expectNextMatches(available -> available == true)
                 .verifyComplete();
+
+        assertEquals("/users/username/available?username=availableuser", server.takeRequest().getPath());
     }
 
     @Test
@@ -798,19 +822,11 @@ public class AuthServiceClientIntegrationTest {
         String username = "existinguser";
         String jwtToken = "valid-jwt-token";
 
-        UserDetails existingUser = UserDetails.builder()
-                .username("existinguser")
-                .userId("user123")
-                .email("existing@example.com")
-                .build();
-
-        String usersJson = new ObjectMapper().writeValueAsString(List.of(existingUser));
-
         final MockResponse mockResponse = new MockResponse();
         mockResponse
                 .setHeader("Content-Type", "application/json")
                 .setResponseCode(200)
-                .setBody(usersJson);
+                .setBody("false");
 
         server.enqueue(mockResponse);
 
@@ -1338,11 +1354,11 @@ public class AuthServiceClientIntegrationTest {
                 .roles(Set.of(new Role(1, "ADMIN")))
                 .build();
 
-        String usersJson = new ObjectMapper().writeValueAsString(List.of(user1, user2));
+        String usersJson = objectMapper.writeValueAsString(user1) + "\n" + objectMapper.writeValueAsString(user2) + "\n";
 
         final MockResponse mockResponse = new MockResponse();
         mockResponse
-                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Type", "application/x-ndjson")
                 .setResponseCode(200)
                 .setBody(usersJson);
 
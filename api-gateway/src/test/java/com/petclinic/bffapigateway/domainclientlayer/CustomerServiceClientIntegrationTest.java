@@ -2,6 +2,8 @@ package com.petclinic.bffapigateway.domainclientlayer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerPageResponseDTO;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerProfileResponseDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerRequestDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerResponseDTO;
 import com.petclinic.bffapigateway.dtos.Pets.*;
@@ -211,6 +213,70 @@ public class CustomerServiceClientIntegrationTest {
         assertEquals(TEST_OWNER.getCity(), owner.getCity());
     }
 
+    @Test
+    void getOwnersPage_shouldPassTheFiltersAndReturnThePageWithItsTotal() throws JsonProcessingException, InterruptedException {
+        OwnerPageResponseDTO ownerPage = OwnerPageResponseDTO.builder()
+                .content(List.of(TEST_OWNER_RESPONSE))
+                .page(0)
+                .size(1)
+                .totalElements(3)
+                .build();
+
+        final String body = mapper.writeValueAsString(ownerPage);
+
+        prepareResponse(response -> response
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+
+        final OwnerPageResponseDTO result = customersServiceClient.getOwnersPage(Optional.of(0), Optional.of(1), null, "Joh", null, "", "Mont").block();
+
+        assertNotNull(result);
+        assertEquals(3, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(OWNER_ID, result.getContent().get(0).getOwnerId());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/owners/owners-page?page=0&size=1&firstName=Joh&city=Mont", request.getPath());
+    }
+
+    @Test
+    void getOwnerProfile_shouldReturnTheOwnerWithTheirPets() throws JsonProcessingException, InterruptedException {
+        PetResponseDTO pet = PetResponseDTO.builder()
+                .petId("pet-1")
+                .ownerId(OWNER_ID)
+                .name("Rex")
+                .build();
+        OwnerProfileResponseDTO profile = OwnerProfileResponseDTO.builder()
+                .ownerId(OWNER_ID)
+                .firstName("John")
+                .pets(List.of(pet))
+                .build();
+
+        final String body = mapper.writeValueAsString(profile);
+
+        prepareResponse(response -> response
+                .setHeader("Content-Type", "application/json")
+                .setBody(body));
+
+        final OwnerProfileResponseDTO result = customersServiceClient.getOwnerProfile(OWNER_ID).block();
+
+        assertNotNull(result);
+        assertEquals(OWNER_ID, result.getOwnerId());
+        assertEquals(1, result.getPets().size());
+        assertEquals("pet-1", result.getPets().get(0).getPetId());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/owners/" + OWNER_ID + "/profile", request.getPath());
+    }
+
+    @Test
+    void getOwnerProfile_withUnknownOwner_shouldReturnEmpty() {
+        prepareResponse(response -> response.setResponseCode(404));
+
+        StepVerifier.create(customersServiceClient.getOwnerProfile(OWNER_ID))
+                .verifyComplete();
+    }
+
     @Test
     void getTotalNumberOfOwners() {
         // Simulate the expected total count
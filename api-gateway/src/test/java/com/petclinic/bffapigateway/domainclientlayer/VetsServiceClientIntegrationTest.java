@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.petclinic.bffapigateway.dtos.Vets.*;
 import com.petclinic.bffapigateway.exceptions.ExistingVetNotFoundException;
+import com.petclinic.bffapigateway.exceptions.GenericHttpException;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -19,13 +20,17 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.webjars.NotFoundException;
 import reactor.core.publisher.Flux;
@@ -33,8 +38,11 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static io.netty.handler.codec.http.HttpHeaders.setHeader;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -1011,43 +1019,18 @@ class VetsServiceClientIntegrationTest {
         Mockito.when(filePart.headers()).thenReturn(headers);
         Mockito.when(filePart.content()).thenReturn(Flux.just(dataBuffer));
 
-        // Mock the response with PhotoResponseDTO
-        PhotoResponseDTO responseDTO = PhotoResponseDTO.builder()
-                .vetId("deb1950c-3c56-45dc-874b-89e352695eb7")
-                .filename("photo.jpg")
-                .imgType("image/jpeg")
-                .resource(bytes)
-                .build();
+        server.enqueue(new MockResponse().setResponseCode(201));
 
-        String jsonResponse = "{" +
-                "\"vetId\": \"" + responseDTO.getVetId() + "\"," +
-                "\"filename\": \"" + responseDTO.getFilename() + "\"," +
-                "\"imgType\": \"" + responseDTO.getImgType() + "\"," +
-                "\"resourceBase64\": \"" + Base64.getEncoder().encodeToString(bytes) + "\"" +
-                "}";
-
-        server.enqueue(new MockResponse()
-                .setResponseCode(201)
-                .addHeader("Content-Type", "application/json")
-                .setBody(jsonResponse));
-
-        Resource photo = vetsServiceClient
-                .addPhotoToVet("deb1950c-3c56-45dc-874b-89e352695eb7", "photo.jpg", filePart)
-                .block();
-
-        assertNotNull(photo);
-        byte[] returned = FileCopyUtils.copyToByteArray(photo.getInputStream());
-        assertArrayEquals(bytes, returned);
+        StepVerifier.create(vetsServiceClient.addPhotoToVet("deb1950c-3c56-45dc-874b-89e352695eb7", "photo.jpg", filePart))
+                .verifyComplete();
 
         RecordedRequest req = server.takeRequest();
         assertEquals("POST", req.getMethod());
-        String contentType = req.getHeader("Content-Type");
-        assertNotNull(contentType);
-        assertEquals("application/json", contentType);
+        assertEquals("/deb1950c-3c56-45dc-874b-89e352695eb7/photos/photo.jpg", req.getPath());
+        assertEquals("image/jpeg", req.getHeader("Content-Type"));
 
-        // The request body should contain the PhotoRequestDTO as JSON
-        byte[] requestBody = req.getBody().readByteArray();
-        assertNotNull(requestBody);
+        // The photo is passed on as it is, not wrapped in JSON
+        assertArrayEquals(bytes, req.getBody().readByteArray());
     }
 
     @Test
@@ -2433,6 +2416,61 @@ class VetsServiceClientIntegrationTest {
         assertEquals("DELETE", recordedRequest.getMethod());
     }
 
+    @Test
+    void getAlbumPhoto_shouldForwardTheRangeAndPassOnThePartSent() throws Exception {
+        String vetId = "deb1950c-3c56-45dc-874b-89e352695eb7";
+        Integer photoId = 123;
+
+        server.enqueue(new MockResponse()
+                .setResponseCode(206)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "image/jpeg")
+                .setHeader(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10")
+                .setHeader(HttpHeaders.ETAG, "\"abc\"")
+                .setHeader("X-Internal", "hidden")
+                .setBody("2345"));
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, "bytes=2-5");
+        requestHeaders.set(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        ResponseEntity<Flux<DataBuffer>> response = vetsServiceClient.getAlbumPhoto(vetId, photoId, requestHeaders).block();
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 2-5/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst("X-Internal"));
+        assertEquals("2345", DataBufferUtils.join(response.getBody())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block());
+
+        RecordedRequest recordedRequest = server.takeRequest();
+        assertEquals("/" + vetId + "/albums/" + photoId + "/photo", recordedRequest.getPath());
+        assertEquals("bytes=2-5", recordedRequest.getHeader(HttpHeaders.RANGE));
+        assertNull(recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void getAlbumPhoto_shouldPassOnRangeNotSatisfiable() {
+        server.enqueue(new MockResponse()
+                .setResponseCode(416)
+                .setHeader(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+        ResponseEntity<Flux<DataBuffer>> response = vetsServiceClient.getAlbumPhoto("vetId", 123, new HttpHeaders()).block();
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void getAlbumPhoto_shouldThrowNotFoundException_when404() {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404));
+
+        StepVerifier.create(vetsServiceClient.getAlbumPhoto("vetId", 123, new HttpHeaders()))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException &&
+                        throwable.getMessage().contains("Album photo not found: 123"))
+                .verify();
+    }
+
     @Test
     void deleteAlbumPhotoById_shouldThrowNotFoundException_when404() throws Exception {
         String vetId = "invalid-vet-id";
@@ -3592,7 +3630,7 @@ class VetsServiceClientIntegrationTest {
                 .setResponseCode(404)
                 .setBody(""));
 
-        Mono<Resource> result = vetsServiceClient.addPhotoToVet(vetId, photoName, filePart);
+        Mono<Void> result = vetsServiceClient.addPhotoToVet(vetId, photoName, filePart);
 
         StepVerifier.create(result)
                 .expectErrorMatches(throwable ->
@@ -3619,7 +3657,7 @@ class VetsServiceClientIntegrationTest {
                 .setResponseCode(500)
                 .setBody(""));
 
-        Mono<Resource> result = vetsServiceClient.addPhotoToVet(vetId, photoName, filePart);
+        Mono<Void> result = vetsServiceClient.addPhotoToVet(vetId, photoName, filePart);
 
         StepVerifier.create(result)
                 .expectErrorMatches(throwable ->
@@ -3702,6 +3740,59 @@ class VetsServiceClientIntegrationTest {
                 .verifyComplete();
     }
 
+    @Test
+    void addAlbumPhoto_withMultipleDataBuffers_shouldStreamThemInOrder() throws Exception {
+        String vetId = "69f852ca-625b-11ee-8c99-0242ac120002";
+        String photoName = "album_photo.jpg";
+
+        FilePart filePart = Mockito.mock(FilePart.class);
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        when(filePart.content()).thenReturn(Flux.range(0, 64)
+                .map(i -> factory.wrap(("chunk-" + i + ";").getBytes())));
+
+        Album expectedAlbum = new Album(1, vetId, photoName, "image/jpeg", "data".getBytes());
+        server.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setHeader("Content-Type", "application/json")
+                .setBody(mapper.writeValueAsString(expectedAlbum)));
+
+        StepVerifier.create(vetsServiceClient.addAlbumPhoto(vetId, photoName, filePart))
+                .expectNext(expectedAlbum)
+                .verifyComplete();
+
+        String expectedBody = IntStream.range(0, 64).mapToObj(i -> "chunk-" + i + ";").collect(Collectors.joining());
+        assertEquals(expectedBody, server.takeRequest().getBody().readUtf8());
+    }
+
+    @Test
+    void addAlbumPhoto_largerThanMaxPhotoSize_shouldFailWithPayloadTooLarge() {
+        vetsServiceClient.setMaxPhotoSize(DataSize.ofBytes(10));
+
+        FilePart filePart = Mockito.mock(FilePart.class);
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        when(filePart.content()).thenReturn(Flux.just(factory.wrap("123456".getBytes()), factory.wrap("789012".getBytes())));
+
+        server.enqueue(new MockResponse().setResponseCode(201));
+
+        StepVerifier.create(vetsServiceClient.addAlbumPhoto("69f852ca-625b-11ee-8c99-0242ac120002", "album_photo.jpg", filePart))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof GenericHttpException &&
+                                ((GenericHttpException) throwable).getHttpStatus() == HttpStatus.PAYLOAD_TOO_LARGE)
+                .verify();
+    }
+
+    @Test
+    void updatePhotoOfVet_largerThanMaxPhotoSize_shouldFailWithoutCallingVetService() {
+        vetsServiceClient.setMaxPhotoSize(DataSize.ofBytes(3));
+
+        StepVerifier.create(vetsServiceClient.updatePhotoOfVet("deb1950c-3c56-45dc-874b-89e352695eb7", "image.jpeg",
+                        Mono.just(new ByteArrayResource(new byte[]{12, 24, 52, 87}))))
+                .expectError(GenericHttpException.class)
+                .verify();
+
+        assertEquals(0, server.getRequestCount());
+    }
+
     @Test
     void deleteRatingByCustomerName_ValidId_ShouldSucceed() {
         String vetId = "deb1950c-3c56-45dc-874b-89e352695eb7";
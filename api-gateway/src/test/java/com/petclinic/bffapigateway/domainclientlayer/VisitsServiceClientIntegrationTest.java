@@ -21,6 +21,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -35,6 +36,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -1303,10 +1305,38 @@ class VisitsServiceClientIntegrationTest {
     void exportVisitsToCSV_serverError_throwsWebClientResponseException() {
         server.enqueue(new MockResponse().setResponseCode(500));
 
-        StepVerifier.create(visitsServiceClient.exportVisitsToCSV())
+        StepVerifier.create(visitsServiceClient.exportVisitsToCSV(null, null, null, false))
                 .expectError(WebClientResponseException.class)
                 .verify();
     }
 
+    @Test
+    void exportVisitsToCSV_shouldStreamTheExportWithItsHeaders() throws IOException, InterruptedException {
+        // a server of its own, so that the request taken is this one
+        try (MockWebServer exportServer = new MockWebServer()) {
+            exportServer.start();
+            VisitsServiceClient client = new VisitsServiceClient("localhost", "" + exportServer.getPort());
+
+            exportServer.enqueue(new MockResponse()
+                    .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                    .setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv.gz")
+                    .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .setBody("compressed"));
+
+            StepVerifier.create(client.exportVisitsToCSV(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Status.CANCELLED, true)
+                            .flatMap(response -> {
+                                assertEquals(HttpStatus.OK, response.getStatusCode());
+                                assertEquals("attachment; filename=visits.csv.gz", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+                                assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+                                return DataBufferUtils.join(response.getBody());
+                            })
+                            .map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                    .expectNext("compressed")
+                    .verifyComplete();
+
+            assertEquals("/visits/export?from=2024-01-01&to=2024-01-31&status=CANCELLED&gzip=true", exportServer.takeRequest().getPath());
+        }
+    }
+
 
 }
\ No newline at end of file
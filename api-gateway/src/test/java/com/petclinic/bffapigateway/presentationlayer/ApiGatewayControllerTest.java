@@ -872,11 +872,10 @@ class ApiGatewayControllerTest {
         String PHOTO_NAME = "vet_photo.jpg";
 
         byte[] bytes = new byte[]{123, 23, 75, 34};
-        Resource returnedPhoto = new ByteArrayResource(bytes);
 
         when(vetsServiceClient.addPhotoToVet(
                 eq(VET_ID), eq(PHOTO_NAME), any(FilePart.class)))
-                .thenReturn(Mono.just(returnedPhoto));
+                .thenReturn(Mono.empty());
 
         DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
         DataBuffer buffer = factory.wrap(bytes);
@@ -893,9 +892,7 @@ class ApiGatewayControllerTest {
                 .body(BodyInserters.fromMultipartData(mb.build()))
                 .exchange()
                 .expectStatus().isCreated()
-                .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .expectBody(byte[].class)
-                .isEqualTo(bytes);
+                .expectBody().isEmpty();
 
         verify(vetsServiceClient, times(1))
                 .addPhotoToVet(eq(VET_ID), eq(PHOTO_NAME), any(FilePart.class));
@@ -1,6 +1,8 @@
 package com.petclinic.bffapigateway.presentationlayer.v1.Owners;
 
 import com.petclinic.bffapigateway.domainclientlayer.CustomersServiceClient;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerPageResponseDTO;
+import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerProfileResponseDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerRequestDTO;
 import com.petclinic.bffapigateway.dtos.CustomerDTOs.OwnerResponseDTO;
 import com.petclinic.bffapigateway.dtos.Files.FileDetails;
@@ -28,6 +30,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -107,6 +110,67 @@ public class OwnersControllerV1UnitTests {
                 });
     }
 
+    @Test
+    void whenGetOwnersPage_thenReturnThePageWithItsTotal() {
+        OwnerResponseDTO owner = new OwnerResponseDTO();
+        owner.setOwnerId("ownerId-09");
+        owner.setCity("Montreal");
+
+        OwnerPageResponseDTO ownerPage = new OwnerPageResponseDTO(List.of(owner), 0, 5, 12);
+
+        when(customersServiceClient.getOwnersPage(Optional.of(0), Optional.of(5), null, null, null, null, "mont"))
+                .thenReturn(Mono.just(ownerPage));
+
+        client.get()
+                .uri("/api/gateway/owners/owners-page?city=mont")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OwnerPageResponseDTO.class)
+                .value(result -> {
+                    assertEquals(12, result.getTotalElements());
+                    assertEquals(1, result.getContent().size());
+                    assertEquals("ownerId-09", result.getContent().get(0).getOwnerId());
+                });
+    }
+
+    @Test
+    void whenGetOwnerProfile_thenReturnTheOwnerWithTheirPets() {
+        PetResponseDTO pet = PetResponseDTO.builder().petId("petId-1").ownerId("ownerId-09").name("Rex").build();
+        OwnerProfileResponseDTO profile = OwnerProfileResponseDTO.builder()
+                .ownerId("ownerId-09")
+                .firstName("Test")
+                .pets(List.of(pet))
+                .build();
+
+        when(customersServiceClient.getOwnerProfile("ownerId-09"))
+                .thenReturn(Mono.just(profile));
+
+        client.get()
+                .uri("/api/gateway/owners/ownerId-09/profile")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OwnerProfileResponseDTO.class)
+                .value(result -> {
+                    assertEquals("ownerId-09", result.getOwnerId());
+                    assertEquals(1, result.getPets().size());
+                    assertEquals("petId-1", result.getPets().get(0).getPetId());
+                });
+    }
+
+    @Test
+    void whenGetOwnerProfile_withUnknownOwner_thenReturnNotFound() {
+        when(customersServiceClient.getOwnerProfile("ownerId-404"))
+                .thenReturn(Mono.empty());
+
+        client.get()
+                .uri("/api/gateway/owners/ownerId-404/profile")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void whenGetAllOwnersByPagination_withEmptyPageAndSize_thenReturnEmptyList() {
         when(customersServiceClient.getOwnersByPagination(null, null, null, null, null, null, null))
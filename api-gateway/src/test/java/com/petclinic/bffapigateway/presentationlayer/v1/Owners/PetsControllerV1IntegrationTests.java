@@ -21,7 +21,7 @@ import static com.petclinic.bffapigateway.presentationlayer.v1.mockservers.MockS
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@SpringBootTest
+@SpringBootTest(properties = "security.jwt.remote-validation=true")
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
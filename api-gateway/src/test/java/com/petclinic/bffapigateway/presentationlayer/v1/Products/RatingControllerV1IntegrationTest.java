@@ -18,7 +18,7 @@ import java.util.UUID;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@SpringBootTest
+@SpringBootTest(properties = "security.jwt.remote-validation=true")
 @AutoConfigureWebTestClient
 class RatingControllerV1IntegrationTest {
 
@@ -24,7 +24,7 @@ import static com.petclinic.bffapigateway.presentationlayer.v2.mockservers.MockS
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
 // Disables MongoDB for testing as mock servers handle all data interactions.
-@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {"spring.data.mongodb.port=0"})
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {"spring.data.mongodb.port=0", "security.jwt.remote-validation=true"})
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
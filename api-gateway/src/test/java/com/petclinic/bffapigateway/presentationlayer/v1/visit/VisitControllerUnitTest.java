@@ -22,9 +22,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
@@ -711,8 +713,11 @@ public class VisitControllerUnitTest {
     void exportVisitsToCSV_ShouldReturnCSVFile() {
         // Sample data to return
         String csvContent = "VisitId,Description\n1,Checkup";
-        InputStreamResource csvData = new InputStreamResource(new ByteArrayInputStream(csvContent.getBytes()));
-        when(visitsServiceClient.exportVisitsToCSV()).thenReturn(Mono.just(csvData));
+        Flux<DataBuffer> csvData = Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(csvContent.getBytes()));
+        when(visitsServiceClient.exportVisitsToCSV(null, null, null, false)).thenReturn(Mono.just(ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(csvData)));
 
         webTestClient.get()
                 .uri("/api/gateway/visits/export")
@@ -728,9 +733,24 @@ public class VisitControllerUnitTest {
     }
 
 
+    @Test
+    void exportVisitsToCSV_ShouldPassTheFiltersOn() {
+        when(visitsServiceClient.exportVisitsToCSV(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Status.COMPLETED, true))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv.gz")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(new byte[]{31, -117})))));
+
+        webTestClient.get()
+                .uri("/api/gateway/visits/export?from=2024-01-01&to=2024-01-31&status=COMPLETED&gzip=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv.gz");
+    }
+
     @Test
     void exportVisitsToCSV_ShouldReturnServerError_WhenServiceFails() {
-        when(visitsServiceClient.exportVisitsToCSV()).thenReturn(Mono.error(new RuntimeException("Service failed")));
+        when(visitsServiceClient.exportVisitsToCSV(null, null, null, false)).thenReturn(Mono.error(new RuntimeException("Service failed")));
 
         webTestClient.get()
                 .uri("/api/gateway/visits/export")
@@ -14,7 +14,7 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import static com.petclinic.bffapigateway.presentationlayer.v2.mockservers.MockServerConfigAuthService.*;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = "SECRET_KEY=" + MockServerConfigAuthService.TEST_SECRET_KEY)
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -65,7 +65,7 @@ class OwnerControllerIntegrationTest {
         // Perform the DELETE request and expect OwnerResponseDTO in the body
         webTestClient.delete()
                 .uri("/api/v2/gateway/owners/{ownerId}", "e6c7398e-8ac4-4e10-9ee0-03ef33f0361a")
-                .cookie("Bearer", "valid-test-token-for-valid-admin")
+                .cookie("Bearer", jwtTokenForValidAdmin)
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()  // Now we expect a 200 OK response, not 204 NO_CONTENT
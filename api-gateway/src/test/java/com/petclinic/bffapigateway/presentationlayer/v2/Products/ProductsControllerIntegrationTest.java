@@ -16,7 +16,7 @@ import static com.petclinic.bffapigateway.presentationlayer.v2.mockservers.MockS
 import static org.junit.Assert.*;
 
 
-@SpringBootTest
+@SpringBootTest(properties = "SECRET_KEY=" + MockServerConfigAuthService.TEST_SECRET_KEY)
 @ActiveProfiles("test")
 @AutoConfigureWebTestClient
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
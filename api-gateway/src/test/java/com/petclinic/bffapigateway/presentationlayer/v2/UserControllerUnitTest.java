@@ -1,6 +1,8 @@
 package com.petclinic.bffapigateway.presentationlayer.v2;
 
 import com.petclinic.bffapigateway.domainclientlayer.AuthServiceClient;
+import com.petclinic.bffapigateway.dtos.Auth.UserDetails;
+import com.petclinic.bffapigateway.dtos.Auth.UserPageResponseDTO;
 import com.petclinic.bffapigateway.dtos.Auth.UserPasswordLessDTO;
 import com.petclinic.bffapigateway.presentationlayer.v2.UserController;
 import com.petclinic.bffapigateway.config.GlobalExceptionHandler;
@@ -19,6 +21,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -54,6 +57,29 @@ public class UserControllerUnitTest {
 
         verify(authServiceClient, times(1)).disableUser(userId, validJwtToken);
     }
+
+    @Test
+    void getUsersPage_ShouldReturnPageFromAuthService() {
+        UserPageResponseDTO page = UserPageResponseDTO.builder()
+                .users(List.of(UserDetails.builder().userId("user-id").username("Admin").build()))
+                .nextCursor("next-cursor")
+                .build();
+
+        when(authServiceClient.getUsersPage(validJwtToken, "Ad", "username", "DESC", "cursor", 10))
+                .thenReturn(Mono.just(page));
+
+        webTestClient.get()
+                .uri(baseUrl + "/page?username=Ad&sort=username&direction=DESC&cursor=cursor&size=10")
+                .cookie("Bearer", validJwtToken)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.users[0].username").isEqualTo("Admin")
+                .jsonPath("$.nextCursor").isEqualTo("next-cursor");
+
+        verify(authServiceClient, times(1)).getUsersPage(validJwtToken, "Ad", "username", "DESC", "cursor", 10);
+    }
     @Test
     void disableUser_ShouldReturnError() {
         String userId = "existing-user-id";
@@ -16,6 +16,8 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -573,6 +575,29 @@ class VetControllerUnitTest {
         verify(vetsServiceClient, times(1)).getAllAlbumsByVetId(vetId);
     }
 
+    @Test
+    void whenGetAlbumPhoto_thenReturnWhatTheVetsServiceSends() {
+        String vetId = "2e26e7a2-8c6e-4e2d-8d60-ad0882e295eb";
+        Integer albumId = 1;
+
+        when(vetsServiceClient.getAlbumPhoto(eq(vetId), eq(albumId), any(HttpHeaders.class)))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes 0-4/10")
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("photo".getBytes())))));
+
+        webTestClient.get()
+                .uri(BASE_VET_URL + "/" + vetId + "/albums/" + albumId + "/photo")
+                .header(HttpHeaders.RANGE, "bytes=0-4")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 0-4/10")
+                .expectBody(String.class).isEqualTo("photo");
+
+        verify(vetsServiceClient, times(1)).getAlbumPhoto(eq(vetId), eq(albumId),
+                argThat(headers -> "bytes=0-4".equals(headers.getFirst(HttpHeaders.RANGE))));
+    }
+
     @Test
     void whenDeletePhotoByVetId_thenReturnNoContent() {
         String vetId = "2e26e7a2-8c6e-4e2d-8d60-ad0882e295eb";
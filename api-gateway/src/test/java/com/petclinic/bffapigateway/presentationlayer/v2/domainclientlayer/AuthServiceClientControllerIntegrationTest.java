@@ -42,7 +42,7 @@ import static reactor.core.publisher.Mono.when;
 public class AuthServiceClientControllerIntegrationTest {
 
     private final SecurityConst securityConst = new SecurityConst(60
-            ,"Bearer");
+            ,"test-secret","Bearer");
 
     @MockBean
     CustomersServiceClient customersServiceClient;
@@ -122,11 +122,11 @@ public class AuthServiceClientControllerIntegrationTest {
     @DisplayName("Should fetch all users successfully")
     void getAllUsers_ShouldReturnUserList() throws Exception {
 
-        String responseBody = "[{\"userId\":\"1\", \"username\":\"user1\", \"email\":\"user1@example.com\"}," +
-                "{\"userId\":\"2\", \"username\":\"user2\", \"email\":\"user2@example.com\"}]";
+        String responseBody = "{\"userId\":\"1\", \"username\":\"user1\", \"email\":\"user1@example.com\"}\n" +
+                "{\"userId\":\"2\", \"username\":\"user2\", \"email\":\"user2@example.com\"}\n";
         MockResponse mockResponse = new MockResponse()
                 .setResponseCode(200)
-                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Type", "application/x-ndjson")
                 .setBody(responseBody);
 
         server.enqueue(mockResponse);
@@ -145,8 +145,8 @@ public class AuthServiceClientControllerIntegrationTest {
 
         MockResponse mockResponse = new MockResponse()
                 .setResponseCode(200)
-                .setHeader("Content-Type", "application/json")
-                .setBody("[]");
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("");
 
         server.enqueue(mockResponse);
 
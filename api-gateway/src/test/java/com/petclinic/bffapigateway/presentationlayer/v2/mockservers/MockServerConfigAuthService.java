@@ -1,8 +1,14 @@
 package com.petclinic.bffapigateway.presentationlayer.v2.mockservers;
 
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
 
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Map;
+
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 import static org.mockserver.model.JsonBody.json;
@@ -15,21 +21,32 @@ public class MockServerConfigAuthService {
 
     private final MockServerClient mockServerClient_AuthService = new MockServerClient("localhost", AUTH_SERVICE_SERVER_PORT);
 
-    public static final String jwtTokenForValidOwnerId = "valid-test-token-for-valid-owner-id";
+    // the gateway verifies the test tokens itself when SECRET_KEY is set to this, and sends them here otherwise
+    public static final String TEST_SECRET_KEY = "test-secret-key-for-the-gateway-integration-tests-only-0123456789";
+
+    public static final String jwtTokenForValidOwnerId = signedToken("e6c7398e-8ac4-4e10-9ee0-03ef33f0361a", "OWNER");
 
-    public static final String jwtTokenForInvalidOwnerId = "valid-test-token-for-invalid-owner-id";
+    public static final String jwtTokenForInvalidOwnerId = signedToken("invalid-owner-id", "OWNER");
 
-    public static final String jwtTokenForValidAdmin = "valid-test-token-for-valid-admin";
+    public static final String jwtTokenForValidAdmin = signedToken("cb6701ef-22cf-465c-be59-b1ef71cd4f2e", "ADMIN");
 
-    public static final String jwtTokenForValidVet = "valid-test-token-for-valid-vet";
+    public static final String jwtTokenForValidVet = signedToken("cb6701ef-22cf-465c-be59-b1ef71cd4f2e", "VET");
 
-    public static final String jwtTokenForInvalidVetId = "valid-test-token-for-invalid-vet-id";
+    public static final String jwtTokenForInvalidVetId = signedToken("invalid-vet-id", "VET");
 
 
     public MockServerConfigAuthService() {
         this.clientAndServer = ClientAndServer.startClientAndServer(AUTH_SERVICE_SERVER_PORT);
     }
 
+    private static String signedToken(String userId, String role) {
+        return Jwts.builder()
+                .setClaims(Map.of("sub", "test@test.com", "id", userId, "roles", new String[]{role}))
+                .setExpiration(Date.from(ZonedDateTime.now().plusDays(1).toInstant()))
+                .signWith(Keys.hmacShaKeyFor(TEST_SECRET_KEY.getBytes()))
+                .compact();
+    }
+
     public void registerValidateTokenForVetEndpoint() {
         mockServerClient_AuthService
                 .when(
@@ -0,0 +1,95 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import com.petclinic.bffapigateway.dtos.Auth.TokenResponseDTO;
+import com.petclinic.bffapigateway.exceptions.InvalidTokenException;
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
+import com.petclinic.bffapigateway.utils.Security.Variables.SecurityConst;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenUtilTest {
+
+    private static final String SECRET = "mkcyetrmjcqLjOkwM08M676tl8LPnkgKHD2HlIpsYcSI8zGIiobE7yZ4N5JElvYMlTE8qqjTJ09JcqAsKdNxVA";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil(new SecurityConst(60, SECRET, "Bearer"), new JwtClaimsCache(100, 300));
+    }
+
+    private String generateToken(String secret, ZonedDateTime expiration) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "admin@admin.com");
+        claims.put("roles", new String[]{"ADMIN", "VET"});
+        claims.put("id", "userId123");
+
+        return Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(Date.from(expiration.toInstant()))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+    }
+
+    @Test
+    void whenValidToken_thenReturnClaims() {
+        String token = generateToken(SECRET, ZonedDateTime.now().plusMinutes(60));
+
+        TokenResponseDTO tokenResponseDTO = jwtTokenUtil.validateToken(token);
+
+        assertNull(tokenResponseDTO.getToken());
+        assertEquals("userId123", tokenResponseDTO.getUserId());
+        assertEquals("admin@admin.com", tokenResponseDTO.getEmail());
+        assertEquals(List.of("ADMIN", "VET"), tokenResponseDTO.getRoles());
+        assertEquals(Set.of(Roles.ADMIN, Roles.VET), tokenResponseDTO.getRoleSet());
+    }
+
+    @Test
+    void whenSameTokenValidatedTwice_thenReturnCachedClaims() {
+        String token = generateToken(SECRET, ZonedDateTime.now().plusMinutes(60));
+
+        TokenResponseDTO first = jwtTokenUtil.validateToken(token);
+        TokenResponseDTO second = jwtTokenUtil.validateToken(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void whenTokenSignedWithOtherSecret_thenThrowInvalidTokenException() {
+        String token = generateToken(SECRET.toLowerCase(), ZonedDateTime.now().plusMinutes(60));
+
+        assertThrows(InvalidTokenException.class, () -> jwtTokenUtil.validateToken(token));
+    }
+
+    @Test
+    void whenTokenExpired_thenThrowInvalidTokenException() {
+        String token = generateToken(SECRET, ZonedDateTime.now().minusMinutes(1));
+
+        assertThrows(InvalidTokenException.class, () -> jwtTokenUtil.validateToken(token));
+    }
+
+    @Test
+    void whenTokenMalformed_thenThrowInvalidTokenException() {
+        assertThrows(InvalidTokenException.class, () -> jwtTokenUtil.validateToken("not.a.token"));
+    }
+
+    @Test
+    void whenNoSecretKey_thenTokensAreNotValidatedLocally() {
+        JwtTokenUtil withoutSecret = new JwtTokenUtil(new SecurityConst(60, "", "Bearer"), new JwtClaimsCache(100, 300));
+        String token = generateToken(SECRET, ZonedDateTime.now().plusMinutes(60));
+
+        assertFalse(withoutSecret.canValidateLocally());
+        assertThrows(IllegalStateException.class, () -> withoutSecret.validateToken(token));
+    }
+}
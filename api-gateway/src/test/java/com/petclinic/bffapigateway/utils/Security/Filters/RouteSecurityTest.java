@@ -0,0 +1,59 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import com.petclinic.bffapigateway.utils.Security.Annotations.IsUserSpecific;
+import com.petclinic.bffapigateway.utils.Security.Annotations.SecuredEndpoint;
+import com.petclinic.bffapigateway.utils.Security.Variables.Roles;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteSecurityTest {
+
+    @SuppressWarnings("unused")
+    static class Handlers {
+
+        public void notAnnotated() {
+        }
+
+        @SecuredEndpoint(allowedRoles = {Roles.ANONYMOUS})
+        public void anonymous() {
+        }
+
+        @SecuredEndpoint(allowedRoles = {Roles.ADMIN, Roles.VET})
+        @IsUserSpecific(idToMatch = {"ownerId"}, bypassRoles = {Roles.ADMIN})
+        public void adminOrVetOwnerSpecific() {
+        }
+    }
+
+    private RouteSecurity of(String methodName) throws NoSuchMethodException {
+        return RouteSecurity.of(Handlers.class.getMethod(methodName));
+    }
+
+    @Test
+    void whenNoAnnotation_thenAnyRoleIsAllowed() throws NoSuchMethodException {
+        RouteSecurity routeSecurity = of("notAnnotated");
+
+        assertTrue(routeSecurity.allowsAnyRole());
+        assertFalse(routeSecurity.isAnonymous());
+        assertFalse(routeSecurity.isUserSpecific());
+        assertTrue(routeSecurity.bypassRoles().isEmpty());
+    }
+
+    @Test
+    void whenAnonymous_thenRouteIsAnonymous() throws NoSuchMethodException {
+        assertTrue(of("anonymous").isAnonymous());
+    }
+
+    @Test
+    void whenRolesAndUserSpecific_thenMetadataIsIndexed() throws NoSuchMethodException {
+        RouteSecurity routeSecurity = of("adminOrVetOwnerSpecific");
+
+        assertFalse(routeSecurity.allowsAnyRole());
+        assertEquals(Set.of(Roles.ADMIN, Roles.VET), routeSecurity.allowedRoles());
+        assertEquals(Set.of(Roles.ADMIN), routeSecurity.bypassRoles());
+        assertTrue(routeSecurity.isUserSpecific());
+        assertArrayEquals(new String[]{"ownerId"}, routeSecurity.idToMatch());
+    }
+}
@@ -0,0 +1,42 @@
+package com.petclinic.bffapigateway.utils.Security.Filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhitelistMatcherTest {
+
+    private final WhitelistMatcher whitelistMatcher = new WhitelistMatcher(List.of(
+            "/swagger-resources",
+            "/swagger-resources/**",
+            "/swagger-ui.html",
+            "/images/*",
+            "/actuator/health",
+            "/*.ico"));
+
+    @Test
+    void whenPathMatchesExactPattern_thenReturnTrue() {
+        assertTrue(whitelistMatcher.matches("/swagger-ui.html"));
+        assertTrue(whitelistMatcher.matches("/actuator/health"));
+    }
+
+    @Test
+    void whenPathMatchesWildcardPattern_thenReturnTrue() {
+        assertTrue(whitelistMatcher.matches("/swagger-resources/configuration/ui"));
+        assertTrue(whitelistMatcher.matches("/images/logo.png"));
+    }
+
+    @Test
+    void whenPatternStartsWithWildcard_thenItIsTestedAtTheRoot() {
+        assertTrue(whitelistMatcher.matches("/favicon.ico"));
+    }
+
+    @Test
+    void whenPathDoesNotMatch_thenReturnFalse() {
+        assertFalse(whitelistMatcher.matches("/api/gateway/owners"));
+        assertFalse(whitelistMatcher.matches("/images/pets/1.png"));
+        assertFalse(whitelistMatcher.matches("/actuator/metrics"));
+    }
+}
@@ -89,6 +89,13 @@ public class GlobalControllerExceptionHandlerConfig {
         return new HTTPErrorMessage(UNAUTHORIZED.value(), ex.getMessage());
     }
 
+    @ExceptionHandler(value = PasswordHashingUnavailableException.class)
+    @ResponseStatus(value = SERVICE_UNAVAILABLE)
+    public HTTPErrorMessage passwordHashingUnavailableException(PasswordHashingUnavailableException ex) {
+
+        return new HTTPErrorMessage(SERVICE_UNAVAILABLE.value(), ex.getMessage());
+    }
+
     @ExceptionHandler(value = IllegalArgumentException.class)
     @ResponseStatus(value = BAD_REQUEST)
     public HTTPErrorMessage illegalArgumentException(IllegalArgumentException ex) {
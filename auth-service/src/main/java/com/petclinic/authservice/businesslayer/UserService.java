@@ -27,11 +27,14 @@ package com.petclinic.authservice.businesslayer;
 import com.petclinic.authservice.Util.Exceptions.IncorrectPasswordException;
 import com.petclinic.authservice.Util.Exceptions.NotFoundException;
 import com.petclinic.authservice.datalayer.user.User;
+import com.petclinic.authservice.datalayer.user.UserSortField;
 import com.petclinic.authservice.domainclientlayer.Mail.Mail;
 import com.petclinic.authservice.presentationlayer.User.*;
+import org.springframework.data.domain.Sort;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -59,6 +62,12 @@ public interface UserService {
 
     List<UserDetails> getUsersByUsernameContaining(String username);
 
+    UserPageResponseDTO getUsersPage(String username, UserSortField sortField, Sort.Direction direction, String cursor, int size);
+
+    void streamUsers(String username, int batchSize, Consumer<List<UserDetails>> batchConsumer);
+
+    boolean isUsernameAvailable(String username);
+
     void processForgotPassword(UserResetPwdRequestModel userResetPwdWithTokenRequestModel);
 
     void updateResetPasswordToken(String token, String email);
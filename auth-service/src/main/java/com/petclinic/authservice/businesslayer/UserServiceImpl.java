@@ -16,12 +16,14 @@ import com.petclinic.authservice.domainclientlayer.Mail.Mail;
 import com.petclinic.authservice.domainclientlayer.Mail.MailService;
 import com.petclinic.authservice.presentationlayer.User.*;
 import com.petclinic.authservice.security.JwtTokenUtil;
+import com.petclinic.authservice.security.PasswordHashingExecutor;
 import com.petclinic.authservice.security.SecurityConst;
 import com.petclinic.authservice.datalayer.user.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -34,6 +36,9 @@ import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -51,6 +56,7 @@ public class UserServiceImpl implements UserService {
     private final MailService mailService;
     private final JwtTokenUtil jwtService;
     private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final String salt = BCrypt.gensalt(10);
 
 
@@ -58,12 +64,12 @@ public class UserServiceImpl implements UserService {
     private String gatewayOrigin;
     @Override
     public List<UserDetails> findAllWithoutPage() {
-        return userMapper.modelToDetailsList(userRepo.findAll());
+        return userMapper.modelToDetailsList(userRepo.findAllWithRoles());
     }
 
 @Override
     public List<UserDetails> getAllUsers() {
-        List<User> users = userRepo.findAll();
+        List<User> users = userRepo.findAllWithRoles();
         return userMapper.modelToDetailsList(users);
     }
 
@@ -348,7 +354,7 @@ public class UserServiceImpl implements UserService {
             }
 
             //Hash the tokens
-            ResetPasswordToken resetPasswordToken = new ResetPasswordToken(user.get().getId(), BCrypt.hashpw(token,salt));
+            ResetPasswordToken resetPasswordToken = new ResetPasswordToken(user.get().getId(), hashResetToken(token));
             tokenRepository.save(resetPasswordToken);
         } else {
             throw new NotFoundException("Could not find any customer with the email " + email);
@@ -357,7 +363,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserPasswordLessDTO getByResetPasswordToken(String token) {
-        String hashedToken = BCrypt.hashpw(token, salt);
+        String hashedToken = hashResetToken(token);
         ResetPasswordToken resetPasswordToken = tokenRepository.findResetPasswordTokenByToken(hashedToken);
         if (resetPasswordToken == null) {
             throw new InvalidBearerTokenException("Token not found");
@@ -376,12 +382,12 @@ public class UserServiceImpl implements UserService {
     public void updatePassword(String newPassword, String token) {
 
         final Calendar cal = Calendar.getInstance();
-        ResetPasswordToken resetPasswordToken = tokenRepository.findResetPasswordTokenByToken(BCrypt.hashpw(token, salt));
+        ResetPasswordToken resetPasswordToken = tokenRepository.findResetPasswordTokenByToken(hashResetToken(token));
         if(resetPasswordToken.getExpiryDate().before(cal.getTime())){
             throw new IllegalArgumentException("Token expired");
         }
 
-        String encodedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt(10));
+        String encodedPassword = passwordEncoder.encode(newPassword);
         Optional<User> user = userRepo.findById(resetPasswordToken.getUserIdentifier());
 
 
@@ -483,6 +489,72 @@ public class UserServiceImpl implements UserService {
         return userMapper.modelToDetailsList(userRepo.findByUsernameContaining(username));
     }
 
+    @Override
+    public boolean isUsernameAvailable(String username) {
+        return !userRepo.existsByUsername(username);
+    }
+
+    @Override
+    public UserPageResponseDTO getUsersPage(String username, UserSortField sortField, Sort.Direction direction, String cursor, int size) {
+        if (size < 1) {
+            throw new InvalidInputException("Page size must be positive");
+        }
+
+        UserPageCursor after = cursor == null || cursor.isBlank() ? null : UserPageCursor.decode(cursor);
+
+        // one extra row tells us whether there is a next page without counting the table
+        List<User> users = findUsersPage(username, sortField, direction, after, size + 1);
+        String nextCursor = null;
+
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = UserPageCursor.after(users.get(size - 1), sortField).encode();
+        }
+
+        return UserPageResponseDTO.builder()
+                .users(userMapper.modelToDetailsList(users))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void streamUsers(String username, int batchSize, Consumer<List<UserDetails>> batchConsumer) {
+        UserPageCursor after = null;
+        List<User> batch;
+
+        do {
+            batch = findUsersPage(username, UserSortField.ID, Sort.Direction.ASC, after, batchSize);
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            batchConsumer.accept(userMapper.modelToDetailsList(batch));
+            after = UserPageCursor.after(batch.get(batch.size() - 1), UserSortField.ID);
+        } while (batch.size() == batchSize);
+    }
+
+    // reset tokens are hashed with a fixed salt so the stored hash can be looked up again
+    private String hashResetToken(String token) {
+        return passwordHashingExecutor.execute(() -> BCrypt.hashpw(token, salt));
+    }
+
+    private List<User> findUsersPage(String username, UserSortField sortField, Sort.Direction direction, UserPageCursor after, int limit) {
+        List<Long> ids = userRepo.findUserIdsPage(username, sortField, direction, after, limit);
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, User> usersById = userRepo.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public String updateUserUsername(String userId, String username, String token) {
         User existingUser = userRepo.findUserByUserIdentifier_UserId(userId);
@@ -0,0 +1,35 @@
+package com.petclinic.authservice.datalayer.user;
+
+import com.petclinic.authservice.Util.Exceptions.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last user of a page: the value of the sort column and the primary key used to break ties.
+ * It is handed to clients as an opaque url safe string.
+ */
+public record UserPageCursor(String sortValue, long id) {
+
+    private static final char SEPARATOR = '\n';
+
+    public static UserPageCursor after(User user, UserSortField sortField) {
+        return new UserPageCursor(sortField.valueOf(user), user.getId());
+    }
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserPageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            return new UserPageCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidInputException("Invalid cursor : " + cursor);
+        }
+    }
+}
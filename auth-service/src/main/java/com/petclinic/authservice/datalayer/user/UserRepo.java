@@ -16,27 +16,39 @@
 
 package com.petclinic.authservice.datalayer.user;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepo extends JpaRepository<User, Long> {
+public interface UserRepo extends JpaRepository<User, Long>, UserRepoCustom {
 
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username);
 
+    boolean existsByUsername(String username);
+
     //Optional<User> findByUserId(String userId);
     Optional<User> findById(String userId);
     Optional<User> findOptionalUserByUserIdentifier_UserId(String userId);
 
     User findUserByUserIdentifier_UserId(String userId);
 
+    @EntityGraph(attributePaths = "roles")
     List<User> findByUsernameContaining(String username);
 
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from User u")
+    List<User> findAllWithRoles();
+
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAllByIdIn(Collection<Long> ids);
 
 }
 
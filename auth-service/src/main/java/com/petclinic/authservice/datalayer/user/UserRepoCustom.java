@@ -0,0 +1,16 @@
+package com.petclinic.authservice.datalayer.user;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface UserRepoCustom {
+
+    /**
+     * Returns the ids of at most {@code limit} users following {@code after} in the requested order, optionally
+     * restricted to usernames containing {@code usernameContaining}. Only the ids are selected so that the page can then
+     * be loaded with its roles in a single query.
+     */
+    List<Long> findUserIdsPage(String usernameContaining, UserSortField sortField, Sort.Direction direction,
+                               UserPageCursor after, int limit);
+}
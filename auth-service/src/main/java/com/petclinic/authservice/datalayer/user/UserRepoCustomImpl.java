@@ -0,0 +1,75 @@
+package com.petclinic.authservice.datalayer.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class UserRepoCustomImpl implements UserRepoCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findUserIdsPage(String usernameContaining, UserSortField sortField, Sort.Direction direction,
+                                      UserPageCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+
+        Expression<Long> id = user.get("id");
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (usernameContaining != null && !usernameContaining.isEmpty()) {
+            predicates.add(cb.like(user.get("username"), "%" + escapeLike(usernameContaining) + "%", LIKE_ESCAPE));
+        }
+
+        if (after != null) {
+            predicates.add(sortField == UserSortField.ID
+                    ? keyset(cb, direction, id, after.id())
+                    : cb.or(
+                            keyset(cb, direction, user.get(sortField.getAttribute()), after.sortValue()),
+                            cb.and(cb.equal(user.get(sortField.getAttribute()), after.sortValue()),
+                                    keyset(cb, direction, id, after.id()))));
+        }
+
+        query.select(id);
+
+        if (!predicates.isEmpty()) {
+            query.where(predicates.toArray(Predicate[]::new));
+        }
+
+        if (sortField == UserSortField.ID) {
+            query.orderBy(order(cb, direction, id));
+        } else {
+            query.orderBy(order(cb, direction, user.get(sortField.getAttribute())), order(cb, direction, id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static <T extends Comparable<? super T>> Predicate keyset(CriteriaBuilder cb, Sort.Direction direction,
+                                                                     Expression<? extends T> path, T value) {
+        return direction.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static Order order(CriteriaBuilder cb, Sort.Direction direction, Expression<?> path) {
+        return direction.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
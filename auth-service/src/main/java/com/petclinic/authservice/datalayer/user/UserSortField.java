@@ -0,0 +1,41 @@
+package com.petclinic.authservice.datalayer.user;
+
+import com.petclinic.authservice.Util.Exceptions.InvalidInputException;
+
+import java.util.function.Function;
+
+/**
+ * Columns the user listing can be sorted on. Ties are always broken on the primary key so that keyset pages are stable.
+ */
+public enum UserSortField {
+
+    ID("id", user -> String.valueOf(user.getId())),
+    USERNAME("username", User::getUsername),
+    EMAIL("email", User::getEmail);
+
+    private final String attribute;
+
+    private final Function<User, String> valueExtractor;
+
+    UserSortField(String attribute, Function<User, String> valueExtractor) {
+        this.attribute = attribute;
+        this.valueExtractor = valueExtractor;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String valueOf(User user) {
+        return valueExtractor.apply(user);
+    }
+
+    public static UserSortField fromParameter(String parameter) {
+        for (UserSortField field : values()) {
+            if (field.attribute.equalsIgnoreCase(parameter)) {
+                return field;
+            }
+        }
+        throw new InvalidInputException("Cannot sort users on " + parameter);
+    }
+}
@@ -18,24 +18,34 @@ package com.petclinic.authservice.presentationlayer.User;
 
 import com.petclinic.authservice.Util.Exceptions.IncorrectPasswordException;
 import com.petclinic.authservice.businesslayer.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.petclinic.authservice.datalayer.user.User;
+import com.petclinic.authservice.datalayer.user.UserSortField;
 import com.petclinic.authservice.datamapperlayer.UserMapper;
 
 import com.petclinic.authservice.security.JwtTokenUtil;
 import com.petclinic.authservice.security.SecurityConst;
+import com.petclinic.authservice.security.TokenClaims;
+import com.petclinic.authservice.security.TokenPrincipal;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +67,12 @@ public class UserController {
 
     private final JwtTokenUtil jwtService;
 
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
     @GetMapping("/all")
     public ResponseEntity<List<UserDetails>> getAllUsers() {
         List<UserDetails> users = userService.getAllUsers();
@@ -69,6 +85,44 @@ public class UserController {
         return userService.findAllWithoutPage();
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<UserPageResponseDTO> getUsersPage(@RequestParam(required = false) String username,
+                                                            @RequestParam(defaultValue = "id") String sort,
+                                                            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsersPage(username, UserSortField.fromParameter(sort), direction,
+                cursor, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Streams every user as newline delimited json, loading them from the database in keyset batches so the whole
+     * table is never held in memory.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(required = false) String username) {
+        StreamingResponseBody body = outputStream -> userService.streamUsers(username, STREAM_BATCH_SIZE, batch -> {
+            try {
+                for (UserDetails user : batch) {
+                    outputStream.write(objectMapper.writeValueAsBytes(user));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/username/available")
+    public ResponseEntity<Boolean> isUsernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(userService.isUsernameAvailable(username));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<UserDetails> getUserByUserId(@PathVariable String userId) {
         User user = userService.getUserByUserId(userId);
@@ -149,13 +203,23 @@ public class UserController {
     }
 
     @PostMapping("/validate-token")
-    public ResponseEntity<TokenResponseDTO> validateToken(@CookieValue("Bearer") String token) {
+    public ResponseEntity<TokenResponseDTO> validateToken(@CookieValue("Bearer") String token,
+                                                         @AuthenticationPrincipal TokenPrincipal principal) {
+
+        // the filter already parsed this cookie, only parse again if the principal comes from elsewhere
+        TokenClaims claims = principal != null && token.equals(principal.getClaims().token())
+                ? principal.getClaims()
+                : jwtService.parseToken(token);
+
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
         TokenResponseDTO tokenResponseDTO = TokenResponseDTO.builder()
                 .token(token)
-                .userId(jwtService.getIdFromToken(token))
-                .email(jwtService.getUsernameFromToken(token))
-                .roles(jwtService.getRolesFromToken(token))
+                .userId(claims.userId())
+                .email(claims.username())
+                .roles(claims.roles())
                 .build();
 
         return ResponseEntity.ok(tokenResponseDTO);
@@ -0,0 +1,22 @@
+package com.petclinic.authservice.presentationlayer.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserPageResponseDTO {
+
+    private List<UserDetails> users;
+
+    /**
+     * Cursor to send back to get the following page, null when this page is the last one.
+     */
+    private String nextCursor;
+}
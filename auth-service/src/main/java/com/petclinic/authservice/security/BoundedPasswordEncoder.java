@@ -0,0 +1,33 @@
+package com.petclinic.authservice.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} that hands the hashing of its delegate to the {@link PasswordHashingExecutor}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor passwordHashingExecutor) {
+        this.delegate = delegate;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
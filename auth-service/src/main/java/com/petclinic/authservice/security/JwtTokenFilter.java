@@ -1,7 +1,5 @@
 package com.petclinic.authservice.security;
 
-import com.petclinic.authservice.datalayer.user.User;
-import com.petclinic.authservice.datalayer.user.UserRepo;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -24,7 +22,6 @@ import java.util.List;
 import java.util.Arrays;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import java.io.IOException;
-import java.util.Optional;
 
 
 @Component
@@ -41,15 +38,9 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     private final List<AntPathRequestMatcher> excludedPaths = Arrays.asList(
             new AntPathRequestMatcher("/actuator/prometheus", "GET"));
 
-    private final UserRepo userRepo;
-
-    
-
-    public JwtTokenFilter(SecurityConst securityConst, JwtTokenUtil jwtTokenUtil
-            , UserRepo userRepo) {
+    public JwtTokenFilter(SecurityConst securityConst, JwtTokenUtil jwtTokenUtil) {
         this.securityConst = securityConst;
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userRepo = userRepo;
     }
 
     
@@ -99,7 +90,10 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
         try {
 
-            if (!jwtTokenUtil.validateToken(token)) {
+            // the token is parsed once, the principal is built from its claims without hitting the database
+            final TokenClaims claims = jwtTokenUtil.parseToken(token);
+
+            if (claims == null || claims.username() == null || claims.isExpired()) {
                 log.info("Token is invalid");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 resolver.resolveException(request, response, null, new InvalidBearerTokenException("Token is expired"));
@@ -107,10 +101,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             }
 
             log.info("Token is valid");
-            Optional<User> userResponseModel = userRepo
-                    .findByEmail(jwtTokenUtil.getUsernameFromToken(token));
 
-            UserDetails userDetails = new UserPrincipalImpl(userResponseModel);
+            UserDetails userDetails = new TokenPrincipal(claims);
 
 
             UsernamePasswordAuthenticationToken
@@ -3,25 +3,29 @@ package com.petclinic.authservice.security;
 import com.petclinic.authservice.datalayer.roles.Role;
 import com.petclinic.authservice.datalayer.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import java.util.*;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtTokenUtil implements Serializable {
 
 
 
     private final SecurityConst securityConst;
 
+    // derived once from the secret, both are thread safe and shared by every request
+    private final transient SecretKey signingKey;
+    private final transient JwtParser jwtParser;
+
 
     private static final String CLAIM_KEY_USERNAME = "sub";
     private static final String CLAIM_KEY_CREATED = "created";
@@ -29,40 +33,54 @@ public class JwtTokenUtil implements Serializable {
     private static final String CLAIM_KEY_ID = "id";
 
 
+    public JwtTokenUtil(SecurityConst securityConst) {
+        this.securityConst = securityConst;
+        this.signingKey = Keys.hmacShaKeyFor(securityConst.getSECRET().getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
 
 
-    public String getUsernameFromToken(String token) {
-        String username;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            username = claims.getSubject();
+    /**
+     * Parses and verifies the token once.
+     *
+     * @return the claims of the token, or null if the token is malformed, tampered with or expired
+     */
+    public TokenClaims parseToken(String token) {
+        final Claims claims = getClaimsFromToken(token);
 
-
-        } catch (Exception e) {
-            //SHOULD ADD THAT IT THROWS AN EXCEPTION, NOT JUST SETS IT NULL
-            username = null;
+        if (claims == null) {
+            return null;
         }
-        return username;
+
+        final Object id = claims.get(CLAIM_KEY_ID);
+
+        return new TokenClaims(
+                token,
+                id == null ? null : id.toString(),
+                claims.getSubject(),
+                getRolesFromClaims(claims),
+                claims.getExpiration());
+    }
+
+
+    public String getUsernameFromToken(String token) {
+        final TokenClaims claims = parseToken(token);
+        //SHOULD ADD THAT IT THROWS AN EXCEPTION, NOT JUST SETS IT NULL
+        return claims == null ? null : claims.username();
     }
 
 
     public Date getExpirationDateFromToken(String token) {
-        Date expiration;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            expiration = claims.getExpiration();
-        } catch (Exception e) {
-            expiration = null;
-        }
-        return expiration;
+        final TokenClaims claims = parseToken(token);
+        return claims == null ? null : claims.expiration();
     }
 
     private Claims getClaimsFromToken(String token) {
         Claims claims;
         try {
-            claims = Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(securityConst.getSECRET().getBytes()))
-                    .build().parseClaimsJws(token).getBody();
+            claims = jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.info(e.getMessage());
             //SHOULD ADD THAT IT THROWS AN EXCEPTION, NOT JUST SETS IT NULL
@@ -99,40 +117,41 @@ public class JwtTokenUtil implements Serializable {
         return Jwts.builder()
                 .setClaims(claims)
                 .setExpiration(expirationDate)
-                .signWith(Keys.hmacShaKeyFor(securityConst.getSECRET().getBytes()))
+                .signWith(signingKey)
                 .compact();
     }
 
 
     public Boolean validateToken(String token) {
-        final String username = getUsernameFromToken(token);
-        if (username == null) return false;
+        final TokenClaims claims = parseToken(token);
+        if (claims == null || claims.username() == null) return false;
 
 
-        return (!isTokenExpired(token));
+        return !claims.isExpired();
     }
 
     public String getIdFromToken(String token) {
-        String id;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            id = claims.get("id").toString();
-        } catch (Exception e) {
-            id = null;
-        }
-        return id;
+        final TokenClaims claims = parseToken(token);
+        return claims == null ? null : claims.userId();
     }
 
 
     public List<String> getRolesFromToken(String token) {
-        List<String> roles;
-        try {
-            final Claims claims = getClaimsFromToken(token);
+        final TokenClaims claims = parseToken(token);
+        return claims == null ? null : claims.roles();
+    }
 
-            roles = Arrays.asList(claims.get(CLAIM_KEY_ROLES).toString().split(","));
-        } catch (Exception e) {
-            roles = null;
+    private List<String> getRolesFromClaims(Claims claims) {
+        final Object roles = claims.get(CLAIM_KEY_ROLES);
+
+        if (roles == null) {
+            return null;
         }
-        return roles;
+
+        if (roles instanceof Collection<?> roleCollection) {
+            return roleCollection.stream().map(Object::toString).toList();
+        }
+
+        return Arrays.asList(roles.toString().split(","));
     }
 }
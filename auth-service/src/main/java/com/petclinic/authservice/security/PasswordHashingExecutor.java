@@ -0,0 +1,120 @@
+package com.petclinic.authservice.security;
+
+import com.petclinic.authservice.Util.Exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing and matching on a small dedicated pool with a bounded queue.
+ * <p>
+ * Request threads wait on the result instead of burning CPU themselves, so a burst of logins can only saturate this
+ * pool: once its queue is full further hashing requests fail fast with a {@link PasswordHashingUnavailableException}
+ * while endpoints that never hash, like token validation, keep their threads and CPU.
+ * </p>
+ * The pool is published to the meter registry as {@code auth.password.hashing.executor.*} (queued tasks, active
+ * threads, time spent queued and hashing) along with the {@code auth.password.hashing.rejected} counter.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    static final String METRIC_PREFIX = "auth.password.hashing";
+
+    private final ThreadPoolExecutor threadPool;
+
+    private final ExecutorService executor;
+
+    private final Counter rejected;
+
+    private final long timeoutMillis;
+
+    public PasswordHashingExecutor(@Value("${security.password-hashing.pool-size:4}") int poolSize,
+                                   @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+                                   @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+                                   @Value("${security.password-hashing.virtual-threads:false}") boolean virtualThreads,
+                                   MeterRegistry meterRegistry) {
+        this.timeoutMillis = timeoutMillis;
+        this.threadPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(virtualThreads), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "password-hashing", METRIC_PREFIX, Tags.empty());
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Password hashing tasks rejected because the queue was full or the wait timed out")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Too many password operations in progress, try again later", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Password operation timed out, try again later", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for a password operation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            ThreadFactory virtualThreadFactory = virtualThreadFactory();
+
+            if (virtualThreadFactory != null) {
+                return virtualThreadFactory;
+            }
+            log.warn("Virtual threads are not available on Java {}, password hashing uses platform threads",
+                    Runtime.version().feature());
+        }
+
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // the service still targets Java 17, so Thread.ofVirtual() is only looked up when running on a newer JVM
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "password-hashing-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.petclinic.authservice.security;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of the claims of a verified token, produced by a single parse in {@link JwtTokenUtil#parseToken(String)}.
+ *
+ * @param token      the raw token
+ * @param userId     the id claim of the user
+ * @param username   the subject of the token
+ * @param roles      the role names of the user
+ * @param expiration when the token expires
+ */
+public record TokenClaims(String token, String userId, String username, List<String> roles, Date expiration) {
+
+    public TokenClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
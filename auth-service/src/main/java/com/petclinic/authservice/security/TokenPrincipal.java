@@ -0,0 +1,70 @@
+package com.petclinic.authservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+import static java.lang.String.format;
+
+/**
+ * Principal of a request authenticated by {@link JwtTokenFilter}, built only from the claims of the token.
+ * <p>
+ * Endpoints needing the current state of the user (disabled, verified, roles changed since login)
+ * must load it from the database themselves using {@link #getUserId()}.
+ * </p>
+ */
+public class TokenPrincipal implements UserDetails {
+
+    private final TokenClaims claims;
+
+    public TokenPrincipal(TokenClaims claims) {
+        this.claims = claims;
+    }
+
+    public TokenClaims getClaims() {
+        return claims;
+    }
+
+    public String getUserId() {
+        return claims.userId();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return claims.roles().stream()
+                .map(role -> new SimpleGrantedAuthority(format("ROLE_%s", role)))
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return claims.username();
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return !claims.isExpired();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -182,7 +182,7 @@ public class AuthServiceUserServiceTests {
                 .build();
         userRepo.save(user2);
 
-        when(userRepo.findAll())
+        when(userRepo.findAllWithRoles())
                 .thenReturn(List.of(user,user2));
 
         assertEquals(2,userService.findAllWithoutPage().size());
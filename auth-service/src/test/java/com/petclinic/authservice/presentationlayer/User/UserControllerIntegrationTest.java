@@ -838,6 +838,102 @@ class UserControllerIntegrationTest {
                 .expectStatus().isUnauthorized();
     }
 
+    @Test
+    void getUsersPage_ShouldWalkEveryUserInUsernameOrder() {
+        String token = jwtTokenUtil.generateToken(userRepo.findAll().get(0));
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            String currentCursor = cursor;
+            UserPageResponseDTO page = webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/users/page")
+                            .queryParam("sort", "username")
+                            .queryParam("size", 5)
+                            .queryParamIfPresent("cursor", Optional.ofNullable(currentCursor))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .cookie("Bearer", token)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(UserPageResponseDTO.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(page);
+            assertTrue(page.getUsers().size() <= 5);
+            page.getUsers().forEach(user -> {
+                assertFalse(user.getRoles().isEmpty());
+                usernames.add(user.getUsername());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<String> expected = userRepo.findAll().stream().map(User::getUsername).sorted().toList();
+        assertEquals(expected, usernames);
+    }
+
+    @Test
+    void getUsersPage_WithInvalidSort_ShouldReturnUnprocessableEntity() {
+        String token = jwtTokenUtil.generateToken(userRepo.findAll().get(0));
+
+        webTestClient.get()
+                .uri("/users/page?sort=password")
+                .accept(MediaType.APPLICATION_JSON)
+                .cookie("Bearer", token)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void streamUsers_ShouldReturnEveryUser() {
+        String token = jwtTokenUtil.generateToken(userRepo.findAll().get(0));
+
+        List<UserDetails> users = webTestClient.get()
+                .uri("/users/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .cookie("Bearer", token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDetails.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(users);
+        assertEquals(userRepo.count(), users.size());
+    }
+
+    @Test
+    void isUsernameAvailable_ShouldOnlyBeTrueForUnusedUsernames() {
+        User existing = userRepo.findAll().get(0);
+        String token = jwtTokenUtil.generateToken(existing);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/users/username/available")
+                        .queryParam("username", existing.getUsername())
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .cookie("Bearer", token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Boolean.class).isEqualTo(false);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/users/username/available")
+                        .queryParam("username", "nobody-" + UUID.randomUUID())
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .cookie("Bearer", token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Boolean.class).isEqualTo(true);
+    }
+
     @Test
     void updateUser_validUserId() {
         String userId = VALID_USER_ID;
@@ -0,0 +1,90 @@
+package com.petclinic.authservice.security;
+
+import com.petclinic.authservice.Util.Exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PasswordHashingExecutor passwordHashingExecutor =
+            new PasswordHashingExecutor(1, 1, 5000, false, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.destroy();
+    }
+
+    @Test
+    void whenTaskSucceeds_thenReturnItsResult() {
+        assertEquals("hashed", passwordHashingExecutor.execute(() -> "hashed"));
+        assertEquals(1, meterRegistry.get(PasswordHashingExecutor.METRIC_PREFIX + ".executor").timer().count());
+    }
+
+    @Test
+    void whenTaskThrows_thenRethrowItsException() {
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("Invalid salt");
+        }));
+    }
+
+    @Test
+    void whenPoolAndQueueAreFull_thenRejectTask() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture.runAsync(() -> passwordHashingExecutor.execute(() -> {
+            running.countDown();
+            return await(release);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> passwordHashingExecutor.execute(() -> true));
+
+        waitUntilQueued();
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> passwordHashingExecutor.execute(() -> true));
+        assertEquals(1.0, meterRegistry.get(PasswordHashingExecutor.METRIC_PREFIX + ".rejected").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void whenTaskTakesTooLong_thenTimeout() {
+        PasswordHashingExecutor impatientExecutor = new PasswordHashingExecutor(1, 1, 10, false, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            assertThrows(PasswordHashingUnavailableException.class, () -> impatientExecutor.execute(() -> await(release)));
+        } finally {
+            release.countDown();
+            impatientExecutor.destroy();
+        }
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (meterRegistry.get(PasswordHashingExecutor.METRIC_PREFIX + ".executor.queued").gauge().value() == 1.0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Task was never queued");
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.petclinic.billing.util;
+
+import com.itextpdf.text.DocumentException;
+import com.petclinic.billing.datalayer.BillResponseDTO;
+import com.petclinic.billing.datalayer.BillStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks bill PDF throughput: single receipts written straight to a stream, single receipts through the reactive
+ * renderer, and statements of {@link #STATEMENT_SIZE} bills, reported per bill.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BillPdfBenchmark {
+
+    private static final int STATEMENT_SIZE = 50;
+
+    private BillPdfRenderer renderer;
+
+    private BillResponseDTO bill;
+
+    private List<BillResponseDTO> statementBills;
+
+    @Setup
+    public void setUp() {
+        renderer = new BillPdfRenderer(Runtime.getRuntime().availableProcessors(), 1000, 8192, Duration.ofSeconds(30));
+        bill = buildBill(0);
+        statementBills = new ArrayList<>();
+        for (int i = 0; i < STATEMENT_SIZE; i++) {
+            statementBills.add(buildBill(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.destroy();
+    }
+
+    @Benchmark
+    public void receipt(Blackhole blackhole) throws DocumentException {
+        PdfGenerator.writeBillPdf(bill, "CAD", new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void receiptThroughRenderer(Blackhole blackhole) {
+        renderer.renderBill(bill, "CAD")
+                .doOnNext(buffer -> {
+                    blackhole.consume(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATEMENT_SIZE)
+    public void statement(Blackhole blackhole) throws DocumentException {
+        PdfGenerator.writeStatementPdf("customerId-1", statementBills, "CAD", new BlackholeOutputStream(blackhole));
+    }
+
+    private static BillResponseDTO buildBill(int number) {
+        return BillResponseDTO.builder()
+                .billId("billId-" + number)
+                .customerId("customerId-1")
+                .ownerFirstName("John")
+                .ownerLastName("Doe")
+                .visitType("General")
+                .vetFirstName("Jane")
+                .vetLastName("Smith")
+                .date(LocalDate.of(2024, 1, 1).plusDays(number))
+                .dueDate(LocalDate.of(2024, 2, 1).plusDays(number))
+                .amount(new BigDecimal("120.00"))
+                .interest(new BigDecimal("1.80"))
+                .billStatus(number % 3 == 0 ? BillStatus.UNPAID : BillStatus.PAID)
+                .build();
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            blackhole.consume(bytes);
+        }
+    }
+}
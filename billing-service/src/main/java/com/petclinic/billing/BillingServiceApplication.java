@@ -2,9 +2,11 @@ package com.petclinic.billing;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan("com.petclinic")
+@EnableScheduling
 public class BillingServiceApplication {
 
 	public static void main(String[] args) {
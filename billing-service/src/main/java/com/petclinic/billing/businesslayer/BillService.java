@@ -2,6 +2,7 @@ package com.petclinic.billing.businesslayer;
 
 import java.math.BigDecimal;
 import com.petclinic.billing.datalayer.*;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -67,8 +68,8 @@ public interface BillService {
     // Method to fetch bills by month
     Flux<BillResponseDTO> getBillsByMonth(int year, int month);
 
-    // Method to check and update bills that are past due date from UNPAID to OVERDUE
-    Mono<Void> updateOverdueBills();
+    // Moves every UNPAID bill past its due date to OVERDUE, returns how many bills were updated
+    Mono<Long> updateOverdueBills();
 
 
 ///////////////// Used by both BillController and CustomerBillsController /////////////////////
@@ -85,7 +86,10 @@ public interface BillService {
     Flux<BillResponseDTO> getBillsByCustomerIdAndStatus(String customerId, BillStatus status);
 
     // Method to generate the bill PDF
-    Mono<byte[]> generateBillPdf(String customerId, String billId, String currency);
+    Flux<DataBuffer> generateBillPdf(String customerId, String billId, String currency);
+
+    // One PDF statement covering every bill of the customer, optionally only those with the given status
+    Flux<DataBuffer> generateCustomerStatementPdf(String customerId, BillStatus status, String currency);
 
     Mono<BigDecimal> calculateCurrentBalance(String customerId);
 
@@ -97,6 +101,6 @@ public interface BillService {
 
     Flux<BillResponseDTO> getBillsByCustomerIdAndDateRange(String customerId, LocalDate startDate, LocalDate endDate);
 
-     Mono<byte[]> generateStaffBillPdf(String billId, String currency);
+     Flux<DataBuffer> generateStaffBillPdf(String billId, String currency);
 
 }
\ No newline at end of file
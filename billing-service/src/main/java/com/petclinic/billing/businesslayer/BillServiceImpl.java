@@ -4,7 +4,6 @@ import com.petclinic.billing.datalayer.*;
 import com.petclinic.billing.domainclientlayer.Auth.AuthServiceClient;
 import com.petclinic.billing.domainclientlayer.Auth.UserDetails;
 import com.petclinic.billing.domainclientlayer.Mailing.Mail;
-import com.petclinic.billing.domainclientlayer.Mailing.MailService;
 import com.petclinic.billing.domainclientlayer.OwnerClient;
 import com.petclinic.billing.domainclientlayer.VetClient;
 import com.petclinic.billing.exceptions.InvalidPaymentException;
@@ -12,9 +11,10 @@ import com.petclinic.billing.exceptions.NotFoundException;
 import com.petclinic.billing.util.EntityDtoUtil;
 import com.petclinic.billing.util.FormatBillUtil;
 import com.petclinic.billing.util.InterestCalculationUtil;
-import com.petclinic.billing.util.PdfGenerator;
+import com.petclinic.billing.util.BillPdfRenderer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -24,8 +24,8 @@ import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.UUID;
-import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -36,13 +36,13 @@ public class BillServiceImpl implements BillService{
     private final VetClient vetClient;
     private final OwnerClient ownerClient;
     private final AuthServiceClient authClient;
-    private final MailService mailService;
+    private final MailOutboxService mailOutboxService;
+    private final BillPdfRenderer billPdfRenderer;
 
 
    @Override
     public Mono<BillResponseDTO> getBillByBillId(String billUUID) {
-        return updateOverdueBills()
-            .then(billRepository.findByBillId(billUUID))
+        return billRepository.findByBillId(billUUID)
             .doOnNext(bill -> log.info("Retrieved Bill: {}", bill))
             .map(EntityDtoUtil::toBillResponseDto);
 }
@@ -58,8 +58,7 @@ public class BillServiceImpl implements BillService{
 
     @Override
     public Flux<BillResponseDTO> getAllBills() {
-        return updateOverdueBills()
-                .thenMany(billRepository.findAll())
+        return billRepository.findAll()
                 .map(EntityDtoUtil::toBillResponseDto);
     }
 
@@ -97,66 +96,67 @@ public class BillServiceImpl implements BillService{
     public Flux<BillResponseDTO> getAllBillsByPage(Pageable pageable, String billId, String customerId,
                                                    String ownerFirstName, String ownerLastName, String visitType,
                                                    String vetId, String vetFirstName, String vetLastName) {
+        BillFilter filter = toBillFilter(billId, customerId, ownerFirstName, ownerLastName, visitType, vetId,
+                vetFirstName, vetLastName);
 
-        Predicate<Bill> filterCriteria = bill ->
-                (billId == null || bill.getBillId().equals(billId)) &&
-                        (customerId == null || bill.getCustomerId().equals(customerId)) &&
-                        (ownerFirstName == null || bill.getOwnerFirstName().equals(ownerFirstName)) &&
-                        (ownerLastName == null || bill.getOwnerLastName().equals(ownerLastName)) &&
-                        (visitType == null || bill.getVisitType().equals(visitType)) &&
-                        (vetId == null || bill.getVetId().equals(vetId)) &&
-                        (vetFirstName == null || bill.getVetFirstName().equals(vetFirstName)) &&
-                        (vetLastName == null || bill.getVetLastName().equals(vetLastName));
-
-        return updateOverdueBills()
-                .thenMany(billRepository.findAll())
-                .filter(filterCriteria)
-                .skip(pageable.getPageNumber() * pageable.getPageSize())
-                .take(pageable.getPageSize())
+        return billRepository.findBillsByFilter(filter, pageable)
                 .map(EntityDtoUtil::toBillResponseDto);
     }
 
     @Override
     public Mono<Long> getNumberOfBillsWithFilters(String billId, String customerId, String ownerFirstName, String ownerLastName,
                                                   String visitType, String vetId, String vetFirstName, String vetLastName) {
-        Predicate<Bill> filterCriteria = bill ->
-                (billId == null || bill.getBillId().equals(billId)) &&
-                        (customerId == null || bill.getCustomerId().equals(customerId)) &&
-                        (ownerFirstName == null || bill.getOwnerFirstName().equals(ownerFirstName)) &&
-                        (ownerLastName == null || bill.getOwnerLastName().equals(ownerLastName)) &&
-                        (visitType == null || bill.getVisitType().equals(visitType)) &&
-                        (vetId == null || bill.getVetId().equals(vetId)) &&
-                        (vetFirstName == null || bill.getVetFirstName().equals(vetFirstName)) &&
-                        (vetLastName == null || bill.getVetLastName().equals(vetLastName));
-
-        return billRepository.findAll()
-                .filter(filterCriteria)
-                .map(EntityDtoUtil::toBillResponseDto)
-                .count();
+        BillFilter filter = toBillFilter(billId, customerId, ownerFirstName, ownerLastName, visitType, vetId,
+                vetFirstName, vetLastName);
+
+        return billRepository.countBillsByFilter(filter);
+    }
+
+    private static BillFilter toBillFilter(String billId, String customerId, String ownerFirstName, String ownerLastName,
+                                           String visitType, String vetId, String vetFirstName, String vetLastName) {
+        return BillFilter.builder()
+                .billId(billId)
+                .customerId(customerId)
+                .ownerFirstName(ownerFirstName)
+                .ownerLastName(ownerLastName)
+                .visitType(visitType)
+                .vetId(vetId)
+                .vetFirstName(vetFirstName)
+                .vetLastName(vetLastName)
+                .build();
     }
 
     @Override
     public Flux<BillResponseDTO> getAllBillsByOwnerName(String ownerFirstName, String ownerLastName) {
-        return billRepository.findAll()
-                .filter(bill -> (ownerFirstName == null || bill.getOwnerFirstName().equals(ownerFirstName)) &&
-                        (ownerLastName == null || bill.getOwnerLastName().equals(ownerLastName)))
+        BillFilter filter = BillFilter.builder()
+                .ownerFirstName(ownerFirstName)
+                .ownerLastName(ownerLastName)
+                .build();
+
+        return billRepository.findBillsByFilter(filter, Pageable.unpaged())
                 .switchIfEmpty(Flux.error(new NotFoundException("No bills found for the given owner name")))
                 .map(EntityDtoUtil::toBillResponseDto);
     }
 
     @Override
     public Flux<BillResponseDTO> getAllBillsByVetName(String vetFirstName, String vetLastName) {
-        return billRepository.findAll()
-                .filter(bill -> (vetFirstName == null || bill.getVetFirstName().equals(vetFirstName)) &&
-                        (vetLastName == null || bill.getVetLastName().equals(vetLastName)))
+        BillFilter filter = BillFilter.builder()
+                .vetFirstName(vetFirstName)
+                .vetLastName(vetLastName)
+                .build();
+
+        return billRepository.findBillsByFilter(filter, Pageable.unpaged())
                 .switchIfEmpty(Flux.error(new NotFoundException("No bills found for the given vet name")))
                 .map(EntityDtoUtil::toBillResponseDto);
     }
 
     @Override
     public Flux<BillResponseDTO> getAllBillsByVisitType(String visitType) {
-        return billRepository.findAll()
-                .filter(bill -> visitType == null || bill.getVisitType().equals(visitType))
+        BillFilter filter = BillFilter.builder()
+                .visitType(visitType)
+                .build();
+
+        return billRepository.findBillsByFilter(filter, Pageable.unpaged())
                 .switchIfEmpty(Flux.error(new NotFoundException("No bills found for the given visit type")))
                 .map(EntityDtoUtil::toBillResponseDto);
     }
@@ -213,12 +213,10 @@ public class BillServiceImpl implements BillService{
                                 .flatMap(userDetails -> {
                                     if (currency.equals("USD")){
                                         Mail mail = generateReceiptEmailUSD(userDetails, EntityDtoUtil.toBillResponseDto(billResponse), currency);
-                                        mailService.sendMail(mail);
-                                        return Mono.just(billResponse);
+                                        return mailOutboxService.enqueue(mail).thenReturn(billResponse);
                                     }
                                     Mail mail = generateReceiptEmail(userDetails, EntityDtoUtil.toBillResponseDto(billResponse), currency);
-                                    mailService.sendMail(mail);
-                                    return Mono.just(billResponse);
+                                    return mailOutboxService.enqueue(mail).thenReturn(billResponse);
                                 });
                     } else {
                         return Mono.just(billResponse);
@@ -476,20 +474,29 @@ public class BillServiceImpl implements BillService{
     }
 
     @Override
-    public Mono<byte[]> generateBillPdf(String customerId, String billId, String currency) {
+    public Flux<DataBuffer> generateBillPdf(String customerId, String billId, String currency) {
         return billRepository.findByBillId(billId)
                 .filter(bill -> bill.getCustomerId().equals(customerId))
                 .switchIfEmpty(Mono.error(new RuntimeException("Bill not found for given customer")))
                 .map(EntityDtoUtil::toBillResponseDto)
-                .flatMap(bill -> {
-                    try {
-                        byte[] pdfBytes = PdfGenerator.generateBillPdf(bill, currency);
-                        return Mono.just(pdfBytes);
-                    } catch (Exception e) {
-                        log.error("PDF generation failed for billId: {}, currency: {}. Error: {}", bill.getBillId(), currency, e.getMessage(), e);
-                        return Mono.error(new RuntimeException("Error generating PDF", e));
-                    }
-                });
+                .flatMapMany(bill -> billPdfRenderer.renderBill(bill, currency)
+                        .doOnError(e -> log.error("PDF generation failed for billId: {}, currency: {}. Error: {}", bill.getBillId(), currency, e.getMessage(), e)));
+    }
+
+    @Override
+    public Flux<DataBuffer> generateCustomerStatementPdf(String customerId, BillStatus status, String currency) {
+        Flux<Bill> bills = status == null
+                ? billRepository.findByCustomerId(customerId)
+                : billRepository.findByCustomerIdAndBillStatus(customerId, status);
+
+        return bills
+                .map(EntityDtoUtil::toBillResponseDto)
+                .sort(Comparator.comparing(BillResponseDTO::getDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collectList()
+                .filter(statementBills -> !statementBills.isEmpty())
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "No bills found for customer: " + customerId)))
+                .flatMapMany(statementBills -> billPdfRenderer.renderStatement(customerId, statementBills, currency)
+                        .doOnError(e -> log.error("Statement PDF generation failed for customer {}: {}", customerId, e.getMessage(), e)));
     }
 
     public Mono<BigDecimal> calculateCurrentBalance(String customerId) {
@@ -542,11 +549,9 @@ public class BillServiceImpl implements BillService{
                                 bill.setInterest(interestAtPayment);
                                 bill.setBillStatus(BillStatus.PAID);
 
-                                //Generate confirmation email and Send email
-                                mailService.sendMail(generateConfirmationEmail(user));
-
-                                // 4. Save the updated bill back into the repository.
-                                return billRepository.save(bill);
+                                // 4. Save the updated bill back into the repository, then queue the confirmation email.
+                                return billRepository.save(bill)
+                                        .delayUntil(savedBill -> mailOutboxService.enqueue(generateConfirmationEmail(user)));
                             })
 
                             // 5. Map the updated Bill entity into a BillResponseDTO before returning.
@@ -602,36 +607,21 @@ public class BillServiceImpl implements BillService{
     }
 
     @Override
-    public Mono<byte[]> generateStaffBillPdf(String billId, String currency) {
+    public Flux<DataBuffer> generateStaffBillPdf(String billId, String currency) {
         return billRepository.findByBillId(billId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Bill not found for given ID")))
                 .map(EntityDtoUtil::toBillResponseDto)
-                .flatMap(bill -> {
-                    try {
-                        byte[] pdfBytes = PdfGenerator.generateBillPdf(bill, currency);
-                        log.info("Staff PDF generated for bill {}", billId);
-                        return Mono.just(pdfBytes);
-                    } catch (Exception e) {
-                        log.error("PDF generation failed for bill {}: {}", billId, e.getMessage(), e);
-                        return Mono.error(new RuntimeException("Error generating PDF", e));
-                    }
-                });
+                .flatMapMany(bill -> billPdfRenderer.renderBill(bill, currency)
+                        .doOnComplete(() -> log.info("Staff PDF generated for bill {}", billId))
+                        .doOnError(e -> log.error("PDF generation failed for bill {}: {}", billId, e.getMessage(), e)));
     }
 
     @Override
-    public Mono<Void> updateOverdueBills() {
+    public Mono<Long> updateOverdueBills() {
         LocalDate today = LocalDate.now();
-        
-        return billRepository.findAllBillsByBillStatus(BillStatus.UNPAID)
-                .filter(bill -> bill.getDueDate() != null && bill.getDueDate().isBefore(today))
-                .flatMap(bill -> {
-                    log.info("Updating bill {} from UNPAID to OVERDUE (due date: {}, today: {})", 
-                             bill.getBillId(), bill.getDueDate(), today);
-                    bill.setBillStatus(BillStatus.OVERDUE);
-                    return billRepository.save(bill);
-                })
-                .then()
-                .doOnSuccess(unused -> log.info("Completed overdue bills update check"))
+
+        return billRepository.markOverdueBills(today)
+                .doOnSuccess(count -> log.info("Moved {} bills from UNPAID to OVERDUE (due before {})", count, today))
                 .doOnError(error -> log.error("Error updating overdue bills: {}", error.getMessage(), error));
     }
 
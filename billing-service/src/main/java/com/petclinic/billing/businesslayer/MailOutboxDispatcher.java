@@ -0,0 +1,48 @@
+package com.petclinic.billing.businesslayer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the mail outbox on a short fixed delay, so that bill creation and payment only have to store the mail.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.mail-outbox.dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxDispatcher {
+
+    private final MailOutboxService mailOutboxService;
+
+    private final Timer runTimer;
+
+    private final Counter sentMails;
+
+    public MailOutboxDispatcher(MailOutboxService mailOutboxService, MeterRegistry meterRegistry) {
+        this.mailOutboxService = mailOutboxService;
+        this.runTimer = Timer.builder("billing.mail.outbox.dispatch")
+                .description("Time taken by one run of the mail outbox dispatcher")
+                .register(meterRegistry);
+        this.sentMails = Counter.builder("billing.mail.outbox.sent")
+                .description("Mails sent from the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.mail-outbox.initial-delay-ms:10000}",
+            fixedDelayString = "${app.mail-outbox.interval-ms:5000}")
+    public void dispatch() {
+        try {
+            Long sent = runTimer.recordCallable(() -> mailOutboxService.dispatchDueMails().block());
+
+            if (sent != null) {
+                sentMails.increment(sent);
+            }
+        } catch (Exception e) {
+            log.error("Mail outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.petclinic.billing.businesslayer;
+
+import com.petclinic.billing.datalayer.MailDeliveryResponseDTO;
+import com.petclinic.billing.datalayer.MailDeliveryStatus;
+import com.petclinic.billing.datalayer.MailOutboxEntry;
+import com.petclinic.billing.domainclientlayer.Mailing.Mail;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface MailOutboxService {
+
+    /**
+     * Stores the mail as PENDING. It is sent later by {@link #dispatchDueMails()}, never on the caller's thread.
+     */
+    Mono<MailOutboxEntry> enqueue(Mail mail);
+
+    Mono<MailDeliveryResponseDTO> getMailDelivery(String mailId);
+
+    Flux<MailDeliveryResponseDTO> getMailDeliveriesByStatus(MailDeliveryStatus status, Pageable pageable);
+
+    /**
+     * Claims one batch of due mails, sends them concurrently and records the outcome of each one. Failed sends are
+     * retried with exponential backoff until the attempt limit, after which the mail is marked FAILED.
+     *
+     * @return the number of mails sent by this run
+     */
+    Mono<Long> dispatchDueMails();
+}
@@ -0,0 +1,142 @@
+package com.petclinic.billing.businesslayer;
+
+import com.petclinic.billing.datalayer.MailDeliveryResponseDTO;
+import com.petclinic.billing.datalayer.MailDeliveryStatus;
+import com.petclinic.billing.datalayer.MailOutboxEntry;
+import com.petclinic.billing.datalayer.MailOutboxRepository;
+import com.petclinic.billing.domainclientlayer.Mailing.Mail;
+import com.petclinic.billing.domainclientlayer.Mailing.MailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+@Service
+public class MailOutboxServiceImpl implements MailOutboxService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailService mailService;
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration sendTimeout;
+
+    public MailOutboxServiceImpl(MailOutboxRepository mailOutboxRepository,
+                                 MailService mailService,
+                                 @Value("${app.mail-outbox.batch-size:50}") int batchSize,
+                                 @Value("${app.mail-outbox.concurrency:8}") int concurrency,
+                                 @Value("${app.mail-outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.mail-outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                                 @Value("${app.mail-outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                                 @Value("${app.mail-outbox.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailService = mailService;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMs);
+    }
+
+    @Override
+    public Mono<MailOutboxEntry> enqueue(Mail mail) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+
+            return mailOutboxRepository.insert(MailOutboxEntry.builder()
+                    .mail(mail)
+                    .status(MailDeliveryStatus.PENDING)
+                    .attempts(0)
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build());
+        }).doOnNext(entry -> log.debug("Queued mail {} to {}", entry.getId(), mail.getEmailSendTo()));
+    }
+
+    @Override
+    public Mono<MailDeliveryResponseDTO> getMailDelivery(String mailId) {
+        return mailOutboxRepository.findById(mailId).map(MailOutboxServiceImpl::toMailDeliveryResponseDto);
+    }
+
+    @Override
+    public Flux<MailDeliveryResponseDTO> getMailDeliveriesByStatus(MailDeliveryStatus status, Pageable pageable) {
+        return mailOutboxRepository.findAllByStatusOrderByCreatedAtDesc(status, pageable)
+                .map(MailOutboxServiceImpl::toMailDeliveryResponseDto);
+    }
+
+    @Override
+    public Mono<Long> dispatchDueMails() {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            // a mail still SENDING well after its send timeout belongs to a dispatcher that died mid-send
+            Instant staleBefore = now.minus(sendTimeout.multipliedBy(2));
+
+            return mailOutboxRepository.findDispatchable(now, staleBefore, batchSize)
+                    .flatMap(entry -> mailOutboxRepository.claim(entry.getId(), now, staleBefore), concurrency)
+                    .flatMap(this::deliver, concurrency)
+                    .filter(Boolean::booleanValue)
+                    .count();
+        });
+    }
+
+    private Mono<Boolean> deliver(MailOutboxEntry entry) {
+        return mailService.sendMailAsync(entry.getMail())
+                .timeout(sendTimeout)
+                .thenReturn(true)
+                .onErrorResume(e -> recordFailure(entry, e).thenReturn(false))
+                .flatMap(sent -> sent
+                        ? Mono.defer(() -> mailOutboxRepository.markSent(entry.getId(), Instant.now())).thenReturn(true)
+                        : Mono.just(false))
+                .onErrorResume(e -> {
+                    log.error("Could not record delivery of mail {}: {}", entry.getId(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Void> recordFailure(MailOutboxEntry entry, Throwable error) {
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+
+        // the mailer rejected the mail itself, sending it again would fail the same way
+        if (error instanceof HttpClientErrorException || entry.getAttempts() >= maxAttempts) {
+            log.error("Giving up on mail {} after {} attempt(s): {}", entry.getId(), entry.getAttempts(), reason);
+            return mailOutboxRepository.markFailed(entry.getId(), reason);
+        }
+
+        Instant nextAttemptAt = Instant.now().plus(backoff(entry.getAttempts()));
+        log.warn("Mail {} failed on attempt {}, retrying at {}: {}", entry.getId(), entry.getAttempts(), nextAttemptAt, reason);
+        return mailOutboxRepository.markForRetry(entry.getId(), nextAttemptAt, reason);
+    }
+
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static MailDeliveryResponseDTO toMailDeliveryResponseDto(MailOutboxEntry entry) {
+        Mail mail = entry.getMail();
+
+        return MailDeliveryResponseDTO.builder()
+                .mailId(entry.getId())
+                .emailSendTo(mail != null ? mail.getEmailSendTo() : null)
+                .emailTitle(mail != null ? mail.getEmailTitle() : null)
+                .status(entry.getStatus())
+                .attempts(entry.getAttempts())
+                .createdAt(entry.getCreatedAt())
+                .nextAttemptAt(entry.getNextAttemptAt())
+                .sentAt(entry.getSentAt())
+                .lastError(entry.getLastError())
+                .build();
+    }
+}
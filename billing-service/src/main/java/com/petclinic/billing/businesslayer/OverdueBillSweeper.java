@@ -0,0 +1,49 @@
+package com.petclinic.billing.businesslayer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves bills past their due date from UNPAID to OVERDUE on a fixed interval, so that reading a bill never has to
+ * update the collection first.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.overdue-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueBillSweeper {
+
+    private final BillService billService;
+
+    private final Timer runTimer;
+
+    private final Counter transitionedBills;
+
+    public OverdueBillSweeper(BillService billService, MeterRegistry meterRegistry) {
+        this.billService = billService;
+        this.runTimer = Timer.builder("billing.overdue.sweep")
+                .description("Time taken by one run of the overdue bill sweeper")
+                .register(meterRegistry);
+        this.transitionedBills = Counter.builder("billing.overdue.transitioned")
+                .description("Bills moved from UNPAID to OVERDUE by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.overdue-sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${app.overdue-sweeper.interval-ms:3600000}")
+    public void sweep() {
+        try {
+            Long transitioned = runTimer.recordCallable(() -> billService.updateOverdueBills().block());
+
+            if (transitioned != null) {
+                transitionedBills.increment(transitioned);
+            }
+        } catch (Exception e) {
+            log.error("Overdue bill sweep failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.petclinic.billing.datalayer;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,6 +14,16 @@ import java.time.LocalDate;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "billId_idx", def = "{'billId': 1}"),
+        @CompoundIndex(name = "customerId_billStatus_idx", def = "{'customerId': 1, 'billStatus': 1}"),
+        @CompoundIndex(name = "billStatus_dueDate_idx", def = "{'billStatus': 1, 'dueDate': 1}"),
+        @CompoundIndex(name = "ownerName_idx", def = "{'ownerLastName': 1, 'ownerFirstName': 1}"),
+        @CompoundIndex(name = "vetId_idx", def = "{'vetId': 1}"),
+        @CompoundIndex(name = "vetName_idx", def = "{'vetLastName': 1, 'vetFirstName': 1}"),
+        @CompoundIndex(name = "visitType_idx", def = "{'visitType': 1}")
+})
 public class Bill {
 
     @Id
@@ -0,0 +1,21 @@
+package com.petclinic.billing.datalayer;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional equality filters on bills, a null field is not filtered on.
+ */
+@Value
+@Builder
+public class BillFilter {
+
+    String billId;
+    String customerId;
+    String ownerFirstName;
+    String ownerLastName;
+    String visitType;
+    String vetId;
+    String vetFirstName;
+    String vetLastName;
+}
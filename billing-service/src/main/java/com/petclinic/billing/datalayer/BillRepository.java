@@ -12,7 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Repository
-public interface BillRepository extends ReactiveMongoRepository<Bill, String> {
+public interface BillRepository extends ReactiveMongoRepository<Bill, String>, BillRepositoryCustom {
 
     @Transactional(readOnly = true)
     Mono<Bill> findByBillId(String billId);
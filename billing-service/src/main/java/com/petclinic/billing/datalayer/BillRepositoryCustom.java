@@ -0,0 +1,19 @@
+package com.petclinic.billing.datalayer;
+
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface BillRepositoryCustom {
+
+    Flux<Bill> findBillsByFilter(BillFilter filter, Pageable pageable);
+
+    Mono<Long> countBillsByFilter(BillFilter filter);
+
+    /**
+     * Moves every UNPAID bill due before {@code today} to OVERDUE in a single update and returns how many changed.
+     */
+    Mono<Long> markOverdueBills(LocalDate today);
+}
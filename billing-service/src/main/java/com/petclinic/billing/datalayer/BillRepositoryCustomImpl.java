@@ -0,0 +1,62 @@
+package com.petclinic.billing.datalayer;
+
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Builds the bill filters into a single Mongo query so that filtering, skipping and limiting happen in the database
+ * instead of on the whole collection in memory.
+ */
+@RequiredArgsConstructor
+class BillRepositoryCustomImpl implements BillRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Bill> findBillsByFilter(BillFilter filter, Pageable pageable) {
+        return mongoTemplate.find(toQuery(filter).with(pageable), Bill.class);
+    }
+
+    @Override
+    public Mono<Long> countBillsByFilter(BillFilter filter) {
+        return mongoTemplate.count(toQuery(filter), Bill.class);
+    }
+
+    @Override
+    public Mono<Long> markOverdueBills(LocalDate today) {
+        Query unpaidPastDue = new Query(Criteria.where("billStatus").is(BillStatus.UNPAID).and("dueDate").lt(today));
+
+        return mongoTemplate.updateMulti(unpaidPastDue, Update.update("billStatus", BillStatus.OVERDUE), Bill.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    static Query toQuery(BillFilter filter) {
+        Query query = new Query();
+
+        addIfPresent(query, "billId", filter.getBillId());
+        addIfPresent(query, "customerId", filter.getCustomerId());
+        addIfPresent(query, "ownerFirstName", filter.getOwnerFirstName());
+        addIfPresent(query, "ownerLastName", filter.getOwnerLastName());
+        addIfPresent(query, "visitType", filter.getVisitType());
+        addIfPresent(query, "vetId", filter.getVetId());
+        addIfPresent(query, "vetFirstName", filter.getVetFirstName());
+        addIfPresent(query, "vetLastName", filter.getVetLastName());
+
+        return query;
+    }
+
+    private static void addIfPresent(Query query, String field, String value) {
+        if (value != null) {
+            query.addCriteria(Criteria.where(field).is(value));
+        }
+    }
+}
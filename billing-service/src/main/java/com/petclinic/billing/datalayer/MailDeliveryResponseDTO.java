@@ -0,0 +1,25 @@
+package com.petclinic.billing.datalayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailDeliveryResponseDTO {
+
+    private String mailId;
+    private String emailSendTo;
+    private String emailTitle;
+    private MailDeliveryStatus status;
+    private int attempts;
+    private Instant createdAt;
+    private Instant nextAttemptAt;
+    private Instant sentAt;
+    private String lastError;
+}
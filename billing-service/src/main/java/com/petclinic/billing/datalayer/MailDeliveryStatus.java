@@ -0,0 +1,8 @@
+package com.petclinic.billing.datalayer;
+
+public enum MailDeliveryStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
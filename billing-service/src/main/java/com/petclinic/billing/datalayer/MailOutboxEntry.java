@@ -0,0 +1,39 @@
+package com.petclinic.billing.datalayer;
+
+import com.petclinic.billing.domainclientlayer.Mailing.Mail;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A mail waiting in, or already dispatched from, the billing mail outbox.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("mail_outbox")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_nextAttemptAt_idx", def = "{'status': 1, 'nextAttemptAt': 1}"),
+        @CompoundIndex(name = "status_lastAttemptAt_idx", def = "{'status': 1, 'lastAttemptAt': 1}")
+})
+public class MailOutboxEntry {
+
+    @Id
+    private String id;
+    private Mail mail;
+    private MailDeliveryStatus status;
+    private int attempts;
+    private Instant createdAt;
+    private Instant nextAttemptAt;
+    private Instant lastAttemptAt;
+    private Instant sentAt;
+    private String lastError;
+}
@@ -0,0 +1,10 @@
+package com.petclinic.billing.datalayer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface MailOutboxRepository extends ReactiveMongoRepository<MailOutboxEntry, String>, MailOutboxRepositoryCustom {
+
+    Flux<MailOutboxEntry> findAllByStatusOrderByCreatedAtDesc(MailDeliveryStatus status, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.petclinic.billing.datalayer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface MailOutboxRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} mails that are due: PENDING with a next attempt at or before {@code now}, or stuck
+     * in SENDING since before {@code staleBefore} because the instance sending them went away.
+     */
+    Flux<MailOutboxEntry> findDispatchable(Instant now, Instant staleBefore, int limit);
+
+    /**
+     * Atomically moves a due mail to SENDING and counts the attempt. Empty when another dispatcher claimed it first.
+     */
+    Mono<MailOutboxEntry> claim(String id, Instant now, Instant staleBefore);
+
+    Mono<Void> markSent(String id, Instant sentAt);
+
+    Mono<Void> markForRetry(String id, Instant nextAttemptAt, String error);
+
+    Mono<Void> markFailed(String id, String error);
+}
@@ -0,0 +1,87 @@
+package com.petclinic.billing.datalayer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Status transitions of the mail outbox, each done as a single conditional update so that several billing instances
+ * can dispatch from the same collection without sending a mail twice.
+ */
+@RequiredArgsConstructor
+class MailOutboxRepositoryCustomImpl implements MailOutboxRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<MailOutboxEntry> findDispatchable(Instant now, Instant staleBefore, int limit) {
+        Query query = new Query(dispatchable(now, staleBefore))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"))
+                .limit(limit);
+
+        return mongoTemplate.find(query, MailOutboxEntry.class);
+    }
+
+    @Override
+    public Mono<MailOutboxEntry> claim(String id, Instant now, Instant staleBefore) {
+        Query query = new Query(new Criteria().andOperator(Criteria.where("_id").is(id), dispatchable(now, staleBefore)));
+        Update update = new Update()
+                .set("status", MailDeliveryStatus.SENDING)
+                .set("lastAttemptAt", now)
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                MailOutboxEntry.class);
+    }
+
+    @Override
+    public Mono<Void> markSent(String id, Instant sentAt) {
+        Update update = new Update()
+                .set("status", MailDeliveryStatus.SENT)
+                .set("sentAt", sentAt)
+                .unset("nextAttemptAt")
+                .unset("lastError");
+
+        return updateSending(id, update);
+    }
+
+    @Override
+    public Mono<Void> markForRetry(String id, Instant nextAttemptAt, String error) {
+        Update update = new Update()
+                .set("status", MailDeliveryStatus.PENDING)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", error);
+
+        return updateSending(id, update);
+    }
+
+    @Override
+    public Mono<Void> markFailed(String id, String error) {
+        Update update = new Update()
+                .set("status", MailDeliveryStatus.FAILED)
+                .set("lastError", error)
+                .unset("nextAttemptAt");
+
+        return updateSending(id, update);
+    }
+
+    private Mono<Void> updateSending(String id, Update update) {
+        Query query = new Query(Criteria.where("_id").is(id).and("status").is(MailDeliveryStatus.SENDING));
+
+        return mongoTemplate.updateFirst(query, update, MailOutboxEntry.class).then();
+    }
+
+    private static Criteria dispatchable(Instant now, Instant staleBefore) {
+        return new Criteria().orOperator(
+                Criteria.where("status").is(MailDeliveryStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(MailDeliveryStatus.SENDING).and("lastAttemptAt").lt(staleBefore));
+    }
+}
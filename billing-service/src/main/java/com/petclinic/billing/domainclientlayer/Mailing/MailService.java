@@ -1,8 +1,16 @@
 package com.petclinic.billing.domainclientlayer.Mailing;
 
 import com.petclinic.billing.domainclientlayer.Mailing.Mail;
+import reactor.core.publisher.Mono;
 
 public interface MailService {
 
     String sendMail(Mail mail);
+
+    /**
+     * Sends the mail on the HTTP client's own threads, so the caller's thread is never held for the round trip.
+     * Fails with {@link org.springframework.web.client.HttpClientErrorException} when the mailer rejects the mail and
+     * with {@link org.springframework.web.client.HttpServerErrorException} when it could not be reached or failed.
+     */
+    Mono<String> sendMailAsync(Mail mail);
 }
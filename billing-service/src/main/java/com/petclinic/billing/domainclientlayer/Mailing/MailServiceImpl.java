@@ -6,6 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Mono;
+import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 
 import java.io.IOException;
@@ -31,4 +35,45 @@ public class MailServiceImpl implements MailService {
             throw new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Unable to send mail");
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Mono<String> sendMailAsync(Mail mail) {
+        return Mono.create(sink -> {
+            Call<String> call = mailServiceCall.sendMail(mail);
+            sink.onCancel(call::cancel);
+
+            call.enqueue(new Callback<String>() {
+                @Override
+                public void onResponse(Call<String> call, Response<String> response) {
+                    log.info("Mail service returned {} status code", response.code());
+                    if (response.isSuccessful()) {
+                        sink.success(response.body());
+                        return;
+                    }
+
+                    HttpStatus status = HttpStatus.resolve(response.code());
+                    if (status != null && status.is4xxClientError()) {
+                        sink.error(new HttpClientErrorException(status, errorBody(response)));
+                    } else {
+                        sink.error(new HttpServerErrorException(status != null ? status : HttpStatus.BAD_GATEWAY,
+                                errorBody(response)));
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<String> call, Throwable t) {
+                    log.error(t.toString());
+                    sink.error(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Unable to send mail"));
+                }
+            });
+        });
+    }
+
+    private static String errorBody(Response<String> response) {
+        try {
+            return response.errorBody() != null ? response.errorBody().string() : response.message();
+        } catch (IOException e) {
+            return response.message();
+        }
+    }
+}
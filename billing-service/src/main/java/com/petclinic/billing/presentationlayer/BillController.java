@@ -4,6 +4,7 @@ import com.petclinic.billing.businesslayer.BillService;
 import com.petclinic.billing.datalayer.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -262,21 +263,13 @@ public class BillController {
     }
 
     @GetMapping(value = "/bills/{billId}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public Mono<ResponseEntity<byte[]>> downloadStaffBillPdf(
+    public ResponseEntity<Flux<DataBuffer>> downloadStaffBillPdf(
             @PathVariable String billId,
             @RequestParam(name = "currency", required = false, defaultValue = "CAD") String currency) {
 
-        return billService.generateStaffBillPdf(billId, currency)
-                .map(pdf -> {
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setContentType(MediaType.APPLICATION_PDF);
-                    headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=staff-bill-" + billId + ".pdf");
-                    log.info("Staff PDF generated for bill {}", billId);
-                    return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
-                })
-                .onErrorResume(e -> {
-                    log.error("Error generating staff PDF for billId: {}, currency: {}, error: {}", billId, currency, e.getMessage(), e);
-                    return Mono.just(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
-                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=staff-bill-" + billId + ".pdf")
+                .body(billService.generateStaffBillPdf(billId, currency));
     }
 }
@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -49,21 +50,25 @@ public class CustomerBillsController {
     }
 
     @GetMapping(value = "/{billId}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public Mono<ResponseEntity<byte[]>> downloadBillPdf(
+    public ResponseEntity<Flux<DataBuffer>> downloadBillPdf(
             @PathVariable String customerId,
             @PathVariable String billId,
             @RequestParam(name = "currency", required = false, defaultValue = "CAD") String currency) {
-        return billService.generateBillPdf(customerId, billId, currency)
-                .map(pdf -> {
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setContentType(MediaType.APPLICATION_PDF);
-                    headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=bill-" + billId + ".pdf");
-                    return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
-                })
-                .onErrorResume(e -> {
-                    log.error("Error generating PDF for billId: {} currency: {} error: {}", billId, currency, e.getMessage(), e);
-                    return Mono.just(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
-                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=bill-" + billId + ".pdf")
+                .body(billService.generateBillPdf(customerId, billId, currency));
+    }
+
+    @GetMapping(value = "/statement/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> downloadStatementPdf(
+            @PathVariable String customerId,
+            @RequestParam(name = "status", required = false) BillStatus status,
+            @RequestParam(name = "currency", required = false, defaultValue = "CAD") String currency) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=statement-" + customerId + ".pdf")
+                .body(billService.generateCustomerStatementPdf(customerId, status, currency));
     }
 
     @GetMapping(value = "/current-balance", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,41 @@
+package com.petclinic.billing.presentationlayer;
+
+import com.petclinic.billing.businesslayer.MailOutboxService;
+import com.petclinic.billing.datalayer.MailDeliveryResponseDTO;
+import com.petclinic.billing.datalayer.MailDeliveryStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/bills/mails")
+public class MailOutboxController {
+
+    private final MailOutboxService mailOutboxService;
+
+    public MailOutboxController(MailOutboxService mailOutboxService) {
+        this.mailOutboxService = mailOutboxService;
+    }
+
+    @GetMapping("/{mailId}")
+    public Mono<ResponseEntity<MailDeliveryResponseDTO>> getMailDelivery(@PathVariable String mailId) {
+        return mailOutboxService.getMailDelivery(mailId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public Flux<MailDeliveryResponseDTO> getMailDeliveriesByStatus(@RequestParam MailDeliveryStatus status,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size <= 0) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size"));
+        }
+
+        return mailOutboxService.getMailDeliveriesByStatus(status, PageRequest.of(page, size));
+    }
+}
@@ -0,0 +1,200 @@
+package com.petclinic.billing.util;
+
+import com.itextpdf.text.DocumentException;
+import com.petclinic.billing.datalayer.BillResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders bill PDFs off the event loop, on a scheduler with a fixed number of threads and a bounded queue, and emits
+ * the document as {@link DataBuffer}s while iText writes it instead of buffering the whole file first. The writer
+ * waits for the subscriber to request each buffer, so a slow download holds back the render rather than filling
+ * memory, and a cancelled one stops it. A download that asks for nothing more within the stall timeout fails, so that
+ * stalled clients cannot hold on to every render thread.
+ */
+@Slf4j
+@Component
+public class BillPdfRenderer implements DisposableBean {
+
+    private final Scheduler scheduler;
+
+    private final DataBufferFactory bufferFactory;
+
+    private final int chunkSize;
+
+    private final Duration stallTimeout;
+
+    public BillPdfRenderer(@Value("${app.pdf.render-threads:0}") int renderThreads,
+                           @Value("${app.pdf.queue-capacity:100}") int queueCapacity,
+                           @Value("${app.pdf.chunk-size:8192}") int chunkSize,
+                           @Value("${app.pdf.stall-timeout:30s}") Duration stallTimeout) {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+
+        this.scheduler = Schedulers.newBoundedElastic(threads, queueCapacity, "bill-pdf");
+        this.bufferFactory = new DefaultDataBufferFactory();
+        this.chunkSize = chunkSize;
+        this.stallTimeout = stallTimeout;
+    }
+
+    public Flux<DataBuffer> renderBill(BillResponseDTO bill, String currency) {
+        return render(out -> PdfGenerator.writeBillPdf(bill, currency, out));
+    }
+
+    public Flux<DataBuffer> renderStatement(String customerId, List<BillResponseDTO> bills, String currency) {
+        return render(out -> PdfGenerator.writeStatementPdf(customerId, bills, currency, out));
+    }
+
+    private Flux<DataBuffer> render(PdfWriterTask task) {
+        return Flux.<DataBuffer>create(sink -> {
+                    try (DataBufferSinkOutputStream out = new DataBufferSinkOutputStream(sink, bufferFactory, chunkSize, stallTimeout)) {
+                        task.write(out);
+                    } catch (Exception e) {
+                        if (!sink.isCancelled()) {
+                            sink.error(new RuntimeException("Error generating PDF", e));
+                        }
+                        return;
+                    }
+                    sink.complete();
+                })
+                // requests must reach the sink directly, the render thread being the one waiting on them
+                .subscribeOn(scheduler, false)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    @FunctionalInterface
+    private interface PdfWriterTask {
+        void write(OutputStream out) throws DocumentException;
+    }
+
+    /**
+     * Cuts what iText writes into buffers of {@code chunkSize} bytes and hands each one to the sink once full and
+     * requested, blocking the rendering thread until then, or until the stall timeout runs out.
+     */
+    private static final class DataBufferSinkOutputStream extends OutputStream {
+
+        private final FluxSink<DataBuffer> sink;
+        private final DataBufferFactory bufferFactory;
+        private final int chunkSize;
+        private final long stallTimeoutNanos;
+        private DataBuffer current;
+        private boolean aborted;
+
+        // buffers requested and not yet emitted, guarded by this
+        private long requested;
+
+        DataBufferSinkOutputStream(FluxSink<DataBuffer> sink, DataBufferFactory bufferFactory, int chunkSize,
+                                   Duration stallTimeout) {
+            this.sink = sink;
+            this.bufferFactory = bufferFactory;
+            this.chunkSize = chunkSize;
+            this.stallTimeoutNanos = stallTimeout.toNanos();
+
+            sink.onRequest(this::request);
+            sink.onCancel(this::wakeUp);
+        }
+
+        private synchronized void request(long n) {
+            requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            notifyAll();
+        }
+
+        private synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (sink.isCancelled()) {
+                // the client went away, abort the render instead of finishing a document nobody reads
+                throw new IOException("PDF download cancelled");
+            }
+
+            while (length > 0) {
+                if (current == null) {
+                    current = bufferFactory.allocateBuffer(chunkSize);
+                }
+
+                int count = Math.min(length, chunkSize - current.writePosition());
+                current.write(bytes, offset, count);
+                offset += count;
+                length -= count;
+
+                if (current.writePosition() == chunkSize) {
+                    emit();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null && current.readableByteCount() > 0 && !aborted && !sink.isCancelled()) {
+                emit();
+            } else if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+
+        private void emit() throws IOException {
+            awaitDemand();
+
+            DataBuffer full = current;
+            current = null;
+            sink.next(full);
+        }
+
+        private synchronized void awaitDemand() throws IOException {
+            long deadline = System.nanoTime() + stallTimeoutNanos;
+            try {
+                while (requested == 0 && !sink.isCancelled()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        // the client stopped reading, give the render thread back rather than wait on it
+                        aborted = true;
+                        throw new IOException("PDF download stalled");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                aborted = true;
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("PDF render interrupted");
+            }
+
+            if (sink.isCancelled()) {
+                // the client went away while the buffer waited, abort the render instead of finishing it
+                throw new IOException("PDF download cancelled");
+            }
+            if (requested != Long.MAX_VALUE) {
+                requested--;
+            }
+        }
+    }
+}
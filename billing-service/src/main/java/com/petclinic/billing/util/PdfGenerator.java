@@ -3,38 +3,68 @@ package com.petclinic.billing.util;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import com.petclinic.billing.datalayer.BillResponseDTO;
+import com.petclinic.billing.datalayer.BillStatus;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.List;
 import java.util.Optional;
 
 import static com.petclinic.billing.util.FormatBillUtil.convertFromCad;
 import static com.petclinic.billing.util.FormatBillUtil.formatCurrency;
 
+/**
+ * Lays out bill receipts and customer statements. Fonts, column widths and the fixed header cells are built once and
+ * shared: iText only reads fonts, and {@link PdfPTable#addCell(PdfPCell)} copies the cell it is given, so none of
+ * them is modified by a render.
+ */
 public class PdfGenerator {
 
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.BLACK);
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, BaseColor.BLACK);
+    private static final Font LABEL_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font VALUE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font TOTAL_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font TABLE_HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
+    private static final Font NOTES_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.GRAY);
+    private static final Font FOOTER_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
+
+    private static final String CLINIC_HEADER = "PetClinic\n123 Main Street\n(514) 555-1234";
+    private static final String NOTES = "Notes: All bills must be paid on time. Late payments may be subject to a " +
+            "1.5% interest charge on the outstanding balance.";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final float[] CHARGES_WIDTHS = {3, 1, 1, 1};
+    private static final PdfPCell[] CHARGES_HEADER = headerCells("Description", "Qty", "Unit Price", "Subtotal");
+
+    private static final float[] STATEMENT_WIDTHS = {2, 1.4f, 2, 1.2f, 1.4f, 1.4f, 1.4f};
+    private static final PdfPCell[] STATEMENT_HEADER =
+            headerCells("Bill ID", "Date", "Visit Type", "Status", "Subtotal", "Interest", "Total");
+
+    private PdfGenerator() {
+
+    }
+
     public static byte[] generateBillPdf(BillResponseDTO bill, String currency) throws DocumentException {
-        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, byteArrayOutputStream);
+        writeBillPdf(bill, currency, byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
 
-        document.open();
+    /**
+     * Writes the receipt of one bill to {@code out}. iText writes each page as it completes, so the caller sees the
+     * document arrive in pieces rather than all at once on close.
+     */
+    public static void writeBillPdf(BillResponseDTO bill, String currency, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        PdfWriter.getInstance(document, out);
 
-        // Header
-        Paragraph header = new Paragraph("PetClinic\n123 Main Street\n(514) 555-1234",
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14, BaseColor.BLACK));
-        header.setAlignment(Element.ALIGN_CENTER);
-        document.add(header);
+        document.open();
 
-        Paragraph title = new Paragraph("VETERINARY RECEIPT",
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, BaseColor.BLACK));
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingBefore(15);
-        title.setSpacingAfter(15);
-        document.add(title);
+        addClinicHeader(document, "VETERINARY RECEIPT");
 
         // Bill Metadata
         PdfPTable metaTable = new PdfPTable(2);
@@ -42,9 +72,7 @@ public class PdfGenerator {
         metaTable.setSpacingAfter(10);
 
         addMetaCell(metaTable, "Bill ID:", Optional.ofNullable(bill.getBillId()).orElse("N/A"));
-        addMetaCell(metaTable, "Date:", (bill.getDate() != null
-                ? bill.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
-                : "N/A"));
+        addMetaCell(metaTable, "Date:", formatDate(bill.getDate()));
         addMetaCell(metaTable, "Status:", (bill.getBillStatus() != null ? bill.getBillStatus().name() : "N/A"));
         addMetaCell(metaTable, "Visit Type:", Optional.ofNullable(bill.getVisitType()).orElse("N/A"));
 
@@ -55,8 +83,7 @@ public class PdfGenerator {
         partyTable.setWidthPercentage(100);
         partyTable.setSpacingAfter(15);
 
-        String ownerName = (Optional.ofNullable(bill.getOwnerFirstName()).orElse("") + " "
-                + Optional.ofNullable(bill.getOwnerLastName()).orElse("")).trim();
+        String ownerName = ownerName(bill);
 
         addMetaCell(partyTable, "Owner:", (ownerName.isEmpty() ? "N/A" : ownerName));
         addMetaCell(partyTable, "Vet:", Optional.ofNullable(bill.getVetFirstName()).orElse("") + " "
@@ -65,36 +92,138 @@ public class PdfGenerator {
         document.add(partyTable);
 
         // Charges Table
-        PdfPTable charges = new PdfPTable(4);
+        PdfPTable charges = new PdfPTable(CHARGES_WIDTHS);
         charges.setWidthPercentage(100);
         charges.setSpacingAfter(10);
-        charges.setWidths(new float[]{3, 1, 1, 1});
-
-        // Header row
-        addHeaderCell(charges, "Description");
-        addHeaderCell(charges, "Qty");
-        addHeaderCell(charges, "Unit Price");
-        addHeaderCell(charges, "Subtotal");
 
-        // Use CAD as base, convert to requested currency to match FE convertCurrency.ts
-        BigDecimal rawAmount   = Optional.ofNullable(bill.getAmount()).orElse(BigDecimal.ZERO);
-        BigDecimal rawInterest = Optional.ofNullable(bill.getInterest()).orElse(BigDecimal.ZERO);
-        // Prefer taxedAmount if present (matches FE where Total Due uses taxedAmount)
-        BigDecimal rawTotal    = Optional.ofNullable(bill.getTaxedAmount())
-                                     .orElse(rawAmount.add(rawInterest));
+        for (PdfPCell headerCell : CHARGES_HEADER) {
+            charges.addCell(headerCell);
+        }
 
-        BigDecimal subtotal = convertFromCad(rawAmount, currency);
-        BigDecimal interest = convertFromCad(rawInterest, currency);
-        BigDecimal totalDue = convertFromCad(rawTotal, currency);
+        BillAmounts amounts = BillAmounts.of(bill, currency);
 
         charges.addCell("Visit – " + Optional.ofNullable(bill.getVisitType()).orElse("N/A"));
         charges.addCell("1");
-        charges.addCell(rightAligned(formatCurrency(subtotal, currency)));
-        charges.addCell(rightAligned(formatCurrency(subtotal, currency)));
+        charges.addCell(rightAligned(formatCurrency(amounts.subtotal, currency)));
+        charges.addCell(rightAligned(formatCurrency(amounts.subtotal, currency)));
 
         document.add(charges);
 
         // Totals
+        PdfPTable totals = totalsTable();
+
+        totals.addCell("Subtotal");
+        totals.addCell(rightAligned(formatCurrency(amounts.subtotal, currency)));
+
+        if (amounts.interest.compareTo(BigDecimal.ZERO) > 0) {
+            totals.addCell("Interest");
+            totals.addCell(rightAligned(formatCurrency(amounts.interest, currency)));
+        }
+
+        addTotalRow(totals, "Total Due", formatCurrency(amounts.totalDue, currency));
+
+        document.add(totals);
+
+        addFooter(document);
+
+        document.close();
+    }
+
+    /**
+     * Writes one statement listing every given bill of a customer, with the amount billed and the amount still
+     * outstanding, in a single document.
+     */
+    public static void writeStatementPdf(String customerId, List<BillResponseDTO> bills, String currency,
+                                         OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4.rotate(), 40, 40, 40, 40);
+        PdfWriter.getInstance(document, out);
+
+        document.open();
+
+        addClinicHeader(document, "ACCOUNT STATEMENT");
+
+        PdfPTable metaTable = new PdfPTable(2);
+        metaTable.setWidthPercentage(100);
+        metaTable.setSpacingAfter(15);
+
+        String ownerName = bills.isEmpty() ? "" : ownerName(bills.get(0));
+
+        addMetaCell(metaTable, "Customer ID:", customerId);
+        addMetaCell(metaTable, "Owner:", (ownerName.isEmpty() ? "N/A" : ownerName));
+        addMetaCell(metaTable, "Statement Date:", formatDate(LocalDate.now()));
+        addMetaCell(metaTable, "Bills:", String.valueOf(bills.size()));
+
+        document.add(metaTable);
+
+        PdfPTable lines = new PdfPTable(STATEMENT_WIDTHS);
+        lines.setWidthPercentage(100);
+        lines.setSpacingAfter(10);
+        lines.setHeaderRows(1);
+
+        for (PdfPCell headerCell : STATEMENT_HEADER) {
+            lines.addCell(headerCell);
+        }
+
+        BigDecimal totalBilled = BigDecimal.ZERO;
+        BigDecimal totalOutstanding = BigDecimal.ZERO;
+
+        for (BillResponseDTO bill : bills) {
+            BillAmounts amounts = BillAmounts.of(bill, currency);
+
+            lines.addCell(Optional.ofNullable(bill.getBillId()).orElse("N/A"));
+            lines.addCell(formatDate(bill.getDate()));
+            lines.addCell(Optional.ofNullable(bill.getVisitType()).orElse("N/A"));
+            lines.addCell(bill.getBillStatus() != null ? bill.getBillStatus().name() : "N/A");
+            lines.addCell(rightAligned(formatCurrency(amounts.subtotal, currency)));
+            lines.addCell(rightAligned(formatCurrency(amounts.interest, currency)));
+            lines.addCell(rightAligned(formatCurrency(amounts.totalDue, currency)));
+
+            totalBilled = totalBilled.add(amounts.totalDue);
+            if (bill.getBillStatus() == BillStatus.UNPAID || bill.getBillStatus() == BillStatus.OVERDUE) {
+                totalOutstanding = totalOutstanding.add(amounts.totalDue);
+            }
+        }
+
+        document.add(lines);
+
+        PdfPTable totals = totalsTable();
+
+        totals.addCell("Total Billed");
+        totals.addCell(rightAligned(formatCurrency(totalBilled, currency)));
+
+        addTotalRow(totals, "Outstanding", formatCurrency(totalOutstanding, currency));
+
+        document.add(totals);
+
+        addFooter(document);
+
+        document.close();
+    }
+
+    private static void addClinicHeader(Document document, String titleText) throws DocumentException {
+        Paragraph header = new Paragraph(CLINIC_HEADER, HEADER_FONT);
+        header.setAlignment(Element.ALIGN_CENTER);
+        document.add(header);
+
+        Paragraph title = new Paragraph(titleText, TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingBefore(15);
+        title.setSpacingAfter(15);
+        document.add(title);
+    }
+
+    private static void addFooter(Document document) throws DocumentException {
+        Paragraph notes = new Paragraph(NOTES, NOTES_FONT);
+        notes.setSpacingBefore(30);
+        document.add(notes);
+
+        Paragraph footer = new Paragraph("Thank you for visiting PetClinic", FOOTER_FONT);
+        footer.setAlignment(Element.ALIGN_CENTER);
+        footer.setSpacingBefore(10);
+        document.add(footer);
+    }
+
+    private static PdfPTable totalsTable() {
         PdfPTable totals = new PdfPTable(2);
         totals.setWidthPercentage(40);
         totals.setHorizontalAlignment(Element.ALIGN_RIGHT);
@@ -108,74 +237,84 @@ public class PdfGenerator {
         separator.setPaddingTop(5);
         totals.addCell(separator);
 
-        totals.addCell("Subtotal");
-        totals.addCell(rightAligned(formatCurrency(subtotal, currency)));
-
-        if (interest.compareTo(BigDecimal.ZERO) > 0) {
-            totals.addCell("Interest");
-            totals.addCell(rightAligned(formatCurrency(interest, currency)));
-        }
+        return totals;
+    }
 
-        PdfPCell labelCell = new PdfPCell(new Phrase("Total Due",
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
+    private static void addTotalRow(PdfPTable totals, String label, String value) {
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, TOTAL_FONT));
         labelCell.setBorder(Rectangle.NO_BORDER);
         totals.addCell(labelCell);
 
-        PdfPCell totalCell = new PdfPCell(new Phrase(formatCurrency(totalDue, currency),
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
+        PdfPCell totalCell = new PdfPCell(new Phrase(value, TOTAL_FONT));
         totalCell.setBorder(Rectangle.NO_BORDER);
         totalCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
         totals.addCell(totalCell);
-
-        document.add(totals);
-
-        // Footer
-        Paragraph notes = new Paragraph(
-                "Notes: All bills must be paid on time. Late payments may be subject to a " +
-                        "1.5% interest charge on the outstanding balance.",
-                FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.GRAY));
-        notes.setSpacingBefore(30);
-        document.add(notes);
-
-        Paragraph footer = new Paragraph("Thank you for visiting PetClinic",
-                FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY));
-        footer.setAlignment(Element.ALIGN_CENTER);
-        footer.setSpacingBefore(10);
-        document.add(footer);
-
-        document.close();
-        return byteArrayOutputStream.toByteArray();
     }
 
+    private static String ownerName(BillResponseDTO bill) {
+        return (Optional.ofNullable(bill.getOwnerFirstName()).orElse("") + " "
+                + Optional.ofNullable(bill.getOwnerLastName()).orElse("")).trim();
+    }
 
+    private static String formatDate(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : "N/A";
+    }
 
     // Helper: metadata table cells
     private static void addMetaCell(PdfPTable table, String label, String value) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10)));
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, LABEL_FONT));
         labelCell.setBorder(Rectangle.NO_BORDER);
         table.addCell(labelCell);
 
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, FontFactory.getFont(FontFactory.HELVETICA, 10)));
+        PdfPCell valueCell = new PdfPCell(new Phrase(value, VALUE_FONT));
         valueCell.setBorder(Rectangle.NO_BORDER);
         valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
         table.addCell(valueCell);
     }
 
-    // Helper: header cell for charges table
-    private static void addHeaderCell(PdfPTable table, String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE)));
-        cell.setBackgroundColor(BaseColor.GRAY);
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        cell.setPadding(5);
-        table.addCell(cell);
+    // Helper: header cells for charges and statement tables
+    private static PdfPCell[] headerCells(String... texts) {
+        PdfPCell[] cells = new PdfPCell[texts.length];
+
+        for (int i = 0; i < texts.length; i++) {
+            PdfPCell cell = new PdfPCell(new Phrase(texts[i], TABLE_HEADER_FONT));
+            cell.setBackgroundColor(BaseColor.GRAY);
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setPadding(5);
+            cells[i] = cell;
+        }
+        return cells;
     }
 
     // Helper: right-aligned cell
     private static PdfPCell rightAligned(String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FontFactory.getFont(FontFactory.HELVETICA, 10)));
+        PdfPCell cell = new PdfPCell(new Phrase(text, VALUE_FONT));
         cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
         return cell;
     }
 
+    // Use CAD as base, convert to requested currency to match FE convertCurrency.ts
+    private static final class BillAmounts {
 
+        private final BigDecimal subtotal;
+        private final BigDecimal interest;
+        private final BigDecimal totalDue;
+
+        private BillAmounts(BigDecimal subtotal, BigDecimal interest, BigDecimal totalDue) {
+            this.subtotal = subtotal;
+            this.interest = interest;
+            this.totalDue = totalDue;
+        }
+
+        static BillAmounts of(BillResponseDTO bill, String currency) {
+            BigDecimal rawAmount   = Optional.ofNullable(bill.getAmount()).orElse(BigDecimal.ZERO);
+            BigDecimal rawInterest = Optional.ofNullable(bill.getInterest()).orElse(BigDecimal.ZERO);
+            // Prefer taxedAmount if present (matches FE where Total Due uses taxedAmount)
+            BigDecimal rawTotal    = Optional.ofNullable(bill.getTaxedAmount())
+                                         .orElse(rawAmount.add(rawInterest));
+
+            return new BillAmounts(convertFromCad(rawAmount, currency), convertFromCad(rawInterest, currency),
+                    convertFromCad(rawTotal, currency));
+        }
+    }
 }
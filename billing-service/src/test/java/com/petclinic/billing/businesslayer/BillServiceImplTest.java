@@ -4,12 +4,12 @@ import com.petclinic.billing.datalayer.*;
 import com.petclinic.billing.domainclientlayer.Auth.AuthServiceClient;
 import com.petclinic.billing.domainclientlayer.Auth.UserDetails;
 import com.petclinic.billing.domainclientlayer.Mailing.Mail;
-import com.petclinic.billing.domainclientlayer.Mailing.MailService;
 import com.petclinic.billing.domainclientlayer.OwnerClient;
 import com.petclinic.billing.domainclientlayer.VetClient;
 import com.petclinic.billing.exceptions.InvalidPaymentException;
 import com.petclinic.billing.exceptions.NotFoundException;
 import com.petclinic.billing.util.EntityDtoUtil;
+import com.petclinic.billing.util.BillPdfRenderer;
 import com.petclinic.billing.util.FormatBillUtil;
 import com.petclinic.billing.util.InterestCalculationUtil;
 import org.junit.jupiter.api.Test;
@@ -19,6 +19,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -52,7 +54,7 @@ public class BillServiceImplTest {
     VetClient vetClient;
 
     @MockBean
-    MailService mailService;
+    MailOutboxService mailOutboxService;
 
     @MockBean
     OwnerClient ownerClient;
@@ -63,6 +65,9 @@ public class BillServiceImplTest {
     @Autowired
     BillService billService;
 
+    @Autowired
+    BillPdfRenderer billPdfRenderer;
+
     @Test
     public void test_getBillById() {
         Bill billEntity = buildBill();
@@ -70,7 +75,6 @@ public class BillServiceImplTest {
         String BILL_ID = billEntity.getBillId();
 
         when(repo.findByBillId(anyString())).thenReturn(Mono.just(billEntity));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
 
         Mono<BillResponseDTO> billDTOMono = billService.getBillByBillId(BILL_ID);
 
@@ -131,9 +135,8 @@ public class BillServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 2);
 
-        // Mock the repository to return a Flux of owners
-        when(repo.findAll()).thenReturn(Flux.just(bill1, bill2, bill3));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
+        // The repository applies the paging, it returns the first page
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(pageable))).thenReturn(Flux.just(bill1, bill2));
 
         // Call the method under test
         Flux<BillResponseDTO> bills = billService.getAllBillsByPage(pageable, null, null,
@@ -200,7 +203,7 @@ public class BillServiceImplTest {
         billEntity.setOwnerFirstName(ownerFirstName);
         billEntity.setOwnerLastName(ownerLastName);
 
-        when(repo.findAll()).thenReturn(Flux.just(billEntity));
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.just(billEntity));
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByOwnerName(ownerFirstName, ownerLastName);
@@ -225,7 +228,7 @@ public class BillServiceImplTest {
         billEntity.setVetFirstName(vetFirstName);
         billEntity.setVetLastName(vetLastName);
 
-        when(repo.findAll()).thenReturn(Flux.just(billEntity));
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.just(billEntity));
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByVetName(vetFirstName, vetLastName);
@@ -248,7 +251,7 @@ public class BillServiceImplTest {
         Bill billEntity = buildBill();
         billEntity.setVisitType(visitType);
 
-        when(repo.findAll()).thenReturn(Flux.just(billEntity));
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.just(billEntity));
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByVisitType(visitType);
@@ -268,7 +271,7 @@ public class BillServiceImplTest {
         String ownerFirstName = "Nonexistent";
         String ownerLastName = "Person";
 
-        when(repo.findAll()).thenReturn(Flux.empty());
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.empty());
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByOwnerName(ownerFirstName, ownerLastName);
@@ -289,7 +292,7 @@ public class BillServiceImplTest {
         String vetFirstName = "Nonexistent";
         String vetLastName = "Vet";
 
-        when(repo.findAll()).thenReturn(Flux.empty());
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.empty());
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByVetName(vetFirstName, vetLastName);
@@ -309,7 +312,7 @@ public class BillServiceImplTest {
 
         String visitType = "ImaginaryType";
 
-        when(repo.findAll()).thenReturn(Flux.empty());
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(Pageable.unpaged()))).thenReturn(Flux.empty());
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByVisitType(visitType);
@@ -671,7 +674,6 @@ public class BillServiceImplTest {
         String nonExistentBillId = "nonExistentId";
 
         when(repo.findByBillId(nonExistentBillId)).thenReturn(Mono.empty());
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
 
         Mono<BillResponseDTO> billDTOMono = billService.getBillByBillId(nonExistentBillId);
 
@@ -758,12 +760,13 @@ public class BillServiceImplTest {
 
     when(repo.findByBillId(billId)).thenReturn(Mono.just(mockBill));
 
-    Mono<byte[]> pdfBytesMono = billService.generateBillPdf(customerId, billId, currency);
+    Mono<byte[]> pdfBytesMono = joinPdf(billService.generateBillPdf(customerId, billId, currency));
 
     StepVerifier.create(pdfBytesMono)
             .assertNext(pdfBytes -> {
                 assertNotNull(pdfBytes);
                 assertTrue(pdfBytes.length > 0);
+                assertEquals("%PDF", new String(pdfBytes, 0, 4));
             })
             .verifyComplete();
 }
@@ -773,7 +776,7 @@ public void testGenerateBillPdf_BillNotFound() {
     when(repo.findByBillId(anyString())).thenReturn(Mono.empty());
 
     String currency = "USD";
-    Mono<byte[]> pdfMono = billService.generateBillPdf("nonexistentCustomerId", "nonexistentBillId", currency);
+    Mono<byte[]> pdfMono = joinPdf(billService.generateBillPdf("nonexistentCustomerId", "nonexistentBillId", currency));
 
     StepVerifier.create(pdfMono)
             .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
@@ -858,8 +861,7 @@ public void testGenerateBillPdf_BillNotFound() {
         bill2.setBillId("BillUUID2");
         Pageable pageable = PageRequest.of(0, 1);
 
-        when(repo.findAll()).thenReturn(Flux.just(bill1, bill2));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(pageable))).thenReturn(Flux.just(bill1));
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByPage(pageable, null, null,
@@ -877,8 +879,7 @@ public void testGenerateBillPdf_BillNotFound() {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(repo.findAll()).thenReturn(Flux.empty());
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
+        when(repo.findBillsByFilter(any(BillFilter.class), eq(pageable))).thenReturn(Flux.empty());
 
 
         Flux<BillResponseDTO> result = billService.getAllBillsByPage(pageable, null, null,
@@ -964,8 +965,8 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(authClient.getUserById(anyString(), anyString()))
                 .thenReturn(Mono.just(fakeUser));
-        when(mailService.sendMail(any(Mail.class)))
-                .thenReturn(null);
+        when(mailOutboxService.enqueue(any(Mail.class)))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
 
         when(repo.findByCustomerIdAndBillId(customerId, billId)).thenReturn(Mono.just(bill));
@@ -982,6 +983,7 @@ public void testGenerateBillPdf_BillNotFound() {
                 .consumeNextWith(updatedBillDto -> {
                     assertEquals(BillStatus.PAID, updatedBillDto.getBillStatus());
                     verify(repo, times(1)).save(any(Bill.class));
+                    verify(mailOutboxService, times(1)).enqueue(any(Mail.class));
                 })
                 .verifyComplete();
     }
@@ -1000,8 +1002,8 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(authClient.getUserById(anyString(), anyString()))
                 .thenReturn(Mono.just(fakeUser));
-        when(mailService.sendMail(any(Mail.class)))
-                .thenReturn(null);
+        when(mailOutboxService.enqueue(any(Mail.class)))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
         StepVerifier.create(billService.processPayment(customerId, billId, paymentRequest, jwtToken))
                 .expectErrorMatches(throwable -> throwable instanceof InvalidPaymentException &&
@@ -1024,8 +1026,8 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(authClient.getUserById(anyString(), anyString()))
                 .thenReturn(Mono.just(fakeUser));
-        when(mailService.sendMail(any(Mail.class)))
-                .thenReturn(null);
+        when(mailOutboxService.enqueue(any(Mail.class)))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
         StepVerifier.create(billService.processPayment(customerId, billId, paymentRequest, jwtToken))
                 .expectErrorMatches(throwable -> throwable instanceof InvalidPaymentException &&
@@ -1048,8 +1050,8 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(authClient.getUserById(anyString(), anyString()))
                 .thenReturn(Mono.just(fakeUser));
-        when(mailService.sendMail(any(Mail.class)))
-                .thenReturn(null);
+        when(mailOutboxService.enqueue(any(Mail.class)))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
         StepVerifier.create(billService.processPayment(customerId, billId, paymentRequest, jwtToken))
                 .expectErrorMatches(throwable -> throwable instanceof InvalidPaymentException &&
@@ -1071,8 +1073,8 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(authClient.getUserById(anyString(), anyString()))
                 .thenReturn(Mono.just(fakeUser));
-        when(mailService.sendMail(any(Mail.class)))
-                .thenReturn(null);
+        when(mailOutboxService.enqueue(any(Mail.class)))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
         when(repo.findByCustomerIdAndBillId(customerId, billId)).thenReturn(Mono.empty());
 
@@ -1089,37 +1091,7 @@ public void testGenerateBillPdf_BillNotFound() {
     @Test
     void getNumberOfBillsWithFilters_Positive_ShouldCountMatchingBills() {
 
-        Bill b1 = buildBill();
-        b1.setBillId("B-1");
-        b1.setCustomerId("C-1");
-        b1.setOwnerFirstName("Alice");
-        b1.setOwnerLastName("Smith");
-        b1.setVisitType("ANNUAL");
-        b1.setVetId("V-1");
-        b1.setVetFirstName("Jenny");
-        b1.setVetLastName("Doe");
-
-        Bill b2 = buildBill();
-        b2.setBillId("B-2");
-        b2.setCustomerId("C-1");
-        b2.setOwnerFirstName("Alice");
-        b2.setOwnerLastName("Smith");
-        b2.setVisitType("ANNUAL");
-        b2.setVetId("V-1");
-        b2.setVetFirstName("Jenny");
-        b2.setVetLastName("Doe");
-
-        Bill b3 = buildBill();
-        b3.setBillId("B-3");
-        b3.setCustomerId("C-2");
-        b3.setOwnerFirstName("Bob");
-        b3.setOwnerLastName("Jones");
-        b3.setVisitType("SURGERY");
-        b3.setVetId("V-2");
-        b3.setVetFirstName("Tom");
-        b3.setVetLastName("Lee");
-
-        when(repo.findAll()).thenReturn(Flux.just(b1, b2, b3));
+        when(repo.countBillsByFilter(any(BillFilter.class))).thenReturn(Mono.just(2L));
 
         Mono<Long> result = billService.getNumberOfBillsWithFilters(
                 null,
@@ -1135,31 +1107,25 @@ public void testGenerateBillPdf_BillNotFound() {
         StepVerifier.create(result)
                 .expectNext(2L)
                 .verifyComplete();
+
+        ArgumentCaptor<BillFilter> filterCaptor = ArgumentCaptor.forClass(BillFilter.class);
+        verify(repo).countBillsByFilter(filterCaptor.capture());
+        assertEquals(BillFilter.builder()
+                .customerId("C-1")
+                .ownerFirstName("Alice")
+                .ownerLastName("Smith")
+                .visitType("ANNUAL")
+                .vetId("V-1")
+                .vetFirstName("Jenny")
+                .vetLastName("Doe")
+                .build(), filterCaptor.getValue());
+        verify(repo, never()).findAll();
     }
 
     @Test
     void getNumberOfBillsWithFilters_Negative_NoMatches_ShouldReturnZero() {
-        Bill b1 = buildBill();
-        b1.setBillId("B-10");
-        b1.setCustomerId("C-10");
-        b1.setOwnerFirstName("Alice");
-        b1.setOwnerLastName("Smith");
-        b1.setVisitType("ANNUAL");
-        b1.setVetId("V-10");
-        b1.setVetFirstName("Jenny");
-        b1.setVetLastName("Doe");
-
-        Bill b2 = buildBill();
-        b2.setBillId("B-11");
-        b2.setCustomerId("C-11");
-        b2.setOwnerFirstName("Bob");
-        b2.setOwnerLastName("Jones");
-        b2.setVisitType("SURGERY");
-        b2.setVetId("V-11");
-        b2.setVetFirstName("Tom");
-        b2.setVetLastName("Lee");
 
-        when(repo.findAll()).thenReturn(Flux.just(b1, b2));
+        when(repo.countBillsByFilter(any(BillFilter.class))).thenReturn(Mono.just(0L));
 
         Mono<Long> result = billService.getNumberOfBillsWithFilters(
                 "NO-SUCH-BILL",
@@ -1226,7 +1192,6 @@ public void testGenerateBillPdf_BillNotFound() {
                 .build();
 
         when(repo.findByBillId("overdue-bill-id")).thenReturn(Mono.just(overdueBill));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
 
 
         Mono<BillResponseDTO> result = billService.getBillByBillId("overdue-bill-id");
@@ -1255,7 +1220,6 @@ public void testGenerateBillPdf_BillNotFound() {
                 .build();
 
         when(repo.findByBillId("unpaid-bill-id")).thenReturn(Mono.just(unpaidBill));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
 
 
         Mono<BillResponseDTO> result = billService.getBillByBillId("unpaid-bill-id");
@@ -1663,7 +1627,7 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(repo.findByBillId(billId)).thenReturn(Mono.just(bill));
 
-        Mono<byte[]> result = billService.generateBillPdf(requestedCustomer, billId, currency);
+        Mono<byte[]> result = joinPdf(billService.generateBillPdf(requestedCustomer, billId, currency));
 
         StepVerifier.create(result)
             .expectErrorSatisfies(ex -> {
@@ -2022,7 +1986,6 @@ public void testGenerateBillPdf_BillNotFound() {
             .build();
 
         when(repo.findByBillId("integration-test-id")).thenReturn(Mono.just(overdueBill));
-        when(repo.findAllBillsByBillStatus(BillStatus.UNPAID)).thenReturn(Flux.empty());
 
         
         Mono<BillResponseDTO> result = billService.getBillByBillId("integration-test-id");        StepVerifier.create(result)
@@ -2197,7 +2160,7 @@ public void testGenerateBillPdf_BillNotFound() {
 
         when(repo.findByBillId(billId)).thenReturn(Mono.just(mockBill));
 
-        Mono<byte[]> pdfBytesMono = billService.generateStaffBillPdf(billId, currency);
+        Mono<byte[]> pdfBytesMono = joinPdf(billService.generateStaffBillPdf(billId, currency));
 
         StepVerifier.create(pdfBytesMono)
                 .assertNext(pdfBytes -> {
@@ -2207,12 +2170,51 @@ public void testGenerateBillPdf_BillNotFound() {
                 .verifyComplete();
     }
 
+    @Test
+    public void testGenerateCustomerStatementPdf_Success() {
+        Bill first = buildBill();
+        first.setBillId("billId-1");
+        first.setBillStatus(BillStatus.PAID);
+        Bill second = buildBill();
+        second.setBillId("billId-2");
+        second.setBillStatus(BillStatus.UNPAID);
+
+        when(repo.findByCustomerId("customerId-1")).thenReturn(Flux.just(second, first));
+
+        StepVerifier.create(joinPdf(billService.generateCustomerStatementPdf("customerId-1", null, "CAD")))
+                .assertNext(pdfBytes -> assertEquals("%PDF", new String(pdfBytes, 0, 4)))
+                .verifyComplete();
+
+        verify(repo, never()).findByCustomerIdAndBillStatus(anyString(), any());
+    }
+
+    @Test
+    public void testGenerateCustomerStatementPdf_WithStatus_NoBills_ShouldReturnNotFound() {
+        when(repo.findByCustomerIdAndBillStatus("customerId-1", BillStatus.OVERDUE)).thenReturn(Flux.empty());
+
+        StepVerifier.create(billService.generateCustomerStatementPdf("customerId-1", BillStatus.OVERDUE, "CAD"))
+                .expectErrorSatisfies(ex -> {
+                    assertThat(ex).isInstanceOf(ResponseStatusException.class);
+                    assertThat(((ResponseStatusException) ex).getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+                })
+                .verify();
+    }
+
+    private static Mono<byte[]> joinPdf(Flux<DataBuffer> pdf) {
+        return DataBufferUtils.join(pdf).map(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            return bytes;
+        });
+    }
+
     @Test
     public void testGenerateStaffBillPdf_BillNotFound() {
         when(repo.findByBillId(anyString())).thenReturn(Mono.empty());
 
         String currency = "USD";
-        Mono<byte[]> pdfMono = billService.generateStaffBillPdf("nonexistentBillId", currency);
+        Mono<byte[]> pdfMono = joinPdf(billService.generateStaffBillPdf("nonexistentBillId", currency));
 
         StepVerifier.create(pdfMono)
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
@@ -2269,10 +2271,10 @@ public void testGenerateBillPdf_BillNotFound() {
 
         // Mock mail sending
         ArgumentCaptor<Mail> mailCaptor = ArgumentCaptor.forClass(Mail.class);
-        when(mailService.sendMail(mailCaptor.capture()))
-                .thenReturn("Message sent to test@example.com");
+        when(mailOutboxService.enqueue(mailCaptor.capture()))
+                .thenReturn(Mono.just(new MailOutboxEntry()));
 
-        billService = new BillServiceImpl(repo, vetClient, ownerClient, authClient, mailService);
+        billService = new BillServiceImpl(repo, vetClient, ownerClient, authClient, mailOutboxService, billPdfRenderer);
 
         // Act
         StepVerifier.create(billService.createBill(Mono.just(billDTO), true, "CAD", "jwtToken"))
@@ -0,0 +1,153 @@
+package com.petclinic.billing.businesslayer;
+
+import com.petclinic.billing.datalayer.MailDeliveryStatus;
+import com.petclinic.billing.datalayer.MailOutboxEntry;
+import com.petclinic.billing.datalayer.MailOutboxRepository;
+import com.petclinic.billing.domainclientlayer.Mailing.Mail;
+import com.petclinic.billing.domainclientlayer.Mailing.MailService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MailOutboxServiceImplTest {
+
+    private final MailOutboxRepository mailOutboxRepository = mock(MailOutboxRepository.class);
+
+    private final MailService mailService = mock(MailService.class);
+
+    private final MailOutboxServiceImpl mailOutboxService =
+            new MailOutboxServiceImpl(mailOutboxRepository, mailService, 50, 8, 3, 1000, 5000, 1000);
+
+    @Test
+    void enqueue_ShouldStoreThePendingMailWithoutSendingIt() {
+        Mail mail = buildMail();
+        when(mailOutboxRepository.insert(any(MailOutboxEntry.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(mailOutboxService.enqueue(mail))
+                .assertNext(entry -> {
+                    assertEquals(MailDeliveryStatus.PENDING, entry.getStatus());
+                    assertEquals(0, entry.getAttempts());
+                    assertEquals(mail, entry.getMail());
+                    assertEquals(entry.getCreatedAt(), entry.getNextAttemptAt());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(mailService);
+    }
+
+    @Test
+    void dispatchDueMails_ShouldMarkDeliveredMailsAsSent() {
+        MailOutboxEntry entry = claimed("mail-1", 1);
+        when(mailOutboxRepository.findDispatchable(any(), any(), eq(50))).thenReturn(Flux.just(entry));
+        when(mailOutboxRepository.claim(eq("mail-1"), any(), any())).thenReturn(Mono.just(entry));
+        when(mailService.sendMailAsync(entry.getMail())).thenReturn(Mono.just("Message sent"));
+        when(mailOutboxRepository.markSent(eq("mail-1"), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(mailOutboxService.dispatchDueMails())
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(mailOutboxRepository).markSent(eq("mail-1"), any(Instant.class));
+        verify(mailOutboxRepository, never()).markForRetry(anyString(), any(), anyString());
+    }
+
+    @Test
+    void dispatchDueMails_WhenAnotherDispatcherClaimedTheMail_ShouldNotSendIt() {
+        MailOutboxEntry entry = claimed("mail-1", 1);
+        when(mailOutboxRepository.findDispatchable(any(), any(), anyInt())).thenReturn(Flux.just(entry));
+        when(mailOutboxRepository.claim(eq("mail-1"), any(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(mailOutboxService.dispatchDueMails())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verifyNoInteractions(mailService);
+    }
+
+    @Test
+    void dispatchDueMails_WhenMailerIsUnavailable_ShouldRescheduleWithBackoff() {
+        MailOutboxEntry entry = claimed("mail-1", 2);
+        when(mailOutboxRepository.findDispatchable(any(), any(), anyInt())).thenReturn(Flux.just(entry));
+        when(mailOutboxRepository.claim(eq("mail-1"), any(), any())).thenReturn(Mono.just(entry));
+        when(mailService.sendMailAsync(any(Mail.class)))
+                .thenReturn(Mono.error(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+        when(mailOutboxRepository.markForRetry(eq("mail-1"), any(), anyString())).thenReturn(Mono.empty());
+
+        Instant before = Instant.now();
+
+        StepVerifier.create(mailOutboxService.dispatchDueMails())
+                .expectNext(0L)
+                .verifyComplete();
+
+        ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(mailOutboxRepository).markForRetry(eq("mail-1"), nextAttemptAt.capture(), anyString());
+        assertTrue(!nextAttemptAt.getValue().isBefore(before.plusMillis(2000)));
+        verify(mailOutboxRepository, never()).markSent(anyString(), any());
+    }
+
+    @Test
+    void dispatchDueMails_WhenMailIsRejectedOrOutOfAttempts_ShouldMarkItFailed() {
+        MailOutboxEntry rejected = claimed("mail-1", 1);
+        MailOutboxEntry exhausted = claimed("mail-2", 3);
+        when(mailOutboxRepository.findDispatchable(any(), any(), anyInt())).thenReturn(Flux.just(rejected, exhausted));
+        when(mailOutboxRepository.claim(eq("mail-1"), any(), any())).thenReturn(Mono.just(rejected));
+        when(mailOutboxRepository.claim(eq("mail-2"), any(), any())).thenReturn(Mono.just(exhausted));
+        when(mailService.sendMailAsync(rejected.getMail()))
+                .thenReturn(Mono.error(new HttpClientErrorException(HttpStatus.BAD_REQUEST)));
+        when(mailService.sendMailAsync(exhausted.getMail()))
+                .thenReturn(Mono.error(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        when(mailOutboxRepository.markFailed(anyString(), anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(mailOutboxService.dispatchDueMails())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(mailOutboxRepository).markFailed(eq("mail-1"), anyString());
+        verify(mailOutboxRepository).markFailed(eq("mail-2"), anyString());
+        verify(mailOutboxRepository, never()).markForRetry(anyString(), any(), anyString());
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToTheMaximum() {
+        assertEquals(Duration.ofMillis(1000), mailOutboxService.backoff(1));
+        assertEquals(Duration.ofMillis(2000), mailOutboxService.backoff(2));
+        assertEquals(Duration.ofMillis(4000), mailOutboxService.backoff(3));
+        assertEquals(Duration.ofMillis(5000), mailOutboxService.backoff(4));
+        assertEquals(Duration.ofMillis(5000), mailOutboxService.backoff(40));
+    }
+
+    private static MailOutboxEntry claimed(String id, int attempts) {
+        return MailOutboxEntry.builder()
+                .id(id)
+                .mail(buildMail().toBuilder().emailTitle("Receipt " + id).build())
+                .status(MailDeliveryStatus.SENDING)
+                .attempts(attempts)
+                .build();
+    }
+
+    private static Mail buildMail() {
+        return Mail.builder()
+                .emailSendTo("owner@example.com")
+                .emailTitle("Pet Clinic - Payment Receipt")
+                .templateName("Default")
+                .header("Payment Receipt")
+                .body("Thank you")
+                .footer("Pet Clinic")
+                .senderName("Pet Clinic")
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.petclinic.billing.businesslayer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class OverdueBillSweeperTest {
+
+    private final BillService billService = mock(BillService.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OverdueBillSweeper sweeper = new OverdueBillSweeper(billService, meterRegistry);
+
+    @Test
+    void sweep_ShouldCountTransitionedBillsAndTimeTheRun() {
+        when(billService.updateOverdueBills()).thenReturn(Mono.just(3L), Mono.just(2L));
+
+        sweeper.sweep();
+        sweeper.sweep();
+
+        assertEquals(5.0, meterRegistry.get("billing.overdue.transitioned").counter().count());
+        assertEquals(2, meterRegistry.get("billing.overdue.sweep").timer().count());
+    }
+
+    @Test
+    void sweep_WhenUpdateFails_ShouldNotThrow() {
+        when(billService.updateOverdueBills()).thenReturn(Mono.error(new RuntimeException("Mongo unavailable")));
+
+        sweeper.sweep();
+
+        assertEquals(0.0, meterRegistry.get("billing.overdue.transitioned").counter().count());
+        verify(billService, times(1)).updateOverdueBills();
+    }
+}
@@ -7,6 +7,8 @@ import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import java.math.BigDecimal;
@@ -190,6 +192,80 @@ public class BillServicePersistenceTests {
                 .verifyComplete();
     }
 
+    @Test
+    void shouldFindBillsByFilterOnePageAtATime(){
+
+        Publisher<Bill> setup = repo.deleteAll().thenMany(repo.saveAll(Flux.just(
+                buildBill("1", "2"),
+                buildBill("2", "1"),
+                buildBill("3", "1"),
+                buildBill("4", "1"))));
+        BillFilter filter = BillFilter.builder().vetId("1").visitType("Test Type").build();
+
+        StepVerifier
+                .create(setup)
+                .expectNextCount(4)
+                .verifyComplete();
+
+        StepVerifier
+                .create(repo.findBillsByFilter(filter, PageRequest.of(1, 2)))
+                .assertNext(bill -> assertEquals("BillUUID4", bill.getBillId()))
+                .verifyComplete();
+
+        StepVerifier
+                .create(repo.countBillsByFilter(filter))
+                .expectNext(3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCountEveryBillWhenFilterIsEmpty(){
+
+        Publisher<Bill> setup = repo.deleteAll().thenMany(repo.save(buildBill()));
+
+        StepVerifier
+                .create(setup)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier
+                .create(repo.countBillsByFilter(BillFilter.builder().build()))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMarkOnlyUnpaidBillsPastTheirDueDateAsOverdue(){
+
+        LocalDate today = LocalDate.now();
+        Bill pastDue = buildBill("1", "1");
+        pastDue.setBillStatus(BillStatus.UNPAID);
+        pastDue.setDueDate(today.minusDays(1));
+        Bill dueToday = buildBill("2", "1");
+        dueToday.setBillStatus(BillStatus.UNPAID);
+        dueToday.setDueDate(today);
+        Bill paid = buildBill("3", "1");
+        paid.setBillStatus(BillStatus.PAID);
+        paid.setDueDate(today.minusDays(1));
+
+        Publisher<Bill> setup = repo.deleteAll().thenMany(repo.saveAll(Flux.just(pastDue, dueToday, paid)));
+
+        StepVerifier
+                .create(setup)
+                .expectNextCount(3)
+                .verifyComplete();
+
+        StepVerifier
+                .create(repo.markOverdueBills(today))
+                .expectNext(1L)
+                .verifyComplete();
+
+        StepVerifier
+                .create(repo.findAllBillsByBillStatus(BillStatus.OVERDUE))
+                .assertNext(bill -> assertEquals(pastDue.getBillId(), bill.getBillId()))
+                .verifyComplete();
+    }
+
     private Bill buildBill(){
 
         Calendar calendar = Calendar.getInstance();
@@ -202,6 +278,15 @@ public class BillServicePersistenceTests {
         return Bill.builder().id("Id").billId("BillUUID").customerId("1").vetId("1").visitType("Test Type").date(date).amount(new BigDecimal(13.37)).build();
     }
 
+    private Bill buildBill(String number, String vetId){
+
+        Bill bill = buildBill();
+        bill.setId("Id" + number);
+        bill.setBillId("BillUUID" + number);
+        bill.setVetId(vetId);
+        return bill;
+    }
+
     @Test
     void shouldFindAllBillsByDateBetween(){
 
@@ -68,6 +68,8 @@ public class CustomerBillsControllerIntegrationTest {
         // Mock the MailService to avoid sending real emails
         when(mailService.sendMail(any(Mail.class)))
                 .thenReturn("Mail sent successfully");
+        when(mailService.sendMailAsync(any(Mail.class)))
+                .thenReturn(Mono.just("Mail sent successfully"));
     }
 
 
@@ -0,0 +1,170 @@
+package com.petclinic.billing.util;
+
+import com.petclinic.billing.datalayer.BillResponseDTO;
+import com.petclinic.billing.datalayer.BillStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BillPdfRendererTest {
+
+    private final BillPdfRenderer renderer = new BillPdfRenderer(2, 10, 1024, Duration.ofSeconds(30));
+
+    @AfterEach
+    void tearDown() {
+        renderer.destroy();
+    }
+
+    @Test
+    void renderBill_ShouldStreamTheDocumentInChunks() {
+        List<byte[]> chunks = collect(renderer.renderBill(buildBill("billId-1", BillStatus.UNPAID), "CAD"));
+
+        assertTrue(chunks.size() > 1);
+        chunks.subList(0, chunks.size() - 1).forEach(chunk -> assertEquals(1024, chunk.length));
+        assertIsPdf(concat(chunks));
+    }
+
+    @Test
+    void renderBill_ShouldMatchTheBufferedDocumentLength() throws Exception {
+        BillResponseDTO bill = buildBill("billId-1", BillStatus.PAID);
+
+        byte[] streamed = concat(collect(renderer.renderBill(bill, "USD")));
+        byte[] buffered = PdfGenerator.generateBillPdf(bill, "USD");
+
+        assertEquals(buffered.length, streamed.length);
+    }
+
+    @Test
+    void renderStatement_ShouldRenderEveryBillInOneDocument() {
+        List<BillResponseDTO> bills = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            bills.add(buildBill("billId-" + i, i % 2 == 0 ? BillStatus.PAID : BillStatus.OVERDUE));
+        }
+
+        byte[] pdf = concat(collect(renderer.renderStatement("customerId-1", bills, "CAD")));
+
+        assertIsPdf(pdf);
+        assertTrue(pdf.length > concat(collect(renderer.renderBill(bills.get(0), "CAD"))).length);
+    }
+
+    @Test
+    void renderBill_WhenCancelled_ShouldReleaseWithoutError() {
+        StepVerifier.create(renderer.renderBill(buildBill("billId-1", BillStatus.PAID), "CAD").take(1))
+                .assertNext(DataBufferUtils::release)
+                .verifyComplete();
+    }
+
+    @Test
+    void renderBill_ShouldOnlyWriteAheadOfDemand() {
+        Flux<Integer> lengths = renderer.renderBill(buildBill("billId-1", BillStatus.UNPAID), "CAD")
+                .map(buffer -> {
+                    int length = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return length;
+                });
+
+        StepVerifier.create(lengths, 1)
+                .expectNext(1024)
+                .expectNoEvent(Duration.ofMillis(300))
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(length -> true)
+                .verifyComplete();
+    }
+
+    @Test
+    void renderStatement_WhenCancelled_ShouldFreeTheRenderThread() {
+        BillPdfRenderer singleThreaded = new BillPdfRenderer(1, 10, 1024, Duration.ofSeconds(30));
+        try {
+            List<BillResponseDTO> bills = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                bills.add(buildBill("billId-" + i, BillStatus.PAID));
+            }
+
+            StepVerifier.create(singleThreaded.renderStatement("customerId-1", bills, "CAD"), 1)
+                    .assertNext(DataBufferUtils::release)
+                    .thenCancel()
+                    .verify();
+
+            // the only render thread is free again once the cancelled statement stops
+            List<DataBuffer> next = singleThreaded.renderBill(bills.get(0), "CAD").collectList().block(Duration.ofSeconds(10));
+            assertNotNull(next);
+            next.forEach(DataBufferUtils::release);
+        } finally {
+            singleThreaded.destroy();
+        }
+    }
+
+    @Test
+    void renderStatement_WhenStalled_ShouldFailAndFreeTheRenderThread() {
+        BillPdfRenderer singleThreaded = new BillPdfRenderer(1, 10, 1024, Duration.ofMillis(200));
+        try {
+            List<BillResponseDTO> bills = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                bills.add(buildBill("billId-" + i, BillStatus.PAID));
+            }
+
+            StepVerifier.create(singleThreaded.renderStatement("customerId-1", bills, "CAD"), 1)
+                    .assertNext(DataBufferUtils::release)
+                    .expectErrorMatches(e -> e.getCause() != null && "PDF download stalled".equals(e.getCause().getMessage()))
+                    .verify(Duration.ofSeconds(10));
+
+            // the only render thread is free again once the stalled statement gives up
+            List<DataBuffer> next = singleThreaded.renderBill(bills.get(0), "CAD").collectList().block(Duration.ofSeconds(10));
+            assertNotNull(next);
+            next.forEach(DataBufferUtils::release);
+        } finally {
+            singleThreaded.destroy();
+        }
+    }
+
+    private static List<byte[]> collect(Flux<DataBuffer> pdf) {
+        return pdf.map(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            return bytes;
+        }).collectList().block();
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        chunks.forEach(chunk -> out.write(chunk, 0, chunk.length));
+        return out.toByteArray();
+    }
+
+    private static void assertIsPdf(byte[] pdf) {
+        assertEquals("%PDF", new String(Arrays.copyOfRange(pdf, 0, 4), StandardCharsets.US_ASCII));
+        assertTrue(new String(Arrays.copyOfRange(pdf, pdf.length - 7, pdf.length), StandardCharsets.US_ASCII).contains("%%EOF"));
+    }
+
+    private static BillResponseDTO buildBill(String billId, BillStatus status) {
+        return BillResponseDTO.builder()
+                .billId(billId)
+                .customerId("customerId-1")
+                .ownerFirstName("John")
+                .ownerLastName("Doe")
+                .visitType("General")
+                .vetFirstName("Jane")
+                .vetLastName("Smith")
+                .date(LocalDate.of(2024, 5, 1))
+                .dueDate(LocalDate.of(2024, 6, 1))
+                .amount(new BigDecimal("120.00"))
+                .interest(new BigDecimal("1.80"))
+                .billStatus(status)
+                .build();
+    }
+}
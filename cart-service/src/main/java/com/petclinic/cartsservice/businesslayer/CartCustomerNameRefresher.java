@@ -0,0 +1,57 @@
+package com.petclinic.cartsservice.businesslayer;
+
+import com.petclinic.cartsservice.dataaccesslayer.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the customer names read from the customers service since the last run onto the carts of those customers,
+ * so that carts are found by the name the customer has now. Only carts with another name, or none, are written, and
+ * the customers service is not called again for it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartCustomerNameRefresher {
+
+    private static final int CONCURRENCY = 4;
+
+    private final CartRepository cartRepository;
+
+    /**
+     * Latest name read of each customer, by customer id
+     */
+    private final Map<String, String> namesRead = new ConcurrentHashMap<>();
+
+    public void customerNameRead(String customerId, String customerName) {
+        if (customerName != null && !customerName.isBlank()) {
+            namesRead.put(customerId, customerName);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.customer-names.refresh-initial-delay-ms:30000}",
+            fixedDelayString = "${app.customer-names.refresh-interval-ms:3600000}")
+    public void refreshCustomerNames() {
+        try {
+            Flux.fromIterable(List.copyOf(namesRead.keySet()))
+                    .flatMap(customerId -> Mono.justOrEmpty(namesRead.remove(customerId))
+                            .flatMap(name -> cartRepository.setCustomerName(customerId, name))
+                            .onErrorResume(e -> {
+                                log.warn("Could not store the name of customer {} on their carts: {}", customerId, e.getMessage());
+                                return Mono.empty();
+                            }), CONCURRENCY)
+                    .then()
+                    .block();
+        } catch (Exception e) {
+            log.warn("Could not store customer names on carts: {}", e.getMessage());
+        }
+    }
+}
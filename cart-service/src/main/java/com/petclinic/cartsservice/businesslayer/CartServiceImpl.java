@@ -4,20 +4,27 @@ import com.petclinic.cartsservice.dataaccesslayer.Cart;
 import com.petclinic.cartsservice.dataaccesslayer.CartRepository;
 import com.petclinic.cartsservice.dataaccesslayer.cartproduct.CartProduct;
 import com.petclinic.cartsservice.domainclientlayer.CartItemRequestModel;
+import com.petclinic.cartsservice.domainclientlayer.CustomerResponseModel;
 import com.petclinic.cartsservice.domainclientlayer.ProductClient;
 import com.petclinic.cartsservice.domainclientlayer.ProductResponseModel;
 import com.petclinic.cartsservice.presentationlayer.CartResponseModel;
 import com.petclinic.cartsservice.presentationlayer.WishlistItemRequestModel;
 import com.petclinic.cartsservice.presentationlayer.WishlistTransferDirection;
 import com.petclinic.cartsservice.utils.EntityModelUtil;
+import com.petclinic.cartsservice.utils.exceptions.ConcurrentCartChangeException;
 import com.petclinic.cartsservice.utils.exceptions.InvalidInputException;
 import com.petclinic.cartsservice.utils.exceptions.NotFoundException;
 import com.petclinic.cartsservice.utils.exceptions.OutOfStockException;
 import com.petclinic.cartsservice.domainclientlayer.CustomerClient;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +36,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -38,16 +46,39 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final ProductClient productClient;
     private final CustomerClient customerClient;
+    private final CartCustomerNameRefresher customerNameRefresher;
 
 
-    public CartServiceImpl(CartRepository cartRepository, ProductClient productClient, CustomerClient customerClient ) {
+    public CartServiceImpl(CartRepository cartRepository, ProductClient productClient, CustomerClient customerClient,
+                           CartCustomerNameRefresher customerNameRefresher) {
         this.cartRepository = cartRepository;
         this.productClient = productClient;
         this.customerClient = customerClient;
+        this.customerNameRefresher = customerNameRefresher;
     }
     private static final int DEFAULT_PAGE_SIZE = 50;
     private static final int MAX_PAGE_SIZE = 200;
 
+    /**
+     * Number of times a cart is read and checked again when it changed between the read and the write
+     */
+    private static final int MAX_CONCURRENT_CHANGE_RETRIES = 3;
+
+    /**
+     * How long the name of a customer is kept before it is fetched again from the customers service
+     */
+    private static final Duration CUSTOMER_NAME_TTL = Duration.ofMinutes(5);
+    private static final int CUSTOMER_NAME_MAX_ENTRIES = 10_000;
+    private static final int CUSTOMER_NAME_CONCURRENCY = 8;
+
+    /**
+     * Names being fetched are shared by the requests asking for them, names that could not be fetched are not kept
+     */
+    private final AsyncCache<String, String> customerNames = Caffeine.newBuilder()
+            .maximumSize(CUSTOMER_NAME_MAX_ENTRIES)
+            .expireAfterWrite(CUSTOMER_NAME_TTL)
+            .buildAsync();
+
     @Override
     public Flux<CartResponseModel> getAllCarts(CartQueryCriteria criteria) {
         CartQueryCriteria effectiveCriteria = criteria == null ? CartQueryCriteria.builder().build() : criteria;
@@ -58,46 +89,57 @@ public class CartServiceImpl implements CartService {
         String normalizedCustomerName = effectiveCriteria.normalizedCustomerName();
         Boolean assigned = effectiveCriteria.getAssigned();
 
-        Flux<Cart> cartsFlux = cartRepository.findAll();
-
-        if (normalizedCustomerId != null && !normalizedCustomerId.isBlank()) {
-            cartsFlux = cartsFlux.filter(cart -> normalizedCustomerId.equalsIgnoreCase(valueOrEmpty(cart.getCustomerId())));
-        }
-
-        if (assigned != null) {
-            if (assigned) {
-                cartsFlux = cartsFlux.filter(cart -> !valueOrEmpty(cart.getCustomerId()).isBlank());
-            } else {
-                cartsFlux = cartsFlux.filter(cart -> valueOrEmpty(cart.getCustomerId()).isBlank());
-            }
-        }
-
-        Flux<CartResponseModel> responseFlux = cartsFlux.flatMap(this::toCartResponseModelWithCustomer);
-
-        if (normalizedCustomerName != null && !normalizedCustomerName.isBlank()) {
-            String lowered = normalizedCustomerName.toLowerCase();
-            responseFlux = responseFlux.filter(model -> {
-                String candidate = valueOrEmpty(model.getCustomerName()).toLowerCase();
-                return !candidate.isBlank() && candidate.contains(lowered);
-            });
-        }
-
-        long itemsToSkip = (long) page * size;
-
-        return responseFlux
-                .skip(itemsToSkip)
-                .take(size);
+        // Filtered and paged by Mongo, the customers of the page are then looked up once each
+        return cartRepository.findCarts(normalizedCustomerId, normalizedCustomerName, assigned, PageRequest.of(page, size))
+                .collectList()
+                .flatMapMany(carts -> Flux.fromStream(carts.stream()
+                                .map(Cart::getCustomerId)
+                                .filter(cid -> cid != null && !cid.isBlank())
+                                .distinct())
+                        .flatMap(cid -> customerName(cid).map(name -> Map.entry(cid, name)), CUSTOMER_NAME_CONCURRENCY)
+                        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                        .flatMapIterable(names -> carts.stream()
+                                .map(cart -> toCartResponseModel(cart, names.get(valueOrEmpty(cart.getCustomerId()))))
+                                .toList()));
     }
 
     private Mono<CartResponseModel> toCartResponseModelWithCustomer(Cart cart) {
-        List<CartProduct> safeProducts = cart.getProducts() == null ? Collections.emptyList() : cart.getProducts();
         String cid = cart.getCustomerId();
         if (cid == null || cid.isBlank()) {
-            return Mono.just(EntityModelUtil.toCartResponseModel(cart, safeProducts));
+            return Mono.just(toCartResponseModel(cart, null));
+        }
+        return customerName(cid)
+                .map(name -> toCartResponseModel(cart, name))
+                .defaultIfEmpty(toCartResponseModel(cart, null));
+    }
+
+    /**
+     * @param customerName The name from the customers service, or null to keep the name stored on the cart
+     */
+    private CartResponseModel toCartResponseModel(Cart cart, String customerName) {
+        List<CartProduct> safeProducts = cart.getProducts() == null ? Collections.emptyList() : cart.getProducts();
+        if (customerName == null) {
+            return EntityModelUtil.toCartResponseModel(cart, safeProducts);
         }
-        return customerClient.getCustomerById(cid)
-                .map(c -> EntityModelUtil.toCartResponseModel(cart, safeProducts, c.getFullName()))
-                .onErrorResume(e -> Mono.just(EntityModelUtil.toCartResponseModel(cart, safeProducts)));
+        return EntityModelUtil.toCartResponseModel(cart, safeProducts, customerName);
+    }
+
+    /**
+     * Full name of a customer, fetched at most once per CUSTOMER_NAME_TTL. Each name fetched is handed to the
+     * refresher, which stores it on the customer's carts if it changed.
+     *
+     * @return The name, or empty when the customers service cannot give it
+     */
+    private Mono<String> customerName(String customerId) {
+        // A request cancelled while the name is fetched leaves the fetch to the other requests waiting for it
+        return Mono.fromFuture(() -> customerNames.get(customerId, (cid, executor) -> customerClient.getCustomerById(cid)
+                        .map(CustomerResponseModel::getFullName)
+                        .doOnNext(name -> customerNameRefresher.customerNameRead(cid, name))
+                        .toFuture()), true)
+                .onErrorResume(e -> {
+                    log.warn("Could not get the name of customer {}: {}", customerId, e.getMessage());
+                    return Mono.empty();
+                });
     }
 
     private String valueOrEmpty(String value) {
@@ -162,30 +204,24 @@ public class CartServiceImpl implements CartService {
 //instead lets create a removeProductFromCart, UpdateQuantityOfProductInCart, and AddProductInCart methods
     @Override
     public Mono<CartResponseModel> removeProductFromCart(String cartId, String productId){
-        return cartRepository.findCartByCartId(cartId)
+        return retryOnConcurrentChange(() -> cartRepository.findCartByCartId(cartId)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("Cart id was not found:" + cartId))))
                 .flatMap(found -> {
-                    List<CartProduct> products = found.getProducts();
-
-                    Optional<CartProduct> productToRemove = products.stream()
-                            .filter(product -> product.getProductId().equals(productId)).findFirst();
-
-                    if (productToRemove.isPresent()) {
-                        products.remove(productToRemove.get());
-
-                        found.setProducts(products);
+                    List<CartProduct> products = found.getProducts() == null ? Collections.emptyList() : found.getProducts();
 
-                        return cartRepository.save(found)
-                                .map(updatedCart -> EntityModelUtil.toCartResponseModel(updatedCart, products));
+                    if (products.stream().anyMatch(product -> product.getProductId().equals(productId))) {
+                        return cartRepository.pullProduct(cartId, productId)
+                                .switchIfEmpty(changedMeanwhile(cartId))
+                                .map(updatedCart -> EntityModelUtil.toCartResponseModel(updatedCart, updatedCart.getProducts()));
                     } else {
                         return Mono.error(new NotFoundException("Product id was not found: " + productId));
                     }
-                });
+                }));
     }
 
     @Override
     public Mono<CartResponseModel> removeProductFromWishlist(String cartId, String productId) {
-        return cartRepository.findCartByCartId(cartId)
+        return retryOnConcurrentChange(() -> cartRepository.findCartByCartId(cartId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Cart not found: " + cartId)))
                 .flatMap(cart -> {
                     List<CartProduct> wish = cart.getWishListProducts();
@@ -194,16 +230,14 @@ public class CartServiceImpl implements CartService {
                         return Mono.error(new NotFoundException("No wishlist for cart: " + cartId));
                     }
 
-                    boolean removed = wish.removeIf(p -> p.getProductId().equals(productId));
-                    if (!removed) {
+                    if (wish.stream().noneMatch(p -> p.getProductId().equals(productId))) {
                         return Mono.error(new NotFoundException("Product not found in wishlist: " + productId));
                     }
 
-                    cart.setWishListProducts(wish);
-
-                    return cartRepository.save(cart)
+                    return cartRepository.pullWishlistProduct(cartId, productId)
+                            .switchIfEmpty(changedMeanwhile(cartId))
                             .map(saved -> EntityModelUtil.toCartResponseModel(saved, saved.getWishListProducts()));
-                });
+                }));
     }
 
 
@@ -221,10 +255,10 @@ public class CartServiceImpl implements CartService {
 
     @Override
     public Mono<CartResponseModel> checkoutCart(final String cartId) {
-        return cartRepository.findCartByCartId(cartId)
+        return retryOnConcurrentChange(() -> cartRepository.findCartByCartId(cartId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Cart not found: " + cartId)))
                 .flatMap(cart -> {
-                    if (cart.getProducts().isEmpty()) {
+                    if (cart.getProducts() == null || cart.getProducts().isEmpty()) {
                         return Mono.error(new InvalidInputException("Cart is empty"));
                     }
 
@@ -252,7 +286,6 @@ public class CartServiceImpl implements CartService {
                             updatedRecentPurchases.add(purchasedProduct);
                         }
                     }
-                    cart.setRecentPurchases(updatedRecentPurchases);
 
                     // --- Recommendation Purchases Logic ---
                     // Only recommend products bought 3+ times
@@ -272,13 +305,12 @@ public class CartServiceImpl implements CartService {
                             }
                         }
                     }
-                    cart.setRecommendationPurchase(recommended);
 
-                    // Clear the cart after checkout
-                    cart.setProducts(Collections.emptyList());
-                    return cartRepository.save(cart)
-                            .then(Mono.just(new CartResponseModel(invoiceId, cartId, products, total)));
-                });
+                    // Clear the cart after checkout, unless it changed since it was read
+                    return cartRepository.checkout(cartId, cart.getVersion(), updatedRecentPurchases, recommended)
+                            .switchIfEmpty(changedMeanwhile(cartId))
+                            .map(saved -> new CartResponseModel(invoiceId, cartId, products, total));
+                }));
     }
     private double calculateTotal(List<CartProduct> products) {
         return products.stream()
@@ -295,23 +327,26 @@ public class CartServiceImpl implements CartService {
 
         return cartRepository.findCartByCustomerId(normalizedCustomerId)
                 .flatMap(this::toCartResponseModelWithCustomer)
-                .switchIfEmpty(Mono.defer(() -> {
-                    Cart newCart = Cart.builder()
-                            .cartId(UUID.randomUUID().toString())
-                            .customerId(normalizedCustomerId)
-                            .products(new ArrayList<>())
-                            .wishListProducts(new ArrayList<>())
-                            .recentPurchases(new ArrayList<>())
-                            .recommendationPurchase(new ArrayList<>())
-                            .subtotal(0.0)
-                            .tvq(0.0)
-                            .tvc(0.0)
-                            .total(0.0)
-                            .build();
-
-                    return cartRepository.save(newCart)
-                            .flatMap(this::toCartResponseModelWithCustomer);
-                }));
+                .switchIfEmpty(Mono.defer(() -> customerName(normalizedCustomerId)
+                        .defaultIfEmpty("")
+                        .flatMap(customerName -> {
+                            Cart newCart = Cart.builder()
+                                    .cartId(UUID.randomUUID().toString())
+                                    .customerId(normalizedCustomerId)
+                                    .customerName(customerName.isBlank() ? null : customerName)
+                                    .products(new ArrayList<>())
+                                    .wishListProducts(new ArrayList<>())
+                                    .recentPurchases(new ArrayList<>())
+                                    .recommendationPurchase(new ArrayList<>())
+                                    .subtotal(0.0)
+                                    .tvq(0.0)
+                                    .tvc(0.0)
+                                    .total(0.0)
+                                    .build();
+
+                            return cartRepository.save(newCart);
+                        })
+                        .flatMap(this::toCartResponseModelWithCustomer)));
     }
 
     @Override
@@ -324,7 +359,7 @@ public class CartServiceImpl implements CartService {
         final int quantity = cartItemRequestModel.resolveQuantity();
 
         // Fetch the latest cart and product information
-        return cartRepository.findCartByCartId(cartId)
+        return retryOnConcurrentChange(() -> cartRepository.findCartByCartId(cartId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Cart not found: " + cartId)))
                 .flatMap(cart -> {
                     if (cart.getProducts() == null) {
@@ -357,6 +392,8 @@ public class CartServiceImpl implements CartService {
                                         .filter(p -> p.getProductId().equals(productId))
                                         .findFirst();
 
+                                // Both writes also take the product off the wishlist
+                                Mono<Cart> saved;
                                 if (existingProductOpt.isPresent()) {
                                     CartProduct existingProduct = existingProductOpt.get();
                                     int currentQuantity = safeQuantity(existingProduct.getQuantityInCart());
@@ -365,8 +402,7 @@ public class CartServiceImpl implements CartService {
                                         return Mono.error(new OutOfStockException("You cannot add more than "
                                                 + availableStock + " item(s). Only " + availableStock + " items left in stock."));
                                     }
-                                    existingProduct.setQuantityInCart(newQuantity);
-                                    existingProduct.setProductQuantity(availableStock);
+                                    saved = cartRepository.incrementProductQuantity(cartId, productId, quantity, availableStock);
                                 } else {
                                     CartProduct cartProduct = CartProduct.builder()
                                             .productId(product.getProductId())
@@ -378,27 +414,20 @@ public class CartServiceImpl implements CartService {
                                             .quantityInCart(quantity)
                                             .productQuantity(availableStock)
                                             .build();
-                                    cart.getProducts().add(cartProduct);
-                                }
-
-                                List<CartProduct> wishlist = cart.getWishListProducts();
-                                if (wishlist != null && !wishlist.isEmpty()) {
-                                    List<CartProduct> updatedWishlist = new ArrayList<>(wishlist);
-                                    if (updatedWishlist.removeIf(p -> productId.equals(p.getProductId()))) {
-                                        cart.setWishListProducts(updatedWishlist);
-                                    }
+                                    saved = cartRepository.pushProduct(cartId, cartProduct);
                                 }
 
-                                return cartRepository.save(cart)
+                                return saved
+                                        .switchIfEmpty(changedMeanwhile(cartId))
                                         .map(savedCart -> EntityModelUtil.toCartResponseModel(savedCart, savedCart.getProducts()));
                             });
-        });
+        }));
     }
 
 
     @Override
     public Mono<CartResponseModel> updateProductQuantityInCart(String cartId, String productId, int quantity) {
-        return cartRepository.findCartByCartId(cartId)
+        return retryOnConcurrentChange(() -> cartRepository.findCartByCartId(cartId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Cart not found: " + cartId)))
                 .flatMap(cart -> productClient.getProductByProductId(productId)
                         .flatMap(product -> {
@@ -414,30 +443,49 @@ public class CartServiceImpl implements CartService {
                                         + availableStock + " item(s). Only " + availableStock + " items left in stock."));
                             }
 
-                            Optional<CartProduct> existingProductOpt = cart.getProducts().stream()
-                                    .filter(p -> p.getProductId().equals(productId))
-                                    .findFirst();
+                            boolean inCart = cart.getProducts() != null && cart.getProducts().stream()
+                                    .anyMatch(p -> p.getProductId().equals(productId));
 
-                            if (existingProductOpt.isPresent()) {
-                                CartProduct existingProduct = existingProductOpt.get();
-                                existingProduct.setQuantityInCart(quantity);
-                                existingProduct.setProductQuantity(availableStock);
-                            } else {
+                            if (!inCart) {
                                 return Mono.error(new NotFoundException("Product not found in cart: " + productId));
                             }
 
-                            return cartRepository.save(cart)
+                            return cartRepository.setProductQuantity(cartId, productId, quantity, availableStock)
+                                    .switchIfEmpty(changedMeanwhile(cartId))
                                     .map(savedCart -> EntityModelUtil.toCartResponseModel(savedCart, savedCart.getProducts()));
                         })
-                );
+                ));
+    }
+
+    /**
+     * Read, check and write a cart again when its write finds the cart changed since it was read, the writes being
+     * conditional on what was checked
+     */
+    private <T> Mono<T> retryOnConcurrentChange(Supplier<Mono<T>> readCheckWrite) {
+        return Mono.defer(readCheckWrite)
+                .retryWhen(Retry.max(MAX_CONCURRENT_CHANGE_RETRIES)
+                        .filter(ConcurrentCartChangeException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    /**
+     * For a conditional write that matched no cart, the cart having changed since it was read
+     */
+    private static <T> Mono<T> changedMeanwhile(String cartId) {
+        return Mono.error(() -> new ConcurrentCartChangeException(cartId));
     }
 
     private Mono<Cart> createNewCartForCustomer(String customerId) {
-        Cart newCart = new Cart();
-        newCart.setCustomerId(customerId);
-        newCart.setCartId(UUID.randomUUID().toString());
-        newCart.setProducts(new ArrayList<>());
-        return cartRepository.save(newCart);
+        return customerName(customerId)
+                .defaultIfEmpty("")
+                .flatMap(customerName -> {
+                    Cart newCart = new Cart();
+                    newCart.setCustomerId(customerId);
+                    newCart.setCustomerName(customerName.isBlank() ? null : customerName);
+                    newCart.setCartId(UUID.randomUUID().toString());
+                    newCart.setProducts(new ArrayList<>());
+                    return cartRepository.save(newCart);
+                });
     }
 
     @Override
@@ -7,12 +7,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
 
 
 @Document(collection = "cart")
+@CompoundIndex(name = "search_customerNameWords_idx", def = "{'search.customerNameWords': 1}")
 @Data
 @Builder
 @AllArgsConstructor
@@ -24,8 +28,14 @@ public class Cart {
 
     private List<CartProduct> products;
     private List<CartProduct> wishListProducts;
+    @Indexed
     private String cartId;
+    @Indexed
     private String customerId;
+    /**
+     * Full name of the customer, copied from the customers service so that carts can be searched by name
+     */
+    private String customerName;
     //added those
     private double subtotal;
     private double tvq;
@@ -39,4 +49,10 @@ public class Cart {
     private Double promoPercent;
     public Double getPromoPercent() { return promoPercent; }
     public void setPromoPercent(Double promoPercent) { this.promoPercent = promoPercent; }
+
+    /**
+     * Bumped on every write, so that saving a cart read before another write fails instead of losing that write
+     */
+    @Version
+    private Long version;
 }
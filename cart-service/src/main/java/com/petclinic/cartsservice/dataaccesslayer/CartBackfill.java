@@ -0,0 +1,55 @@
+package com.petclinic.cartsservice.dataaccesslayer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Brings carts stored by older versions of the service up to date at startup. Carts saved before they were versioned
+ * get version 0, a cart without a version being taken for a new one on save, and carts saved before the words of
+ * their customer name were stored for searches get them filled in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartBackfill {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfill() {
+        backfillVersions()
+                .then(backfillSearchKeys())
+                .block();
+    }
+
+    private Mono<Void> backfillVersions() {
+        // Updated by collection name, so the template does not add its own version increment
+        return mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L), mongoTemplate.getCollectionName(Cart.class))
+                .filter(result -> result.getModifiedCount() > 0)
+                .doOnNext(result -> log.info("Versioned {} carts", result.getModifiedCount()))
+                .then();
+    }
+
+    private Mono<Void> backfillSearchKeys() {
+        String collection = mongoTemplate.getCollectionName(Cart.class);
+        return mongoTemplate.find(new Query(Criteria.where("customerName").exists(true)
+                        .and(CartSearchKeys.CUSTOMER_NAME_WORDS).exists(false)), Cart.class)
+                .concatMap(cart -> mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(cart.getId())),
+                        new Update().set(CartSearchKeys.FIELD, CartSearchKeys.of(cart.getCustomerName())),
+                        collection))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Filled in the search keys of {} carts", count))
+                .then();
+    }
+}
@@ -6,7 +6,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.Optional;
 
-public interface CartRepository extends ReactiveMongoRepository<Cart, String> {
+public interface CartRepository extends ReactiveMongoRepository<Cart, String>, CartRepositoryCustom {
     public Mono<Cart> findCartByCartId(String cartId);
     public Mono<Cart>  findCartByCustomerId(String customerId);
 
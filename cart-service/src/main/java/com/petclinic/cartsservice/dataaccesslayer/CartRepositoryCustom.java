@@ -0,0 +1,54 @@
+package com.petclinic.cartsservice.dataaccesslayer;
+
+import com.petclinic.cartsservice.dataaccesslayer.cartproduct.CartProduct;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Targeted updates of a cart, each one writing only the line item it changes. Every update is conditional on the
+ * state the caller checked, and returns the cart as it is after the update, or empty when that state no longer holds
+ * (the cart or the line item is gone, or was changed in the meantime).
+ */
+public interface CartRepositoryCustom {
+
+    /**
+     * Add a product that is not in the cart yet, and take it off the wishlist
+     */
+    Mono<Cart> pushProduct(String cartId, CartProduct product);
+
+    /**
+     * Add to the quantity of a product already in the cart, as long as the new quantity stays within the stock, and
+     * take the product off the wishlist
+     */
+    Mono<Cart> incrementProductQuantity(String cartId, String productId, int quantity, int availableStock);
+
+    /**
+     * Set the quantity of a product already in the cart
+     */
+    Mono<Cart> setProductQuantity(String cartId, String productId, int quantity, int availableStock);
+
+    Mono<Cart> pullProduct(String cartId, String productId);
+
+    Mono<Cart> pullWishlistProduct(String cartId, String productId);
+
+    /**
+     * Empty the cart and replace its purchase history, provided the cart is still at the version it was read at
+     */
+    Mono<Cart> checkout(String cartId, Long version, List<CartProduct> recentPurchases, List<CartProduct> recommendationPurchase);
+
+    /**
+     * A page of the carts matching every given filter, a null filter matching every cart, in insertion order. Each
+     * word of the customer name has to start one of the words of the cart's customer name, ignoring case.
+     *
+     * @param assigned Whether the carts must have a customer, or must not have one
+     */
+    Flux<Cart> findCarts(String customerId, String customerName, Boolean assigned, Pageable pageable);
+
+    /**
+     * Store the name of a customer on all of the customer's carts that have another name, or none
+     */
+    Mono<Void> setCustomerName(String customerId, String customerName);
+}
@@ -0,0 +1,144 @@
+package com.petclinic.cartsservice.dataaccesslayer;
+
+import com.petclinic.cartsservice.dataaccesslayer.cartproduct.CartProduct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The template adds one to the version of the cart on each of these updates, so that a cart saved whole from an
+ * older read is rejected instead of undoing them.
+ */
+@RequiredArgsConstructor
+public class CartRepositoryCustomImpl implements CartRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Cart> pushProduct(String cartId, CartProduct product) {
+        Query query = new Query(Criteria.where("cartId").is(cartId)
+                .and("products.productId").ne(product.getProductId()));
+        Update update = new Update()
+                .push("products", product)
+                .pull("wishListProducts", Query.query(Criteria.where("productId").is(product.getProductId())));
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Mono<Cart> incrementProductQuantity(String cartId, String productId, int quantity, int availableStock) {
+        Query query = new Query(Criteria.where("cartId").is(cartId)
+                .and("products").elemMatch(Criteria.where("productId").is(productId)
+                        .and("quantityInCart").lte(availableStock - quantity)));
+        Update update = new Update()
+                .inc("products.$.quantityInCart", quantity)
+                .set("products.$.productQuantity", availableStock)
+                .pull("wishListProducts", Query.query(Criteria.where("productId").is(productId)));
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Mono<Cart> setProductQuantity(String cartId, String productId, int quantity, int availableStock) {
+        Query query = new Query(Criteria.where("cartId").is(cartId).and("products.productId").is(productId));
+        Update update = new Update()
+                .set("products.$.quantityInCart", quantity)
+                .set("products.$.productQuantity", availableStock);
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Mono<Cart> pullProduct(String cartId, String productId) {
+        Query query = new Query(Criteria.where("cartId").is(cartId).and("products.productId").is(productId));
+        Update update = new Update()
+                .pull("products", Query.query(Criteria.where("productId").is(productId)));
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Mono<Cart> pullWishlistProduct(String cartId, String productId) {
+        Query query = new Query(Criteria.where("cartId").is(cartId).and("wishListProducts.productId").is(productId));
+        Update update = new Update()
+                .pull("wishListProducts", Query.query(Criteria.where("productId").is(productId)));
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Mono<Cart> checkout(String cartId, Long version, List<CartProduct> recentPurchases, List<CartProduct> recommendationPurchase) {
+        Query query = new Query(Criteria.where("cartId").is(cartId).and("version").is(version));
+        Update update = new Update()
+                .set("products", Collections.emptyList())
+                .set("recentPurchases", recentPurchases)
+                .set("recommendationPurchase", recommendationPurchase);
+
+        return modify(query, update);
+    }
+
+    @Override
+    public Flux<Cart> findCarts(String customerId, String customerName, Boolean assigned, Pageable pageable) {
+        Query query = new Query();
+        if (customerId != null && !customerId.isBlank()) {
+            if (Boolean.FALSE.equals(assigned)) {
+                return Flux.empty();
+            }
+            query.addCriteria(Criteria.where("customerId").is(customerId));
+        } else if (assigned != null) {
+            // A cart without a customer has no customerId, or a null or blank one
+            query.addCriteria(assigned
+                    ? Criteria.where("customerId").nin(null, "")
+                    : Criteria.where("customerId").in(null, ""));
+        }
+        if (customerName != null && !customerName.isBlank()) {
+            // Each word searched for has to start one of the words of the name
+            query.addCriteria(new Criteria().andOperator(CartSearchKeys.toWords(customerName).stream()
+                    .map(word -> Criteria.where(CartSearchKeys.CUSTOMER_NAME_WORDS).regex(startingWith(word)))
+                    .toList()));
+        }
+        query.with(Sort.by("_id")).skip(pageable.getOffset()).limit(pageable.getPageSize());
+
+        return mongoTemplate.find(query, Cart.class);
+    }
+
+    @Override
+    public Mono<Void> setCustomerName(String customerId, String customerName) {
+        Query query = new Query(Criteria.where("customerId").is(customerId).and("customerName").ne(customerName));
+
+        Update update = new Update()
+                .set("customerName", customerName)
+                .set(CartSearchKeys.FIELD, CartSearchKeys.of(customerName));
+
+        return mongoTemplate.updateMulti(query, update, Cart.class).then();
+    }
+
+    private Mono<Cart> modify(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Cart.class);
+    }
+
+    /**
+     * An anchored regex for the values starting with the given word. The regex characters are escaped one by one,
+     * not quoted as a whole, as Mongo only narrows its index scan to a range for a prefix of plain characters.
+     */
+    private static String startingWith(String word) {
+        StringBuilder regex = new StringBuilder(word.length() + 1).append('^');
+        for (char c : word.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.petclinic.cartsservice.dataaccesslayer;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Stores the lower-cased words of the customer name of each cart next to it, under {@value #CUSTOMER_NAME_WORDS},
+ * every time a cart is saved. Name searches then run as case-sensitive anchored regexes on those words, which Mongo
+ * answers from their multikey index, so a cart is found by the start of its customer's first name as well as of
+ * their last name.
+ */
+@Component
+public class CartSearchKeys implements ReactiveBeforeSaveCallback<Cart> {
+
+    static final String FIELD = "search";
+    static final String CUSTOMER_NAME_WORDS = FIELD + ".customerNameWords";
+
+    @Override
+    public Publisher<Cart> onBeforeSave(Cart cart, Document document, String collection) {
+        document.put(FIELD, of(cart.getCustomerName()));
+        return Mono.just(cart);
+    }
+
+    static Document of(String customerName) {
+        return new Document("customerNameWords", toWords(customerName));
+    }
+
+    static List<String> toWords(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.petclinic.cartsservice.utils.exceptions;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * A conditional write to a cart matched nothing, the cart having changed since it was read
+ */
+public class ConcurrentCartChangeException extends OptimisticLockingFailureException {
+    public ConcurrentCartChangeException(String cartId) {
+        super("Cart " + cartId + " was changed by another request, please try again.");
+    }
+}
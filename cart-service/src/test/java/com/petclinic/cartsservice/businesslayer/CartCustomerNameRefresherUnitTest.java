@@ -0,0 +1,60 @@
+package com.petclinic.cartsservice.businesslayer;
+
+import com.petclinic.cartsservice.dataaccesslayer.CartRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartCustomerNameRefresherUnitTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @InjectMocks
+    private CartCustomerNameRefresher refresher;
+
+    @Test
+    void refreshCustomerNames_StoresTheLatestNameReadOfEachCustomer_AndSkipsBlankNames() {
+        when(cartRepository.setCustomerName(anyString(), anyString())).thenReturn(Mono.empty());
+
+        refresher.customerNameRead("1", "Jane Smith");
+        refresher.customerNameRead("1", "Jane Doe");
+        refresher.customerNameRead("2", " ");
+        refresher.refreshCustomerNames();
+
+        verify(cartRepository, times(1)).setCustomerName("1", "Jane Doe");
+        verify(cartRepository, never()).setCustomerName(eq("2"), anyString());
+        verifyNoMoreInteractions(cartRepository);
+    }
+
+    @Test
+    void refreshCustomerNames_OnlyStoresTheNamesReadSinceTheLastRun() {
+        when(cartRepository.setCustomerName(anyString(), anyString())).thenReturn(Mono.empty());
+
+        refresher.customerNameRead("1", "Jane Doe");
+        refresher.refreshCustomerNames();
+        refresher.refreshCustomerNames();
+
+        verify(cartRepository, times(1)).setCustomerName("1", "Jane Doe");
+    }
+
+    @Test
+    void refreshCustomerNames_WhenAWriteFails_StillStoresTheOtherNames() {
+        when(cartRepository.setCustomerName("1", "Jane Doe")).thenReturn(Mono.error(new IllegalStateException("Mongo is down")));
+        when(cartRepository.setCustomerName("2", "John Roe")).thenReturn(Mono.empty());
+
+        refresher.customerNameRead("1", "Jane Doe");
+        refresher.customerNameRead("2", "John Roe");
+        refresher.refreshCustomerNames();
+
+        verify(cartRepository, times(1)).setCustomerName("2", "John Roe");
+    }
+}
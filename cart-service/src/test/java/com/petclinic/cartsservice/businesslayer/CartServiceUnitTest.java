@@ -22,6 +22,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -51,9 +54,14 @@ class CartServiceUnitTest {
     @Mock
     private CustomerClient customerClient;
 
+    @Mock
+    private CartCustomerNameRefresher customerNameRefresher;
+
     @BeforeEach
     void init() {
         lenient().when(cartRepository.findAll()).thenReturn(Flux.empty());
+        lenient().when(cartRepository.findCarts(any(), any(), any(), any(Pageable.class))).thenReturn(Flux.empty());
+        lenient().when(cartRepository.setCustomerName(anyString(), anyString())).thenReturn(Mono.empty());
         lenient().when(cartRepository.findCartByCartId(anyString())).thenReturn(Mono.empty());
         lenient().when(cartRepository.findCartByCustomerId(anyString())).thenReturn(Mono.empty());
         lenient().when(cartRepository.save(any(Cart.class)))
@@ -61,6 +69,21 @@ class CartServiceUnitTest {
 
         lenient().when(customerClient.getCustomerById(anyString()))
                 .thenReturn(Mono.just(new CustomerResponseModel()));
+
+        // Conditional writes hand back the stored cart, tests stubbing the written cart where they look at it;
+        // the write conditions themselves are covered against Mongo in CartRepositoryUnitTest
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).pushProduct(anyString(), any(CartProduct.class));
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).incrementProductQuantity(anyString(), anyString(), anyInt(), anyInt());
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).setProductQuantity(anyString(), anyString(), anyInt(), anyInt());
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).pullProduct(anyString(), anyString());
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).pullWishlistProduct(anyString(), anyString());
+        lenient().doAnswer(inv -> cartRepository.findCartByCartId(inv.getArgument(0)))
+                .when(cartRepository).checkout(anyString(), any(), anyList(), anyList());
     }
 
     private final CartProduct product1 = CartProduct.builder()
@@ -133,6 +156,31 @@ class CartServiceUnitTest {
     private final String validCustomerId = "f470653d-05c5-4c45-b7a0-7d70f003d2ac";
     private final String nonExistentCustomerId = "non-existent-customer-id";
 
+    /**
+     * cart1 as a write would hand it back, holding the given line items and wishlist
+     */
+    private Cart written(List<CartProduct> products, List<CartProduct> wishListProducts) {
+        return Cart.builder()
+                .cartId(cart1.getCartId())
+                .customerId(cart1.getCustomerId())
+                .products(new ArrayList<>(products))
+                .wishListProducts(new ArrayList<>(wishListProducts))
+                .build();
+    }
+
+    private static CartProduct withQuantityInCart(CartProduct product, int quantityInCart) {
+        return CartProduct.builder()
+                .productId(product.getProductId())
+                .imageId(product.getImageId())
+                .productName(product.getProductName())
+                .productDescription(product.getProductDescription())
+                .productSalePrice(product.getProductSalePrice())
+                .averageRating(product.getAverageRating())
+                .quantityInCart(quantityInCart)
+                .productQuantity(product.getProductQuantity())
+                .build();
+    }
+
 
 
     @Test
@@ -175,7 +223,7 @@ class CartServiceUnitTest {
 
     @Test
     public void whenGetAllCarts_thenReturnCartResponseModel() {
-        when(cartRepository.findAll()).thenReturn(Flux.just(cart1));
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.just(cart1));
 
         Flux<CartResponseModel> result = cartService.getAllCarts(CartQueryCriteria.builder().build());
 
@@ -273,7 +321,7 @@ class CartServiceUnitTest {
     @Test
     void getAllCarts_ReturnsCartResponseModelWithProducts() {
         //mocking cart retrieval
-        when(cartRepository.findAll()).thenReturn(Flux.just(cart1));
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.just(cart1));
 
 
         //run the test
@@ -287,7 +335,7 @@ class CartServiceUnitTest {
                 .verifyComplete();
 
         // Verify interactions
-        verify(cartRepository, times(1)).findAll();
+        verify(cartRepository, times(1)).findCarts(null, null, null, PageRequest.of(0, 50));
     }
 
     @Test
@@ -299,7 +347,7 @@ class CartServiceUnitTest {
                 .products(new ArrayList<>())
                 .build();
 
-        when(cartRepository.findAll()).thenReturn(Flux.just(cartWithNoProducts));
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.just(cartWithNoProducts));
 
         // Run the test
         StepVerifier.create(cartService.getAllCarts(CartQueryCriteria.builder().build()))
@@ -310,13 +358,13 @@ class CartServiceUnitTest {
                 .verifyComplete();
 
         // Verify interactions
-        verify(cartRepository, times(1)).findAll();
+        verify(cartRepository, times(1)).findCarts(null, null, null, PageRequest.of(0, 50));
         verifyNoInteractions(productClient); //no products, so productClient shouldn't be called
     }
 
     @Test
     void getAllCarts_ReturnsMultipleCartsWithProducts() {
-        when(cartRepository.findAll()).thenReturn(Flux.just(cart1));
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.just(cart1));
 
         //mocking product retrieval
 
@@ -331,14 +379,14 @@ class CartServiceUnitTest {
                 .verifyComplete();
 
         // Verify interactions
-        verify(cartRepository, times(1)).findAll();
+        verify(cartRepository, times(1)).findCarts(null, null, null, PageRequest.of(0, 50));
         verifyNoInteractions(productClient); //no products, so productClient shouldn't be called
     }
 
     @Test
     void getAllCarts_ReturnsEmptyListWhenNoCarts() {
         //mocking empty cart retrieval
-        when(cartRepository.findAll()).thenReturn(Flux.empty());
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.empty());
 
         //run the test
         StepVerifier.create(cartService.getAllCarts(CartQueryCriteria.builder().build()))
@@ -346,10 +394,61 @@ class CartServiceUnitTest {
                 .verifyComplete();
 
         //verify interactions
-        verify(cartRepository, times(1)).findAll();
+        verify(cartRepository, times(1)).findCarts(null, null, null, PageRequest.of(0, 50));
         verifyNoInteractions(productClient); //no carts, so productClient shouldn't be called
     }
 
+    @Test
+    void getAllCarts_WithFilters_PassesThemToTheRepositoryAndLooksUpEachCustomerOnce() {
+        Cart otherCartOfCustomer = Cart.builder()
+                .cartId("other-cart")
+                .customerId("1")
+                .customerName("Old Name")
+                .products(new ArrayList<>())
+                .build();
+        CustomerResponseModel customer = new CustomerResponseModel();
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+
+        when(cartRepository.findCarts("1", "doe", true, PageRequest.of(2, 10)))
+                .thenReturn(Flux.just(cart1, otherCartOfCustomer));
+        when(customerClient.getCustomerById("1")).thenReturn(Mono.just(customer));
+
+        CartQueryCriteria criteria = CartQueryCriteria.builder()
+                .page(2).size(10).customerId(" 1 ").customerName("doe").assigned(true)
+                .build();
+
+        StepVerifier.create(cartService.getAllCarts(criteria))
+                .expectNextMatches(cart -> cart.getCartId().equals(cart1.getCartId()) && cart.getCustomerName().equals("Jane Doe"))
+                .expectNextMatches(cart -> cart.getCartId().equals("other-cart") && cart.getCustomerName().equals("Jane Doe"))
+                .verifyComplete();
+
+        verify(customerClient, times(1)).getCustomerById("1");
+        verify(customerNameRefresher, times(1)).customerNameRead("1", "Jane Doe");
+        verify(cartRepository, never()).setCustomerName(anyString(), anyString());
+        verify(cartRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllCarts_WhenCustomersServiceFails_KeepsTheStoredName() {
+        Cart cart = Cart.builder()
+                .cartId("named-cart")
+                .customerId("2")
+                .customerName("Stored Name")
+                .products(new ArrayList<>())
+                .build();
+
+        when(cartRepository.findCarts(null, null, null, PageRequest.of(0, 50))).thenReturn(Flux.just(cart));
+        when(customerClient.getCustomerById("2")).thenReturn(Mono.error(new NotFoundException("CustomerId not found: 2")));
+
+        StepVerifier.create(cartService.getAllCarts(CartQueryCriteria.builder().build()))
+                .expectNextMatches(model -> model.getCustomerName().equals("Stored Name"))
+                .verifyComplete();
+
+        verify(customerNameRefresher, never()).customerNameRead(anyString(), anyString());
+        verify(cartRepository, never()).setCustomerName(anyString(), anyString());
+    }
+
     @Test
     void transferWishlist_skipsOutOfStockProducts() {
         CartProduct inStockWishlistProduct = CartProduct.builder()
@@ -501,7 +600,8 @@ class CartServiceUnitTest {
                 .productSalePrice(300.0)
                 .productQuantity(10) // 10 in stock
                 .build()));
-        when(cartRepository.save(any(Cart.class))).thenReturn(Mono.just(cart1));
+        doAnswer(inv -> Mono.just(written(List.of(product1, product2, inv.getArgument(1)), wishListProducts)))
+                .when(cartRepository).pushProduct(eq(cartId), any(CartProduct.class));
 
         Mono<CartResponseModel> result = cartService.addProductToCart(cartId, request);
 
@@ -511,7 +611,8 @@ class CartServiceUnitTest {
                                 product.getQuantityInCart() == quantityToAdd))
                 .verifyComplete();
 
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartRepository, times(1)).pushProduct(eq(cartId), any(CartProduct.class));
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
@@ -527,7 +628,8 @@ class CartServiceUnitTest {
                 .productName("Product1")
                 .productQuantity(10) // 10 in stock
                 .build()));
-        when(cartRepository.save(any(Cart.class))).thenReturn(Mono.just(cart1));
+        doReturn(Mono.just(written(List.of(withQuantityInCart(product1, 4), product2), wishListProducts)))
+                .when(cartRepository).incrementProductQuantity(cartId, productId, quantityToAdd, 10);
 
         Mono<CartResponseModel> result = cartService.addProductToCart(cartId, request);
 
@@ -537,7 +639,8 @@ class CartServiceUnitTest {
                                 product.getQuantityInCart() == (quantityToAdd + 1))) // already 1 in cart
                 .verifyComplete();
 
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartRepository, times(1)).incrementProductQuantity(cartId, productId, quantityToAdd, 10);
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
@@ -574,6 +677,8 @@ class CartServiceUnitTest {
                 .productId(productId)
                 .productQuantity(10)
                 .build()));
+        doReturn(Mono.just(written(List.of(withQuantityInCart(product1, 2), product2), wishListProducts)))
+                .when(cartRepository).incrementProductQuantity(cartId, productId, 1, 10);
 
         Mono<CartResponseModel> result = cartService.addProductToCart(cartId, request);
 
@@ -613,7 +718,8 @@ class CartServiceUnitTest {
                 .productId(productId)
                 .productQuantity(10) // Stock of 10
                 .build()));
-        when(cartRepository.save(any(Cart.class))).thenReturn(Mono.just(cart1));
+        doReturn(Mono.just(written(List.of(withQuantityInCart(product1, newQuantity), product2), wishListProducts)))
+                .when(cartRepository).setProductQuantity(cartId, productId, newQuantity, 10);
 
         Mono<CartResponseModel> result = cartService.updateProductQuantityInCart(cartId, productId, newQuantity);
 
@@ -623,7 +729,8 @@ class CartServiceUnitTest {
                                 product.getQuantityInCart() == newQuantity))
                 .verifyComplete();
 
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartRepository, times(1)).setProductQuantity(cartId, productId, newQuantity, 10);
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
@@ -690,6 +797,62 @@ class CartServiceUnitTest {
 
 
 
+    @Test
+    void updateProductQuantityInCart_CartChangedOnEveryWrite_ThrowsOptimisticLockingFailureException() {
+        String cartId = cart1.getCartId();
+        String productId = product1.getProductId();
+
+        when(cartRepository.findCartByCartId(cartId)).thenReturn(Mono.just(cart1));
+        when(productClient.getProductByProductId(productId)).thenReturn(Mono.just(ProductResponseModel.builder()
+                .productId(productId)
+                .productQuantity(10)
+                .build()));
+        doReturn(Mono.empty()).when(cartRepository).setProductQuantity(cartId, productId, 3, 10);
+
+        StepVerifier.create(cartService.updateProductQuantityInCart(cartId, productId, 3))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+
+        // Read, checked and written again after each lost write
+        verify(cartRepository, times(4)).setProductQuantity(cartId, productId, 3, 10);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void updateProductQuantityInCart_ProductLookupEmpty_IsNotRetriedAsAConflict() {
+        String cartId = cart1.getCartId();
+        String productId = product1.getProductId();
+
+        when(cartRepository.findCartByCartId(cartId)).thenReturn(Mono.just(cart1));
+        when(productClient.getProductByProductId(productId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(cartService.updateProductQuantityInCart(cartId, productId, 3))
+                .verifyComplete();
+
+        verify(cartRepository, times(1)).findCartByCartId(cartId);
+        verify(cartRepository, never()).setProductQuantity(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void checkoutCart_CartChangedAfterRead_ChecksOutTheNewCart() {
+        String cartId = cart1.getCartId();
+        Cart read = Cart.builder().cartId(cartId).products(new ArrayList<>(List.of(product1))).version(1L).build();
+        Cart changed = Cart.builder().cartId(cartId).products(new ArrayList<>(List.of(product1, product2))).version(2L).build();
+
+        // The first write sees version 2 while the checkout read version 1
+        when(cartRepository.findCartByCartId(cartId)).thenReturn(Mono.just(read), Mono.just(changed));
+        doReturn(Mono.empty()).when(cartRepository).checkout(eq(cartId), eq(1L), anyList(), anyList());
+        doReturn(Mono.just(Cart.builder().cartId(cartId).products(new ArrayList<>()).version(3L).build()))
+                .when(cartRepository).checkout(eq(cartId), eq(2L), anyList(), anyList());
+
+        StepVerifier.create(cartService.checkoutCart(cartId))
+                .assertNext(response -> assertEquals(2, response.getProducts().size()))
+                .verifyComplete();
+
+        verify(cartRepository).checkout(eq(cartId), eq(1L), anyList(), anyList());
+        verify(cartRepository).checkout(eq(cartId), eq(2L), anyList(), anyList());
+    }
+
     @Test
     void findCartByCustomerId_withExistingId_thenReturnCartResponseModel() {
         // Arrange
@@ -728,17 +891,8 @@ class CartServiceUnitTest {
     void removeProductFromCart_RemovesProductSuccessfully() {
         // Arrange: Mock the cart retrieval
         when(cartRepository.findCartByCartId(cart1.getCartId())).thenReturn(Mono.just(cart1));
-
-        // Simulate removing product1 from the cart (which leaves only product2)
-        Cart updatedCart = Cart.builder()
-                .cartId(cart1.getCartId())
-                .customerId(cart1.getCustomerId())
-                .products(Collections.singletonList(product2)) // only product2 remains after removal
-                .wishListProducts(cart1.getWishListProducts()) // maintain existing wishlist
-                .build();
-
-        // Mock the save method to return the updated cart
-        when(cartRepository.save(any(Cart.class))).thenReturn(Mono.just(updatedCart));
+        doReturn(Mono.just(written(List.of(product2), wishListProducts)))
+                .when(cartRepository).pullProduct(cart1.getCartId(), product1.getProductId());
 
         // Act: Call the removeProductFromCart method
         StepVerifier.create(cartService.removeProductFromCart(cart1.getCartId(), product1.getProductId()))
@@ -748,9 +902,9 @@ class CartServiceUnitTest {
                 )
                 .verifyComplete();
 
-        // Assert: Verify that the repository was called
-        verify(cartRepository, times(1)).findCartByCartId(cart1.getCartId());
-        verify(cartRepository, times(1)).save(any(Cart.class)); // check that the cart is saved with the remaining products
+        // Assert: Verify that only the removed line item was written
+        verify(cartRepository, times(1)).pullProduct(cart1.getCartId(), product1.getProductId());
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
 
@@ -980,7 +1134,8 @@ class CartServiceUnitTest {
                         .productSalePrice(10.0)
                         .build())
         );
-        when(cartRepository.save(any(Cart.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        doAnswer(inv -> Mono.just(written(List.of(product1, product2, inv.getArgument(1)), wishListProducts)))
+                .when(cartRepository).pushProduct(eq(cartId), any(CartProduct.class));
 
         StepVerifier.create(cartService.addProductToCart(cartId, request))
                 .expectNextMatches(res ->
@@ -1006,7 +1161,8 @@ class CartServiceUnitTest {
                         .productSalePrice(5.0)
                         .build())
         );
-        when(cartRepository.save(any(Cart.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        doReturn(Mono.just(written(List.of(withQuantityInCart(product1, 2), product2), wishListProducts)))
+                .when(cartRepository).incrementProductQuantity(cartId, productId, 1, 10);
 
         // Act + Assert
         StepVerifier.create(cartService.addProductToCart(cartId, request))
@@ -1096,7 +1252,8 @@ class CartServiceUnitTest {
                 .build();
 
         when(cartRepository.findCartByCartId(cartId)).thenReturn(Mono.just(mutable));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        doReturn(Mono.just(written(cart1.getProducts(), List.of(wishlistProduct2))))
+                .when(cartRepository).pullWishlistProduct(cartId, productId);
 
         StepVerifier.create(cartService.removeProductFromWishlist(cartId, productId))
                 .expectNextMatches(res ->
@@ -1222,7 +1379,7 @@ class CartServiceUnitTest {
     @Test
     void testGetRecentPurchases_ReturnsList() {
         CartRepository cartRepository = Mockito.mock(CartRepository.class);
-        CartServiceImpl service = new CartServiceImpl(cartRepository, null, customerClient);
+        CartServiceImpl service = new CartServiceImpl(cartRepository, null, customerClient, customerNameRefresher);
 
         String customerId = "customer-123";
         List<CartProduct> recentPurchases = List.of(
@@ -1241,7 +1398,7 @@ class CartServiceUnitTest {
     @Test
     void testGetRecentPurchases_ReturnsEmptyListIfNull() {
         CartRepository cartRepository = Mockito.mock(CartRepository.class);
-        CartServiceImpl service = new CartServiceImpl(cartRepository, null, customerClient);
+        CartServiceImpl service = new CartServiceImpl(cartRepository, null, customerClient, customerNameRefresher);
 
         String customerId = "customer-456";
         Cart cart = Cart.builder().cartId("cart456").customerId(customerId).recentPurchases(null).build();
@@ -1490,7 +1647,6 @@ class CartServiceUnitTest {
                 .build();
 
         when(cartRepository.findCartByCartId(cartId)).thenReturn(Mono.just(cart));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         StepVerifier.create(cartService.checkoutCart(cartId))
                 .assertNext(response -> {
@@ -1517,7 +1673,7 @@ class CartServiceUnitTest {
         void testGetRecommendationPurchases_ReturnsRecommendations() {
                 CartRepository cartRepository = Mockito.mock(CartRepository.class);
                 ProductClient productClient = Mockito.mock(ProductClient.class);
-                CartServiceImpl service = new CartServiceImpl(cartRepository, productClient, customerClient);
+                CartServiceImpl service = new CartServiceImpl(cartRepository, productClient, customerClient, customerNameRefresher);
 
                 String customerId = "customer-rec";
                 List<CartProduct> recommendations = List.of(CartProduct.builder().productId("prod1").build());
@@ -1537,7 +1693,7 @@ class CartServiceUnitTest {
         void testGetRecommendationPurchases_ReturnsEmptyList() {
                 CartRepository cartRepository = Mockito.mock(CartRepository.class);
                 ProductClient productClient = Mockito.mock(ProductClient.class);
-                CartServiceImpl service = new CartServiceImpl(cartRepository, productClient, customerClient);
+                CartServiceImpl service = new CartServiceImpl(cartRepository, productClient, customerClient, customerNameRefresher);
 
                 String customerId = "customer-empty";
                 Cart cart = Mockito.mock(Cart.class);
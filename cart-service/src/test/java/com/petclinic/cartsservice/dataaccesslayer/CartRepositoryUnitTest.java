@@ -9,6 +9,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -21,6 +23,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
+@Import(CartSearchKeys.class)
 @ActiveProfiles("test")
 class CartRepositoryUnitTest {
 
@@ -289,10 +292,164 @@ class CartRepositoryUnitTest {
                 .verify();
     }
 
+    @Test
+    void findCarts_byCustomerName_matchesNamesWithAWordStartingWithIt_ignoringCase() {
+        Cart jane = Cart.builder().cartId("cart-jane").customerId("1").customerName("Jane Doe").build();
+        Cart janet = Cart.builder().cartId("cart-janet").customerId("2").customerName("Janet O'Neil").build();
+        Cart john = Cart.builder().cartId("cart-john").customerId("3").customerName("John Jane").build();
+        Cart bob = Cart.builder().cartId("cart-bob").customerId("4").customerName("Bob Mejane").build();
+
+        StepVerifier.create(cartRepository.saveAll(List.of(jane, janet, john, bob)))
+                .expectNextCount(4)
+                .verifyComplete();
+
+        StepVerifier.create(cartRepository.findCarts(null, "JANE", null, PageRequest.of(0, 10)).map(Cart::getCartId))
+                .expectNext("cart-jane", "cart-janet", "cart-john")
+                .verifyComplete();
+        StepVerifier.create(cartRepository.findCarts(null, "doe", null, PageRequest.of(0, 10)).map(Cart::getCartId))
+                .expectNext("cart-jane")
+                .verifyComplete();
+        StepVerifier.create(cartRepository.findCarts(null, "jane d", null, PageRequest.of(0, 10)).map(Cart::getCartId))
+                .expectNext("cart-jane")
+                .verifyComplete();
+    }
+
+    @Test
+    void findCarts_byCustomerName_treatsRegexCharactersAsText() {
+        Cart cart = Cart.builder().cartId("cart-dot").customerId("1").customerName("J. Doe").build();
+
+        StepVerifier.create(cartRepository.save(cart))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(cartRepository.findCarts(null, "j.", null, PageRequest.of(0, 10)).map(Cart::getCartId))
+                .expectNext("cart-dot")
+                .verifyComplete();
+        StepVerifier.create(cartRepository.findCarts(null, "j..", null, PageRequest.of(0, 10)))
+                .verifyComplete();
+    }
+
+    @Test
+    void setCustomerName_updatesTheNameSearchedOn() {
+        Cart cart = Cart.builder().cartId("cart-renamed").customerId("1").customerName("Old Name").build();
+
+        StepVerifier.create(cartRepository.save(cart)
+                        .then(cartRepository.setCustomerName("1", "New Name"))
+                        .thenMany(cartRepository.findCarts(null, "new", null, PageRequest.of(0, 10)))
+                        .map(Cart::getCustomerName))
+                .expectNext("New Name")
+                .verifyComplete();
+    }
+
+    private Cart stored(List<CartProduct> products, List<CartProduct> wishListProducts) {
+        Cart cart = Cart.builder()
+                .cartId("cart-lines")
+                .customerId("1")
+                .products(new ArrayList<>(products))
+                .wishListProducts(new ArrayList<>(wishListProducts))
+                .build();
+        return cartRepository.save(cart).block();
+    }
+
+    private static CartProduct line(String productId, int quantityInCart) {
+        return CartProduct.builder().productId(productId).quantityInCart(quantityInCart).productQuantity(10).build();
+    }
+
+    @Test
+    void pushProduct_addsTheLineAndTakesItOffTheWishlist() {
+        stored(List.of(line("p1", 1)), List.of(line("p2", 1)));
+
+        StepVerifier.create(cartRepository.pushProduct("cart-lines", line("p2", 3)))
+                .assertNext(cart -> {
+                    assertEquals(List.of("p1", "p2"), cart.getProducts().stream().map(CartProduct::getProductId).toList());
+                    assertTrue(cart.getWishListProducts().isEmpty());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void pushProduct_whenTheProductIsAlreadyInTheCart_thenReturnEmpty() {
+        stored(List.of(line("p1", 1)), List.of());
 
+        StepVerifier.create(cartRepository.pushProduct("cart-lines", line("p1", 3)))
+                .verifyComplete();
+        StepVerifier.create(cartRepository.findCartByCartId("cart-lines"))
+                .assertNext(cart -> assertEquals(1, cart.getProducts().size()))
+                .verifyComplete();
+    }
 
+    @Test
+    void incrementProductQuantity_withinStock_addsToTheLine() {
+        stored(List.of(line("p1", 2), line("p2", 1)), List.of(line("p1", 1)));
+
+        StepVerifier.create(cartRepository.incrementProductQuantity("cart-lines", "p1", 3, 5))
+                .assertNext(cart -> {
+                    assertEquals(5, cart.getProducts().get(0).getQuantityInCart());
+                    assertEquals(5, cart.getProducts().get(0).getProductQuantity());
+                    assertEquals(1, cart.getProducts().get(1).getQuantityInCart());
+                    assertTrue(cart.getWishListProducts().isEmpty());
+                })
+                .verifyComplete();
+    }
 
+    @Test
+    void incrementProductQuantity_beyondStock_thenReturnEmpty() {
+        stored(List.of(line("p1", 3)), List.of());
 
+        StepVerifier.create(cartRepository.incrementProductQuantity("cart-lines", "p1", 3, 5))
+                .verifyComplete();
+        StepVerifier.create(cartRepository.incrementProductQuantity("cart-lines", "p2", 1, 5))
+                .verifyComplete();
+    }
 
+    @Test
+    void setProductQuantity_setsTheLineOnly() {
+        stored(List.of(line("p1", 1), line("p2", 1)), List.of());
+
+        StepVerifier.create(cartRepository.setProductQuantity("cart-lines", "p2", 4, 7))
+                .assertNext(cart -> {
+                    assertEquals(1, cart.getProducts().get(0).getQuantityInCart());
+                    assertEquals(4, cart.getProducts().get(1).getQuantityInCart());
+                    assertEquals(7, cart.getProducts().get(1).getProductQuantity());
+                })
+                .verifyComplete();
+        StepVerifier.create(cartRepository.setProductQuantity("cart-lines", "p3", 4, 7))
+                .verifyComplete();
+    }
 
-}
\ No newline at end of file
+    @Test
+    void pullProduct_andPullWishlistProduct_removeOnlyLinesThatAreThere() {
+        stored(List.of(line("p1", 1), line("p2", 1)), List.of(line("p3", 1)));
+
+        StepVerifier.create(cartRepository.pullProduct("cart-lines", "p1"))
+                .assertNext(cart -> assertEquals(List.of("p2"),
+                        cart.getProducts().stream().map(CartProduct::getProductId).toList()))
+                .verifyComplete();
+        StepVerifier.create(cartRepository.pullProduct("cart-lines", "p1"))
+                .verifyComplete();
+
+        StepVerifier.create(cartRepository.pullWishlistProduct("cart-lines", "p3"))
+                .assertNext(cart -> assertTrue(cart.getWishListProducts().isEmpty()))
+                .verifyComplete();
+        StepVerifier.create(cartRepository.pullWishlistProduct("cart-lines", "p3"))
+                .verifyComplete();
+    }
+
+    @Test
+    void checkout_onlyAppliesToTheVersionRead_andEachLineUpdateMovesTheVersionOn() {
+        Long readVersion = stored(List.of(line("p1", 1)), List.of()).getVersion();
+
+        Cart changed = cartRepository.pushProduct("cart-lines", line("p2", 1)).block();
+        assertNotNull(changed);
+        assertEquals(readVersion + 1, changed.getVersion());
+
+        StepVerifier.create(cartRepository.checkout("cart-lines", readVersion, List.of(line("p1", 1)), List.of()))
+                .verifyComplete();
+        StepVerifier.create(cartRepository.checkout("cart-lines", changed.getVersion(), changed.getProducts(), List.of()))
+                .assertNext(cart -> {
+                    assertTrue(cart.getProducts().isEmpty());
+                    assertEquals(2, cart.getRecentPurchases().size());
+                })
+                .verifyComplete();
+    }
+}
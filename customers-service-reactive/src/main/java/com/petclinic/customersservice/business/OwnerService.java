@@ -1,6 +1,8 @@
 package com.petclinic.customersservice.business;
 
 import com.petclinic.customersservice.domainclientlayer.FileRequestDTO;
+import com.petclinic.customersservice.presentationlayer.OwnerPageResponseDTO;
+import com.petclinic.customersservice.presentationlayer.OwnerProfileResponseDTO;
 import com.petclinic.customersservice.presentationlayer.OwnerRequestDTO;
 import com.petclinic.customersservice.presentationlayer.OwnerResponseDTO;
 import reactor.core.publisher.Flux;
@@ -12,9 +14,11 @@ public interface OwnerService {
     Flux<OwnerResponseDTO> getAllOwners();
     Mono<Long> getTotalNumberOfOwnersWithFilters(String ownerId,String firstName,String lastName,String phoneNumber, String city);
     Flux<OwnerResponseDTO> getAllOwnersPagination(Pageable pageable, String ownerId, String firstName, String lastName, String phoneNumber, String city);
+    Mono<OwnerPageResponseDTO> getOwnersPage(Pageable pageable, String ownerId, String firstName, String lastName, String phoneNumber, String city);
     Mono<OwnerResponseDTO> addOwner(Mono<OwnerRequestDTO> ownerMono);
     Mono<OwnerResponseDTO> getOwnerByOwnerId(String ownerId);
     Mono<OwnerResponseDTO> getOwnerByOwnerId(String ownerId, boolean includePhoto);
+    Mono<OwnerProfileResponseDTO> getOwnerProfile(String ownerId);
     Mono<Void> deleteOwner(String ownerId);
     Mono<OwnerResponseDTO> deleteOwnerByOwnerId(String ownerId);
     Mono<OwnerResponseDTO> updateOwner(Mono<OwnerRequestDTO> ownerRequestDTO, String ownerId);
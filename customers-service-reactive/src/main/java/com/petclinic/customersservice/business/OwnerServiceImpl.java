@@ -2,12 +2,18 @@ package com.petclinic.customersservice.business;
 
 import com.petclinic.customersservice.customersExceptions.exceptions.NotFoundException;
 import com.petclinic.customersservice.data.Owner;
+import com.petclinic.customersservice.data.OwnerFilter;
 import com.petclinic.customersservice.data.OwnerRepo;
+import com.petclinic.customersservice.data.Pet;
+import com.petclinic.customersservice.data.PetRepo;
 import com.petclinic.customersservice.domainclientlayer.FileRequestDTO;
 import com.petclinic.customersservice.domainclientlayer.FileResponseDTO;
 import com.petclinic.customersservice.domainclientlayer.FilesServiceClient;
+import com.petclinic.customersservice.presentationlayer.OwnerPageResponseDTO;
+import com.petclinic.customersservice.presentationlayer.OwnerProfileResponseDTO;
 import com.petclinic.customersservice.presentationlayer.OwnerRequestDTO;
 import com.petclinic.customersservice.presentationlayer.OwnerResponseDTO;
+import com.petclinic.customersservice.presentationlayer.PetResponseDTO;
 import com.petclinic.customersservice.util.EntityDTOUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import org.springframework.data.domain.Pageable;
 
-import java.util.function.Predicate;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -25,6 +31,9 @@ public class OwnerServiceImpl implements OwnerService {
     @Autowired
     OwnerRepo ownerRepo;
     
+    @Autowired
+    PetRepo petRepo;
+
     @Autowired
     FilesServiceClient filesServiceClient;
 
@@ -67,6 +76,39 @@ public class OwnerServiceImpl implements OwnerService {
                 });
     }
 
+    // photos are only referred to by id, the page fetching each image on its own
+    @Override
+    public Mono<OwnerProfileResponseDTO> getOwnerProfile(String ownerId) {
+        return Mono.zip(ownerRepo.findOwnerByOwnerId(ownerId), petRepo.findAllPetByOwnerId(ownerId).collectList())
+                .map(ownerAndPets -> toOwnerProfile(ownerAndPets.getT1(), ownerAndPets.getT2()));
+    }
+
+    private static OwnerProfileResponseDTO toOwnerProfile(Owner owner, List<Pet> pets) {
+        List<PetResponseDTO> petDTOs = pets.stream()
+                .map(pet -> {
+                    PetResponseDTO dto = EntityDTOUtil.toPetResponseDTO(pet);
+                    dto.setPhoto(photoReference(pet.getPhotoId()));
+                    return dto;
+                })
+                .toList();
+
+        return OwnerProfileResponseDTO.builder()
+                .ownerId(owner.getOwnerId())
+                .firstName(owner.getFirstName())
+                .lastName(owner.getLastName())
+                .address(owner.getAddress())
+                .city(owner.getCity())
+                .province(owner.getProvince())
+                .telephone(owner.getTelephone())
+                .photo(photoReference(owner.getPhotoId()))
+                .pets(petDTOs)
+                .build();
+    }
+
+    private static FileResponseDTO photoReference(String photoId) {
+        return photoId == null || photoId.isEmpty() ? null : FileResponseDTO.builder().fileId(photoId).build();
+    }
+
     @Override
     public Mono<Void> deleteOwner(String ownerId) {
         return ownerRepo.deleteById(ownerId);
@@ -90,6 +132,7 @@ public class OwnerServiceImpl implements OwnerService {
                         .doOnNext(o -> {
                             o.setId(owner.getId());
                             o.setOwnerId(ownerId);
+                            o.setSequence(owner.getSequence());
                         })
                 )
                 .flatMap(ownerRepo::save)
@@ -137,17 +180,7 @@ public class OwnerServiceImpl implements OwnerService {
 
     @Override
     public Mono<Long> getTotalNumberOfOwnersWithFilters(String ownerId, String firstName, String lastName, String phoneNumber, String city) {
-         Predicate<Owner> filterCriteria = owner ->
-                (ownerId == null || owner.getOwnerId().equals(ownerId)) &&
-                (firstName == null || owner.getFirstName().equals(firstName)) &&
-                (lastName == null || owner.getLastName().equals(lastName)) &&
-                (phoneNumber == null || owner.getTelephone().equals(phoneNumber)) &&
-                (city == null || owner.getCity().equals(city));
-
-        return ownerRepo.findAll()
-                .filter(filterCriteria) // Apply filtering
-                .map(EntityDTOUtil::toOwnerResponseDTO)
-                .count();
+        return ownerRepo.countOwnersByFilter(toFilter(ownerId, firstName, lastName, phoneNumber, city));
     }
 
     @Override
@@ -157,26 +190,37 @@ public class OwnerServiceImpl implements OwnerService {
                                                          String lastName,
                                                          String phoneNumber,
                                                          String city){
+        return ownerRepo.findOwnersByFilter(toFilter(ownerId, firstName, lastName, phoneNumber, city), pageable)
+                .map(EntityDTOUtil::toOwnerResponseDTO);
+    }
+
+    @Override
+    public Mono<OwnerPageResponseDTO> getOwnersPage(Pageable pageable,
+                                                    String ownerId,
+                                                    String firstName,
+                                                    String lastName,
+                                                    String phoneNumber,
+                                                    String city) {
+        OwnerFilter filter = toFilter(ownerId, firstName, lastName, phoneNumber, city);
+
+        return Mono.zip(ownerRepo.findOwnersByFilter(filter, pageable).map(EntityDTOUtil::toOwnerResponseDTO).collectList(),
+                        ownerRepo.countOwnersByFilter(filter))
+                .map(pageAndTotal -> OwnerPageResponseDTO.builder()
+                        .content(pageAndTotal.getT1())
+                        .page(pageable.getPageNumber())
+                        .size(pageable.getPageSize())
+                        .totalElements(pageAndTotal.getT2())
+                        .build());
+    }
 
-        Predicate<Owner> filterCriteria = owner ->
-                (ownerId == null || owner.getOwnerId().equals(ownerId)) &&
-                (firstName == null || owner.getFirstName().equals(firstName)) &&
-                (lastName == null || owner.getLastName().equals(lastName)) &&
-                (phoneNumber == null || owner.getTelephone().equals(phoneNumber)) &&
-                (city == null || owner.getCity().equals(city));
-
-        if(ownerId == null && firstName == null && lastName == null && phoneNumber == null && city == null){
-            return ownerRepo.findAll()
-                    .map(EntityDTOUtil::toOwnerResponseDTO)
-                    .skip(pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize());
-        } else {
-            return ownerRepo.findAll()
-                    .filter(filterCriteria)
-                    .map(EntityDTOUtil::toOwnerResponseDTO)
-                    .skip(pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize());
-        }
+    private static OwnerFilter toFilter(String ownerId, String firstName, String lastName, String phoneNumber, String city) {
+        return OwnerFilter.builder()
+                .ownerId(ownerId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .phoneNumber(phoneNumber)
+                .city(city)
+                .build();
     }
 
     @Override
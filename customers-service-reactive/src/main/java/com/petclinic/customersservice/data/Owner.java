@@ -2,7 +2,19 @@ package com.petclinic.customersservice.data;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "ownerId_idx", def = "{'ownerId': 1}"),
+        @CompoundIndex(name = "telephone_idx", def = "{'telephone': 1}"),
+        @CompoundIndex(name = "search_firstName_idx", def = "{'" + OwnerSearchKeys.FIRST_NAME + "': 1}"),
+        @CompoundIndex(name = "search_lastName_idx", def = "{'" + OwnerSearchKeys.LAST_NAME + "': 1}"),
+        @CompoundIndex(name = "search_city_idx", def = "{'" + OwnerSearchKeys.CITY + "': 1}"),
+        @CompoundIndex(name = "sequence_id_idx", def = "{'" + OwnerSequence.FIELD + "': 1, '_id': 1}")
+})
 @Data
 @NoArgsConstructor
 @Builder
@@ -20,4 +32,5 @@ public class Owner {
     private String province;
     private String telephone;
     private String photoId;
+    private Long sequence; // order the owner was added in
 }
@@ -0,0 +1,62 @@
+package com.petclinic.customersservice.data;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Completes owners saved by older versions of the service at startup: the ones saved before {@link OwnerSearchKeys}
+ * existed get their search keys, so that the name and city filters find them too, and the ones saved before
+ * {@link OwnerSequence} existed are numbered in the order they are stored, ahead of any owner added since.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OwnerBackfill {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final OwnerSequence ownerSequence;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfill() {
+        backfillSearchKeys()
+                .then(backfillSequences())
+                .block();
+    }
+
+    private Mono<Void> backfillSearchKeys() {
+        return mongoTemplate.find(new Query(Criteria.where(OwnerSearchKeys.FIELD).exists(false)), Owner.class)
+                .concatMap(owner -> mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(owner.getId())),
+                        new Update().set(OwnerSearchKeys.FIELD, OwnerSearchKeys.of(owner)),
+                        Owner.class))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Filled in the search keys of {} owners", count))
+                .then();
+    }
+
+    private Mono<Void> backfillSequences() {
+        // Read without a sort, in the order the owners are stored
+        Query missing = new Query(Criteria.where(OwnerSequence.FIELD).exists(false));
+        missing.fields().include("_id");
+
+        return mongoTemplate.find(missing, Owner.class)
+                .concatMap(owner -> ownerSequence.next()
+                        .flatMap(sequence -> mongoTemplate.updateFirst(
+                                new Query(Criteria.where("_id").is(owner.getId())),
+                                new Update().set(OwnerSequence.FIELD, sequence),
+                                Owner.class)))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Numbered {} owners", count))
+                .then();
+    }
+}
@@ -0,0 +1,19 @@
+package com.petclinic.customersservice.data;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Optional filters on owners, a null field is not filtered on. The owner id and the telephone are matched exactly,
+ * the names and the city by a case-insensitive prefix.
+ */
+@Value
+@Builder
+public class OwnerFilter {
+
+    String ownerId;
+    String firstName;
+    String lastName;
+    String phoneNumber;
+    String city;
+}
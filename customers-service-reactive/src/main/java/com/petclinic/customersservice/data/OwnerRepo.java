@@ -6,7 +6,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface OwnerRepo extends ReactiveMongoRepository<Owner, String> {
+public interface OwnerRepo extends ReactiveMongoRepository<Owner, String>, OwnerRepoCustom {
 
     Mono<Owner> findOwnerByOwnerId(String ownerId);
 
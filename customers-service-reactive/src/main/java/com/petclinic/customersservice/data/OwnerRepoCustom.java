@@ -0,0 +1,12 @@
+package com.petclinic.customersservice.data;
+
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface OwnerRepoCustom {
+
+    Flux<Owner> findOwnersByFilter(OwnerFilter filter, Pageable pageable);
+
+    Mono<Long> countOwnersByFilter(OwnerFilter filter);
+}
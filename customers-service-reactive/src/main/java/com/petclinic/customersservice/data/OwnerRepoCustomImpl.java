@@ -0,0 +1,70 @@
+package com.petclinic.customersservice.data;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds the owner filters into a single Mongo query on indexed fields, so that filtering, skipping and limiting happen
+ * in the database instead of on the whole collection in memory.
+ */
+@RequiredArgsConstructor
+class OwnerRepoCustomImpl implements OwnerRepoCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Owner> findOwnersByFilter(OwnerFilter filter, Pageable pageable) {
+        // In the order owners were added, _id keeping the order of pages stable for owners not numbered yet
+        return mongoTemplate.find(toQuery(filter).with(pageable).with(Sort.by(OwnerSequence.FIELD, "_id")), Owner.class);
+    }
+
+    @Override
+    public Mono<Long> countOwnersByFilter(OwnerFilter filter) {
+        return mongoTemplate.count(toQuery(filter), Owner.class);
+    }
+
+    static Query toQuery(OwnerFilter filter) {
+        Query query = new Query();
+
+        addIfPresent(query, "ownerId", filter.getOwnerId());
+        addIfPresent(query, "telephone", filter.getPhoneNumber());
+        addPrefixIfPresent(query, OwnerSearchKeys.FIRST_NAME, filter.getFirstName());
+        addPrefixIfPresent(query, OwnerSearchKeys.LAST_NAME, filter.getLastName());
+        addPrefixIfPresent(query, OwnerSearchKeys.CITY, filter.getCity());
+
+        return query;
+    }
+
+    private static void addIfPresent(Query query, String field, String value) {
+        if (value != null) {
+            query.addCriteria(Criteria.where(field).is(value));
+        }
+    }
+
+    private static void addPrefixIfPresent(Query query, String field, String prefix) {
+        if (prefix != null) {
+            query.addCriteria(Criteria.where(field).regex(startingWith(OwnerSearchKeys.toKey(prefix))));
+        }
+    }
+
+    /**
+     * Anchored regex for the keys starting with the prefix. Quoting the whole prefix would stop Mongo from bounding
+     * its index scan, so its regex characters are escaped one at a time instead.
+     */
+    private static String startingWith(String prefix) {
+        StringBuilder regex = new StringBuilder("^");
+        for (char c : prefix.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+}
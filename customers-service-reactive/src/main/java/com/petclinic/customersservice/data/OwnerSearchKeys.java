@@ -0,0 +1,39 @@
+package com.petclinic.customersservice.data;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Stores the lower-cased names and city of each owner next to them, under {@value #FIELD}, every time an owner is
+ * saved. Prefix searches then run as case-sensitive anchored regexes on those keys, which Mongo answers from their
+ * indexes, where a case-insensitive regex would have to scan them.
+ */
+@Component
+public class OwnerSearchKeys implements ReactiveBeforeSaveCallback<Owner> {
+
+    static final String FIELD = "search";
+    static final String FIRST_NAME = FIELD + ".firstName";
+    static final String LAST_NAME = FIELD + ".lastName";
+    static final String CITY = FIELD + ".city";
+
+    @Override
+    public Publisher<Owner> onBeforeSave(Owner owner, Document document, String collection) {
+        document.put(FIELD, of(owner));
+        return Mono.just(owner);
+    }
+
+    static Document of(Owner owner) {
+        return new Document("firstName", toKey(owner.getFirstName()))
+                .append("lastName", toKey(owner.getLastName()))
+                .append("city", toKey(owner.getCity()));
+    }
+
+    static String toKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.petclinic.customersservice.data;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Numbers each owner the first time it is saved, from a counter kept in the {@value #COLLECTION} collection, so that
+ * owners are listed in the order they were added. Owner ids are strings, which would sort "10" before "2".
+ */
+@Component
+public class OwnerSequence implements ReactiveBeforeConvertCallback<Owner> {
+
+    static final String FIELD = "sequence";
+    static final String COLLECTION = "counters";
+    private static final String COUNTER_ID = "owners";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // Lazy, since the template looks this callback up when it is created
+    public OwnerSequence(@Lazy ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Publisher<Owner> onBeforeConvert(Owner owner, String collection) {
+        if (owner.getSequence() != null) {
+            return Mono.just(owner);
+        }
+        return next().map(sequence -> {
+            owner.setSequence(sequence);
+            return owner;
+        });
+    }
+
+    Mono<Long> next() {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(COUNTER_ID)),
+                        new Update().inc("value", 1L),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        Document.class, COLLECTION)
+                .map(counter -> counter.get("value", Number.class).longValue());
+    }
+}
@@ -34,7 +34,7 @@ public class OwnerController {
 
     @GetMapping("/owners-count")
     public Mono<ResponseEntity<Long>> getTotalNumberOfOwners(){
-        return ownerService.getAllOwners().count()
+        return ownerService.getTotalNumberOfOwnersWithFilters(null, null, null, null, null)
                 .map(response -> ResponseEntity.status(HttpStatus.OK).body(response));
     }
 
@@ -52,6 +52,20 @@ public class OwnerController {
                 PageRequest.of(page.orElse(0),size.orElse(5)),ownerId,firstName,lastName,phoneNumber,city);
     }
 
+    @GetMapping("/owners-page")
+    public Mono<OwnerPageResponseDTO> getOwnersPage(
+            @RequestParam Optional<Integer> page,
+            @RequestParam Optional<Integer> size,
+            @RequestParam(required = false) String ownerId,
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String phoneNumber,
+            @RequestParam(required = false) String city
+    ){
+        return ownerService.getOwnersPage(
+                PageRequest.of(page.orElse(0),size.orElse(5)),ownerId,firstName,lastName,phoneNumber,city);
+    }
+
     @GetMapping("/owners-filtered-count")
     public Mono<Long> getTotalNumberOfOwnersWithFilters(
             @RequestParam(required = false) String ownerId,
@@ -70,6 +84,13 @@ public class OwnerController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{ownerId}/profile")
+    public Mono<ResponseEntity<OwnerProfileResponseDTO>> getOwnerProfile(@PathVariable String ownerId) {
+        return ownerService.getOwnerProfile(ownerId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @PostMapping()
     public Mono<ResponseEntity<OwnerResponseDTO>> addOwner(@RequestBody Mono<OwnerRequestDTO> ownerMono) {
         return ownerMono
@@ -0,0 +1,20 @@
+package com.petclinic.customersservice.presentationlayer;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A page of owners along with the number of owners matching the same filters
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerPageResponseDTO {
+
+    private List<OwnerResponseDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+}
@@ -0,0 +1,27 @@
+package com.petclinic.customersservice.presentationlayer;
+
+import com.petclinic.customersservice.domainclientlayer.FileResponseDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * An owner with their pets, as shown on the owner's profile. Photos only carry their file id, their images being
+ * fetched one at a time.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerProfileResponseDTO {
+
+    private String ownerId;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String city;
+    private String province;
+    private String telephone;
+    private FileResponseDTO photo;
+    private List<PetResponseDTO> pets;
+}
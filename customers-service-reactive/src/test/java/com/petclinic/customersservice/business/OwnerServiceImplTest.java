@@ -2,7 +2,11 @@ package com.petclinic.customersservice.business;
 
 import com.petclinic.customersservice.customersExceptions.exceptions.NotFoundException;
 import com.petclinic.customersservice.data.Owner;
+import com.petclinic.customersservice.data.OwnerFilter;
 import com.petclinic.customersservice.data.OwnerRepo;
+import com.petclinic.customersservice.data.Pet;
+import com.petclinic.customersservice.data.PetRepo;
+import com.petclinic.customersservice.domainclientlayer.FileResponseDTO;
 import com.petclinic.customersservice.domainclientlayer.FilesServiceClient;
 import com.petclinic.customersservice.presentationlayer.OwnerRequestDTO;
 import com.petclinic.customersservice.presentationlayer.OwnerResponseDTO;
@@ -17,6 +21,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +36,9 @@ class OwnerServiceImplTest {
     @MockBean
     private OwnerRepo repo;
 
+    @MockBean
+    private PetRepo petRepo;
+
     @MockBean
     private FilesServiceClient filesServiceClient;
 
@@ -91,7 +99,7 @@ class OwnerServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 2);
 
-        when(repo.findAll()).thenReturn(Flux.just(owner1, owner2, owner3));
+        when(repo.findOwnersByFilter(any(OwnerFilter.class), eq(pageable))).thenReturn(Flux.just(owner1, owner2));
 
         Flux<OwnerResponseDTO> owners = ownerService.getAllOwnersPagination(pageable,null,null,null,null,null);
 
@@ -112,7 +120,7 @@ class OwnerServiceImplTest {
         String city = "test city1";
         String ownerId = "ownerId-11";
 
-        when(repo.findAll()).thenReturn(Flux.just(owner1));
+        when(repo.findOwnersByFilter(any(OwnerFilter.class), eq(pageable))).thenReturn(Flux.just(owner1));
 
         Flux<OwnerResponseDTO> owners = ownerService.getAllOwnersPagination(pageable,ownerId,null,null,null,city);
 
@@ -140,7 +148,7 @@ class OwnerServiceImplTest {
         String firstName = "FirstName2";
         String phoneNumber = "telephone2";
 
-        when(repo.findAll()).thenReturn(Flux.just(owner1));
+        when(repo.findOwnersByFilter(any(OwnerFilter.class), eq(pageable))).thenReturn(Flux.just(owner1));
 
         Flux<OwnerResponseDTO> owners = ownerService.getAllOwnersPagination(pageable,ownerId,firstName,lastName,phoneNumber,city);
 
@@ -155,6 +163,29 @@ class OwnerServiceImplTest {
                 .verify();
     }
 
+    @Test
+    void getOwnersPage_ShouldReturnThePageWithTheTotalOfTheSameFilters(){
+        Owner owner1 = buildOwner();
+        owner1.setOwnerId("ownerId-21");
+        Owner owner2 = buildOwner();
+        owner2.setOwnerId("ownerId-22");
+
+        Pageable pageable = PageRequest.of(1, 2);
+        OwnerFilter filter = OwnerFilter.builder().lastName("last").city("test").build();
+
+        when(repo.findOwnersByFilter(filter, pageable)).thenReturn(Flux.just(owner1, owner2));
+        when(repo.countOwnersByFilter(filter)).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(ownerService.getOwnersPage(pageable, null, null, "last", null, "test"))
+                .expectNextMatches(ownerPage -> ownerPage.getContent().size() == 2
+                        && ownerPage.getContent().get(0).getOwnerId().equals("ownerId-21")
+                        && ownerPage.getPage() == 1
+                        && ownerPage.getSize() == 2
+                        && ownerPage.getTotalElements() == 5L)
+                .verifyComplete();
+        verify(repo, never()).findAll();
+    }
+
     @Test
     void addOwner_ShouldSucceed() {
         when(repo.save(any(Owner.class))).thenReturn(Mono.just(ownerEntity));
@@ -214,6 +245,7 @@ class OwnerServiceImplTest {
         ownerRequestDTO.setFirstName("Updated First Name");
 
         Owner existingOwner = buildOwner();
+        existingOwner.setSequence(7L);
 
         when(repo.findOwnerByOwnerId(ownerId)).thenReturn(Mono.just(existingOwner));
         when(repo.save(any(Owner.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
@@ -230,7 +262,7 @@ class OwnerServiceImplTest {
                 .verify();
 
         verify(repo).findOwnerByOwnerId(ownerId);
-        verify(repo).save(any(Owner.class));
+        verify(repo).save(argThat(owner -> Long.valueOf(7L).equals(owner.getSequence())));
     }
 
     @Test
@@ -510,4 +542,38 @@ class OwnerServiceImplTest {
         verify(filesServiceClient, never()).deleteFile(anyString());
     }
 
+
+    @Test
+    void getOwnerProfile_ShouldReturnTheOwnerWithTheirPetsAndOnlyTheIdsOfTheirPhotos() {
+        Owner owner = buildOwner();
+        owner.setPhotoId("photo-owner");
+        Pet withPhoto = Pet.builder().petId("pet-1").ownerId(owner.getOwnerId()).name("Rex").photoId("photo-pet").build();
+        Pet withoutPhoto = Pet.builder().petId("pet-2").ownerId(owner.getOwnerId()).name("Tom").build();
+
+        when(repo.findOwnerByOwnerId(owner.getOwnerId())).thenReturn(Mono.just(owner));
+        when(petRepo.findAllPetByOwnerId(owner.getOwnerId())).thenReturn(Flux.just(withPhoto, withoutPhoto));
+
+        StepVerifier.create(ownerService.getOwnerProfile(owner.getOwnerId()))
+                .consumeNextWith(profile -> {
+                    assertEquals(owner.getOwnerId(), profile.getOwnerId());
+                    assertEquals("photo-owner", profile.getPhoto().getFileId());
+                    assertNull(profile.getPhoto().getFileData());
+                    assertEquals(2, profile.getPets().size());
+                    assertEquals("photo-pet", profile.getPets().get(0).getPhoto().getFileId());
+                    assertNull(profile.getPets().get(0).getPhoto().getFileData());
+                    assertNull(profile.getPets().get(1).getPhoto());
+                })
+                .verifyComplete();
+
+        verify(filesServiceClient, never()).getFile(anyString());
+    }
+
+    @Test
+    void getOwnerProfile_WithUnknownOwner_ShouldReturnEmpty() {
+        when(repo.findOwnerByOwnerId("unknown")).thenReturn(Mono.empty());
+        when(petRepo.findAllPetByOwnerId("unknown")).thenReturn(Flux.empty());
+
+        StepVerifier.create(ownerService.getOwnerProfile("unknown"))
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,60 @@
+package com.petclinic.customersservice.data;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnerRepoCustomImplTest {
+
+    @Test
+    void whenNoFilterIsGiven_thenEveryOwnerMatches() {
+        Document query = OwnerRepoCustomImpl.toQuery(OwnerFilter.builder().build()).getQueryObject();
+
+        assertTrue(query.isEmpty());
+    }
+
+    @Test
+    void whenNamesAndCityAreGiven_thenTheirLowerCasedKeysAreMatchedByPrefix() {
+        Document query = OwnerRepoCustomImpl.toQuery(OwnerFilter.builder()
+                        .firstName("Jean")
+                        .lastName("O'Br.")
+                        .city("Saint-Jean ")
+                        .build())
+                .getQueryObject();
+
+        assertEquals("^jean", regex(query, "search.firstName"));
+        assertEquals("^o'br\\.", regex(query, "search.lastName"));
+        assertEquals("^saint-jean", regex(query, "search.city"));
+    }
+
+    @Test
+    void whenOwnerIdAndPhoneNumberAreGiven_thenTheyAreMatchedExactly() {
+        Document query = OwnerRepoCustomImpl.toQuery(OwnerFilter.builder()
+                        .ownerId("ownerId-1")
+                        .phoneNumber("5145551234")
+                        .build())
+                .getQueryObject();
+
+        assertEquals("ownerId-1", query.get("ownerId"));
+        assertEquals("5145551234", query.get("telephone"));
+    }
+
+    @Test
+    void searchKeysAreTheLowerCasedNamesAndCity() {
+        Owner owner = Owner.builder().firstName("George").lastName("Franklin").city("Madison").build();
+
+        assertEquals(new Document("firstName", "george").append("lastName", "franklin").append("city", "madison"),
+                OwnerSearchKeys.of(owner));
+    }
+
+    private static String regex(Document query, String field) {
+        Object value = query.get(field);
+        assertInstanceOf(Pattern.class, value);
+        Pattern pattern = (Pattern) value;
+        assertEquals(0, pattern.flags());
+        return pattern.pattern();
+    }
+}
@@ -3,6 +3,8 @@ package com.petclinic.customersservice.data;
 import com.petclinic.customersservice.presentationlayer.OwnerResponseDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -11,6 +13,7 @@ import org.reactivestreams.Publisher;
 import org.junit.jupiter.api.Test;
 
 @DataMongoTest
+@Import({OwnerSearchKeys.class, OwnerSequence.class})
 class OwnerRepoTest {
 
     @Autowired
@@ -80,4 +83,67 @@ class OwnerRepoTest {
                 //.photoId("55")
                 .build();
     }
+
+    @Test
+    void findOwnersByFilter_shouldMatchNamePrefixesWhateverTheirCase() {
+        Owner davis = buildOwner();
+        davis.setId("61");
+        davis.setOwnerId("ownerId-davis");
+        davis.setLastName("Davis");
+        Owner davidson = buildOwner();
+        davidson.setId("62");
+        davidson.setOwnerId("ownerId-davidson");
+        davidson.setLastName("Davidson");
+        Owner black = buildOwner();
+        black.setId("63");
+        black.setOwnerId("ownerId-black");
+        black.setLastName("Black");
+
+        StepVerifier.create(repo.deleteAll().thenMany(Flux.just(davis, davidson, black).concatMap(repo::save)))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        OwnerFilter filter = OwnerFilter.builder().lastName("DAV").build();
+        StepVerifier.create(repo.findOwnersByFilter(filter, PageRequest.of(0, 1)).map(Owner::getOwnerId))
+                .expectNext("ownerId-davis")
+                .verifyComplete();
+        StepVerifier.create(repo.countOwnersByFilter(filter))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void findOwnersByFilter_shouldListOwnersInTheOrderTheyWereAdded() {
+        Owner second = buildOwner();
+        second.setId("2");
+        second.setOwnerId("ownerId-2");
+        Owner tenth = buildOwner();
+        tenth.setId("10");
+        tenth.setOwnerId("ownerId-10");
+        Owner first = buildOwner();
+        first.setId("1");
+        first.setOwnerId("ownerId-1");
+
+        StepVerifier.create(repo.deleteAll().thenMany(Flux.just(second, tenth, first).concatMap(repo::save)))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        StepVerifier.create(repo.findOwnersByFilter(OwnerFilter.builder().build(), PageRequest.of(0, 10)).map(Owner::getOwnerId))
+                .expectNext("ownerId-2", "ownerId-10", "ownerId-1")
+                .verifyComplete();
+    }
+
+    @Test
+    void save_shouldKeepTheNumberOfAnOwnerItWasAddedWith() {
+        Owner owner = buildOwner();
+
+        StepVerifier.create(repo.deleteAll().then(repo.save(owner))
+                        .flatMap(saved -> {
+                            Long sequence = saved.getSequence();
+                            saved.setCity("Montreal");
+                            return repo.save(saved).map(updated -> updated.getSequence().equals(sequence));
+                        }))
+                .expectNext(true)
+                .verifyComplete();
+    }
 }
@@ -16,6 +16,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -186,6 +187,45 @@ class OwnerControllerIntegrationTest {
 
     }
 
+    @Test
+    void getOwnersPage_shouldReturnThePageAndTheTotalTogether() {
+        Owner owner1 = Owner.builder()
+                .id("71")
+                .ownerId("ownerId-71")
+                .firstName("FirstName1")
+                .lastName("LastName1")
+                .address("Test address1")
+                .city("Test City1")
+                .province("province1")
+                .telephone("telephone1")
+                .build();
+        Owner owner2 = Owner.builder()
+                .id("72")
+                .ownerId("ownerId-72")
+                .firstName("FirstName2")
+                .lastName("LastName2")
+                .address("Test address2")
+                .city("test city2")
+                .province("province2")
+                .telephone("telephone2")
+                .build();
+
+        StepVerifier.create(repo.deleteAll().thenMany(Flux.just(owner1, owner2).concatMap(repo::save)))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        client.get()
+                .uri("/owners/owners-page?page=1&size=1&city=TEST")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OwnerPageResponseDTO.class)
+                .value(ownerPage -> {
+                    assertEquals(2L, ownerPage.getTotalElements());
+                    assertEquals(1, ownerPage.getContent().size());
+                    assertEquals("ownerId-72", ownerPage.getContent().get(0).getOwnerId());
+                });
+    }
+
     @Test
     void getTotalNumberOfOwnersWithFilters1_shouldSucceed(){
 
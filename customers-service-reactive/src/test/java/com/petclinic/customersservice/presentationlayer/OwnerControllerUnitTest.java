@@ -14,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -187,5 +189,34 @@ public class OwnerControllerUnitTest {
 
         verify(ownerService, times(1)).deleteOwnerPhoto(TEST_OWNER_ID);
     }
-}
 
+    @Test
+    void getOwnerProfile_ShouldReturnTheOwnerWithTheirPets() {
+        PetResponseDTO pet = PetResponseDTO.builder().petId("pet-1").ownerId(TEST_OWNER_ID).name("Rex").build();
+        OwnerProfileResponseDTO profile = OwnerProfileResponseDTO.builder()
+                .ownerId(TEST_OWNER_ID)
+                .firstName("John")
+                .pets(List.of(pet))
+                .build();
+
+        doReturn(Mono.just(profile)).when(ownerService).getOwnerProfile(TEST_OWNER_ID);
+
+        StepVerifier.create(ownerController.getOwnerProfile(TEST_OWNER_ID))
+                .consumeNextWith(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertNotNull(response.getBody());
+                    assertEquals(TEST_OWNER_ID, response.getBody().getOwnerId());
+                    assertEquals("pet-1", response.getBody().getPets().get(0).getPetId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getOwnerProfile_WithUnknownOwner_ShouldReturnNotFound() {
+        doReturn(Mono.empty()).when(ownerService).getOwnerProfile(TEST_OWNER_ID);
+
+        StepVerifier.create(ownerController.getOwnerProfile(TEST_OWNER_ID))
+                .consumeNextWith(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+}
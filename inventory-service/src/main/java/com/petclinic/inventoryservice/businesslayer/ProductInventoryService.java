@@ -41,6 +41,10 @@ public interface ProductInventoryService {
     Mono<Integer> getQuantityOfProductsInInventory(String inventoryId);
     Mono<ProductResponseDTO> consumeProduct(String inventoryId, String productId);
 
+    Flux<StockMovementResultDTO> applyStockMovements(String inventoryId, Flux<StockMovementRequestDTO> stockMovements);
+
+    Flux<StockMovementResponseDTO> getStockMovements(String inventoryId, String productId);
+
     Mono<byte[]> createSupplyPdf(String inventoryId);
 
     Mono<ProductResponseDTO> restockLowStockProduct(String inventoryId, String productId, Integer productQuantity);
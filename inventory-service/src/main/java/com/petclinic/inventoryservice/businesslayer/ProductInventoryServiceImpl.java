@@ -9,14 +9,19 @@ import com.petclinic.inventoryservice.datalayer.Inventory.Inventory;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryNameRepository;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryRepository;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryTypeRepository;
+import com.petclinic.inventoryservice.datalayer.Product.InventoryUpdateCount;
 import com.petclinic.inventoryservice.datalayer.Product.Product;
 import com.petclinic.inventoryservice.datalayer.Product.ProductRepository;
 import com.petclinic.inventoryservice.datalayer.Product.Status;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovement;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementRepository;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementType;
 import com.petclinic.inventoryservice.presentationlayer.*;
 import com.petclinic.inventoryservice.utils.EntityDTOUtil;
 import com.petclinic.inventoryservice.utils.InventoryValidator;
 import com.petclinic.inventoryservice.utils.exceptions.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -28,22 +33,41 @@ import java.io.ByteArrayOutputStream;
 import java.util.Comparator;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.petclinic.inventoryservice.utils.EntityDTOUtil.toProductEntity;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductInventoryServiceImpl implements ProductInventoryService {
 
+    /**
+     * Largest number of stock movements accepted in one batch
+     */
+    private static final int MAX_STOCK_MOVEMENTS = 500;
+
+    /**
+     * Number of products whose stock movements are applied at the same time
+     */
+    private static final int STOCK_MOVEMENT_CONCURRENCY = 8;
+
+    /**
+     * How far back product updates count as recent
+     */
+    private static final long RECENT_UPDATE_MINUTES = 15;
+
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final InventoryTypeRepository inventoryTypeRepository;
     private final InventoryValidator validator;
+    private final StockMovementRepository stockMovementRepository;
 
 
     @Override
@@ -58,6 +82,7 @@ public class ProductInventoryServiceImpl implements ProductInventoryService {
                             }
                             e.setInventoryId(EntityDTOUtil.generateUUID());
                             e.setInventoryCode(String.format("INV-%04d", count + 1));
+                            e.setInventoryCodeNumber((int) (count + 1));
                         })
                         .flatMap(inventoryRepository::insert)
                         .map(EntityDTOUtil::toInventoryResponseDTO));
@@ -148,147 +173,35 @@ public class ProductInventoryServiceImpl implements ProductInventoryService {
 
     @Override
     public Flux<ProductResponseDTO> getProductsInInventoryByInventoryIdAndProductsField(String inventoryId, String productName, Double minPrice, Double maxPrice, Integer productQuantity, Double minSalePrice, Double maxSalePrice) {
-
-        Double effectiveMinPrice = minPrice != null ? minPrice : 0.0;
-        Double effectiveMaxPrice = maxPrice != null ? maxPrice : Double.MAX_VALUE;
-        Double effectiveMinSalePrice = minSalePrice != null ? minSalePrice : 0.0;
-        Double effectiveMaxSalePrice = maxSalePrice != null ? maxSalePrice : Double.MAX_VALUE;
-
-        if (minPrice != null || maxPrice != null) {
-            Flux<Product> result = productRepository.findAllProductsByInventoryIdAndProductPriceBetween(inventoryId, effectiveMinPrice, effectiveMaxPrice);
-            if (minSalePrice != null || maxSalePrice != null) {
-                result = result.filter(p -> p.getProductSalePrice() >= effectiveMinSalePrice && p.getProductSalePrice() <= effectiveMaxSalePrice);
-            }
-            if (productQuantity != null) {
-                result = result.filter(p -> p.getProductQuantity().equals(productQuantity));
-            }
-            if (productName != null) {
-                String escapedName = Pattern.quote(productName);
-                String regexPattern = "(?i)^" + escapedName + ".*";
-                result = result.filter(p -> p.getProductName().matches(regexPattern));
-            }
-            return result.map(EntityDTOUtil::toProductResponseDTO).switchIfEmpty(Mono.error(new NotFoundException("No products found in price range")));
-        }
-
-        if (minSalePrice != null || maxSalePrice != null) {
-            Flux<Product> result = productRepository.findAllProductsByInventoryIdAndProductSalePriceBetween(inventoryId, effectiveMinSalePrice, effectiveMaxSalePrice);
-            if (productQuantity != null) {
-                result = result.filter(p -> p.getProductQuantity().equals(productQuantity));
-            }
-            if (productName != null) {
-                String escapedName = Pattern.quote(productName);
-                String regexPattern = "(?i)^" + escapedName + ".*";
-                result = result.filter(p -> p.getProductName().matches(regexPattern));
-            }
-            return result.map(EntityDTOUtil::toProductResponseDTO).switchIfEmpty(Mono.error(new NotFoundException("No products found in sale price range")));
-        }
-
-        if (productQuantity != null) {
-            return productRepository
-                    .findAllProductsByInventoryIdAndProductQuantity(inventoryId, productQuantity)
-
-                    .map(EntityDTOUtil::toProductResponseDTO)
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with InventoryId: " + inventoryId +
-                            "\nOr ProductQuantity: " + productQuantity)));
-        }
-
-
-        if (productName != null) {
-            String escapedInventoryName = Pattern.quote(productName);
-
-            String regexPattern = "(?i)^" + escapedInventoryName + ".*";
-
-            if (productName.length() == 1) {
-                return productRepository
-                        .findAllProductsByInventoryIdAndProductNameRegex(inventoryId, regexPattern)
-                        .map(EntityDTOUtil::toProductResponseDTO)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with InventoryId: " + inventoryId +
-                                "\nOr ProductName: " + productName)));
-            } else {
-                return productRepository
-                        .findAllProductsByInventoryIdAndProductNameRegex(inventoryId, regexPattern)
-                        .map(EntityDTOUtil::toProductResponseDTO)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with Name starting with or matching: " + productName)));
-            }
-
-        }
-        return productRepository
-                .findAllProductsByInventoryId(inventoryId)
-                .map(EntityDTOUtil::toProductResponseDTO);
-        //where the 404 not found issue lies if we switchIfEmpty
-
+        return searchProducts(inventoryId, productName, minPrice, maxPrice, productQuantity, minSalePrice, maxSalePrice, Pageable.unpaged());
     }
 
     @Override
     public Flux<ProductResponseDTO> getProductsInInventoryByInventoryIdAndProductsFieldsPagination(String inventoryId, String productName, Double minPrice, Double maxPrice, Integer productQuantity, Double minSalePrice, Double maxSalePrice, Pageable pageable) {
+        return searchProducts(inventoryId, productName, minPrice, maxPrice, productQuantity, minSalePrice, maxSalePrice, pageable);
+    }
 
-        Double effectiveMinPrice = minPrice != null ? minPrice : 0.0;
-        Double effectiveMaxPrice = maxPrice != null ? maxPrice : Double.MAX_VALUE;
-        Double effectiveMinSalePrice = minSalePrice != null ? minSalePrice : 0.0;
-        Double effectiveMaxSalePrice = maxSalePrice != null ? maxSalePrice : Double.MAX_VALUE;
+    private Flux<ProductResponseDTO> searchProducts(String inventoryId, String productName, Double minPrice, Double maxPrice, Integer productQuantity, Double minSalePrice, Double maxSalePrice, Pageable pageable) {
+        Flux<ProductResponseDTO> products = productRepository
+                .searchProducts(inventoryId, productName, minPrice, maxPrice, productQuantity, minSalePrice, maxSalePrice, pageable)
+                .map(EntityDTOUtil::toProductResponseDTO);
 
         if (minPrice != null || maxPrice != null) {
-            Flux<Product> result = productRepository.findAllProductsByInventoryIdAndProductPriceBetween(inventoryId, effectiveMinPrice, effectiveMaxPrice);
-            if (minSalePrice != null || maxSalePrice != null) {
-                result = result.filter(p -> p.getProductSalePrice() >= effectiveMinSalePrice && p.getProductSalePrice() <= effectiveMaxSalePrice);
-            }
-            if (productQuantity != null) {
-                result = result.filter(p -> p.getProductQuantity().equals(productQuantity));
-            }
-            if (productName != null) {
-                String escapedName = Pattern.quote(productName);
-                String regexPattern = "(?i)^" + escapedName + ".*";
-                result = result.filter(p -> p.getProductName().matches(regexPattern));
-            }
-            return result.map(EntityDTOUtil::toProductResponseDTO)
-                    .skip((long) pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("No products found in price range")));
+            return products.switchIfEmpty(Mono.error(new NotFoundException("No products found in price range")));
         }
-
         if (minSalePrice != null || maxSalePrice != null) {
-            Flux<Product> result = productRepository.findAllProductsByInventoryIdAndProductSalePriceBetween(inventoryId, effectiveMinSalePrice, effectiveMaxSalePrice);
-            if (productQuantity != null) {
-                result = result.filter(p -> p.getProductQuantity().equals(productQuantity));
-            }
-            if (productName != null) {
-                String escapedName = Pattern.quote(productName);
-                String regexPattern = "(?i)^" + escapedName + ".*";
-                result = result.filter(p -> p.getProductName().matches(regexPattern));
-            }
-            return result.map(EntityDTOUtil::toProductResponseDTO)
-                    .skip((long) pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("No products found in sale price range")));
+            return products.switchIfEmpty(Mono.error(new NotFoundException("No products found in sale price range")));
         }
-
         if (productQuantity != null) {
-            return productRepository
-                    .findAllProductsByInventoryIdAndProductQuantity(inventoryId, productQuantity)
-                    .map(EntityDTOUtil::toProductResponseDTO)
-                    .skip((long) pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with InventoryId: " + inventoryId +
-                            "\nOr ProductQuantity: " + productQuantity)));
+            return products.switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with InventoryId: " + inventoryId +
+                    "\nOr ProductQuantity: " + productQuantity)));
         }
         if (productName != null) {
-            return productRepository
-                    .findAllProductsByInventoryIdAndProductName(inventoryId, productName)
-                    .map(EntityDTOUtil::toProductResponseDTO)
-                    .skip((long) pageable.getPageNumber() * pageable.getPageSize())
-                    .take(pageable.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with InventoryId: " + inventoryId +
-                            "\nOr ProductName: " + productName)));
+            return products.switchIfEmpty(Mono.error(new NotFoundException(productName.length() == 1
+                    ? "Inventory not found with InventoryId: " + inventoryId + "\nOr ProductName: " + productName
+                    : "Inventory not found with Name starting with or matching: " + productName)));
         }
-
-
-        return productRepository
-                .findAllProductsByInventoryId(inventoryId)
-                .map(EntityDTOUtil::toProductResponseDTO)
-                .skip((long) pageable.getPageNumber() * pageable.getPageSize())
-                .take(pageable.getPageSize());
-        //where the 404 not found issue lies if we switchIfEmpty
-
+        return products;
     }
 
 
@@ -328,165 +241,63 @@ public class ProductInventoryServiceImpl implements ProductInventoryService {
     @Override
     public Flux<InventoryResponseDTO> searchInventories(Pageable page, String inventoryCode, String inventoryName, String inventoryType, String inventoryDescription, Boolean importantOnly) {
 
-        Comparator<Inventory> byCode = (a, b) -> {
-            String c1 = a.getInventoryCode();
-            String c2 = b.getInventoryCode();
-            if (c1 == null && c2 == null) return 0;
-            if (c1 == null) return 1;
-            if (c2 == null) return -1;
-            try {
-                int n1 = Integer.parseInt(c1.replace("INV-", ""));
-                int n2 = Integer.parseInt(c2.replace("INV-", ""));
-                return Integer.compare(n1, n2);
-            } catch (NumberFormatException e) {
-                return c1.compareTo(c2);
-            }
-        };
-
         if (inventoryCode != null && !inventoryCode.trim().isEmpty()) {
-            return inventoryRepository.findInventoryByInventoryCode(inventoryCode)
-                    .flatMap(inventory ->
-                            getRecentUpdateMessage(inventory.getInventoryId())
-                                    .defaultIfEmpty("-")
-                                    .map(message -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inventory);
-                                        dto.setRecentUpdateMessage(message);
-                                        return dto;
-                                    })
-                    )
-                    .flux()
+            return toInventoryResponseDTOsWithRecentUpdates(inventoryRepository.findInventoryByInventoryCode(inventoryCode).flux())
                     .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with Code: " + inventoryCode)));
         }
 
+        // Filtered, sorted and paged by Mongo, only the inventories of the page are read
+        Flux<InventoryResponseDTO> inventories = toInventoryResponseDTOsWithRecentUpdates(inventoryRepository
+                .searchInventories(inventoryName, inventoryType, inventoryDescription, importantOnly, page));
 
-        if (inventoryName != null && inventoryType != null && inventoryDescription != null) {
-            return inventoryRepository
-                    .findAllByInventoryNameAndInventoryTypeAndInventoryDescription(inventoryName, inventoryType, inventoryDescription)
-                    .sort(byCode)
-                    .concatMap(inventory ->
-                            getRecentUpdateMessage(inventory.getInventoryId())
-                                    .defaultIfEmpty("-")
-                                    .map(message -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inventory);
-                                        dto.setRecentUpdateMessage(message);
-                                        return dto;
-                                    })
-                    )
-                    .skip(page.getPageNumber() * page.getPageSize())
-                    .take(page.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with Name: " + inventoryName +
-                            ", Type: " + inventoryType + ", Description: " + inventoryDescription)));
+        if (inventoryName == null && inventoryType == null && inventoryDescription == null) {
+            return inventories;
         }
 
+        return inventories.switchIfEmpty(Mono.error(new NotFoundException(
+                inventoryNotFoundMessage(inventoryName, inventoryType, inventoryDescription))));
+    }
+
+    /**
+     * The not found message of an inventory search, worded as it was when each combination of criteria had its own query
+     */
+    private static String inventoryNotFoundMessage(String inventoryName, String inventoryType, String inventoryDescription) {
+        if (inventoryName != null && inventoryType != null && inventoryDescription != null) {
+            return "Inventory not found with Name: " + inventoryName + ", Type: " + inventoryType + ", Description: " + inventoryDescription;
+        }
         if (inventoryType != null && inventoryDescription != null) {
-            return inventoryRepository
-                    .findAllByInventoryTypeAndInventoryDescription(inventoryType, inventoryDescription)
-                    .sort(byCode)
-                    .concatMap(inventory ->
-                            getRecentUpdateMessage(inventory.getInventoryId())
-                                    .defaultIfEmpty("-")
-                                    .map(message -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inventory);
-                                        dto.setRecentUpdateMessage(message);
-                                        return dto;
-                                    })
-                    )
-                    .skip(page.getPageNumber() * page.getPageSize())
-                    .take(page.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with Type: " + inventoryType +
-                            " and Description: " + inventoryDescription)));
+            return "Inventory not found with Type: " + inventoryType + " and Description: " + inventoryDescription;
         }
         if (inventoryName != null) {
-
-            String escapedInventoryName = Pattern.quote(inventoryName);
-            String regexPattern = "(?i)^" + escapedInventoryName + ".*";
-
-            Flux<Inventory> base = inventoryRepository.findByInventoryNameRegex(regexPattern);
-
-            return base
-                    .sort(byCode)
-                    .concatMap(inv ->
-                            getRecentUpdateMessage(inv.getInventoryId())
-                                    .defaultIfEmpty("—")
-                                    .map(msg -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inv);
-                                        dto.setRecentUpdateMessage(msg);
-                                        return dto;
-                                    })
-                    )
-                    .skip(page.getPageNumber() * page.getPageSize())
-                    .take(page.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException(
-                            (inventoryName.length() == 1)
-                                    ? "Inventory not found starting with: " + inventoryName
-                                    : "Inventory not found with Name starting with or matching: " + inventoryName
-                    )));        }
-
-        if (inventoryType != null /* … */) {
-            return inventoryRepository
-                    .findAllByInventoryType(inventoryType)
-                    .sort(byCode)
-                    .concatMap(inventory ->
-                            getRecentUpdateMessage(inventory.getInventoryId())
-                                    .defaultIfEmpty("-")
-                                    .map(message -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inventory);
-                                        dto.setRecentUpdateMessage(message);
-                                        return dto;
-                                    })
-                    )
-                    .skip(page.getPageNumber() * page.getPageSize())
-                    .take(page.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with Type: " + inventoryType)));
+            return inventoryName.length() == 1
+                    ? "Inventory not found starting with: " + inventoryName
+                    : "Inventory not found with Name starting with or matching: " + inventoryName;
         }
-
-        if (inventoryDescription != null) {
-            String escapedInventoryDescription = Pattern.quote(inventoryDescription);
-            String regexPattern = "(?i)^" + escapedInventoryDescription + ".*";
-
-            Flux<Inventory> base = inventoryRepository.findByInventoryDescriptionRegex(regexPattern);
-
-            return base
-                    .sort(byCode)
-                    .concatMap(inv ->
-                            getRecentUpdateMessage(inv.getInventoryId())
-                                    .defaultIfEmpty("—")
-                                    .map(msg -> {
-                                        InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inv);
-                                        dto.setRecentUpdateMessage(msg);
-                                        return dto;
-                                    })
-                    )
-                    .skip(page.getPageNumber() * page.getPageSize())
-                    .take(page.getPageSize())
-                    .switchIfEmpty(Mono.error(new NotFoundException(
-                            (inventoryDescription.length() == 1)
-                                    ? "Inventory not found with Description: " + inventoryDescription
-                                    : "Inventory not found with Name starting with or matching: " + inventoryName
-                    )));
-        }
-
-        // Default - fetch all if no criteria provided.
-        Flux<Inventory> inventoryFlux = inventoryRepository.findAll();
-
-        if (importantOnly != null && importantOnly) {
-            inventoryFlux = inventoryFlux.filter(inventory ->
-                    inventory.getImportant() != null && inventory.getImportant());
+        if (inventoryType != null) {
+            return "Inventory not found with Type: " + inventoryType;
         }
+        return inventoryDescription.length() == 1
+                ? "Inventory not found with Description: " + inventoryDescription
+                : "Inventory not found with Name starting with or matching: " + inventoryName;
+    }
 
-        return inventoryFlux
-                .sort(byCode)
-                .concatMap(inv ->
-                        getRecentUpdateMessage(inv.getInventoryId())
-                                .defaultIfEmpty("—")
-                                .map(msg -> {
-                                    InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inv);
-                                    dto.setRecentUpdateMessage(msg);
+    /**
+     * Add its recent update message to each inventory, the recent updates of all of them being counted in one query
+     */
+    private Flux<InventoryResponseDTO> toInventoryResponseDTOsWithRecentUpdates(Flux<Inventory> inventories) {
+        return inventories.collectList()
+                .filter(list -> !list.isEmpty())
+                .flatMapMany(list -> productRepository
+                        .countRecentUpdatesByInventoryId(
+                                list.stream().map(Inventory::getInventoryId).toList(), recentUpdatesSince())
+                        .collectMap(InventoryUpdateCount::getInventoryId, InventoryUpdateCount::getCount)
+                        .flatMapIterable(counts -> list.stream()
+                                .map(inventory -> {
+                                    InventoryResponseDTO dto = EntityDTOUtil.toInventoryResponseDTO(inventory);
+                                    dto.setRecentUpdateMessage(toRecentUpdateMessage(counts.getOrDefault(inventory.getInventoryId(), 0L)));
                                     return dto;
                                 })
-                )
-                .skip(page.getPageNumber() * page.getPageSize())
-                .take(page.getPageSize());
+                                .toList()));
     }
 
 
@@ -627,18 +438,118 @@ public class ProductInventoryServiceImpl implements ProductInventoryService {
 
     @Override
     public Mono<ProductResponseDTO> consumeProduct(String inventoryId, String productId) {
-        return productRepository.findProductByInventoryIdAndProductId(inventoryId, productId)
-                .flatMap(product -> {
-                    if (product.getProductQuantity() - 1 < 0) {
-                        return Mono.error(new InvalidInputException("Not enough stock to consume."));
-                    } else {
-                        product.setProductQuantity(product.getProductQuantity() - 1);
-                        product.setLastUpdatedAt(LocalDateTime.now());
-                        return productRepository.save(product)
-                                .map(EntityDTOUtil::toProductResponseDTO);
+        return moveStock(inventoryId, productId, StockMovementType.CONSUME, 1)
+                .switchIfEmpty(Mono.error(new NotFoundException("Product not found with id: " + productId)))
+                .flatMap(change -> recordStockMovements(List.of(change.movement())).thenReturn(change.product()))
+                .map(EntityDTOUtil::toProductResponseDTO);
+    }
+
+    @Override
+    public Flux<StockMovementResultDTO> applyStockMovements(String inventoryId, Flux<StockMovementRequestDTO> stockMovements) {
+        return inventoryRepository.findInventoryByInventoryId(inventoryId)
+                .switchIfEmpty(Mono.error(new NotFoundException("Inventory not found with id: " + inventoryId)))
+                .then(stockMovements.take(MAX_STOCK_MOVEMENTS + 1L).collectList())
+                .flatMapMany(requests -> {
+                    if (requests.size() > MAX_STOCK_MOVEMENTS) {
+                        return Flux.error(new InvalidInputException("A batch cannot have more than " + MAX_STOCK_MOVEMENTS + " stock movements."));
                     }
-                })
-                .switchIfEmpty(Mono.error(new NotFoundException("Product not found with id: " + productId)));
+
+                    // Movements of one product are applied in request order, different products at the same time
+                    Map<String, List<Integer>> indexesByProduct = new LinkedHashMap<>();
+                    for (int index = 0; index < requests.size(); index++) {
+                        indexesByProduct.computeIfAbsent(String.valueOf(requests.get(index).getProductId()), productId -> new ArrayList<>())
+                                .add(index);
+                    }
+
+                    return Flux.fromIterable(indexesByProduct.values())
+                            .flatMap(indexes -> Flux.fromIterable(indexes)
+                                    .concatMap(index -> applyStockMovement(inventoryId, index, requests.get(index))),
+                                    STOCK_MOVEMENT_CONCURRENCY)
+                            .collectSortedList(Comparator.comparingInt((BatchedMovement batched) -> batched.result().getIndex()))
+                            .flatMapMany(batch -> recordStockMovements(batch.stream()
+                                            .map(BatchedMovement::movement)
+                                            .filter(Objects::nonNull)
+                                            .toList())
+                                    .thenMany(Flux.fromIterable(batch).map(BatchedMovement::result)));
+                });
+    }
+
+    @Override
+    public Flux<StockMovementResponseDTO> getStockMovements(String inventoryId, String productId) {
+        return productRepository.findProductByInventoryIdAndProductId(inventoryId, productId)
+                .switchIfEmpty(Mono.error(new NotFoundException("Product not found with id: " + productId)))
+                .thenMany(stockMovementRepository.findAllByInventoryIdAndProductIdOrderByOccurredAtDesc(inventoryId, productId))
+                .map(EntityDTOUtil::toStockMovementResponseDTO);
+    }
+
+    private Mono<BatchedMovement> applyStockMovement(String inventoryId, int index, StockMovementRequestDTO request) {
+        if (request.getProductId() == null || request.getType() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+            return Mono.just(new BatchedMovement(stockMovementResult(index, request, StockMovementResultDTO.Outcome.REJECTED, null,
+                    "A stock movement must have a product id, a type and a quantity greater than 0."), null));
+        }
+
+        return moveStock(inventoryId, request.getProductId(), request.getType(), request.getQuantity())
+                .map(change -> new BatchedMovement(stockMovementResult(index, request, StockMovementResultDTO.Outcome.APPLIED,
+                        EntityDTOUtil.toProductResponseDTO(change.product()), null), change.movement()))
+                .defaultIfEmpty(new BatchedMovement(stockMovementResult(index, request, StockMovementResultDTO.Outcome.NOT_FOUND, null,
+                        "Product not found with id: " + request.getProductId()), null))
+                .onErrorResume(InvalidInputException.class, e -> Mono.just(new BatchedMovement(stockMovementResult(index, request,
+                        StockMovementResultDTO.Outcome.INSUFFICIENT_STOCK, null, e.getMessage()), null)));
+    }
+
+    private static StockMovementResultDTO stockMovementResult(int index, StockMovementRequestDTO request, StockMovementResultDTO.Outcome outcome,
+                                                              ProductResponseDTO product, String message) {
+        return StockMovementResultDTO.builder()
+                .index(index)
+                .productId(request.getProductId())
+                .outcome(outcome)
+                .product(product)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Apply one movement to the stock of a product in a single conditional update. The product is only read when
+     * nothing was updated, to tell a missing product from one without enough stock.
+     *
+     * @return The product after the movement along with the movement to record, empty if the product does not exist,
+     * or InvalidInputException if there is not enough stock
+     */
+    private Mono<StockChange> moveStock(String inventoryId, String productId, StockMovementType type, int quantity) {
+        int quantityChange = type == StockMovementType.CONSUME ? -quantity : quantity;
+        LocalDateTime now = LocalDateTime.now();
+
+        return productRepository.changeProductQuantity(inventoryId, productId, quantityChange, now)
+                .map(product -> new StockChange(product, StockMovement.builder()
+                        .movementId(EntityDTOUtil.generateUUID())
+                        .inventoryId(inventoryId)
+                        .productId(productId)
+                        .type(type)
+                        .quantityChange(quantityChange)
+                        .resultingQuantity(product.getProductQuantity())
+                        .occurredAt(now)
+                        .build()))
+                .switchIfEmpty(Mono.defer(() -> productRepository.findProductByInventoryIdAndProductId(inventoryId, productId)
+                        .flatMap(product -> Mono.<StockChange>error(new InvalidInputException("Not enough stock to consume.")))));
+    }
+
+    private Mono<Void> recordStockMovements(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return Mono.empty();
+        }
+        return stockMovementRepository.insert(movements)
+                .then()
+                .onErrorResume(e -> {
+                    // The stock has already changed, failing the request would only get it changed twice on a retry
+                    log.error("Failed to record {} stock movements", movements.size(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private record StockChange(Product product, StockMovement movement) {
+    }
+
+    private record BatchedMovement(StockMovementResultDTO result, StockMovement movement) {
     }
 
     @Override
@@ -706,53 +617,39 @@ public class ProductInventoryServiceImpl implements ProductInventoryService {
 
     @Override
     public Flux<InventoryResponseDTO> getAllInventories() {
-        return inventoryRepository.findAll()
+        return inventoryRepository.findAllByOrderByInventoryCodeNumberAscInventoryCodeAsc()
                 .switchIfEmpty(Flux.error(new NotFoundException("No inventories found")))
-                .sort((inv1, inv2) -> {
-                    if (inv1.getInventoryCode() == null && inv2.getInventoryCode() == null) return 0;
-                    if (inv1.getInventoryCode() == null) return 1;
-                    if (inv2.getInventoryCode() == null) return -1;
-
-                    try {
-                        int num1 = Integer.parseInt(inv1.getInventoryCode().replace("INV-", ""));
-                        int num2 = Integer.parseInt(inv2.getInventoryCode().replace("INV-", ""));
-                        return Integer.compare(num1, num2);
-                    } catch (NumberFormatException e) {
-                        return inv1.getInventoryCode().compareTo(inv2.getInventoryCode());
-                    }
-                })
                 .map(EntityDTOUtil::toInventoryResponseDTO);
     }
 
     @Override
     public Mono<ProductResponseDTO> restockLowStockProduct(String inventoryId, String productId, Integer productQuantity) {
-        return productRepository.findProductByInventoryIdAndProductId(inventoryId, productId)
-                .switchIfEmpty(Mono.error(new NotFoundException("Product with id: " + productId + "not found in inventory " + inventoryId)))
-                .flatMap(product -> {
-                    if (productQuantity <= 0) {
-                        return Mono.error(new InvalidInputException("The restock quantity must be greater than 0."));
-                    }
-
-                    product.setProductQuantity(product.getProductQuantity() + productQuantity);
-                    product.setLastUpdatedAt(LocalDateTime.now());
+        if (productQuantity == null || productQuantity <= 0) {
+            return Mono.error(new InvalidInputException("The restock quantity must be greater than 0."));
+        }
 
-                    return productRepository.save(product)
-                            .map(EntityDTOUtil::toProductResponseDTO);
-                });
+        return moveStock(inventoryId, productId, StockMovementType.RESTOCK, productQuantity)
+                .switchIfEmpty(Mono.error(new NotFoundException("Product with id: " + productId + "not found in inventory " + inventoryId)))
+                .flatMap(change -> recordStockMovements(List.of(change.movement())).thenReturn(change.product()))
+                .map(EntityDTOUtil::toProductResponseDTO);
     }
 
     @Override
     public Mono<String> getRecentUpdateMessage(String inventoryId) {
-        LocalDateTime fifteenMinutesAgo = LocalDateTime.now().minusMinutes(15);
+        return productRepository.countByInventoryIdAndLastUpdatedAtAfter(inventoryId, recentUpdatesSince())
+                .map(ProductInventoryServiceImpl::toRecentUpdateMessage);
+    }
 
-        return productRepository.countByInventoryIdAndLastUpdatedAtAfter(inventoryId, fifteenMinutesAgo)
-                .map(count -> {
-                    if (count == 0) {
-                        return "No recent updates.";
-                    } else {
-                        return count + " supplies updated in the last 15 min.";
-                    }
-                });
+    private static LocalDateTime recentUpdatesSince() {
+        return LocalDateTime.now().minusMinutes(RECENT_UPDATE_MINUTES);
+    }
+
+    private static String toRecentUpdateMessage(long count) {
+        if (count == 0) {
+            return "No recent updates.";
+        } else {
+            return count + " supplies updated in the last " + RECENT_UPDATE_MINUTES + " min.";
+        }
     }
 
 }
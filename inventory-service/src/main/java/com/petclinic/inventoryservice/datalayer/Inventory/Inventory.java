@@ -3,6 +3,9 @@ package com.petclinic.inventoryservice.datalayer.Inventory;
 import com.petclinic.inventoryservice.datalayer.Product.Product;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -14,12 +17,23 @@ import java.util.List;
 @Builder
 @EqualsAndHashCode
 @Document(collection = "inventories")
+@CompoundIndexes({
+        @CompoundIndex(name = "inventoryCodeNumber_inventoryCode_idx", def = "{'inventoryCodeNumber': 1, 'inventoryCode': 1}"),
+        @CompoundIndex(name = "search_inventoryName_idx", def = "{'search.inventoryName': 1}"),
+        @CompoundIndex(name = "search_inventoryType_idx", def = "{'search.inventoryType': 1}"),
+        @CompoundIndex(name = "search_inventoryDescription_idx", def = "{'search.inventoryDescription': 1}")
+})
 public class Inventory {
 
     @Id
     private String id;
     private String inventoryId;
+    @Indexed(name = "inventoryCode_idx")
     private String inventoryCode;
+    /**
+     * Number of the inventory code, kept so that Mongo can sort and page inventories in code order
+     */
+    private Integer inventoryCodeNumber;
     private String inventoryName;
     private String inventoryType;
     private String inventoryDescription;
@@ -34,6 +48,20 @@ public class Inventory {
     private List<Product> products = new ArrayList<>();
 
 
+    /**
+     * @return The number of an INV-0000 code, or Integer.MAX_VALUE for a missing or malformed code so that it sorts last
+     */
+    public static int toCodeNumber(String inventoryCode) {
+        if (inventoryCode == null) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            return Integer.parseInt(inventoryCode.replace("INV-", ""));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
     public void addProduct(Product product) {
         if (this.products == null) {
             this.products = new ArrayList<>();
@@ -0,0 +1,59 @@
+package com.petclinic.inventoryservice.datalayer.Inventory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Completes inventories stored by older versions of the service at startup: the ones saved before
+ * inventoryCodeNumber existed get it filled in from their code, and the ones saved before they had search keys get
+ * them filled in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryBackfill {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfill() {
+        backfillCodeNumbers()
+                .then(backfillSearchKeys())
+                .block();
+    }
+
+    private Mono<Void> backfillCodeNumbers() {
+        Query missing = new Query(Criteria.where("inventoryCodeNumber").exists(false));
+        missing.fields().include("inventoryCode");
+
+        return mongoTemplate.find(missing, Inventory.class)
+                .concatMap(inventory -> mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(inventory.getId())),
+                        new Update().set("inventoryCodeNumber", Inventory.toCodeNumber(inventory.getInventoryCode())),
+                        Inventory.class))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Filled in the code number of {} inventories", count))
+                .then();
+    }
+
+    private Mono<Void> backfillSearchKeys() {
+        return mongoTemplate.find(new Query(Criteria.where(InventorySearchKeys.FIELD).exists(false)), Inventory.class)
+                .concatMap(inventory -> mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(inventory.getId())),
+                        new Update().set(InventorySearchKeys.FIELD, InventorySearchKeys.of(inventory)),
+                        Inventory.class))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Filled in the search keys of {} inventories", count))
+                .then();
+    }
+}
@@ -4,12 +4,14 @@ import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface InventoryRepository extends ReactiveMongoRepository<Inventory, String> {
+public interface InventoryRepository extends ReactiveMongoRepository<Inventory, String>, InventoryRepositoryCustom {
     Mono<Inventory> findInventoryByInventoryId(String inventoryId);
     Mono<Boolean> existsByInventoryId(String inventoryId);
 
     Mono<Inventory> findInventoryByInventoryCode(String inventoryCode);
 
+    Flux<Inventory> findAllByOrderByInventoryCodeNumberAscInventoryCodeAsc();
+
     //search
     Flux<Inventory> findAllByInventoryNameAndInventoryTypeAndInventoryDescription(String inventoryName, String inventoryType, String inventoryDescription);
 
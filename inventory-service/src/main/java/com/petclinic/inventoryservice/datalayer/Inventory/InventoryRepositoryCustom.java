@@ -0,0 +1,14 @@
+package com.petclinic.inventoryservice.datalayer.Inventory;
+
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+public interface InventoryRepositoryCustom {
+
+    /**
+     * One page of the inventories whose name, type and description start with the given values, ignoring case, in
+     * inventory code order. A null value matches every inventory.
+     */
+    Flux<Inventory> searchInventories(String inventoryName, String inventoryType, String inventoryDescription,
+                                      Boolean importantOnly, Pageable pageable);
+}
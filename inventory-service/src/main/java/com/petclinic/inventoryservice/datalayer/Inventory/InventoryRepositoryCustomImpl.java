@@ -0,0 +1,40 @@
+package com.petclinic.inventoryservice.datalayer.Inventory;
+
+import com.petclinic.inventoryservice.utils.RegexUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Inventory> searchInventories(String inventoryName, String inventoryType, String inventoryDescription,
+                                             Boolean importantOnly, Pageable pageable) {
+        Query query = new Query();
+        addPrefix(query, InventorySearchKeys.NAME, inventoryName);
+        addPrefix(query, InventorySearchKeys.TYPE, inventoryType);
+        addPrefix(query, InventorySearchKeys.DESCRIPTION, inventoryDescription);
+        if (Boolean.TRUE.equals(importantOnly)) {
+            query.addCriteria(Criteria.where("important").is(true));
+        }
+
+        // Sorted on the inventoryCodeNumber index, so a page stops reading once it is full
+        query.with(Sort.by("inventoryCodeNumber", "inventoryCode"));
+        query.skip(pageable.getOffset()).limit(pageable.getPageSize());
+
+        return mongoTemplate.find(query, Inventory.class);
+    }
+
+    private static void addPrefix(Query query, String field, String prefix) {
+        if (prefix != null) {
+            query.addCriteria(Criteria.where(field).regex(RegexUtil.startingWith(InventorySearchKeys.toKey(prefix))));
+        }
+    }
+}
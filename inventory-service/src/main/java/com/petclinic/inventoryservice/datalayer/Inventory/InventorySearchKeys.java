@@ -0,0 +1,39 @@
+package com.petclinic.inventoryservice.datalayer.Inventory;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Stores the lower-cased name, type and description of each inventory next to them, under {@value #FIELD}, every
+ * time an inventory is saved. Inventory searches then run as case-sensitive anchored regexes on those keys, which
+ * Mongo answers from their indexes, where a case-insensitive regex would have to scan them.
+ */
+@Component
+public class InventorySearchKeys implements ReactiveBeforeSaveCallback<Inventory> {
+
+    static final String FIELD = "search";
+    static final String NAME = FIELD + ".inventoryName";
+    static final String TYPE = FIELD + ".inventoryType";
+    static final String DESCRIPTION = FIELD + ".inventoryDescription";
+
+    @Override
+    public Publisher<Inventory> onBeforeSave(Inventory inventory, Document document, String collection) {
+        document.put(FIELD, of(inventory));
+        return Mono.just(inventory);
+    }
+
+    static Document of(Inventory inventory) {
+        return new Document("inventoryName", toKey(inventory.getInventoryName()))
+                .append("inventoryType", toKey(inventory.getInventoryType()))
+                .append("inventoryDescription", toKey(inventory.getInventoryDescription()));
+    }
+
+    static String toKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Number of products of an inventory updated since a given time, as grouped by Mongo
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryUpdateCount {
+    @Id
+    private String inventoryId;
+    private long count;
+}
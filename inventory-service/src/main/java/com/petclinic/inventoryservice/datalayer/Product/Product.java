@@ -2,6 +2,9 @@ package com.petclinic.inventoryservice.datalayer.Product;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
@@ -10,6 +13,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @EqualsAndHashCode
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "inventoryId_productId_idx", def = "{'inventoryId': 1, 'productId': 1}"),
+        @CompoundIndex(name = "inventoryId_productName_idx", def = "{'inventoryId': 1, 'productName': 1}"),
+        @CompoundIndex(name = "inventoryId_search_productName_idx", def = "{'inventoryId': 1, 'search.productName': 1}"),
+        @CompoundIndex(name = "inventoryId_id_idx", def = "{'inventoryId': 1, '_id': 1}"),
+        @CompoundIndex(name = "inventoryId_lastUpdatedAt_idx", def = "{'inventoryId': 1, 'lastUpdatedAt': 1}")
+})
 public class Product {
     @Id
     private String id;
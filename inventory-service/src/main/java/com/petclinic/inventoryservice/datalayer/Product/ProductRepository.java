@@ -6,7 +6,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 
-public interface ProductRepository extends ReactiveMongoRepository<Product, String> {
+public interface ProductRepository extends ReactiveMongoRepository<Product, String>, ProductRepositoryCustom {
     Mono<Boolean> existsByProductId(String productId);
 
     Mono<Product> findProductByProductId(String productId);
@@ -0,0 +1,34 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Add a signed change to the quantity of a product in one atomic update. A negative change is only applied when
+     * the product has at least that much stock, so concurrent consumes can never take the quantity below 0.
+     *
+     * @return The product after the change, or empty if the product does not exist or does not have enough stock
+     */
+    Mono<Product> changeProductQuantity(String inventoryId, String productId, int quantityChange, LocalDateTime updatedAt);
+
+    /**
+     * Products of an inventory matching every given filter, a null filter matching every product. The name is matched
+     * as a prefix, ignoring case, and the price ranges include their bounds. A paged search reads only its page, in
+     * insertion order.
+     */
+    Flux<Product> searchProducts(String inventoryId, String productName, Double minPrice, Double maxPrice,
+                                 Integer productQuantity, Double minSalePrice, Double maxSalePrice, Pageable pageable);
+
+    /**
+     * Count, in one aggregation, the products of each inventory updated after a given time
+     *
+     * @return One count per inventory with recent updates, inventories without any being left out
+     */
+    Flux<InventoryUpdateCount> countRecentUpdatesByInventoryId(Collection<String> inventoryIds, LocalDateTime since);
+}
@@ -0,0 +1,83 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import com.petclinic.inventoryservice.utils.RegexUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Product> changeProductQuantity(String inventoryId, String productId, int quantityChange, LocalDateTime updatedAt) {
+        Criteria criteria = Criteria.where("inventoryId").is(inventoryId).and("productId").is(productId);
+        if (quantityChange < 0) {
+            criteria = criteria.and("productQuantity").gte(-quantityChange);
+        }
+
+        Update update = new Update()
+                .inc("productQuantity", quantityChange)
+                .set("lastUpdatedAt", updatedAt);
+
+        return mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Flux<Product> searchProducts(String inventoryId, String productName, Double minPrice, Double maxPrice,
+                                       Integer productQuantity, Double minSalePrice, Double maxSalePrice, Pageable pageable) {
+        Query query = new Query(Criteria.where("inventoryId").is(inventoryId));
+        if (productName != null) {
+            query.addCriteria(Criteria.where(ProductSearchKeys.NAME).regex(RegexUtil.startingWith(ProductSearchKeys.toKey(productName))));
+        }
+        addRange(query, "productPrice", minPrice, maxPrice);
+        addRange(query, "productSalePrice", minSalePrice, maxSalePrice);
+        if (productQuantity != null) {
+            query.addCriteria(Criteria.where("productQuantity").is(productQuantity));
+        }
+
+        if (pageable.isPaged()) {
+            // Walks the inventoryId/_id index, so a page stops reading once it is full
+            query.with(Sort.by("_id"));
+            query.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Flux<InventoryUpdateCount> countRecentUpdatesByInventoryId(Collection<String> inventoryIds, LocalDateTime since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("inventoryId").in(inventoryIds).and("lastUpdatedAt").gt(since)),
+                Aggregation.group("inventoryId").count().as("count"));
+
+        return mongoTemplate.aggregate(aggregation, Product.class, InventoryUpdateCount.class);
+    }
+
+    private static void addRange(Query query, String field, Double min, Double max) {
+        if (min == null && max == null) {
+            return;
+        }
+        Criteria range = Criteria.where(field);
+        if (min != null) {
+            range = range.gte(min);
+        }
+        if (max != null) {
+            range = range.lte(max);
+        }
+        query.addCriteria(range);
+    }
+}
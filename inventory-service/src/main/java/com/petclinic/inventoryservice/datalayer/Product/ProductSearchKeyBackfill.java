@@ -0,0 +1,36 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives products saved before {@link ProductSearchKeys} existed their search key at startup, so that prefix searches
+ * by name find them too.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchKeyBackfill {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void backfillSearchKeys() {
+        mongoTemplate.find(new Query(Criteria.where(ProductSearchKeys.FIELD).exists(false)), Product.class)
+                .concatMap(product -> mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(product.getId())),
+                        new Update().set(ProductSearchKeys.FIELD, ProductSearchKeys.of(product)),
+                        Product.class))
+                .count()
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.info("Filled in the search keys of {} products", count))
+                .block();
+    }
+}
@@ -0,0 +1,34 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeSaveCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Stores the lower-cased name of each product next to it, under {@value #NAME}, every time a product is saved, so
+ * that a name search within an inventory is an anchored regex Mongo answers from the inventoryId/name index.
+ */
+@Component
+public class ProductSearchKeys implements ReactiveBeforeSaveCallback<Product> {
+
+    static final String FIELD = "search";
+    static final String NAME = FIELD + ".productName";
+
+    @Override
+    public Publisher<Product> onBeforeSave(Product product, Document document, String collection) {
+        document.put(FIELD, of(product));
+        return Mono.just(product);
+    }
+
+    static Document of(Product product) {
+        return new Document("productName", toKey(product.getProductName()));
+    }
+
+    static String toKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to the stock of a product, kept as its audit trail
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document("stock_movements")
+@CompoundIndex(name = "inventoryId_productId_occurredAt_idx", def = "{'inventoryId': 1, 'productId': 1, 'occurredAt': -1}")
+public class StockMovement {
+    @Id
+    private String id;
+    private String movementId;
+    private String inventoryId;
+    private String productId;
+    private StockMovementType type;
+    private Integer quantityChange;
+    private Integer resultingQuantity;
+    private LocalDateTime occurredAt;
+}
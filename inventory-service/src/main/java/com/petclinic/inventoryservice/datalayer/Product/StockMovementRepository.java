@@ -0,0 +1,9 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface StockMovementRepository extends ReactiveMongoRepository<StockMovement, String> {
+
+    Flux<StockMovement> findAllByInventoryIdAndProductIdOrderByOccurredAtDesc(String inventoryId, String productId);
+}
@@ -0,0 +1,7 @@
+package com.petclinic.inventoryservice.datalayer.Product;
+
+public enum StockMovementType {
+
+    CONSUME,
+    RESTOCK
+}
@@ -212,6 +212,18 @@ public Flux<InventoryResponseDTO> searchInventories(
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/{inventoryId}/products/stock-movements")
+    public Flux<StockMovementResultDTO> applyStockMovements(@PathVariable String inventoryId,
+                                                            @RequestBody Flux<StockMovementRequestDTO> stockMovements) {
+        return productInventoryService.applyStockMovements(inventoryId, stockMovements);
+    }
+
+    @GetMapping("/{inventoryId}/products/{productId}/stock-movements")
+    public Flux<StockMovementResponseDTO> getStockMovements(@PathVariable String inventoryId,
+                                                            @PathVariable String productId) {
+        return productInventoryService.getStockMovements(inventoryId, productId);
+    }
+
     @PatchMapping("/{inventoryId}/important")
     public Mono<ResponseEntity<Object>> updateImportantStatus(@PathVariable String inventoryId, @RequestBody Map<String, Boolean> request) {
         Boolean important = request.get("important");
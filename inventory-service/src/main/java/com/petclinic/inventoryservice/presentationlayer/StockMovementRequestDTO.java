@@ -0,0 +1,14 @@
+package com.petclinic.inventoryservice.presentationlayer;
+
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementType;
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockMovementRequestDTO {
+    private String productId;
+    private StockMovementType type;
+    private Integer quantity;
+}
@@ -0,0 +1,20 @@
+package com.petclinic.inventoryservice.presentationlayer;
+
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockMovementResponseDTO {
+    private String movementId;
+    private String inventoryId;
+    private String productId;
+    private StockMovementType type;
+    private Integer quantityChange;
+    private Integer resultingQuantity;
+    private LocalDateTime occurredAt;
+}
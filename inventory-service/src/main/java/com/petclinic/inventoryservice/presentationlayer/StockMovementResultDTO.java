@@ -0,0 +1,26 @@
+package com.petclinic.inventoryservice.presentationlayer;
+
+import lombok.*;
+
+/**
+ * Outcome of one movement of a batch, in the position it had in the request
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockMovementResultDTO {
+
+    public enum Outcome {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        REJECTED
+    }
+
+    private int index;
+    private String productId;
+    private Outcome outcome;
+    private ProductResponseDTO product;
+    private String message;
+}
@@ -120,6 +120,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory1 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0001")
+                .inventoryCodeNumber(1)
                 .inventoryName("Medical equipment")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Medical equipment for surgery")
@@ -134,6 +135,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory2 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0002")
+                .inventoryCodeNumber(2)
                 .inventoryName("First-Aid")
                 .inventoryType(inventoryType2.getType())
                 .inventoryDescription("First-aid supplies for pet emergencies")
@@ -148,6 +150,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory3 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0003")
+                .inventoryCodeNumber(3)
                 .inventoryName("Vaccines")
                 .inventoryType(inventoryType3.getType())
                 .inventoryDescription("Supplies for disease prevention")
@@ -162,6 +165,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory4 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0004")
+                .inventoryCodeNumber(4)
                 .inventoryName("Medications")
                 .inventoryType(inventoryType4.getType())
                 .inventoryDescription("Antibiotics for pet infections")
@@ -176,6 +180,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory5 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0005")
+                .inventoryCodeNumber(5)
                 .inventoryName("Pet Carriers")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Carriers for transporting pets")
@@ -190,6 +195,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory6 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0006")
+                .inventoryCodeNumber(6)
                 .inventoryName("Diagnostic Kits")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Kits for diagnosing various pet illnesses and conditions")
@@ -204,6 +210,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory7 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0007")
+                .inventoryCodeNumber(7)
                 .inventoryName("Surgical Instruments")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Tools for performing surgical procedures on pets")
@@ -218,6 +225,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory8 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0008")
+                .inventoryCodeNumber(8)
                 .inventoryName("Anesthesia Supplies")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Supplies for administering anesthesia during surgeries")
@@ -232,6 +240,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory9 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0009")
+                .inventoryCodeNumber(9)
                 .inventoryName("Wound Care Supplies")
                 .inventoryType(inventoryType1.getType())
                 .inventoryDescription("Supplies for treating and dressing wounds")
@@ -246,6 +255,7 @@ public class DataBaseLoaderService implements CommandLineRunner {
         Inventory inventory10 = Inventory.builder()
                 .inventoryId(UUID.randomUUID().toString())
                 .inventoryCode("INV-0010")
+                .inventoryCodeNumber(10)
                 .inventoryName("Infectious Disease Test Kits")
                 .inventoryType(inventoryType5.getType())
                 .inventoryDescription("Kits for testing infectious diseases in pets")
@@ -5,6 +5,7 @@ import com.petclinic.inventoryservice.datalayer.Inventory.InventoryName;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryType;
 import com.petclinic.inventoryservice.datalayer.Product.Product;
 import com.petclinic.inventoryservice.datalayer.Product.Status;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovement;
 import com.petclinic.inventoryservice.presentationlayer.*;
 import org.springframework.beans.BeanUtils;
 
@@ -101,6 +102,12 @@ public class EntityDTOUtil {
         return inventoryNameResponseDTO;
     }
 
+    public static StockMovementResponseDTO toStockMovementResponseDTO(StockMovement stockMovement){
+        StockMovementResponseDTO stockMovementResponseDTO = new StockMovementResponseDTO();
+        BeanUtils.copyProperties(stockMovement, stockMovementResponseDTO);
+        return stockMovementResponseDTO;
+    }
+
     public static String generateUUID(){
         return UUID.randomUUID().toString();
     }
@@ -0,0 +1,20 @@
+package com.petclinic.inventoryservice.utils;
+
+public class RegexUtil {
+
+    /**
+     * Builds an anchored regex matching values that start with the given prefix. Each regex character is escaped on
+     * its own rather than quoting the whole prefix, since Mongo only bounds its index scan by prefixes made of plain
+     * characters.
+     */
+    public static String startingWith(String prefix) {
+        StringBuilder regex = new StringBuilder(prefix.length() + 1).append('^');
+        for (char c : prefix.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+}
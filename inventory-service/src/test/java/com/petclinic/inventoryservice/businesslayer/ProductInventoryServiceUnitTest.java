@@ -6,9 +6,13 @@ import com.petclinic.inventoryservice.datalayer.Inventory.Inventory;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryRepository;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryType;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryTypeRepository;
+import com.petclinic.inventoryservice.datalayer.Product.InventoryUpdateCount;
 import com.petclinic.inventoryservice.datalayer.Product.Product;
 import com.petclinic.inventoryservice.datalayer.Product.ProductRepository;
 import com.petclinic.inventoryservice.datalayer.Product.Status;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovement;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementRepository;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementType;
 import com.petclinic.inventoryservice.presentationlayer.*;
 import com.petclinic.inventoryservice.utils.EntityDTOUtil;
 import com.petclinic.inventoryservice.utils.ImageUtil;
@@ -31,11 +35,14 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +57,8 @@ class ProductInventoryServiceUnitTest {
     InventoryRepository inventoryRepository;
     @MockBean
     InventoryTypeRepository inventoryTypeRepository;
+    @MockBean
+    StockMovementRepository stockMovementRepository;
 
     //    ProductResponseDTO productResponseDTO = ProductResponseDTO.builder()
 //            .inventoryId("1")
@@ -135,8 +144,8 @@ class ProductInventoryServiceUnitTest {
     void getProductsInInventoryByInventoryIdAndProductFieldPagination_ShouldSucceed(){
         Pageable pageable = PageRequest.of(0, 2);
 
-        when(productRepository.findAllProductsByInventoryId(product.getInventoryId()))
-                .thenReturn(Flux.just(product, product2, product1));
+        when(productRepository.searchProducts(product.getInventoryId(), null, null, null, null, null, null, pageable))
+                .thenReturn(Flux.just(product, product2));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
                 .getProductsInInventoryByInventoryIdAndProductsFieldsPagination(product.getInventoryId(), null, null, null, null, null, null, pageable);
@@ -150,9 +159,9 @@ class ProductInventoryServiceUnitTest {
     @Test
     void getProductsInInventoryByInventoryIdAndProductFieldsPagination_WithPriceAndQuantity_ShouldSucceed() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(productRepository.findAllProductsByInventoryIdAndProductPriceBetween(
-                product.getInventoryId(), 10.00, 200.00))
-                .thenReturn(Flux.just(product, product2));
+        when(productRepository.searchProducts(
+                product.getInventoryId(), null, 10.00, 200.00, 10, null, null, pageable))
+                .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
                 .getProductsInInventoryByInventoryIdAndProductsFieldsPagination(
@@ -167,8 +176,8 @@ class ProductInventoryServiceUnitTest {
     @Test
     void getProductsInInventoryByInventoryIdAndProductFieldsPagination_WithPriceOnly_ShouldSucceed() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(productRepository.findAllProductsByInventoryIdAndProductPriceBetween(
-                product.getInventoryId(), 10.00, 200.00))
+        when(productRepository.searchProducts(
+                product.getInventoryId(), null, 10.00, 200.00, null, null, null, pageable))
                 .thenReturn(Flux.just(product, product2));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -185,8 +194,8 @@ class ProductInventoryServiceUnitTest {
     @Test
     void getProductsInInventoryByInventoryIdAndProductFieldsPagination_WithQuantityOnly_ShouldSucceed() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(productRepository.findAllProductsByInventoryIdAndProductQuantity(
-                product.getInventoryId(), 5))
+        when(productRepository.searchProducts(
+                product.getInventoryId(), null, null, null, 5, null, null, pageable))
                 .thenReturn(Flux.just(product, product2));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -203,8 +212,8 @@ class ProductInventoryServiceUnitTest {
     @Test
     void getProductsInInventoryByInventoryIdAndProductFieldsPagination_WithNameOnly_ShouldSucceed() {
         Pageable pageable = PageRequest.of(0, 2);
-        when(productRepository.findAllProductsByInventoryIdAndProductName(
-                product.getInventoryId(), "name"))
+        when(productRepository.searchProducts(
+                product.getInventoryId(), "name", null, null, null, null, null, pageable))
                 .thenReturn(Flux.just(product, product2));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -229,10 +238,15 @@ class ProductInventoryServiceUnitTest {
         Double maxSalePrice = 15.99;
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductPriceBetween(
+                .searchProducts(
                         inventoryId,
+                        productName,
                         minPrice,
-                        maxPrice))
+                        maxPrice,
+                        productQuantity,
+                        minSalePrice,
+                        maxSalePrice,
+                        Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -259,10 +273,15 @@ class ProductInventoryServiceUnitTest {
         Integer productQuantity = 10;
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductPriceBetween(
+                .searchProducts(
                         inventoryId,
+                        null,
                         minPrice,
-                        maxPrice))
+                        maxPrice,
+                        productQuantity,
+                        null,
+                        null,
+                        Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -313,10 +332,15 @@ class ProductInventoryServiceUnitTest {
         Double maxPrice = 100.00;
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductPriceBetween(
+                .searchProducts(
                         inventoryId,
+                        null,
                         minPrice,
-                        maxPrice))
+                        maxPrice,
+                        null,
+                        null,
+                        null,
+                        Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -341,9 +365,15 @@ class ProductInventoryServiceUnitTest {
         Integer productQuantity = 10;
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductQuantity(
+                .searchProducts(
                         inventoryId,
-                        productQuantity))
+                        null,
+                        null,
+                        null,
+                        productQuantity,
+                        null,
+                        null,
+                        Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -369,10 +399,15 @@ class ProductInventoryServiceUnitTest {
         Double maxSalePrice = 15.99;
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductSalePriceBetween(
+                .searchProducts(
                         inventoryId,
+                        null,
+                        null,
+                        null,
+                        null,
                         minSalePrice,
-                        maxSalePrice))
+                        maxSalePrice,
+                        Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -396,7 +431,7 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
         Double minPrice = 50.00;
 
-        when(productRepository.findAllProductsByInventoryIdAndProductPriceBetween(inventoryId, minPrice, Double.MAX_VALUE))
+        when(productRepository.searchProducts(inventoryId, null, minPrice, null, null, null, null, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> result = productInventoryService.getProductsInInventoryByInventoryIdAndProductsField(
@@ -410,7 +445,7 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
         Double maxPrice = 200.00;
 
-        when(productRepository.findAllProductsByInventoryIdAndProductPriceBetween(inventoryId, 0.0, maxPrice))
+        when(productRepository.searchProducts(inventoryId, null, null, maxPrice, null, null, null, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> result = productInventoryService.getProductsInInventoryByInventoryIdAndProductsField(
@@ -424,7 +459,7 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
         Double minSalePrice = 10.00;
 
-        when(productRepository.findAllProductsByInventoryIdAndProductSalePriceBetween(inventoryId, minSalePrice, Double.MAX_VALUE))
+        when(productRepository.searchProducts(inventoryId, null, null, null, null, minSalePrice, null, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> result = productInventoryService.getProductsInInventoryByInventoryIdAndProductsField(
@@ -438,7 +473,7 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
         Double maxSalePrice = 50.00;
 
-        when(productRepository.findAllProductsByInventoryIdAndProductSalePriceBetween(inventoryId, 0.0, maxSalePrice))
+        when(productRepository.searchProducts(inventoryId, null, null, null, null, null, maxSalePrice, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> result = productInventoryService.getProductsInInventoryByInventoryIdAndProductsField(
@@ -1329,7 +1364,7 @@ class ProductInventoryServiceUnitTest {
         Pageable page = PageRequest.of(0, 5);
         String description = "NonExistingDescription";
 
-        when(inventoryRepository.findByInventoryDescriptionRegex(anyString()))
+        when(inventoryRepository.searchInventories(null, null, description, false, page))
                 .thenReturn(Flux.empty());  // No inventory found
 
         Flux<InventoryResponseDTO> result =productInventoryService.searchInventories(page, null,null, null, description, false);
@@ -1342,12 +1377,9 @@ class ProductInventoryServiceUnitTest {
     void getProductsByInventoryIdAndProductName_withValidFields_shouldSucceed(){
         String inventoryId = "1";
         String productName = "B";
-        String regexPattern = "(?i)^" + Pattern.quote(productName) + ".*";
 
         when(productRepository
-                .findAllProductsByInventoryIdAndProductNameRegex(
-                        inventoryId,
-                        regexPattern))
+                .searchProducts(inventoryId, productName, null, null, null, null, null, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -1371,7 +1403,7 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
 
         when(productRepository
-                .findAllProductsByInventoryId(inventoryId))
+                .searchProducts(inventoryId, null, null, null, null, null, null, Pageable.unpaged()))
                 .thenReturn(Flux.just(product));
 
         Flux<ProductResponseDTO> productResponseDTOMono = productInventoryService
@@ -1398,16 +1430,45 @@ class ProductInventoryServiceUnitTest {
         when(inventoryRepository.findInventoryByInventoryCode(inventoryCode))
                 .thenReturn(Mono.just(inventory));
 
-        // ✅ add this line
-        when(productRepository.countByInventoryIdAndLastUpdatedAtAfter(eq("1"), any(LocalDateTime.class)))
-                .thenReturn(Mono.just(0L));
+        when(productRepository.countRecentUpdatesByInventoryId(eq(List.of("1")), any(LocalDateTime.class)))
+                .thenReturn(Flux.empty());
 
         Flux<InventoryResponseDTO> result = productInventoryService.searchInventories(
                 pageable, inventoryCode, null, null, null, null);
 
         StepVerifier.create(result)
-                .expectNextMatches(inv -> inv.getInventoryCode().equals(inventoryCode))
+                .expectNextMatches(inv -> inv.getInventoryCode().equals(inventoryCode)
+                        && inv.getRecentUpdateMessage().equals("No recent updates."))
+                .verifyComplete();
+    }
+
+    @Test
+    void searchInventories_WithPage_ShouldCountRecentUpdatesOfThePageInOneQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Inventory other = Inventory.builder()
+                .inventoryId("2")
+                .inventoryCode("INV-0002")
+                .inventoryName("Other")
+                .inventoryType("Internal")
+                .build();
+
+        when(inventoryRepository.searchInventories(null, null, null, null, pageable))
+                .thenReturn(Flux.just(inventory, other));
+        when(productRepository.countRecentUpdatesByInventoryId(eq(List.of("1", "2")), any(LocalDateTime.class)))
+                .thenReturn(Flux.just(new InventoryUpdateCount("2", 3L)));
+
+        Flux<InventoryResponseDTO> result = productInventoryService.searchInventories(
+                pageable, null, null, null, null, null);
+
+        StepVerifier.create(result)
+                .expectNextMatches(inv -> inv.getInventoryId().equals("1")
+                        && inv.getRecentUpdateMessage().equals("No recent updates."))
+                .expectNextMatches(inv -> inv.getInventoryId().equals("2")
+                        && inv.getRecentUpdateMessage().equals("3 supplies updated in the last 15 min."))
                 .verifyComplete();
+
+        verify(productRepository, times(1)).countRecentUpdatesByInventoryId(any(), any(LocalDateTime.class));
+        verify(productRepository, never()).countByInventoryIdAndLastUpdatedAtAfter(anyString(), any(LocalDateTime.class));
     }
 
     @Test
@@ -1966,11 +2027,10 @@ class ProductInventoryServiceUnitTest {
                 .productSalePrice(10.10)
                 .build();
 
-        when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
-                .thenReturn(Mono.just(product));
-
-        when(productRepository.save(any(Product.class)))
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(-1), any(LocalDateTime.class)))
                 .thenReturn(Mono.just(updatedProduct));
+        when(stockMovementRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<StockMovement>>getArgument(0)));
 
         // Act
         Mono<ProductResponseDTO> result = productInventoryService.consumeProduct(inventoryId, productId);
@@ -1987,6 +2047,98 @@ class ProductInventoryServiceUnitTest {
                     return true;
                 })
                 .verifyComplete();
+
+        verify(productRepository, never()).save(any(Product.class));
+        verify(stockMovementRepository).insert(argThat((Iterable<StockMovement> movements) -> {
+            StockMovement movement = movements.iterator().next();
+            return movement.getType() == StockMovementType.CONSUME
+                    && movement.getQuantityChange() == -1
+                    && movement.getResultingQuantity() == 9;
+        }));
+    }
+
+    @Test
+    void consumeProduct_WithoutStock_ShouldThrowInvalidInput() {
+        // Arrange
+        String inventoryId = "1";
+        String productId = UUID.randomUUID().toString();
+        Product emptyProduct = Product.builder()
+                .inventoryId(inventoryId)
+                .productId(productId)
+                .productQuantity(0)
+                .build();
+
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(-1), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+        when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
+                .thenReturn(Mono.just(emptyProduct));
+
+        // Act
+        Mono<ProductResponseDTO> result = productInventoryService.consumeProduct(inventoryId, productId);
+
+        // Assert
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof InvalidInputException &&
+                        throwable.getMessage().equals("Not enough stock to consume."))
+                .verify();
+
+        verify(stockMovementRepository, never()).insert(anyIterable());
+    }
+
+    @Test
+    void applyStockMovements_ShouldReportEachMovementInRequestOrder() {
+        // Arrange
+        String inventoryId = "1";
+        Product restocked = Product.builder().inventoryId(inventoryId).productId("p1").productQuantity(15).build();
+        Product consumed = Product.builder().inventoryId(inventoryId).productId("p1").productQuantity(12).build();
+
+        when(inventoryRepository.findInventoryByInventoryId(inventoryId))
+                .thenReturn(Mono.just(Inventory.builder().inventoryId(inventoryId).build()));
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq("p1"), eq(5), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(restocked));
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq("p1"), eq(-3), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(consumed));
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq("p2"), eq(-1), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+        when(productRepository.findProductByInventoryIdAndProductId(inventoryId, "p2"))
+                .thenReturn(Mono.just(Product.builder().inventoryId(inventoryId).productId("p2").productQuantity(0).build()));
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq("missing"), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+        when(productRepository.findProductByInventoryIdAndProductId(inventoryId, "missing"))
+                .thenReturn(Mono.empty());
+        when(stockMovementRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<StockMovement>>getArgument(0)));
+
+        Flux<StockMovementRequestDTO> movements = Flux.just(
+                new StockMovementRequestDTO("p1", StockMovementType.RESTOCK, 5),
+                new StockMovementRequestDTO("p2", StockMovementType.CONSUME, 1),
+                new StockMovementRequestDTO("p1", StockMovementType.CONSUME, 3),
+                new StockMovementRequestDTO("missing", StockMovementType.CONSUME, 1),
+                new StockMovementRequestDTO("p1", StockMovementType.CONSUME, 0));
+
+        // Act & Assert
+        StepVerifier.create(productInventoryService.applyStockMovements(inventoryId, movements))
+                .assertNext(result -> {
+                    assertEquals(0, result.getIndex());
+                    assertEquals(StockMovementResultDTO.Outcome.APPLIED, result.getOutcome());
+                    assertEquals(15, result.getProduct().getProductQuantity());
+                })
+                .assertNext(result -> assertEquals(StockMovementResultDTO.Outcome.INSUFFICIENT_STOCK, result.getOutcome()))
+                .assertNext(result -> {
+                    assertEquals(StockMovementResultDTO.Outcome.APPLIED, result.getOutcome());
+                    assertEquals(12, result.getProduct().getProductQuantity());
+                })
+                .assertNext(result -> assertEquals(StockMovementResultDTO.Outcome.NOT_FOUND, result.getOutcome()))
+                .assertNext(result -> assertEquals(StockMovementResultDTO.Outcome.REJECTED, result.getOutcome()))
+                .verifyComplete();
+
+        // Both applied movements are recorded in a single insert
+        verify(stockMovementRepository, times(1)).insert(argThat((Iterable<StockMovement> recorded) -> {
+            List<StockMovement> list = new ArrayList<>();
+            recorded.forEach(list::add);
+            return list.size() == 2;
+        }));
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -1995,6 +2147,8 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "NonExistingInventoryId";
         String productId = UUID.randomUUID().toString();
 
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(-1), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
         when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
                 .thenReturn(Mono.empty());
 
@@ -2013,6 +2167,8 @@ class ProductInventoryServiceUnitTest {
         String inventoryId = "1";
         String productId = "NonExistingProductId";
 
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(-1), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
         when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
                 .thenReturn(Mono.empty());
 
@@ -2197,7 +2353,7 @@ class ProductInventoryServiceUnitTest {
         InventoryResponseDTO inventoryResponseDTO = EntityDTOUtil.toInventoryResponseDTO(inventory); // Convert to DTO
 
         // Mock repository behavior
-        when(inventoryRepository.findAll()).thenReturn(Flux.just(inventory));
+        when(inventoryRepository.findAllByOrderByInventoryCodeNumberAscInventoryCodeAsc()).thenReturn(Flux.just(inventory));
 
         // Act
         Flux<InventoryResponseDTO> result = productInventoryService.getAllInventories();
@@ -2237,10 +2393,10 @@ class ProductInventoryServiceUnitTest {
                 .productSalePrice(20.00)
                 .build();
 
-        when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
-                .thenReturn(Mono.just(product));
-        when(productRepository.save(any(Product.class)))
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(restockQuantity), any(LocalDateTime.class)))
                 .thenReturn(Mono.just(updatedProduct));
+        when(stockMovementRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<StockMovement>>getArgument(0)));
 
         // Act
         Mono<ProductResponseDTO> result = productInventoryService.restockLowStockProduct(inventoryId, productId, restockQuantity);
@@ -2255,8 +2411,10 @@ class ProductInventoryServiceUnitTest {
                 })
                 .verifyComplete();
 
-        verify(productRepository).findProductByInventoryIdAndProductId(inventoryId, productId);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).changeProductQuantity(eq(inventoryId), eq(productId), eq(restockQuantity), any(LocalDateTime.class));
+        verify(productRepository, never()).findProductByInventoryIdAndProductId(inventoryId, productId);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(stockMovementRepository).insert(anyIterable());
     }
 
     @Test
@@ -2266,6 +2424,8 @@ class ProductInventoryServiceUnitTest {
         String productId = "nonExistentProduct";
         int restockQuantity = 5;
 
+        when(productRepository.changeProductQuantity(eq(inventoryId), eq(productId), eq(restockQuantity), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
         when(productRepository.findProductByInventoryIdAndProductId(inventoryId, productId))
                 .thenReturn(Mono.empty());
 
@@ -2312,7 +2472,7 @@ class ProductInventoryServiceUnitTest {
                         throwable.getMessage().equals("The restock quantity must be greater than 0."))
                 .verify();
 
-        verify(productRepository).findProductByInventoryIdAndProductId(inventoryId, productId);
+        verify(productRepository, never()).changeProductQuantity(anyString(), anyString(), anyInt(), any(LocalDateTime.class));
         verify(productRepository, never()).save(any(Product.class));
     }
 
@@ -2405,11 +2565,35 @@ class ProductInventoryServiceUnitTest {
     }
 
 
-}
-
-
-
-
-
+    @Test
+    void searchInventories_WhenNoneMatch_ShouldKeepTheNotFoundMessageOfEachCriteria() {
+        when(inventoryRepository.searchInventories(any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(Flux.empty());
 
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, "Bandages", "Internal", "Wound", null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found with Name: Bandages, Type: Internal, Description: Wound"))
+                .verify();
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, null, "Internal", "Wound", null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found with Type: Internal and Description: Wound"))
+                .verify();
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, "B", null, null, null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found starting with: B"))
+                .verify();
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, "Bandages", null, null, null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found with Name starting with or matching: Bandages"))
+                .verify();
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, null, "Internal", null, null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found with Type: Internal"))
+                .verify();
+        StepVerifier.create(productInventoryService.searchInventories(PageRequest.of(0, 10), null, null, null, "W", null))
+                .expectErrorMatches(throwable -> throwable instanceof NotFoundException
+                        && throwable.getMessage().equals("Inventory not found with Description: W"))
+                .verify();
+    }
 
+}
@@ -6,16 +6,20 @@ import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataMongoTest
+@Import(InventorySearchKeys.class)
 class InventoryRepositoryTest {
     @Autowired
     InventoryRepository inventoryRepository;
@@ -282,6 +286,51 @@ class InventoryRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    void searchInventories_shouldMatchPrefixesIgnoringCase_inCodeOrder() {
+        inventoryRepository.deleteAll().block();
+
+        Inventory bandages = buildInventory("inventoryId_1", "Bandages", "Internal", "Wound care",
+                "https://example.com/image.jpg", "https://example.com/backup.jpg", diagnosticKitImage);
+        bandages.setInventoryCodeNumber(2);
+        Inventory bandanas = buildInventory("inventoryId_2", "bandanas", "Internal", "Accessories",
+                "https://example.com/image.jpg", "https://example.com/backup.jpg", diagnosticKitImage);
+        bandanas.setInventoryCodeNumber(1);
+        Inventory gauze = buildInventory("inventoryId_3", "Gauze band", "External", "Wound care",
+                "https://example.com/image.jpg", "https://example.com/backup.jpg", diagnosticKitImage);
+        gauze.setInventoryCodeNumber(3);
+        inventoryRepository.saveAll(List.of(bandages, bandanas, gauze)).blockLast();
+
+        StepVerifier
+                .create(inventoryRepository.searchInventories("BAND", null, null, null, PageRequest.of(0, 10))
+                        .map(Inventory::getInventoryId))
+                .expectNext("inventoryId_2", "inventoryId_1")
+                .verifyComplete();
+
+        StepVerifier
+                .create(inventoryRepository.searchInventories(null, "internal", "wound", null, PageRequest.of(0, 10))
+                        .map(Inventory::getInventoryId))
+                .expectNext("inventoryId_1")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchInventories_shouldTreatRegexCharactersAsText() {
+        inventoryRepository.deleteAll().block();
+
+        Inventory inventory = buildInventory("inventoryId_1", "C.O.2 tanks", "Internal", "Gas",
+                "https://example.com/image.jpg", "https://example.com/backup.jpg", diagnosticKitImage);
+        inventoryRepository.save(inventory).block();
+
+        StepVerifier
+                .create(inventoryRepository.searchInventories("c.o.", null, null, null, PageRequest.of(0, 10)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier
+                .create(inventoryRepository.searchInventories("c.o.*", null, null, null, PageRequest.of(0, 10)))
+                .verifyComplete();
+    }
+
     @Test
     void findInventoryByInventoryCode_withInvalidCode_shouldReturnEmpty() {
         StepVerifier
@@ -5,12 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
+@Import(ProductSearchKeys.class)
 class ProductRepositoryTest {
     @Autowired
     ProductRepository productRepository;
@@ -348,6 +354,32 @@ class ProductRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void searchProducts_shouldMatchNamePrefixesIgnoringCase_withinTheInventory() {
+        productRepository.saveAll(List.of(
+                buildProduct("inventoryId_1", "productId_3", "Syringe 5ml", "description", 10.00, 5, 12.00, Status.AVAILABLE),
+                buildProduct("inventoryId_1", "productId_4", "syringe 10ml", "description", 20.00, 5, 25.00, Status.AVAILABLE),
+                buildProduct("inventoryId_1", "productId_5", "Needle", "description", 5.00, 5, 6.00, Status.AVAILABLE),
+                buildProduct("inventoryId_2", "productId_6", "Syringe 5ml", "description", 10.00, 5, 12.00, Status.AVAILABLE)
+        )).blockLast();
+
+        StepVerifier
+                .create(productRepository.searchProducts("inventoryId_1", "SYRINGE", null, null, null, null, null, PageRequest.of(0, 10))
+                        .map(Product::getProductId))
+                .expectNext("productId_3", "productId_4")
+                .verifyComplete();
+
+        StepVerifier
+                .create(productRepository.searchProducts("inventoryId_1", "syringe", 15.0, null, null, null, null, Pageable.unpaged())
+                        .map(Product::getProductId))
+                .expectNext("productId_4")
+                .verifyComplete();
+
+        StepVerifier
+                .create(productRepository.searchProducts("inventoryId_1", "ringe", null, null, null, null, null, Pageable.unpaged()))
+                .verifyComplete();
+    }
+
     private Product buildProduct(String inventoryId, String productId, String productName, String productDescription, Double productPrice, Integer productQuantity, Double productSalePrice, Status status) {
         return Product.builder()
                 .inventoryId(inventoryId)
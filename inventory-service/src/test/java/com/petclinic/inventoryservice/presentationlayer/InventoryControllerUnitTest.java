@@ -5,6 +5,7 @@ import com.petclinic.inventoryservice.businesslayer.ProductInventoryService;
 import com.petclinic.inventoryservice.datalayer.Inventory.Inventory;
 import com.petclinic.inventoryservice.datalayer.Inventory.InventoryType;
 import com.petclinic.inventoryservice.datalayer.Product.Status;
+import com.petclinic.inventoryservice.datalayer.Product.StockMovementType;
 import com.petclinic.inventoryservice.utils.exceptions.InvalidInputException;
 import com.petclinic.inventoryservice.utils.exceptions.NotFoundException;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,7 @@ import java.util.UUID;
 import static com.petclinic.inventoryservice.datalayer.Product.Status.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
@@ -1826,6 +1828,67 @@ class InventoryControllerUnitTest {
         verify(productInventoryService, times(1)).restockLowStockProduct(inventoryId, productId, productQuantity);
     }
 
+    @Test
+    void applyStockMovements_ShouldReturnOneResultPerMovement() {
+        // Arrange
+        String inventoryId = "inventoryId_1";
+        List<StockMovementRequestDTO> movements = List.of(
+                new StockMovementRequestDTO("productId_1", StockMovementType.CONSUME, 2),
+                new StockMovementRequestDTO("productId_2", StockMovementType.CONSUME, 5));
+
+        when(productInventoryService.applyStockMovements(eq(inventoryId), any()))
+                .thenReturn(Flux.just(
+                        StockMovementResultDTO.builder().index(0).productId("productId_1")
+                                .outcome(StockMovementResultDTO.Outcome.APPLIED).product(productResponseDTO).build(),
+                        StockMovementResultDTO.builder().index(1).productId("productId_2")
+                                .outcome(StockMovementResultDTO.Outcome.INSUFFICIENT_STOCK).message("Not enough stock to consume.").build()));
+
+        // Act and Assert
+        webTestClient
+                .post()
+                .uri("/inventory/{inventoryId}/products/stock-movements", inventoryId)
+                .contentType(APPLICATION_JSON)
+                .bodyValue(movements)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(StockMovementResultDTO.class)
+                .value(results -> {
+                    assertEquals(2, results.size());
+                    assertEquals(StockMovementResultDTO.Outcome.APPLIED, results.get(0).getOutcome());
+                    assertEquals(StockMovementResultDTO.Outcome.INSUFFICIENT_STOCK, results.get(1).getOutcome());
+                });
+
+        verify(productInventoryService, times(1)).applyStockMovements(eq(inventoryId), any());
+    }
+
+    @Test
+    void getStockMovements_ShouldReturnAuditTrailOfProduct() {
+        // Arrange
+        String inventoryId = "inventoryId_1";
+        String productId = "productId_1";
+        when(productInventoryService.getStockMovements(inventoryId, productId))
+                .thenReturn(Flux.just(StockMovementResponseDTO.builder()
+                        .movementId("movementId_1")
+                        .inventoryId(inventoryId)
+                        .productId(productId)
+                        .type(StockMovementType.RESTOCK)
+                        .quantityChange(10)
+                        .resultingQuantity(25)
+                        .build()));
+
+        // Act and Assert
+        webTestClient
+                .get()
+                .uri("/inventory/{inventoryId}/products/{productId}/stock-movements", inventoryId, productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(StockMovementResponseDTO.class)
+                .value(movements -> {
+                    assertEquals(1, movements.size());
+                    assertEquals(25, movements.get(0).getResultingQuantity());
+                });
+    }
+
     @Test
     void searchProductsByInventoryIdAndProductNameAndProductDescriptionAndStatus_withValidFields_shouldSucceed() {
         String inventoryId = "1";
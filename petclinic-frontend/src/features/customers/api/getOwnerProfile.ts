@@ -0,0 +1,18 @@
+import { AxiosResponse } from 'axios';
+import axiosInstance from '@/shared/api/axiosInstance';
+import { OwnerResponseModel } from '../models/OwnerResponseModel';
+
+// The owner with their pets, their photos by file id only
+export const getOwnerProfile = async (
+  ownerId: string
+): Promise<AxiosResponse<OwnerResponseModel>> => {
+  return await axiosInstance.get<OwnerResponseModel>(
+    `/owners/${ownerId}/profile`,
+    {
+      useV2: false,
+      params: {
+        _t: Date.now(),
+      },
+    }
+  );
+};
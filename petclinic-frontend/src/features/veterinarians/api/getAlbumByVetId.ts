@@ -5,7 +5,7 @@ export interface AlbumPhotoDTO {
   vetId: string;
   filename: string;
   imgType: string;
-  data: string;
+  contentLength: number;
 }
 
 export const getAlbumsByVetId = async (
@@ -20,3 +20,10 @@ export const getAlbumsByVetId = async (
   );
   return res.data ?? [];
 };
+
+// Album photos are loaded by the browser from their own URL, so that they
+// are cached and only fetched when shown
+export const getAlbumPhotoUrl = (vetId: string, photoId: number): string => {
+  const base = (import.meta.env.VITE_BACKEND_URL ?? '').replace(/\/$/, '');
+  return `${base}/v2/gateway/vets/${vetId}/albums/${photoId}/photo`;
+};
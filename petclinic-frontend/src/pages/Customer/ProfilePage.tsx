@@ -1,9 +1,14 @@
 import { useEffect, useState } from 'react';
 import { getOwner } from '@/features/customers/api/getOwner';
+import { getOwnerProfile } from '@/features/customers/api/getOwnerProfile';
+import { getPet } from '@/features/customers/api/getPet';
 import { getPetTypes } from '@/features/customers/api/getPetTypes';
 import { getUserDetails } from '@/features/customers/api/getUserDetails';
 import { OwnerResponseModel } from '@/features/customers/models/OwnerResponseModel.ts';
-import { PetResponseModel } from '@/features/customers/models/PetResponseModel.ts';
+import {
+  FileResponseModel,
+  PetResponseModel,
+} from '@/features/customers/models/PetResponseModel.ts';
 import { PetTypeModel } from '@/features/customers/models/PetTypeModel';
 import { UserDetailsModel } from '@/features/customers/models/UserDetailsModel';
 import { useUser } from '@/context/UserContext';
@@ -25,6 +30,26 @@ import defaultProfile from '@/assets/Owners/defaultProfilePicture.png';
 import { deleteOwnerPhoto } from '@/features/customers/api/deleteOwnerPhoto.ts';
 import { deletePetPhoto } from '@/features/customers/api/deletePetPhoto';
 import { useConfirmModal } from '@/shared/hooks/useConfirmModal';
+import { FileDetails } from '@/shared/models/FileDetails';
+
+// Photos come back base64 encoded, as FileDetails or in the older pet photo shape
+const photoToObjectUrl = (
+  photo?: FileDetails | FileResponseModel
+): string | null => {
+  if (!photo) return null;
+  const base64Data = 'fileData' in photo ? photo.fileData : photo.data;
+  if (!base64Data) return null;
+  const contentType =
+    ('fileType' in photo ? photo.fileType : photo.contentType) || 'image/png';
+
+  const byteCharacters = atob(base64Data);
+  const byteNumbers = new Array(byteCharacters.length);
+  for (let i = 0; i < byteCharacters.length; i++) {
+    byteNumbers[i] = byteCharacters.charCodeAt(i);
+  }
+  const blob = new Blob([new Uint8Array(byteNumbers)], { type: contentType });
+  return URL.createObjectURL(blob);
+};
 
 const ProfilePage = (): JSX.Element => {
   const [profilePicUrl, setProfilePicUrl] = useState<string>('');
@@ -99,52 +124,68 @@ const ProfilePage = (): JSX.Element => {
 
   useEffect(() => {
     let isMounted = true;
-    let objectUrl: string | null = null;
+    const objectUrls: string[] = [];
+
+    const showPhoto = (
+      photo: FileDetails | FileResponseModel | undefined,
+      show: (url: string) => void
+    ): void => {
+      const url = photoToObjectUrl(photo);
+      if (!url) return;
+      if (!isMounted) {
+        URL.revokeObjectURL(url);
+        return;
+      }
+      objectUrls.push(url);
+      show(url);
+    };
 
-    const fetchProfilePic = async (): Promise<void> => {
+    const fetchOwnerProfile = async (): Promise<void> => {
       if (!user.userId) return;
 
       try {
-        const ownerResponse = await getOwner(user.userId, true);
-        const ownerData = ownerResponse.data;
-
-        if (ownerData.photo && ownerData.photo.fileData) {
-          const base64Data = ownerData.photo.fileData;
-          const contentType = ownerData.photo.fileType || 'image/png';
-          const byteCharacters = atob(base64Data);
-          const byteNumbers = new Array(byteCharacters.length);
-          for (let i = 0; i < byteCharacters.length; i++) {
-            byteNumbers[i] = byteCharacters.charCodeAt(i);
-          }
-          const byteArray = new Uint8Array(byteNumbers);
-          const blob = new Blob([byteArray], { type: contentType });
-          objectUrl = URL.createObjectURL(blob);
-          if (isMounted) {
-            setProfilePicUrl(objectUrl);
-          }
-        } else {
-          if (isMounted) {
-            setProfilePicUrl('');
-          }
+        const profileResponse = await getOwnerProfile(user.userId);
+        const profile = profileResponse.data;
+
+        if (isMounted) {
+          setOwner({ ...profile, pets: profile.pets ?? [] });
         }
-      } catch (err) {
-        console.warn(
-          'Failed to fetch owner profile picture, using local default',
-          err
-        );
+
+        // The profile only names the photos, each image is fetched on its own
+        if (profile.photo) {
+          getOwner(user.userId, true)
+            .then(response =>
+              showPhoto(response.data.photo, url => setProfilePicUrl(url))
+            )
+            .catch(error =>
+              console.error('Error fetching profile picture:', error)
+            );
+        }
+        for (const pet of profile.pets ?? []) {
+          if (!pet.photo) continue;
+          getPet(pet.petId)
+            .then(response =>
+              showPhoto(response.data.photo, url =>
+                setPetImageUrls(prev => ({ ...prev, [pet.petId]: url }))
+              )
+            )
+            .catch(error =>
+              console.error(`Error fetching photo for ${pet.petId}:`, error)
+            );
+        }
+      } catch (error) {
         if (isMounted) {
-          setProfilePicUrl('');
+          setError('Error fetching owner data');
         }
+        console.error('Error fetching owner data:', error);
       }
     };
 
-    fetchProfilePic();
+    fetchOwnerProfile();
 
     return () => {
       isMounted = false;
-      if (objectUrl) {
-        URL.revokeObjectURL(objectUrl);
-      }
+      objectUrls.forEach(url => URL.revokeObjectURL(url));
     };
   }, [user.userId]);
 
@@ -190,81 +231,6 @@ const ProfilePage = (): JSX.Element => {
       return getPetTypeImage(petTypeId, petTypes);
     }
   };
-  useEffect(() => {
-    let isMounted = true;
-
-    const fetchOwnerData = async (): Promise<void> => {
-      try {
-        const ownerResponse = await getOwner(user.userId);
-        const ownerData = ownerResponse.data;
-
-        try {
-          const petsResponse = await axiosInstance.get(
-            `/owners/${user.userId}/pets`,
-            { useV2: false }
-          );
-
-          let petsData: PetResponseModel[] = [];
-          if (typeof petsResponse.data === 'string') {
-            const pieces = petsResponse.data.split('\n').filter(Boolean);
-            for (const piece of pieces) {
-              if (piece.startsWith('data:')) {
-                const petData = piece.slice(5).trim();
-                try {
-                  const pet: PetResponseModel = JSON.parse(petData);
-                  petsData.push(pet);
-                } catch (parseError) {
-                  console.error('Error parsing pet data:', parseError);
-                }
-              }
-            }
-          } else if (Array.isArray(petsResponse.data)) {
-            petsData = petsResponse.data;
-          }
-
-          const newPetImageUrls: Record<string, string> = {};
-          for (const pet of petsData) {
-            newPetImageUrls[pet.petId] = await fetchPetPhotoUrl(
-              pet.petId,
-              pet.name,
-              pet.petTypeId // ✅ now uses the added param
-            );
-          }
-
-          if (isMounted) {
-            setPetImageUrls(newPetImageUrls);
-            setOwner({
-              ...ownerData,
-              pets: petsData,
-            });
-          }
-        } catch (petsError) {
-          console.warn(
-            'Error fetching pets, setting owner without pets:',
-            petsError
-          );
-          if (isMounted) {
-            setOwner({
-              ...ownerData,
-              pets: [],
-            });
-          }
-        }
-      } catch (error) {
-        if (isMounted) {
-          setError('Error fetching owner data');
-        }
-        console.error('Error fetching owner data:', error);
-      }
-    };
-
-    fetchOwnerData();
-
-    return () => {
-      isMounted = false;
-    };
-    // eslint-disable-next-line react-hooks/exhaustive-deps
-  }, [user.userId, petTypes]);
 
   const handleUpdateClick = (): void => {
     navigate(AppRoutePaths.CustomerProfileEdit);
@@ -380,13 +346,9 @@ const ProfilePage = (): JSX.Element => {
   const fetchOwnerData = async (): Promise<void> => {
     if (!user.userId) return;
     try {
-      const ownerResponse = await getOwner(user.userId);
-      const ownerData = ownerResponse.data;
-      if (ownerData.pets && ownerData.pets.length > 0) {
-        setOwner(ownerData);
-      } else {
-        setOwner({ ...ownerData, pets: [] });
-      }
+      const profileResponse = await getOwnerProfile(user.userId);
+      const profile = profileResponse.data;
+      setOwner({ ...profile, pets: profile.pets ?? [] });
     } catch (error) {
       setError('Error fetching owner data');
       console.error('Error fetching owner data:', error);
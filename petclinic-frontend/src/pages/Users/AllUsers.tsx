@@ -13,22 +13,36 @@ const AllUsers: React.FC = (): JSX.Element => {
     verified: boolean;
   }
 
+  interface UserPageResponseModel {
+    users: UserResponseModel[];
+    nextCursor: string | null;
+  }
+
+  const PAGE_SIZE = 20;
+
   const [users, setUsers] = useState<UserResponseModel[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
 
-  useEffect(() => {
-    const fetchUsers = async (): Promise<void> => {
-      try {
-        const response = await axiosInstance.get<UserResponseModel[]>(
-          '/users',
-          { useV2: true }
-        );
-        setUsers(response.data);
-      } catch (error) {
-        console.error('Error fetching users:', error);
-      }
-    };
+  const fetchUsersPage = async (cursor: string | null): Promise<void> => {
+    try {
+      const response = await axiosInstance.get<UserPageResponseModel>(
+        '/users/page',
+        {
+          useV2: true,
+          params: { size: PAGE_SIZE, ...(cursor ? { cursor } : {}) },
+        }
+      );
+      setUsers(previous =>
+        cursor ? [...previous, ...response.data.users] : response.data.users
+      );
+      setNextCursor(response.data.nextCursor);
+    } catch (error) {
+      console.error('Error fetching users:', error);
+    }
+  };
 
-    fetchUsers();
+  useEffect(() => {
+    fetchUsersPage(null);
   }, []);
 
   const handleDelete = async (userId: string): Promise<void> => {
@@ -83,6 +97,10 @@ const AllUsers: React.FC = (): JSX.Element => {
             ))}
           </tbody>
         </table>
+
+        {nextCursor && (
+          <button onClick={() => fetchUsersPage(nextCursor)}>Load more</button>
+        )}
       </div>
     </div>
   );
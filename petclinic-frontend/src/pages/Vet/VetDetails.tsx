@@ -11,7 +11,10 @@ import { VetRequestModel } from '@/features/veterinarians/models/VetRequestModel
 import UpdateVet from '@/pages/Vet/UpdateVet.tsx';
 import WorkInformationModal from '@/pages/Vet/WorkInformationModal';
 import UploadAlbumPhoto from '@/features/veterinarians/api/UploadAlbumPhoto';
-import { getAlbumsByVetId } from '@/features/veterinarians/api/getAlbumByVetId.ts';
+import {
+  getAlbumPhotoUrl,
+  getAlbumsByVetId,
+} from '@/features/veterinarians/api/getAlbumByVetId.ts';
 import { fetchVetPhoto } from '@/features/veterinarians/api/fetchPhoto';
 import { fetchVet } from '@/features/veterinarians/api/fetchVetDetails.ts';
 import { IsOwner, IsVet, IsAdmin, useUser } from '@/context/UserContext';
@@ -68,7 +71,6 @@ interface VetResponseType {
 
 interface AlbumPhotoType {
   id: number;
-  data: string;
   imgType: string;
 }
 
@@ -895,14 +897,13 @@ export default function VetDetails(): JSX.Element {
                         key={photo.id}
                         className="album-photo-card"
                         onClick={() =>
-                          openPhotoModal(
-                            `data:${photo.imgType};base64,${photo.data}`
-                          )
+                          openPhotoModal(getAlbumPhotoUrl(vetId!, photo.id))
                         }
                       >
                         <img
-                          src={`data:${photo.imgType};base64,${photo.data}`}
+                          src={getAlbumPhotoUrl(vetId!, photo.id)}
                           alt={`Album Photo ${photo.id}`}
+                          loading="lazy"
                           className="album-photo-thumbnail"
                         />
                         {(isVet || isAdmin) && (
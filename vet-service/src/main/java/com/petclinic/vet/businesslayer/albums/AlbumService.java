@@ -1,5 +1,6 @@
 package com.petclinic.vet.businesslayer.albums;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import reactor.core.publisher.Flux;
 import org.springframework.http.codec.multipart.FilePart;
 
@@ -9,7 +10,9 @@ import reactor.core.publisher.Mono;
 
 public interface AlbumService {
   Flux<Album> getAllAlbumsByVetId(String vetId);
+  Mono<Album> getAlbumPhotoById(String vetId, Integer Id);
+  Flux<DataBuffer> getAlbumPhotoContent(Album album, long offset, long length);
   Mono<Void> deleteAlbumPhotoById(String vetId, Integer Id);
-  Mono<Album> insertAlbumPhoto(String vetId, String photoName, Mono<byte[]> fileData);
+  Mono<Album> insertAlbumPhoto(String vetId, String photoName, Flux<DataBuffer> fileData);
   Mono<Album> insertAlbumPhoto(String vetId, String photoName, FilePart file);
 }
@@ -2,6 +2,8 @@ package com.petclinic.vet.businesslayer.albums;
 
 import com.petclinic.vet.dataaccesslayer.albums.Album;
 import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.blobs.Blob;
+import com.petclinic.vet.dataaccesslayer.blobs.BlobStore;
 import com.petclinic.vet.utils.exceptions.InvalidInputException;
 import com.petclinic.vet.utils.exceptions.NotFoundException;
 
@@ -9,10 +11,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
-import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.codec.multipart.FilePart;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,7 @@ import reactor.core.publisher.Mono;
 public class AlbumServiceImpl implements AlbumService{
 
     private final AlbumRepository albumRepository;
+    private final BlobStore blobStore;
 
     @Override
     public Flux<Album> getAllAlbumsByVetId(String vetId) {
@@ -31,6 +37,37 @@ public class AlbumServiceImpl implements AlbumService{
                 .doOnComplete(() -> log.info("Successfully fetched all albums for vetId: {}", vetId))
                 .doOnError(error -> log.error("Error fetching albums for vetId: {}", vetId, error));
     }
+    @Override
+    public Mono<Album> getAlbumPhotoById(String vetId, Integer Id) {
+        return albumRepository.findById(Id)
+                .filter(album -> album.getVetId().equals(vetId))
+                .switchIfEmpty(Mono.error(new NotFoundException("Album photo not found: " + Id)))
+                .flatMap(album -> {
+                    if (album.getContentHash() == null) {
+                        // Photos not moved to the blob store yet are sent from their row
+                        if (album.getData() != null) {
+                            album.setContentLength((long) album.getData().length);
+                        }
+                        return Mono.just(album);
+                    }
+                    // Checked before the response is started, its status could not change once the image is sent
+                    return blobStore.find(album.getContentHash())
+                            .switchIfEmpty(Mono.error(new NotFoundException("Image of album photo not found: " + Id)))
+                            .thenReturn(album);
+                });
+    }
+
+    @Override
+    public Flux<DataBuffer> getAlbumPhotoContent(Album album, long offset, long length) {
+        if (album.getContentHash() != null) {
+            return blobStore.read(album.getContentHash(), offset, length);
+        }
+        byte[] data = album.getData();
+        int from = (int) Math.min(offset, data.length);
+        int count = (int) Math.min(length, data.length - from);
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(data, from, count)));
+    }
+
     @Override
     public Mono<Void> deleteAlbumPhotoById(String vetId, Integer Id) {
         return albumRepository.findById(Id)
@@ -38,26 +75,18 @@ public class AlbumServiceImpl implements AlbumService{
                 .flatMap(albumRepository::delete);
     }
     @Override
-    public Mono<Album> insertAlbumPhoto(String vetId, String photoName, Mono<byte[]> fileData) {
-        return fileData
-            .switchIfEmpty(Mono.error(new InvalidInputException("Empty file data")))
-            .flatMap(bytes -> doInsert(vetId, photoName, bytes));
+    public Mono<Album> insertAlbumPhoto(String vetId, String photoName, Flux<DataBuffer> fileData) {
+        return blobStore.write(fileData)
+            .flatMap(blob -> doInsert(vetId, photoName, blob));
     }
 
     @Override
     public Mono<Album> insertAlbumPhoto(String vetId, String photoName, FilePart file) {
-        return DataBufferUtils.join(file.content())
-            .map(buf -> {
-                byte[] bytes = new byte[buf.readableByteCount()];
-                buf.read(bytes);
-                DataBufferUtils.release(buf);
-                return bytes;
-            })
-            .flatMap(bytes -> doInsert(vetId, photoName, bytes));
+        return insertAlbumPhoto(vetId, photoName, file.content());
     }
 
-    private Mono<Album> doInsert(String vetId, String photoName, byte[] bytes) {
-        if (bytes == null || bytes.length == 0) {
+    private Mono<Album> doInsert(String vetId, String photoName, Blob blob) {
+        if (blob.getSize() == 0) {
             return Mono.error(new InvalidInputException("Empty file data"));
         }
         String contentType = determineContentType(photoName);
@@ -66,7 +95,8 @@ public class AlbumServiceImpl implements AlbumService{
                 .vetId(vetId)
                 .filename(photoName)
                 .imgType(contentType)
-                .data(bytes)
+                .contentHash(blob.getHash())
+                .contentLength(blob.getSize())
                 .build();
 
         return albumRepository.save(toSave)
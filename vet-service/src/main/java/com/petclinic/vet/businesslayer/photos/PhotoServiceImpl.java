@@ -1,6 +1,7 @@
 package com.petclinic.vet.businesslayer.photos;
 
 
+import com.petclinic.vet.dataaccesslayer.blobs.BlobStore;
 import com.petclinic.vet.dataaccesslayer.photos.Photo;
 import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
 import com.petclinic.vet.dataaccesslayer.vets.VetRepository;
@@ -14,23 +15,26 @@ import com.petclinic.vet.utils.exceptions.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
-import java.io.IOException;
-
-
 
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PhotoServiceImpl implements PhotoService {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
     private final PhotoRepository photoRepository;
     private final VetRepository vetRepository;
     private final FilesServiceClient filesServiceClient;
+    private final BlobStore blobStore;
 
     @Override
     public Mono<PhotoResponseDTO> getPhotoByVetId(String vetId) {
@@ -52,6 +56,7 @@ public class PhotoServiceImpl implements PhotoService {
                                 .doOnSuccess(photo -> log.info("Successfully fetched photo from Files Service for vetId: {}", vetId));
                     } else {
                         return photoRepository.findByVetId(vetId)
+                                .flatMap(this::withData)
                                 .map(EntityDtoUtil::toPhotoResponseDTO)
                                 .doOnSuccess(photo -> log.info("Successfully fetched photo from old repository for vetId: {}", vetId));
                     }
@@ -64,6 +69,7 @@ public class PhotoServiceImpl implements PhotoService {
     public Mono<PhotoResponseDTO> getDefaultPhotoByVetId(String vetId) {
         return photoRepository.findByVetId(vetId)
                 .switchIfEmpty(Mono.error(new NotFoundException("vetId not found: " + vetId)))
+                .flatMap(this::withData)
                 .map(EntityDtoUtil::toPhotoResponseDTO);
     }
 
@@ -84,9 +90,8 @@ public class PhotoServiceImpl implements PhotoService {
                             .vetId(vetId)
                             .filename(request.getFilename())
                             .imgType(contentType)
-                            .data(request.getData())
                             .build();
-                    return photoRepository.save(entity);
+                    return save(entity, request.getData());
                 })
                 .map(EntityDtoUtil::toPhotoResponseDTO);
     }
@@ -129,9 +134,8 @@ public class PhotoServiceImpl implements PhotoService {
                                     .vetId(vetId)
                                     .filename(request.getFilename())
                                     .imgType(contentType)
-                                    .data(request.getData())
                                     .build();
-                            return photoRepository.save(updatedPhoto);
+                            return save(updatedPhoto, request.getData());
                         }))
                 .map(EntityDtoUtil::toPhotoResponseDTO);
     }
@@ -146,24 +150,46 @@ public class PhotoServiceImpl implements PhotoService {
     }
 
     private Mono<Void> insertDefaultPhoto(String vetId) {
-        return Mono.defer(() -> {
-            try {
-                ClassPathResource defaultPhoto = new ClassPathResource("images/vet_default.jpg");
-                byte[] data = StreamUtils.copyToByteArray(defaultPhoto.getInputStream());
+        Flux<DataBuffer> defaultPhoto = DataBufferUtils.read(new ClassPathResource("images/vet_default.jpg"),
+                DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE);
 
-                Photo defaultPhotoEntity = Photo.builder()
+        return blobStore.write(defaultPhoto)
+                .flatMap(blob -> photoRepository.save(Photo.builder()
                         .vetId(vetId)
                         .filename("vet_default.jpg")
                         .imgType("image/jpeg")
-                        .data(data)
-                        .build();
+                        .contentHash(blob.getHash())
+                        .contentLength(blob.getSize())
+                        .build()))
+                .then();
+    }
 
-                return photoRepository.save(defaultPhotoEntity).then();
+    private Mono<Photo> save(Photo photo, byte[] data) {
+        return blobStore.write(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(data)))
+                .flatMap(blob -> {
+                    photo.setContentHash(blob.getHash());
+                    photo.setContentLength(blob.getSize());
+                    return photoRepository.save(photo);
+                })
+                .doOnNext(saved -> saved.setData(data));
+    }
 
-            } catch (IOException e) {
-                return Mono.error(new RuntimeException("Failed to load default photo", e));
-            }
-        });
+    /**
+     * Reads the image of the photo from the blob store, the photo being sent along with its image, unless its row
+     * still keeps it
+     */
+    private Mono<Photo> withData(Photo photo) {
+        if (photo.getContentHash() == null || photo.getData() != null) {
+            return Mono.just(photo);
+        }
+        return DataBufferUtils.join(blobStore.read(photo.getContentHash(), 0, photo.getContentLength()))
+                .map(buffer -> {
+                    byte[] data = new byte[buffer.readableByteCount()];
+                    buffer.read(data);
+                    DataBufferUtils.release(buffer);
+                    photo.setData(data);
+                    return photo;
+                });
     }
 
 }
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.petclinic.vet.dataaccesslayer.ratings.Rating;
 import com.petclinic.vet.dataaccesslayer.ratings.RatingRepository;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummary;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummaryRepository;
 import com.petclinic.vet.dataaccesslayer.vets.VetRepository;
 import com.petclinic.vet.presentationlayer.vets.VetResponseDTO;
 import com.petclinic.vet.presentationlayer.vets.VetAverageRatingDTO;
@@ -14,11 +16,11 @@ import com.petclinic.vet.utils.exceptions.InvalidInputException;
 import com.petclinic.vet.utils.exceptions.NotFoundException;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
-import reactor.util.function.Tuples;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -28,14 +30,18 @@ import java.util.*;
 public class RatingServiceImpl implements RatingService {
     private final VetRepository vetRepository;
     private final RatingRepository ratingRepository;
+    private final VetRatingSummaryRepository vetRatingSummaryRepository;
     private final ObjectMapper objectMapper;
 
+    private static final int TOP_VETS = 3;
 
 
-    public RatingServiceImpl(RatingRepository ratingRepository, ObjectMapper objectMapper, VetRepository vetRepository) {
+    public RatingServiceImpl(RatingRepository ratingRepository, ObjectMapper objectMapper, VetRepository vetRepository,
+                             VetRatingSummaryRepository vetRatingSummaryRepository) {
         this.ratingRepository = ratingRepository;
         this.objectMapper = objectMapper;
         this.vetRepository=vetRepository;
+        this.vetRatingSummaryRepository = vetRatingSummaryRepository;
     }
 
     @Override
@@ -60,7 +66,7 @@ public class RatingServiceImpl implements RatingService {
                 .switchIfEmpty(Mono.error(new NotFoundException("vetId not found: " + vetId)))
                 .then(ratingRepository.findByVetIdAndRatingId(vetId, ratingId)
                         .switchIfEmpty(Mono.error(new NotFoundException("ratingId not found: "+ratingId)))
-                        .flatMap(ratingRepository::delete)
+                        .flatMap(this::deleteRating)
                 );
     }
 
@@ -72,10 +78,15 @@ public class RatingServiceImpl implements RatingService {
                         .filter(rating -> rating.getCustomerName() != null && rating.getCustomerName().equals(customerName))
                         .next()
                         .switchIfEmpty(Mono.error(new NotFoundException("No rating found for customer: " + customerName)))
-                        .flatMap(ratingRepository::delete)
+                        .flatMap(this::deleteRating)
                 );
     }
 
+    private Mono<Void> deleteRating(Rating rating) {
+        return ratingRepository.delete(rating)
+                .then(vetRatingSummaryRepository.applyChange(rating.getVetId(), rating.getRateScore(), null));
+    }
+
     @Override
     public Mono<RatingResponseDTO> addRatingToVet(String vetId, Mono<RatingRequestDTO> ratingRequestDTO) {
         return vetRepository.findVetByVetId(vetId)
@@ -100,6 +111,8 @@ public class RatingServiceImpl implements RatingService {
                     r.setDate(String.valueOf(LocalDate.now().getYear()));
                 })
                 .flatMap(ratingRepository::insert)
+                .flatMap(saved -> vetRatingSummaryRepository.applyChange(saved.getVetId(), null, saved.getRateScore())
+                        .thenReturn(saved))
                 .map(EntityDtoUtil::toDTO);
     }
 
@@ -108,25 +121,17 @@ public class RatingServiceImpl implements RatingService {
     public Mono<Integer> getNumberOfRatingsByVetId(String vetId) {
         return vetRepository.findVetByVetId(vetId)
                 .switchIfEmpty(Mono.error(new NotFoundException("vetId not found: " + vetId)))
-                .then(ratingRepository.countAllByVetId(vetId)
-                        .map(Long::intValue)
+                .then(vetRatingSummaryRepository.findById(vetId)
+                        .map(summary -> (int) summary.getCount())
+                        .defaultIfEmpty(0)
                 );
     }
 
     @Override
     public Mono<Double> getAverageRatingByVetId(String vetId) {
-        return ratingRepository.countAllByVetId(vetId)
-                .flatMap(count -> {
-                    if (count == 0) {
-                        return Mono.just(0.0);
-                    } else {
-                        return ratingRepository.findAllByVetId(vetId)
-                                .switchIfEmpty(Mono.error(new NotFoundException("vetId is Not Found" + vetId)))
-                                .map(EntityDtoUtil::toDTO)
-                                .reduce(0.0, (acc, rating) -> acc + rating.getRateScore())
-                                .map(sum -> sum / count);
-                    }
-                });
+        return vetRatingSummaryRepository.findById(vetId)
+                .map(VetRatingSummary::getAverage)
+                .defaultIfEmpty(0.0);
     }
     public Flux<RatingResponseDTO> getRatingsOfAVetBasedOnDate(String vetId, Map<String,String> queryParams) {
         String year = queryParams.get("year");
@@ -140,23 +145,10 @@ public class RatingServiceImpl implements RatingService {
 
     @Override
     public Flux<VetAverageRatingDTO> getTopThreeVetsWithHighestAverageRating() {
-        return ratingRepository.findAll()
-                .groupBy(Rating::getVetId)
-                .flatMap(group -> {
-                    String vetId = group.key();
-                    return getAverageRatingByVetId(vetId)
-                            .map(averageRating -> Tuples.of(vetId,averageRating));
-                })
-                .sort((t1, t2) -> Double.compare(t2.getT2(), t1.getT2()))
-                .take(3)
-                .publishOn(Schedulers.boundedElastic())
-                .flatMap(tuple -> {
-                    Mono<VetResponseDTO> vetMono = vetRepository.findVetByVetId(tuple.getT1())
-                            .map(EntityDtoUtil::vetEntityToResponseDTO);
-
-                    return vetMono.map(vetDTO ->
-                            new VetAverageRatingDTO(vetDTO, tuple.getT1(), tuple.getT2()));
-                });
+        return vetRatingSummaryRepository.findByCountGreaterThanOrderByAverageDesc(0, PageRequest.of(0, TOP_VETS))
+                .flatMapSequential(summary -> vetRepository.findVetByVetId(summary.getVetId())
+                        .map(EntityDtoUtil::vetEntityToResponseDTO)
+                        .map(vetDTO -> new VetAverageRatingDTO(vetDTO, summary.getVetId(), summary.getAverage())));
     }
 
 
@@ -181,6 +173,9 @@ public class RatingServiceImpl implements RatingService {
                                 .doOnNext(e -> e.setId(rating.getId()))
                                 .doOnNext(e -> e.setRatingId(rating.getRatingId()))
                                 .flatMap(ratingRepository::save)
+                                .flatMap(saved -> vetRatingSummaryRepository
+                                        .applyChange(saved.getVetId(), rating.getRateScore(), saved.getRateScore())
+                                        .thenReturn(saved))
                                 .map(EntityDtoUtil::toDTO))
                 );
     }
@@ -191,30 +186,18 @@ public class RatingServiceImpl implements RatingService {
     public Mono<String> getRatingPercentagesByVetId(String vetId) {
         return vetRepository.findVetByVetId(vetId)
                 .switchIfEmpty(Mono.error(new NotFoundException("vetId not found: " + vetId)))
-                .then(Mono.defer(()->{
-                    Flux<Rating> ratingFlux = ratingRepository.findAllByVetId(vetId);
-                    Map<Double, Integer> ratingCount = new HashMap<>();
-                    for(double i = 1.0; i <= 5.0; i += 1.0) {
-                        ratingCount.put(i, 0);
+                .then(vetRatingSummaryRepository.findById(vetId)
+                        .defaultIfEmpty(VetRatingSummary.builder().vetId(vetId).build()))
+                .map(summary -> {
+                    Map<Double, Double> ratingPercentages = new LinkedHashMap<>();
+                    for (int score = 1; score <= 5; score++) {
+                        ratingPercentages.put((double) score, summary.getScoreCount(score) / (double) summary.getCount());
                     }
-                    return ratingFlux
-                            .map(EntityDtoUtil::toDTO)
-                            .map(RatingResponseDTO::getRateScore)
-                            .doOnNext(rating -> ratingCount.put(rating, ratingCount.get(rating) + 1))
-                            .then(Mono.just(ratingCount))
-                            .map(ratingCountMap -> {
-                                Map<Double, Double> ratingPercentages = new LinkedHashMap<>();
-                                for(double i = 1.0; i <= 5.0; i += 1.0) {
-                                    ratingPercentages.put(i, ratingCountMap.get(i) / (double) ratingCountMap.values().stream().mapToInt(Integer::intValue).sum());
-                                }
-                                try {
-                                    String ratingPercentageJson = objectMapper.writeValueAsString(ratingPercentages);
-                                    return ratingPercentageJson;
-                                } catch (JsonProcessingException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            });
-                }));
-
+                    try {
+                        return objectMapper.writeValueAsString(ratingPercentages);
+                    } catch (JsonProcessingException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
     }
 }
@@ -27,8 +27,14 @@ public class Album {
     @Column("img_type")
     private String imgType;
     //@Lob
+    // Only kept by rows stored before images moved to the blob store, until the blob store is durable
     @Column("img_data")
     private byte[] data;
+    // SHA-256 of the image in the blob store
+    @Column("content_hash")
+    private String contentHash;
+    @Column("content_length")
+    private Long contentLength;
 
     @Override
     public String toString() {
@@ -37,6 +43,8 @@ public class Album {
                 ", vetId='" + vetId + '\'' +
                 ", filename='" + filename + '\'' +
                 ", imgType='" + imgType + '\'' +
+                ", contentHash='" + contentHash + '\'' +
+                ", contentLength=" + contentLength +
                 ", dataSize=" + (data != null ? data.length : 0) + " bytes" +
                 '}';
     }
@@ -1,10 +1,20 @@
 package com.petclinic.vet.dataaccesslayer.albums;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface AlbumRepository extends ReactiveCrudRepository<Album, Integer> {
 
+    // Listing albums leaves the images, which are read one at a time from the blob store, out of the rows
+    @Query("SELECT id, vet_id, filename, img_type, content_hash, content_length FROM albums WHERE vet_id = $1")
     Flux<Album> findAllByVetId(String vetId);
+
+    Mono<Long> countByContentHash(String contentHash);
+
+    // Rows moved to the blob store keep their image until it is durable
+    @Query("SELECT id FROM albums WHERE img_data IS NOT NULL")
+    Flux<Integer> findIdsOfInlineImages();
 }
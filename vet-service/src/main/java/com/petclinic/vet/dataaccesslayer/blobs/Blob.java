@@ -0,0 +1,12 @@
+package com.petclinic.vet.dataaccesslayer.blobs;
+
+import lombok.Value;
+
+/**
+ * Content stored in a {@link BlobStore}, known by the SHA-256 hash of its bytes
+ */
+@Value
+public class Blob {
+    String hash;
+    long size;
+}
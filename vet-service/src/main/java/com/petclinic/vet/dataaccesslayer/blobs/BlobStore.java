@@ -0,0 +1,50 @@
+package com.petclinic.vet.dataaccesslayer.blobs;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Stores image bytes by their hash, so that the same image is only stored once and rows only keep the hash
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the content as it is read, releasing its buffers
+     *
+     * @return The stored blob, the same one for the same content
+     */
+    Mono<Blob> write(Flux<DataBuffer> content);
+
+    /**
+     * @return The blob stored with this hash, or empty if there is none
+     */
+    Mono<Blob> find(String hash);
+
+    /**
+     * Reads part of a blob as it is sent, failing with a NotFoundException if there is no such blob
+     *
+     * @param offset Position of the first byte to read
+     * @param length Number of bytes to read, cut to the end of the blob
+     */
+    Flux<DataBuffer> read(String hash, long offset, long length);
+
+    default Flux<DataBuffer> read(Blob blob) {
+        return read(blob.getHash(), 0, blob.getSize());
+    }
+
+    /**
+     * @return The hashes of all the stored blobs
+     */
+    Flux<String> hashes();
+
+    /**
+     * Deletes a blob unless it was written within the given time, writing content already stored included, so that a
+     * blob is never deleted from under an upload whose row is not saved yet
+     *
+     * @return Whether the blob was deleted
+     */
+    Mono<Boolean> deleteIfUntouchedFor(String hash, Duration age);
+}
@@ -0,0 +1,246 @@
+package com.petclinic.vet.dataaccesslayer.blobs;
+
+import com.petclinic.vet.utils.exceptions.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps each blob in its own directory named after its hash, split into numbered chunk files of a fixed size, so that
+ * a range is read from the chunks it covers only. An upload is written a chunk at a time into a temporary directory
+ * which is moved into place once its hash is known. Moving an upload in, or finding its content already stored, and
+ * deleting a blob hold the same lock for that hash.
+ */
+@Slf4j
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final String MANIFEST = "manifest";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path blobs;
+    private final Path uploads;
+    private final int chunkSize;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public FileSystemBlobStore(@Value("${app.blob-store.directory}") Path root) {
+        this(root, DEFAULT_CHUNK_SIZE);
+    }
+
+    public FileSystemBlobStore(Path root, int chunkSize) {
+        this.blobs = root.resolve("blobs");
+        this.uploads = root.resolve("uploads");
+        this.chunkSize = chunkSize;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Mono<Blob> write(Flux<DataBuffer> content) {
+        return Mono.using(() -> new ChunkWriter(Files.createTempDirectory(Files.createDirectories(uploads), "upload")),
+                        writer -> content
+                                // Only a few buffers are held while a chunk is written to disk
+                                .publishOn(Schedulers.boundedElastic(), 2)
+                                .doOnNext(writer::write)
+                                .then(Mono.fromCallable(writer::finish)),
+                        ChunkWriter::cleanUp)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Blob> find(String hash) {
+        return Mono.fromCallable(() -> readManifest(hash))
+                .map(manifest -> new Blob(hash, manifest[0]))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<DataBuffer> read(String hash, long offset, long length) {
+        return Mono.fromCallable(() -> readManifest(hash))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Blob not found: " + hash)))
+                .flatMapMany(manifest -> {
+                    long size = manifest[0];
+                    long blobChunkSize = manifest[1];
+                    List<Flux<DataBuffer>> parts = new ArrayList<>();
+                    long position = offset;
+                    long remaining = Math.min(length, size - offset);
+                    while (remaining > 0) {
+                        long chunk = position / blobChunkSize;
+                        long positionInChunk = position % blobChunkSize;
+                        long count = Math.min(remaining, blobChunkSize - positionInChunk);
+                        Path chunkFile = blobDirectory(hash).resolve(String.valueOf(chunk));
+                        parts.add(DataBufferUtils.takeUntilByteCount(
+                                DataBufferUtils.readAsynchronousFileChannel(
+                                        () -> AsynchronousFileChannel.open(chunkFile, StandardOpenOption.READ),
+                                        positionInChunk, DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE),
+                                count));
+                        position += count;
+                        remaining -= count;
+                    }
+                    return Flux.concat(parts);
+                });
+    }
+
+    @Override
+    public Flux<String> hashes() {
+        return Flux.using(() -> Files.exists(blobs) ? Files.walk(blobs, 2) : Stream.<Path>empty(),
+                        paths -> Flux.fromStream(paths
+                                .map(path -> path.getFileName().toString())
+                                .filter(name -> HASH.matcher(name).matches())),
+                        Stream::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfUntouchedFor(String hash, Duration age) {
+        return Mono.fromCallable(() -> {
+                    Path directory = blobDirectory(hash);
+                    synchronized (lock(hash)) {
+                        if (!Files.exists(directory)) {
+                            return false;
+                        }
+                        Instant touched = Files.getLastModifiedTime(directory).toInstant();
+                        if (touched.plus(age).isAfter(Instant.now())) {
+                            return false;
+                        }
+                        return FileSystemUtils.deleteRecursively(directory);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Object lock(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    /**
+     * @return The size and the chunk size of the blob, or null if there is no such blob
+     */
+    private long[] readManifest(String hash) throws IOException {
+        Path manifest = blobDirectory(hash).resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return null;
+        }
+        String[] values = Files.readString(manifest, StandardCharsets.US_ASCII).trim().split(" ");
+        return new long[]{Long.parseLong(values[0]), Long.parseLong(values[1])};
+    }
+
+    private Path blobDirectory(String hash) {
+        // The hash comes from requests, it must not lead out of the store
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private final class ChunkWriter {
+        private final Path directory;
+        private final byte[] chunk = new byte[chunkSize];
+        private final MessageDigest digest;
+        private int filled;
+        private int chunks;
+        private long size;
+        private boolean stored;
+
+        private ChunkWriter(Path directory) {
+            this.directory = directory;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void write(DataBuffer buffer) {
+            try {
+                while (buffer.readableByteCount() > 0) {
+                    int count = Math.min(buffer.readableByteCount(), chunkSize - filled);
+                    buffer.read(chunk, filled, count);
+                    filled += count;
+                    if (filled == chunkSize) {
+                        writeChunk();
+                    }
+                }
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        Blob finish() throws IOException {
+            if (filled > 0) {
+                writeChunk();
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Files.writeString(directory.resolve(MANIFEST), size + " " + chunkSize, StandardCharsets.US_ASCII);
+
+            Path target = blobDirectory(hash);
+            synchronized (lock(hash)) {
+                if (Files.exists(target)) {
+                    // Already stored, it is now in use again
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(directory, target, StandardCopyOption.ATOMIC_MOVE);
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    stored = true;
+                }
+            }
+            return new Blob(hash, size);
+        }
+
+        void cleanUp() {
+            if (stored) {
+                return;
+            }
+            try {
+                FileSystemUtils.deleteRecursively(directory);
+            } catch (IOException e) {
+                log.warn("Could not delete upload {}: {}", directory, e.getMessage());
+            }
+        }
+
+        private void writeChunk() {
+            digest.update(chunk, 0, filled);
+            try (OutputStream out = Files.newOutputStream(directory.resolve(String.valueOf(chunks)))) {
+                out.write(chunk, 0, filled);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunks++;
+            size += filled;
+            filled = 0;
+        }
+    }
+}
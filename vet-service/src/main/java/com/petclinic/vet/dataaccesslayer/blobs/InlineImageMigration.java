@@ -0,0 +1,84 @@
+package com.petclinic.vet.dataaccesslayer.blobs;
+
+import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Moves the images of album photos and vet photos stored in their rows, before images moved to the blob store, into
+ * the blob store. Rows are moved one at a time so that only one image is held at once.
+ * <p>
+ * Rows keep their image until the blob store is durable, its directory outliving the service, and their images are
+ * stored again at each startup, so that a blob store lost with its container is filled in again from them.
+ */
+@Slf4j
+@Component
+public class InlineImageMigration {
+
+    private final BlobStore blobStore;
+    private final AlbumRepository albumRepository;
+    private final PhotoRepository photoRepository;
+    private final boolean durable;
+
+    public InlineImageMigration(BlobStore blobStore,
+                                AlbumRepository albumRepository,
+                                PhotoRepository photoRepository,
+                                @Value("${app.blob-store.durable:false}") boolean durable) {
+        this.blobStore = blobStore;
+        this.albumRepository = albumRepository;
+        this.photoRepository = photoRepository;
+        this.durable = durable;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void moveInlineImages() {
+        Flux<Integer> albums = Flux.defer(albumRepository::findIdsOfInlineImages)
+                .concatMap(id -> albumRepository.findById(id)
+                        .flatMap(album -> store(album.getData())
+                                .flatMap(blob -> {
+                                    if (!durable && blob.getHash().equals(album.getContentHash())) {
+                                        return Mono.just(album);
+                                    }
+                                    album.setContentHash(blob.getHash());
+                                    album.setContentLength(blob.getSize());
+                                    if (durable) {
+                                        album.setData(null);
+                                    }
+                                    return albumRepository.save(album);
+                                }))
+                        .thenReturn(id));
+        Flux<Integer> photos = Flux.defer(photoRepository::findIdsOfInlineImages)
+                .concatMap(id -> photoRepository.findById(id)
+                        .flatMap(photo -> store(photo.getData())
+                                .flatMap(blob -> {
+                                    if (!durable && blob.getHash().equals(photo.getContentHash())) {
+                                        return Mono.just(photo);
+                                    }
+                                    photo.setContentHash(blob.getHash());
+                                    photo.setContentLength(blob.getSize());
+                                    if (durable) {
+                                        photo.setData(null);
+                                    }
+                                    return photoRepository.save(photo);
+                                }))
+                        .thenReturn(id));
+
+        albums.count()
+                .zipWith(photos.count())
+                .filter(counts -> counts.getT1() + counts.getT2() > 0)
+                .subscribe(counts -> log.info("Stored {} album photos and {} vet photos kept in their rows in the {}blob store",
+                                counts.getT1(), counts.getT2(), durable ? "" : "non-durable "),
+                        e -> log.warn("Could not move images to the blob store: {}", e.getMessage()));
+    }
+
+    private Mono<Blob> store(byte[] data) {
+        return blobStore.write(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(data)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.petclinic.vet.dataaccesslayer.blobs;
+
+import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Deletes the blobs no album photo nor vet photo refers to any more, the same image being stored once for all of
+ * them. Blobs written within the grace period are kept, as the row of their upload may not be saved yet.
+ */
+@Slf4j
+@Component
+public class UnusedBlobSweeper {
+
+    private final BlobStore blobStore;
+    private final AlbumRepository albumRepository;
+    private final PhotoRepository photoRepository;
+    private final Duration gracePeriod;
+
+    public UnusedBlobSweeper(BlobStore blobStore,
+                             AlbumRepository albumRepository,
+                             PhotoRepository photoRepository,
+                             @Value("${app.blob-store.unused-grace-period-ms:3600000}") long gracePeriodMs) {
+        this.blobStore = blobStore;
+        this.albumRepository = albumRepository;
+        this.photoRepository = photoRepository;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+    }
+
+    @Scheduled(initialDelayString = "${app.blob-store.sweep-initial-delay-ms:600000}",
+            fixedDelayString = "${app.blob-store.sweep-interval-ms:3600000}")
+    public void sweep() {
+        try {
+            Long deleted = sweepUnused().block();
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} unused blobs", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Unused blob sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    Mono<Long> sweepUnused() {
+        return blobStore.hashes()
+                .concatMap(hash -> Mono.zip(albumRepository.countByContentHash(hash), photoRepository.countByContentHash(hash))
+                        .filter(counts -> counts.getT1() + counts.getT2() == 0)
+                        .flatMap(unused -> blobStore.deleteIfUntouchedFor(hash, gracePeriod)))
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+}
@@ -23,6 +23,12 @@ public class Photo {
     @Column("img_type")
     private String imgType;
     //@Lob
+    // Only kept by rows stored before images moved to the blob store, until the blob store is durable
     @Column("img_data")
     private byte[] data;
+    // SHA-256 of the image in the blob store
+    @Column("content_hash")
+    private String contentHash;
+    @Column("content_length")
+    private Long contentLength;
 }
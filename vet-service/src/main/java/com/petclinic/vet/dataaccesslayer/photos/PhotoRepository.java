@@ -4,6 +4,7 @@ import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
@@ -13,4 +14,10 @@ public interface PhotoRepository extends ReactiveCrudRepository<Photo, Integer>
     Mono<Photo> findByVetId(String vetId);
 
     Mono<Integer> deleteByVetId(String vetId);
+
+    Mono<Long> countByContentHash(String contentHash);
+
+    // Rows moved to the blob store keep their image until it is durable
+    @Query("SELECT id FROM images WHERE img_data IS NOT NULL")
+    Flux<Integer> findIdsOfInlineImages();
 }
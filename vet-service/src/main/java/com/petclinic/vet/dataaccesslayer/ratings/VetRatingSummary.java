@@ -0,0 +1,52 @@
+package com.petclinic.vet.dataaccesslayer.ratings;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ratings of a vet summed up, kept up to date as ratings are added, changed and deleted so that averages and
+ * percentages are read without going through the ratings
+ */
+@Document
+@Setter
+@Getter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class VetRatingSummary {
+    @Id
+    private String vetId;
+    private long count;
+    private double sum;
+    @Indexed(direction = IndexDirection.DESCENDING)
+    private double average;
+    /**
+     * Number of ratings given each score, keyed by the score from 1 to 5
+     */
+    private Map<String, Long> scoreCounts;
+
+    public static String scoreKey(Double rateScore) {
+        return String.valueOf(Math.round(rateScore));
+    }
+
+    public long getScoreCount(int score) {
+        return scoreCounts == null ? 0 : scoreCounts.getOrDefault(String.valueOf(score), 0L);
+    }
+
+    public static VetRatingSummary of(String vetId, Iterable<Rating> ratings) {
+        VetRatingSummary summary = new VetRatingSummary(vetId, 0, 0, 0, new HashMap<>());
+        for (Rating rating : ratings) {
+            summary.count++;
+            summary.sum += rating.getRateScore();
+            summary.scoreCounts.merge(scoreKey(rating.getRateScore()), 1L, Long::sum);
+        }
+        summary.average = summary.count > 0 ? summary.sum / summary.count : 0;
+        return summary;
+    }
+}
@@ -0,0 +1,34 @@
+package com.petclinic.vet.dataaccesslayer.ratings;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives vets rated before ratings were summed up their {@link VetRatingSummary} once the application is ready. Vets
+ * that already have one are left alone, so that running it again, or while ratings are still being seeded, never
+ * counts a rating twice; the data setup sums up the vets it seeds itself once their ratings are in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VetRatingSummaryInitializer {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final VetRatingSummaryRepository vetRatingSummaryRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSummaries() {
+        mongoTemplate.findDistinct(new Query(), "vetId", Rating.class, String.class)
+                .filterWhen(vetId -> vetRatingSummaryRepository.existsById(vetId).map(exists -> !exists))
+                .concatMap(vetRatingSummaryRepository::recompute)
+                .count()
+                .filter(count -> count > 0)
+                .subscribe(count -> log.info("Summed up the ratings of {} vets", count),
+                        e -> log.warn("Could not sum up the ratings of vets: {}", e.getMessage()));
+    }
+}
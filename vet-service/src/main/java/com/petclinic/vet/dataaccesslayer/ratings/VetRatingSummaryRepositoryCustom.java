@@ -0,0 +1,19 @@
+package com.petclinic.vet.dataaccesslayer.ratings;
+
+import reactor.core.publisher.Mono;
+
+public interface VetRatingSummaryRepositoryCustom {
+
+    /**
+     * Atomically takes a score out of and/or adds a score to the rating summary of a vet, creating it if needed
+     *
+     * @param removedScore Score of a rating deleted or changed, null when a rating is added
+     * @param addedScore   Score of a rating added or changed, null when a rating is deleted
+     */
+    Mono<Void> applyChange(String vetId, Double removedScore, Double addedScore);
+
+    /**
+     * Sums up the ratings of a vet from scratch, replacing their rating summary
+     */
+    Mono<VetRatingSummary> recompute(String vetId);
+}
@@ -0,0 +1,66 @@
+package com.petclinic.vet.dataaccesslayer.ratings;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class VetRatingSummaryRepositoryCustomImpl implements VetRatingSummaryRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> applyChange(String vetId, Double removedScore, Double addedScore) {
+        long countChange = 0;
+        double sumChange = 0;
+        Map<String, Long> scoreCountChanges = new TreeMap<>();
+        if (removedScore != null) {
+            countChange--;
+            sumChange -= removedScore;
+            scoreCountChanges.merge(VetRatingSummary.scoreKey(removedScore), -1L, Long::sum);
+        }
+        if (addedScore != null) {
+            countChange++;
+            sumChange += addedScore;
+            scoreCountChanges.merge(VetRatingSummary.scoreKey(addedScore), 1L, Long::sum);
+        }
+
+        // An update pipeline, so that the average is worked out from the new count and sum in the same write
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("count").toValue(add("count", countChange))
+                .set("sum").toValue(add("sum", sumChange));
+        scoreCountChanges.forEach((score, change) ->
+                update.set("scoreCounts." + score).toValue(add("scoreCounts." + score, change)));
+        update.set("average").toValue(ConditionalOperators
+                .when(ComparisonOperators.valueOf("count").greaterThanValue(0))
+                .thenValueOf(ArithmeticOperators.valueOf("sum").divideBy("count"))
+                .otherwise(0.0));
+
+        // Updated by collection name, the score keys not being properties to map
+        return mongoTemplate.upsert(new Query(Criteria.where("_id").is(vetId)), update,
+                        mongoTemplate.getCollectionName(VetRatingSummary.class))
+                .then();
+    }
+
+    @Override
+    public Mono<VetRatingSummary> recompute(String vetId) {
+        return mongoTemplate.find(new Query(Criteria.where("vetId").is(vetId)), Rating.class)
+                .collectList()
+                .map(ratings -> VetRatingSummary.of(vetId, ratings))
+                .flatMap(mongoTemplate::save);
+    }
+
+    private static AggregationExpression add(String field, Number change) {
+        return ArithmeticOperators.valueOf(ConditionalOperators.ifNull(field).then(0L)).add(change);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -20,8 +21,12 @@ public class FilesServiceClient {
     private final WebClient.Builder webClientBuilder;
     private final String filesServiceUrl;
 
-    public FilesServiceClient(WebClient.Builder webClientBuilder, @Value("${app.files-service.host}") String filesServiceHost, @Value("${app.files-service.port}") String filesServicePort) {
-        this.webClientBuilder = webClientBuilder;
+    public FilesServiceClient(WebClient.Builder webClientBuilder, @Value("${app.files-service.host}") String filesServiceHost, @Value("${app.files-service.port}") String filesServicePort,
+                              @Value("${app.max-photo-size:16MB}") DataSize maxPhotoSize) {
+        // Files come back base64 encoded, a third larger than the photo they hold
+        int maxResponseSize = Math.toIntExact(maxPhotoSize.toBytes() / 3 * 4 + DataSize.ofMegabytes(1).toBytes());
+        this.webClientBuilder = webClientBuilder.clone()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxResponseSize));
         this.filesServiceUrl = "http://" + filesServiceHost + ":" + filesServicePort + "/files/";
     }
 
@@ -33,15 +33,25 @@ import com.petclinic.vet.utils.exceptions.NotFoundException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 
@@ -57,6 +67,12 @@ public class VetController {
     private final BadgeService badgeService;
     private final AlbumService albumService;
 
+    private int maxPhotoSize = (int) DataSize.ofMegabytes(16).toBytes();
+
+    @Value("${app.max-photo-size:16MB}")
+    public void setMaxPhotoSize(DataSize maxPhotoSize) {
+        this.maxPhotoSize = Math.toIntExact(maxPhotoSize.toBytes());
+    }
 
     //Ratings
     @GetMapping("{vetId}/ratings")
@@ -285,6 +301,38 @@ public class VetController {
                 .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
+    @PostMapping(value = "{vetId}/photos/{photoName}",
+            consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "image/*"})
+    public Mono<ResponseEntity<Void>> addPhotoByVetIdOctet(
+            @PathVariable String vetId,
+            @PathVariable String photoName,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestBody Flux<DataBuffer> fileData) {
+        String fileType = MediaType.APPLICATION_OCTET_STREAM.includes(contentType) ? MediaType.IMAGE_JPEG_VALUE : contentType.toString();
+        // Read past the codec limit, up to the photo size the gateway lets through
+        return DataBufferUtils.join(fileData, maxPhotoSize)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .map(bytes -> {
+                    FileRequestDTO fileReq = FileRequestDTO.builder()
+                            .fileName(photoName)
+                            .fileType(fileType)
+                            .build();
+                    fileReq.setFileDataFromBytes(bytes);
+                    return fileReq;
+                })
+                .flatMap(fileReq -> vetService.updateVetPhoto(vetId, fileReq))
+                // Nothing is sent back, the photo being as big as the upload
+                .map(vet -> ResponseEntity.status(HttpStatus.CREATED).<Void>build())
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build()));
+    }
+
 
     @DeleteMapping("{vetId}/photo")
     public Mono<ResponseEntity<Void>> deletePhotoByVetId(@PathVariable String vetId) {
@@ -301,7 +349,7 @@ public class VetController {
     public Mono<ResponseEntity<Album>> addAlbumPhotoOctet(
             @PathVariable String vetId,
             @PathVariable String photoName,
-            @RequestBody Mono<byte[]> fileData
+            @RequestBody Flux<DataBuffer> fileData
     ) {
         return albumService.insertAlbumPhoto(vetId, photoName, fileData)
                 .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
@@ -374,6 +422,69 @@ public class VetController {
                 .doOnError(error -> log.error("Error fetching photos for vet {}", vetId, error));
     }
 
+    @GetMapping("{vetId}/albums/{Id}/photo")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAlbumPhoto(@PathVariable String vetId,
+                                                                @PathVariable Integer Id,
+                                                                @RequestHeader HttpHeaders headers) {
+        return albumService.getAlbumPhotoById(vetId, Id)
+                .map(album -> albumPhotoResponse(album, headers))
+                .onErrorResume(NotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Sends the photo, or the single range of it asked for, unless the client already has it
+     */
+    private ResponseEntity<Flux<DataBuffer>> albumPhotoResponse(Album album, HttpHeaders headers) {
+        if (album.getContentHash() == null || album.getContentLength() == null) {
+            // Still kept in its row until it is moved to the blob store
+            return album.getData() == null
+                    ? ResponseEntity.notFound().build()
+                    : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+        long length = album.getContentLength();
+        String eTag = "\"" + album.getContentHash() + "\"";
+
+        if (headers.getIfNoneMatch().contains(eTag) || headers.getIfNoneMatch().contains("*")) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        long start = 0;
+        long count = length;
+        HttpStatus status = HttpStatus.OK;
+        HttpHeaders responseHeaders = new HttpHeaders();
+        try {
+            List<HttpRange> ranges = headers.getRange();
+            // Several ranges are sent as the whole photo rather than as a multipart body
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                if (start >= length) {
+                    return rangeNotSatisfiable(length);
+                }
+                count = ranges.get(0).getRangeEnd(length) - start + 1;
+                status = HttpStatus.PARTIAL_CONTENT;
+                responseHeaders.set(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + count - 1) + "/" + length);
+            }
+        } catch (IllegalArgumentException e) {
+            return rangeNotSatisfiable(length);
+        }
+
+        return ResponseEntity.status(status)
+                .headers(responseHeaders)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(album.getImgType()))
+                .contentLength(count)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)))
+                .eTag(eTag)
+                .body(albumService.getAlbumPhotoContent(album, start, count));
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> rangeNotSatisfiable(long length) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                .build();
+    }
+
     @DeleteMapping("/{vetId}/albums/{Id}")
     public Mono<ResponseEntity<Void>> deleteAlbumPhoto(@PathVariable String vetId,@PathVariable Integer Id) {
         return albumService.deleteAlbumPhotoById(vetId, Id)
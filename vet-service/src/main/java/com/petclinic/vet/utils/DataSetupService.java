@@ -7,6 +7,8 @@ import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
 import com.petclinic.vet.dataaccesslayer.badges.Badge;
 import com.petclinic.vet.dataaccesslayer.badges.BadgeRepository;
 import com.petclinic.vet.dataaccesslayer.badges.BadgeTitle;
+import com.petclinic.vet.dataaccesslayer.blobs.Blob;
+import com.petclinic.vet.dataaccesslayer.blobs.BlobStore;
 import com.petclinic.vet.dataaccesslayer.education.Education;
 import com.petclinic.vet.dataaccesslayer.education.EducationRepository;
 import com.petclinic.vet.dataaccesslayer.photos.Photo;
@@ -14,6 +16,7 @@ import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
 import com.petclinic.vet.dataaccesslayer.ratings.PredefinedDescription;
 import com.petclinic.vet.dataaccesslayer.ratings.Rating;
 import com.petclinic.vet.dataaccesslayer.ratings.RatingRepository;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummaryRepository;
 import com.petclinic.vet.dataaccesslayer.vets.Specialty;
 import com.petclinic.vet.dataaccesslayer.vets.Vet;
 import com.petclinic.vet.dataaccesslayer.vets.VetRepository;
@@ -24,9 +27,11 @@ import com.petclinic.vet.utils.exceptions.InvalidInputException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StreamUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.*;
 import javax.sql.DataSource;
@@ -45,18 +50,22 @@ public class DataSetupService implements CommandLineRunner {
     String date1 = ("2021");
     private final VetRepository vetRepository;
     private final RatingRepository ratingRepository;
+    private final VetRatingSummaryRepository vetRatingSummaryRepository;
     private final EducationRepository educationRepository;
     private final BadgeRepository badgeRepository;
     private final PhotoRepository photoRepository;
     private final AlbumRepository albumRepository;
+    private final BlobStore blobStore;
 
-    public DataSetupService(VetRepository vetRepository, RatingRepository ratingRepository, EducationRepository educationRepository, BadgeRepository badgeRepository, PhotoRepository photoRepository, AlbumRepository albumRepository) {
+    public DataSetupService(VetRepository vetRepository, RatingRepository ratingRepository, VetRatingSummaryRepository vetRatingSummaryRepository, EducationRepository educationRepository, BadgeRepository badgeRepository, PhotoRepository photoRepository, AlbumRepository albumRepository, BlobStore blobStore) {
         this.vetRepository = vetRepository;
         this.ratingRepository = ratingRepository;
+        this.vetRatingSummaryRepository = vetRatingSummaryRepository;
         this.educationRepository = educationRepository;
         this.badgeRepository = badgeRepository;
         this.photoRepository = photoRepository;
         this.albumRepository = albumRepository;
+        this.blobStore = blobStore;
     }
 
     @Override
@@ -408,6 +417,12 @@ public class DataSetupService implements CommandLineRunner {
         Flux.just(r1, r2, r3, r4, r5, r6, r7, r8, r9, r10, r11, r12, r13, r14)
                 .flatMap(ratingRepository::insert)
                 .log()
+                .map(Rating::getVetId)
+                .distinct()
+                // summed up once all the ratings are in
+                .collectList()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(vetRatingSummaryRepository::recompute)
                 .subscribe();
         Education e1 = Education.builder()
                 .educationId(UUID.randomUUID().toString())
@@ -975,7 +990,13 @@ public class DataSetupService implements CommandLineRunner {
         Flux.just(album1, album2, album3, album4, album5, album6, album7, album8, album9, album10, album11, album12, album13, album14, album15, album16, album17, album18, album19, album20, album21, album22, album23, album24, album25, album26, album27, album28, album29, album30, album31, album32, album33, album34, album35)
                 .doOnNext(album -> log.info("Album created: vetId={}, filename={}, imgType={}, dataSize={} bytes",
                         album.getVetId(), album.getFilename(), album.getImgType(), album.getData().length))
-                .flatMap(albumRepository::save)
+                .flatMap(album -> store(album.getData())
+                        .flatMap(blob -> {
+                            album.setContentHash(blob.getHash());
+                            album.setContentLength(blob.getSize());
+                            album.setData(null);
+                            return albumRepository.save(album);
+                        }))
                 .log()
                 .subscribe();
 
@@ -1066,8 +1087,8 @@ public class DataSetupService implements CommandLineRunner {
 
                 // Prepare INSERT statement
                 PreparedStatement insertStmt = conn.prepareStatement(
-                        "INSERT INTO images (vet_id, filename, img_type, img_data) " +
-                                "VALUES (?, ?, ?, ?)")
+                        "INSERT INTO images (vet_id, filename, img_type, content_hash, content_length) " +
+                                "VALUES (?, ?, ?, ?, ?)")
         ) {
 
             Photo[] photos = {photo1, photo2, photo3, photo4, photo5, photo6, photo7};
@@ -1076,7 +1097,11 @@ public class DataSetupService implements CommandLineRunner {
                 insertStmt.setString(1, photo.getVetId());
                 insertStmt.setString(2, photo.getFilename());
                 insertStmt.setString(3, photo.getImgType());
-                insertStmt.setBytes(4, photo.getData());
+
+                // The image goes to the blob store, the row only keeps its hash
+                Blob blob = store(photo.getData()).block();
+                insertStmt.setString(4, blob.getHash());
+                insertStmt.setLong(5, blob.getSize());
 
                 int insertedRows = insertStmt.executeUpdate();
                 System.out.printf("Inserted %d defaultPhoto(s)%n", insertedRows);
@@ -1093,6 +1118,10 @@ public class DataSetupService implements CommandLineRunner {
         return getWorkHoursFromJson(workHoursJson);
     }*/
 
+    private Mono<Blob> store(byte[] data) {
+        return blobStore.write(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(data)));
+    }
+
     //method that converts the work hours map to a string
     private static String setWorkHours(Map<Workday, List<WorkHour>> workHours) {
         try {
@@ -22,7 +22,9 @@ public class DatabaseInitializer {
                             "vet_id VARCHAR(255) NOT NULL, " +
                             "filename VARCHAR(255), " +
                             "img_type VARCHAR(50), " +
-                            "img_data BYTEA " +
+                            "img_data BYTEA, " +
+                            "content_hash VARCHAR(64), " +
+                            "content_length BIGINT" +
                             ")";
 
                     // Update the images table to include an album_id foreign key
@@ -31,7 +33,9 @@ public class DatabaseInitializer {
                             "vet_id VARCHAR(255) NOT NULL, " +
                             "filename VARCHAR(255), " +
                             "img_type VARCHAR(20), " +
-                            "img_data BYTEA " +
+                            "img_data BYTEA, " +
+                            "content_hash VARCHAR(64), " +
+                            "content_length BIGINT" +
                             ")";
 
                     // Badges table remains the same
@@ -4,7 +4,9 @@ CREATE TABLE IF NOT EXISTS images(
      vet_id VARCHAR(255) NOT NULL,
     filename VARCHAR(255),
     img_type VARCHAR(50),
-    img_data BYTEA
+    img_data BYTEA,
+    content_hash VARCHAR(64),
+    content_length BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS albums (
@@ -12,9 +14,17 @@ CREATE TABLE IF NOT EXISTS albums (
      vet_id VARCHAR(255) NOT NULL,
      filename VARCHAR(255),
      img_type VARCHAR(50),
-     img_data BYTEA
+     img_data BYTEA,
+     content_hash VARCHAR(64),
+     content_length BIGINT
 );
 
+-- Tables created before images moved to the blob store
+ALTER TABLE images ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE images ADD COLUMN IF NOT EXISTS content_length BIGINT;
+ALTER TABLE albums ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE albums ADD COLUMN IF NOT EXISTS content_length BIGINT;
+
 CREATE TABLE IF NOT EXISTS badges (
     id SERIAL,
     vet_id varchar(255),
@@ -0,0 +1,132 @@
+package com.petclinic.vet.dataaccesslayer;
+
+import com.petclinic.vet.dataaccesslayer.blobs.Blob;
+import com.petclinic.vet.dataaccesslayer.blobs.FileSystemBlobStore;
+import com.petclinic.vet.utils.exceptions.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemBlobStoreTest {
+
+    private static final String CONTENT = "abcdefghijklmnopqrstuvwxyz";
+    // SHA-256 of the alphabet
+    private static final String CONTENT_HASH = "71c480df93d6ae2f1efad1447c66c9525e316218cf51fc8d9ed832f2daf18b73";
+
+    @TempDir
+    Path root;
+
+    FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new FileSystemBlobStore(root, 4);
+    }
+
+    @Test
+    void whenContentIsWritten_thenItIsStoredByItsHash() {
+        Blob blob = blobStore.write(buffers("abcdefghij", "klmnopqrstuvw", "xyz")).block();
+
+        assertEquals(new Blob(CONTENT_HASH, CONTENT.length()), blob);
+        assertEquals(CONTENT, read(blobStore.read(blob)));
+        assertEquals(blob, blobStore.find(CONTENT_HASH).block());
+    }
+
+    @Test
+    void whenARangeIsRead_thenOnlyItsBytesAreSent() {
+        Blob blob = blobStore.write(buffers(CONTENT)).block();
+
+        assertEquals("fghijklm", read(blobStore.read(blob.getHash(), 5, 8)));
+        assertEquals("xyz", read(blobStore.read(blob.getHash(), 23, 100)));
+        assertEquals("", read(blobStore.read(blob.getHash(), 26, 1)));
+    }
+
+    @Test
+    void whenTheSameContentIsWrittenTwice_thenItIsStoredOnce() throws Exception {
+        blobStore.write(buffers(CONTENT)).block();
+        blobStore.write(buffers("abcdefghijklm", "nopqrstuvwxyz")).block();
+
+        try (Stream<Path> blobs = Files.list(root.resolve("blobs").resolve(CONTENT_HASH.substring(0, 2)))) {
+            assertEquals(1, blobs.count());
+        }
+        try (Stream<Path> uploads = Files.list(root.resolve("uploads"))) {
+            assertEquals(0, uploads.count());
+        }
+    }
+
+    @Test
+    void whenAnUntouchedBlobIsDeleted_thenItCannotBeFound() {
+        blobStore.write(buffers(CONTENT)).block();
+
+        assertEquals(true, blobStore.deleteIfUntouchedFor(CONTENT_HASH, Duration.ZERO).block());
+
+        StepVerifier.create(blobStore.find(CONTENT_HASH))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenAnOldBlobIsWrittenAgain_thenItIsNotDeleted() throws Exception {
+        blobStore.write(buffers(CONTENT)).block();
+        Path directory = root.resolve("blobs").resolve(CONTENT_HASH.substring(0, 2)).resolve(CONTENT_HASH);
+        Files.setLastModifiedTime(directory, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        blobStore.write(buffers(CONTENT)).block();
+
+        assertEquals(false, blobStore.deleteIfUntouchedFor(CONTENT_HASH, Duration.ofHours(1)).block());
+        assertEquals(CONTENT, read(blobStore.read(CONTENT_HASH, 0, CONTENT.length())));
+    }
+
+    @Test
+    void whenBlobsAreStored_thenTheirHashesAreListed() {
+        blobStore.write(buffers(CONTENT)).block();
+
+        StepVerifier.create(blobStore.hashes())
+                .expectNext(CONTENT_HASH)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenTheBlobIsMissing_thenReadingItFails() {
+        StepVerifier.create(blobStore.read(CONTENT_HASH, 0, 10))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void whenTheHashIsNotAHash_thenItIsRejected() {
+        StepVerifier.create(blobStore.read("../../etc/passwd", 0, 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static Flux<DataBuffer> buffers(String... parts) {
+        return Flux.fromArray(parts)
+                .map(part -> DefaultDataBufferFactory.sharedInstance.wrap(part.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String read(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers)
+                .map(buffer -> {
+                    String content = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return content;
+                })
+                .defaultIfEmpty("")
+                .block();
+    }
+}
@@ -0,0 +1,82 @@
+package com.petclinic.vet.dataaccesslayer;
+
+import com.petclinic.vet.dataaccesslayer.albums.Album;
+import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.blobs.FileSystemBlobStore;
+import com.petclinic.vet.dataaccesslayer.blobs.InlineImageMigration;
+import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class InlineImageMigrationTest {
+
+    private static final byte[] IMAGE = "abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+    // SHA-256 of the alphabet
+    private static final String IMAGE_HASH = "71c480df93d6ae2f1efad1447c66c9525e316218cf51fc8d9ed832f2daf18b73";
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore blobStore;
+    private final AlbumRepository albumRepository = mock(AlbumRepository.class);
+    private final PhotoRepository photoRepository = mock(PhotoRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new FileSystemBlobStore(root, 4);
+        when(photoRepository.findIdsOfInlineImages()).thenReturn(Flux.empty());
+        when(albumRepository.save(any(Album.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void whenTheBlobStoreIsNotDurable_thenRowsKeepTheirImage() {
+        Album album = Album.builder().id(1).data(IMAGE).build();
+        when(albumRepository.findIdsOfInlineImages()).thenReturn(Flux.just(1));
+        when(albumRepository.findById(1)).thenReturn(Mono.just(album));
+
+        new InlineImageMigration(blobStore, albumRepository, photoRepository, false).moveInlineImages();
+
+        verify(albumRepository, timeout(5000)).save(argThat(saved ->
+                IMAGE_HASH.equals(saved.getContentHash()) && saved.getData() != null));
+        assertNotNull(blobStore.find(IMAGE_HASH).block());
+    }
+
+    @Test
+    void whenTheBlobStoreIsNotDurable_thenImagesAlreadyMovedAreStoredAgain() {
+        Album album = Album.builder().id(1).data(IMAGE).contentHash(IMAGE_HASH).contentLength((long) IMAGE.length).build();
+        when(albumRepository.findIdsOfInlineImages()).thenReturn(Flux.just(1));
+        when(albumRepository.findById(1)).thenReturn(Mono.just(album));
+
+        new InlineImageMigration(blobStore, albumRepository, photoRepository, false).moveInlineImages();
+
+        verify(albumRepository, timeout(5000).times(1)).findById(1);
+        Mono.defer(() -> blobStore.find(IMAGE_HASH))
+                .repeatWhenEmpty(100, attempts -> attempts.delayElements(Duration.ofMillis(50)))
+                .block();
+        verify(albumRepository, never()).save(any(Album.class));
+    }
+
+    @Test
+    void whenTheBlobStoreIsDurable_thenRowsNoLongerKeepTheirImage() {
+        Album album = Album.builder().id(1).data(IMAGE).build();
+        when(albumRepository.findIdsOfInlineImages()).thenReturn(Flux.just(1));
+        when(albumRepository.findById(1)).thenReturn(Mono.just(album));
+
+        new InlineImageMigration(blobStore, albumRepository, photoRepository, true).moveInlineImages();
+
+        verify(albumRepository, timeout(5000)).save(argThat(saved ->
+                IMAGE_HASH.equals(saved.getContentHash()) && saved.getData() == null));
+    }
+}
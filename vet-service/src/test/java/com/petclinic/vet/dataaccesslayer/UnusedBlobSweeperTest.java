@@ -0,0 +1,47 @@
+package com.petclinic.vet.dataaccesslayer;
+
+import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.blobs.BlobStore;
+import com.petclinic.vet.dataaccesslayer.blobs.UnusedBlobSweeper;
+import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UnusedBlobSweeperTest {
+
+    private static final String USED = "a".repeat(64);
+    private static final String UNUSED = "b".repeat(64);
+
+    private final BlobStore blobStore = mock(BlobStore.class);
+    private final AlbumRepository albumRepository = mock(AlbumRepository.class);
+    private final PhotoRepository photoRepository = mock(PhotoRepository.class);
+
+    private UnusedBlobSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new UnusedBlobSweeper(blobStore, albumRepository, photoRepository, 60_000);
+        when(blobStore.hashes()).thenReturn(Flux.just(USED, UNUSED));
+        when(albumRepository.countByContentHash(USED)).thenReturn(Mono.just(0L));
+        when(photoRepository.countByContentHash(USED)).thenReturn(Mono.just(1L));
+        when(albumRepository.countByContentHash(UNUSED)).thenReturn(Mono.just(0L));
+        when(photoRepository.countByContentHash(UNUSED)).thenReturn(Mono.just(0L));
+        when(blobStore.deleteIfUntouchedFor(anyString(), any())).thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void whenBlobsAreSwept_thenOnlyTheUnusedOnesAreDeletedAfterTheGracePeriod() {
+        sweeper.sweep();
+
+        verify(blobStore).deleteIfUntouchedFor(UNUSED, Duration.ofMinutes(1));
+        verify(blobStore, never()).deleteIfUntouchedFor(eq(USED), any());
+    }
+}
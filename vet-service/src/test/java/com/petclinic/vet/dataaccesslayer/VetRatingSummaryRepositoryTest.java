@@ -0,0 +1,110 @@
+package com.petclinic.vet.dataaccesslayer;
+
+import com.petclinic.vet.dataaccesslayer.ratings.Rating;
+import com.petclinic.vet.dataaccesslayer.ratings.RatingRepository;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummary;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.r2dbc.init.R2dbcScriptDatabaseInitializer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@ActiveProfiles("test")
+class VetRatingSummaryRepositoryTest {
+    @Autowired
+    VetRatingSummaryRepository vetRatingSummaryRepository;
+
+    @Autowired
+    RatingRepository ratingRepository;
+
+    //To counter missing bean error
+    @MockBean
+    ConnectionFactoryInitializer connectionFactoryInitializer;
+    @MockBean
+    R2dbcScriptDatabaseInitializer r2dbcScriptDatabaseInitializer;
+
+    private static final String VET_ID = "summary-vet";
+
+    @BeforeEach
+    void setUp() {
+        StepVerifier.create(vetRatingSummaryRepository.deleteAll().then(ratingRepository.deleteAll()))
+                .verifyComplete();
+    }
+
+    @Test
+    void applyChange_WhenRatingsAreAdded_ShouldCreateThenUpdateTheSummary() {
+        StepVerifier.create(vetRatingSummaryRepository.applyChange(VET_ID, null, 5.0)
+                        .then(vetRatingSummaryRepository.applyChange(VET_ID, null, 2.0))
+                        .then(vetRatingSummaryRepository.findById(VET_ID)))
+                .consumeNextWith(summary -> {
+                    assertEquals(2, summary.getCount());
+                    assertEquals(7.0, summary.getSum());
+                    assertEquals(3.5, summary.getAverage());
+                    assertEquals(1, summary.getScoreCount(5));
+                    assertEquals(1, summary.getScoreCount(2));
+                    assertEquals(0, summary.getScoreCount(3));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void applyChange_WhenRatingIsChanged_ShouldMoveItFromOneScoreToTheOther() {
+        StepVerifier.create(vetRatingSummaryRepository.applyChange(VET_ID, null, 5.0)
+                        .then(vetRatingSummaryRepository.applyChange(VET_ID, null, 4.0))
+                        .then(vetRatingSummaryRepository.applyChange(VET_ID, 5.0, 1.0))
+                        .then(vetRatingSummaryRepository.findById(VET_ID)))
+                .consumeNextWith(summary -> {
+                    assertEquals(2, summary.getCount());
+                    assertEquals(5.0, summary.getSum());
+                    assertEquals(2.5, summary.getAverage());
+                    assertEquals(0, summary.getScoreCount(5));
+                    assertEquals(1, summary.getScoreCount(4));
+                    assertEquals(1, summary.getScoreCount(1));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void applyChange_WhenLastRatingIsDeleted_ShouldLeaveAnEmptySummary() {
+        StepVerifier.create(vetRatingSummaryRepository.applyChange(VET_ID, null, 3.0)
+                        .then(vetRatingSummaryRepository.applyChange(VET_ID, 3.0, null))
+                        .then(vetRatingSummaryRepository.findById(VET_ID)))
+                .consumeNextWith(summary -> {
+                    assertEquals(0, summary.getCount());
+                    assertEquals(0.0, summary.getSum());
+                    assertEquals(0.0, summary.getAverage());
+                    assertEquals(0, summary.getScoreCount(3));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void recompute_ShouldReplaceTheSummaryWithTheRatingsOfTheVet() {
+        Rating good = Rating.builder().ratingId("r1").vetId(VET_ID).rateScore(5.0).build();
+        Rating bad = Rating.builder().ratingId("r2").vetId(VET_ID).rateScore(1.0).build();
+        Rating otherVet = Rating.builder().ratingId("r3").vetId("other-vet").rateScore(4.0).build();
+
+        StepVerifier.create(vetRatingSummaryRepository.save(VetRatingSummary.builder().vetId(VET_ID).count(10).sum(10).build())
+                        .thenMany(ratingRepository.saveAll(List.of(good, bad, otherVet)))
+                        .then(vetRatingSummaryRepository.recompute(VET_ID))
+                        .then(vetRatingSummaryRepository.findById(VET_ID)))
+                .consumeNextWith(summary -> {
+                    assertEquals(2, summary.getCount());
+                    assertEquals(6.0, summary.getSum());
+                    assertEquals(3.0, summary.getAverage());
+                    assertEquals(1, summary.getScoreCount(5));
+                    assertEquals(1, summary.getScoreCount(1));
+                })
+                .verifyComplete();
+    }
+}
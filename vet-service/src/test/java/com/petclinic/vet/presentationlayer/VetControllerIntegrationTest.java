@@ -10,6 +10,8 @@ import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
 import com.petclinic.vet.dataaccesslayer.ratings.PredefinedDescription;
 import com.petclinic.vet.dataaccesslayer.ratings.Rating;
 import com.petclinic.vet.dataaccesslayer.ratings.RatingRepository;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummary;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummaryRepository;
 import com.petclinic.vet.dataaccesslayer.vets.Specialty;
 import com.petclinic.vet.dataaccesslayer.vets.Vet;
 import com.petclinic.vet.dataaccesslayer.vets.VetRepository;
@@ -45,6 +47,7 @@ import reactor.test.StepVerifier;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -65,6 +68,9 @@ class VetControllerIntegrationTest {
     @Autowired
     RatingRepository ratingRepository;
 
+    @Autowired
+    VetRatingSummaryRepository vetRatingSummaryRepository;
+
     @Autowired
     EducationRepository educationRepository;
 
@@ -124,6 +130,7 @@ class VetControllerIntegrationTest {
         Mono<Void> clean = badgeRepository.deleteAll()
                 .then(photoRepository.deleteAll())
                 .then(ratingRepository.deleteAll())
+                .then(vetRatingSummaryRepository.deleteAll())
                 .then(educationRepository.deleteAll())
                 .then(vetRepository.deleteAll());
 
@@ -179,6 +186,7 @@ class VetControllerIntegrationTest {
     void getNumberOfRatingsForAVet_WithValidVetId_ShouldSucceed() {
         Publisher<Rating> setup = ratingRepository.deleteAll()
                 .then(vetRepository.save(vet))
+                .then(vetRatingSummaryRepository.save(VetRatingSummary.of(VET_ID, List.of(rating1, rating2))))
                 .thenMany(ratingRepository.save(rating1))
                 .thenMany(ratingRepository.save(rating2));
 
@@ -827,6 +835,7 @@ class VetControllerIntegrationTest {
     void getPercentageOfRatingsByVetId_ShouldSucceed(){
         Publisher<Rating> setup = ratingRepository.deleteAll()
                 .then(vetRepository.save(vet))
+                .then(vetRatingSummaryRepository.save(VetRatingSummary.of(VET_ID, List.of(rating1, rating2))))
                 .thenMany(ratingRepository.save(rating1))
                 .thenMany(ratingRepository.save(rating2));
         StepVerifier
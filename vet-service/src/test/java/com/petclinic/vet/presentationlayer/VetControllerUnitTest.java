@@ -34,6 +34,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
@@ -44,6 +46,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -849,6 +852,59 @@ class VetControllerUnitTest {
                 .updatePhotoByVetId(anyString(), any(Mono.class));
     }
 
+    @Test
+    void addPhotoByVetIdOctet_ShouldStoreTheRawImage() {
+        byte[] image = new byte[]{12, 24, 52, 87};
+
+        when(vetService.updateVetPhoto(anyString(), any()))
+                .thenReturn(Mono.just(vetResponseDTO));
+
+        client.post()
+                .uri("/vets/{vetId}/photos/{photoName}", VET_ID, "vet_photo.png")
+                .contentType(MediaType.IMAGE_PNG)
+                .bodyValue(image)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().isEmpty();
+
+        Mockito.verify(vetService, times(1)).updateVetPhoto(eq(VET_ID), argThat(file ->
+                "vet_photo.png".equals(file.getFileName())
+                        && "image/png".equals(file.getFileType())
+                        && Arrays.equals(image, file.getFileDataAsBytes())));
+    }
+
+    @Test
+    void addPhotoByVetIdOctet_whenPhotoIsLargerThanTheCodecLimit_ShouldStoreIt() {
+        byte[] image = new byte[3 * 1024 * 1024];
+
+        when(vetService.updateVetPhoto(anyString(), any()))
+                .thenReturn(Mono.just(vetResponseDTO));
+
+        client.post()
+                .uri("/vets/{vetId}/photos/{photoName}", VET_ID, "vet_photo.jpg")
+                .contentType(MediaType.IMAGE_JPEG)
+                .bodyValue(image)
+                .exchange()
+                .expectStatus().isCreated();
+
+        Mockito.verify(vetService, times(1)).updateVetPhoto(eq(VET_ID), argThat(file ->
+                file.getFileDataAsBytes().length == image.length));
+    }
+
+    @Test
+    void addPhotoByVetIdOctet_whenPhotoIsLargerThanTheMaxPhotoSize_ShouldReturnPayloadTooLarge() {
+        byte[] image = new byte[16 * 1024 * 1024 + 1];
+
+        client.post()
+                .uri("/vets/{vetId}/photos/{photoName}", VET_ID, "vet_photo.jpg")
+                .contentType(MediaType.IMAGE_JPEG)
+                .bodyValue(image)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+
+        Mockito.verify(vetService, times(0)).updateVetPhoto(anyString(), any());
+    }
+
     @Test
     void getBadgeByVetId_shouldSucceed() throws IOException {
         BadgeResponseDTO badgeResponseDTO = buildBadgeResponseDTO();
@@ -1119,8 +1175,8 @@ class VetControllerUnitTest {
     void whenGetAllAlbumsByVetId_thenReturnAlbums() {
 
         String vetId = "ac9adeb8-625b-11ee-8c99-0242ac120002";
-        Album album1 = new Album(1, vetId, "album1.jpg", "image/jpeg", "mockImageData1".getBytes());
-        Album album2 = new Album(2, vetId, "album2.jpg", "image/jpeg", "mockImageData2".getBytes());
+        Album album1 = new Album(1, vetId, "album1.jpg", "image/jpeg", "mockImageData1".getBytes(), null, null);
+        Album album2 = new Album(2, vetId, "album2.jpg", "image/jpeg", "mockImageData2".getBytes(), null, null);
 
         when(albumService.getAllAlbumsByVetId(vetId))
                 .thenReturn(Flux.just(album1, album2));
@@ -1189,5 +1245,120 @@ class VetControllerUnitTest {
                 .expectStatus().is5xxServerError(); // Expecting 500 Internal Server Error
     }
 
+    @Test
+    void whenGetAlbumPhoto_thenReturnTheImageWithItsETag() {
+        Album album = albumPhoto();
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(album));
+        when(albumService.getAlbumPhotoContent(album, 0, 10))
+                .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("0123456789".getBytes())));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.IMAGE_JPEG)
+                .expectHeader().contentLength(10)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + album.getContentHash() + "\"")
+                .expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .expectBody(String.class).isEqualTo("0123456789");
+    }
+
+    @Test
+    void whenGetAlbumPhotoWithARange_thenReturnOnlyThatPart() {
+        Album album = albumPhoto();
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(album));
+        when(albumService.getAlbumPhotoContent(album, 2, 4))
+                .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("2345".getBytes())));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .header(HttpHeaders.RANGE, "bytes=2-5")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10")
+                .expectHeader().contentLength(4)
+                .expectBody(String.class).isEqualTo("2345");
+    }
+
+    @Test
+    void whenGetAlbumPhotoWithARangePastItsEnd_thenReturnRangeNotSatisfiable() {
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(albumPhoto()));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .header(HttpHeaders.RANGE, "bytes=10-")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */10");
+    }
+
+    @Test
+    void whenGetAlbumPhotoWithItsETag_thenReturnNotModified() {
+        Album album = albumPhoto();
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(album));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + album.getContentHash() + "\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        Mockito.verify(albumService, times(0)).getAlbumPhotoContent(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void whenGetAlbumPhotoOfAnotherVet_thenReturnNotFound() {
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID))
+                .thenReturn(Mono.error(new NotFoundException("Album photo not found: " + ALBUM_ID)));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGetAlbumPhotoNotMovedToTheBlobStoreYet_thenReturnServiceUnavailable() {
+        Album album = Album.builder()
+                .id(ALBUM_ID)
+                .vetId(VET_ID)
+                .filename("album1.jpg")
+                .imgType("image/jpeg")
+                .data("0123456789".getBytes())
+                .build();
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(album));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+
+        Mockito.verify(albumService, times(0)).getAlbumPhotoContent(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void whenGetAlbumPhotoWithoutAnImage_thenReturnNotFound() {
+        Album album = albumPhoto();
+        album.setContentHash(null);
+        album.setContentLength(null);
+        when(albumService.getAlbumPhotoById(VET_ID, ALBUM_ID)).thenReturn(Mono.just(album));
+
+        client.get()
+                .uri("/vets/" + VET_ID + "/albums/" + ALBUM_ID + "/photo")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
 
+    private Album albumPhoto() {
+        return Album.builder()
+                .id(ALBUM_ID)
+                .vetId(VET_ID)
+                .filename("album1.jpg")
+                .imgType("image/jpeg")
+                .contentHash("71c480df93d6ae2f1efad1447c66c9525e316218cf51fc8d9ed832f2daf18b73")
+                .contentLength(10L)
+                .build();
+    }
 }
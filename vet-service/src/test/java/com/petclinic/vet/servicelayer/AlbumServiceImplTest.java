@@ -3,6 +3,9 @@ package com.petclinic.vet.servicelayer;
 import com.petclinic.vet.businesslayer.albums.AlbumService;
 import com.petclinic.vet.dataaccesslayer.albums.Album;
 import com.petclinic.vet.dataaccesslayer.albums.AlbumRepository;
+import com.petclinic.vet.dataaccesslayer.blobs.Blob;
+import com.petclinic.vet.dataaccesslayer.blobs.BlobStore;
+import com.petclinic.vet.dataaccesslayer.photos.PhotoRepository;
 import com.petclinic.vet.domainclientlayer.FilesServiceClient;
 import com.petclinic.vet.utils.exceptions.NotFoundException;
 
@@ -13,10 +16,14 @@ import org.springframework.boot.r2dbc.init.R2dbcScriptDatabaseInitializer;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Flux;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -31,9 +38,14 @@ public class AlbumServiceImplTest {
     @Autowired
     AlbumService albumService;
 
+    @Autowired
+    BlobStore blobStore;
+
     @MockBean
     AlbumRepository albumRepository;
     @MockBean
+    PhotoRepository photoRepository;
+    @MockBean
     FilesServiceClient filesServiceClient;
 
     // To counter missing bean error
@@ -53,8 +65,8 @@ public class AlbumServiceImplTest {
 
     @Test
     void getAllAlbumsByValidVetId() {
-        Album album1 = new Album(1, VET_ID, "album1.jpg", "image/jpeg", albumData);
-        Album album2 = new Album(2, VET_ID, "album2.jpg", "image/jpeg", albumData);
+        Album album1 = new Album(1, VET_ID, "album1.jpg", "image/jpeg", albumData, null, null);
+        Album album2 = new Album(2, VET_ID, "album2.jpg", "image/jpeg", albumData, null, null);
 
         when(albumRepository.findAllByVetId(anyString())).thenReturn(Flux.just(album1, album2));
 
@@ -121,4 +133,64 @@ public class AlbumServiceImplTest {
         verify(albumRepository, times(0)).delete(album);
     }
 
+    @Test
+    void insertAlbumPhoto_shouldStoreTheImageInTheBlobStore() {
+        when(albumRepository.save(any(Album.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        Album saved = albumService.insertAlbumPhoto(VET_ID, "album1.png",
+                Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(albumData))).block();
+
+        assertNotNull(saved);
+        assertEquals("image/png", saved.getImgType());
+        assertEquals(albumData.length, saved.getContentLength());
+        assertNull(saved.getData());
+        byte[] stored = DataBufferUtils.join(albumService.getAlbumPhotoContent(saved, 1, 2))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+        assertArrayEquals(new byte[]{23, 75}, stored);
+    }
+
+    @Test
+    void getAlbumPhotoById_whenTheImageIsMissingFromTheBlobStore_shouldFailWithNotFound() {
+        Album stored = Album.builder()
+                .id(4)
+                .vetId(VET_ID)
+                .filename("album4.jpg")
+                .imgType("image/jpeg")
+                .contentHash("c".repeat(64))
+                .contentLength(3L)
+                .build();
+        when(albumRepository.findById(4)).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(albumService.getAlbumPhotoById(VET_ID, 4))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteAlbumPhotoById_shouldLeaveTheBlobToTheSweeper() {
+        Blob blob = blobStore.write(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(new byte[]{1, 2, 3}))).block();
+        Album stored = Album.builder()
+                .id(3)
+                .vetId(VET_ID)
+                .filename("album3.jpg")
+                .imgType("image/jpeg")
+                .contentHash(blob.getHash())
+                .contentLength(blob.getSize())
+                .build();
+        when(albumRepository.findById(3)).thenReturn(Mono.just(stored));
+        when(albumRepository.delete(stored)).thenReturn(Mono.empty());
+
+        StepVerifier.create(albumService.deleteAlbumPhotoById(VET_ID, 3))
+                .verifyComplete();
+
+        StepVerifier.create(blobStore.find(blob.getHash()))
+                .expectNext(blob)
+                .verifyComplete();
+    }
 }
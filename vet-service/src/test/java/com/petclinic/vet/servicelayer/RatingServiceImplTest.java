@@ -7,6 +7,8 @@ import com.petclinic.vet.businesslayer.ratings.RatingService;
 import com.petclinic.vet.dataaccesslayer.ratings.PredefinedDescription;
 import com.petclinic.vet.dataaccesslayer.ratings.Rating;
 import com.petclinic.vet.dataaccesslayer.ratings.RatingRepository;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummary;
+import com.petclinic.vet.dataaccesslayer.ratings.VetRatingSummaryRepository;
 import com.petclinic.vet.dataaccesslayer.vets.Vet;
 import com.petclinic.vet.dataaccesslayer.vets.VetRepository;
 import com.petclinic.vet.domainclientlayer.FilesServiceClient;
@@ -21,6 +23,7 @@ import org.springframework.boot.r2dbc.init.R2dbcScriptDatabaseInitializer;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Flux;
@@ -29,12 +32,15 @@ import reactor.test.StepVerifier;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -52,6 +58,8 @@ class RatingServiceImplTest {
     @MockBean
     VetRepository vetRepository;
     @MockBean
+    VetRatingSummaryRepository vetRatingSummaryRepository;
+    @MockBean
     FilesServiceClient filesServiceClient;
 
     //To counter missing bean error
@@ -131,12 +139,15 @@ class RatingServiceImplTest {
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
         when(ratingRepository.findByVetIdAndRatingId(anyString(), anyString())).thenReturn(Mono.just(rating));
         when(ratingRepository.delete(any())).thenReturn(Mono.empty());
+        when(vetRatingSummaryRepository.applyChange(anyString(), any(), any())).thenReturn(Mono.empty());
 
         Mono<Void> deletedRating = ratingService.deleteRatingByRatingId(rating.getVetId(), rating.getRatingId());
 
         StepVerifier
                 .create(deletedRating)
                 .verifyComplete();
+
+        verify(vetRatingSummaryRepository).applyChange(rating.getVetId(), rating.getRateScore(), null);
     }
 
     @Test
@@ -145,6 +156,7 @@ class RatingServiceImplTest {
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
         when(ratingRepository.findAllByVetId(anyString())).thenReturn(Flux.just(rating));
         when(ratingRepository.delete(any())).thenReturn(Mono.empty());
+        when(vetRatingSummaryRepository.applyChange(anyString(), any(), any())).thenReturn(Mono.empty());
 
         Mono<Void> deletedRating = ratingService.deleteRatingByVetIdAndCustomerName(rating.getVetId(), customerName);
 
@@ -200,13 +212,41 @@ class RatingServiceImplTest {
                 });
     }
 
+    @Test
+    void addRatingToVet_ShouldAddItsScoreToTheVetSummary() {
+        when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
+        when(ratingRepository.insert(any(Rating.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(vetRatingSummaryRepository.applyChange(anyString(), any(), any())).thenReturn(Mono.empty());
+
+        StepVerifier
+                .create(ratingService.addRatingToVet(rating.getVetId(), Mono.just(ratingRequestDTO)))
+                .consumeNextWith(added -> assertEquals(ratingRequestDTO.getRateScore(), added.getRateScore()))
+                .verifyComplete();
+
+        verify(vetRatingSummaryRepository).applyChange(ratingRequestDTO.getVetId(), null, ratingRequestDTO.getRateScore());
+    }
+
     @Test
     void updateRatingOfVet(){
-        when(ratingRepository.save(any())).thenReturn(Mono.just(rating));
+        Rating updatedRating = Rating.builder()
+                .id(rating.getId())
+                .ratingId(rating.getRatingId())
+                .vetId(rating.getVetId())
+                .rateScore(2.0)
+                .rateDescription(rating.getRateDescription())
+                .rateDate(rating.getRateDate())
+                .customerName(rating.getCustomerName())
+                .build();
+        RatingRequestDTO updateRequest = RatingRequestDTO.builder()
+                .vetId(rating.getVetId())
+                .rateScore(2.0)
+                .build();
+        when(vetRatingSummaryRepository.applyChange(anyString(), any(), any())).thenReturn(Mono.empty());
+        when(ratingRepository.save(any())).thenReturn(Mono.just(updatedRating));
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
         when(ratingRepository.findByVetIdAndRatingId(anyString(), anyString())).thenReturn(Mono.just(rating));
 
-        Mono<RatingResponseDTO> ratingResponseDTO=ratingService.updateRatingByVetIdAndRatingId(existingVet.getVetId(), rating.getRatingId(), Mono.just(ratingRequestDTO));
+        Mono<RatingResponseDTO> ratingResponseDTO=ratingService.updateRatingByVetIdAndRatingId(existingVet.getVetId(), rating.getRatingId(), Mono.just(updateRequest));
 
         StepVerifier
                 .create(ratingResponseDTO)
@@ -214,18 +254,20 @@ class RatingServiceImplTest {
                     assertNotNull(rating.getId());
                     assertEquals(rating.getRatingId(), existingRating.getRatingId());
                     assertEquals(rating.getVetId(), existingRating.getVetId());
-                    assertEquals(rating.getRateScore(), existingRating.getRateScore());
+                    assertEquals(2.0, existingRating.getRateScore());
                     assertEquals(rating.getRateDate(), existingRating.getRateDate());
                     assertEquals(rating.getRateDescription(), existingRating.getRateDescription());
                 })
                 .verifyComplete();
+
+        verify(vetRatingSummaryRepository).applyChange(rating.getVetId(), 5.0, 2.0);
     }
 
     @Test
     void getNumberOfRatingsByVetId() {
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
-        when(ratingRepository.countAllByVetId(anyString())).thenReturn(Mono.just(1L));
+        when(vetRatingSummaryRepository.findById(anyString())).thenReturn(Mono.just(VetRatingSummary.of(rating.getVetId(), List.of(rating))));
 
         Mono<Integer> numberOfRatings = ratingService.getNumberOfRatingsByVetId(rating.getVetId());
 
@@ -240,8 +282,7 @@ class RatingServiceImplTest {
 
     @Test
     void getAverageRatingByVetId() {
-        when(ratingRepository.countAllByVetId(anyString())).thenReturn(Mono.just(1L));
-        when(ratingRepository.findAllByVetId(anyString())).thenReturn(Flux.just(rating));
+        when(vetRatingSummaryRepository.findById(anyString())).thenReturn(Mono.just(VetRatingSummary.of(rating.getVetId(), List.of(rating))));
 
         Mono<Double> averageRating = ratingService.getAverageRatingByVetId(rating.getVetId());
 
@@ -308,27 +349,27 @@ class RatingServiceImplTest {
                 .build();
 
 
-        when(ratingRepository.countAllByVetId(anyString())).thenReturn(Mono.just(5L));
         when(vetRepository.findVetByVetId(rating.getVetId())).thenReturn(Mono.just(vet1));
         when(vetRepository.findVetByVetId(rating2.getVetId())).thenReturn(Mono.just(vet2));
         when(vetRepository.findVetByVetId(rating3.getVetId())).thenReturn(Mono.just(vet3));
 
 
 
-        when(ratingRepository.findAll()).thenReturn(Flux.just(rating,rating2,rating3));
-
-        when(ratingRepository.findAllByVetId(rating.getVetId())).thenReturn(Flux.just(rating));
-        when(ratingRepository.findAllByVetId(rating2.getVetId())).thenReturn(Flux.just(rating2));
-        when(ratingRepository.findAllByVetId(rating3.getVetId())).thenReturn(Flux.just(rating3));
+        when(vetRatingSummaryRepository.findByCountGreaterThanOrderByAverageDesc(0, PageRequest.of(0, 3))).thenReturn(Flux.just(
+                VetRatingSummary.of(rating.getVetId(), List.of(rating)),
+                VetRatingSummary.of(rating3.getVetId(), List.of(rating3)),
+                VetRatingSummary.of(rating2.getVetId(), List.of(rating2))));
 
 
         Flux<VetAverageRatingDTO> averageRatingDTOFlux = ratingService.getTopThreeVetsWithHighestAverageRating();
 
         StepVerifier
-                .create(averageRatingDTOFlux)
-                .expectNextCount(3)
+                .create(averageRatingDTOFlux.map(VetAverageRatingDTO::getAverageRating))
+                .expectNext(4.0, 2.0, 1.0)
                 .verifyComplete();
 
+        verify(ratingRepository, never()).findAll();
+
     }
     @Test
     void getRatingBasedOnDate()throws JsonProcessingException{
@@ -377,7 +418,7 @@ class RatingServiceImplTest {
     @Test
     void getRatingPercentagesByVetId() throws JsonProcessingException {
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
-        when(ratingRepository.findAllByVetId(anyString())).thenReturn(Flux.just(rating));
+        when(vetRatingSummaryRepository.findById(anyString())).thenReturn(Mono.just(VetRatingSummary.of(rating.getVetId(), List.of(rating))));
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"1.0\":0.0,\"2.0\":0.0,\"4.0\":0.0,\"5.0\":1.0,\"3.0\":0.0}");
         Mono<String> ratingPercent = ratingService.getRatingPercentagesByVetId(rating.getVetId());
 
@@ -394,7 +435,7 @@ class RatingServiceImplTest {
     @Test
     void getRatingPercentagesByVetIdError() throws JsonProcessingException {
         when(vetRepository.findVetByVetId(anyString())).thenReturn(Mono.just(existingVet));
-        when(ratingRepository.findAllByVetId(anyString())).thenReturn(Flux.empty());
+        when(vetRatingSummaryRepository.findById(anyString())).thenReturn(Mono.empty());
         when(objectMapper.writeValueAsString(any())).thenThrow(JsonProcessingException.class);
         Mono<String> ratingPercent = ratingService.getRatingPercentagesByVetId(rating.getVetId());
 
@@ -1,6 +1,7 @@
 package com.petclinic.visits.visitsservicenew.BusinessLayer.Availability;
 
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetDTO;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.DayAvailabilityDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.TimeSlotDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -12,4 +13,5 @@ public interface AvailabilityService {
     Mono<VetDTO> getVeterinarianAvailability(String vetId);
     Flux<TimeSlotDTO> getAvailableTimeSlotsForDate(String vetId, LocalDate date);
     Flux<LocalDate> getAvailableDatesForVet(String vetId, LocalDate startDate, LocalDate endDate);
+    Flux<DayAvailabilityDTO> getAvailabilityCalendar(String vetId, LocalDate startDate, LocalDate endDate);
 }
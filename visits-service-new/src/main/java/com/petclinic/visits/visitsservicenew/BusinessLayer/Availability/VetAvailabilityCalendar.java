@@ -0,0 +1,256 @@
+package com.petclinic.visits.visitsservicenew.BusinessLayer.Availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlotRepo;
+import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetsClient;
+import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.DayAvailabilityDTO;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.TimeSlotDTO;
+import com.petclinic.visits.visitsservicenew.Utils.WorkHourParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory availability of each vet. A vet's weekly schedule is parsed once into one bitset of working hours per
+ * day of the week, and the booked hours of a month are loaded in one indexed query on the visit slots into one
+ * bitset per day. Availability of a day is then the working hours minus the booked hours.
+ * <p>
+ * New bookings are added to the loaded months as they happen. A released slot may share its hour with another
+ * visit, so releasing drops the month, which is loaded again on the next query. A month loaded while a booking or
+ * a release of the same vet was under way is served but not kept, as it may predate that change. Bookings made
+ * through other instances show up when a month expires, after app.availability.bookings-ttl-seconds; the slot index
+ * stays the authority when a visit is booked.
+ * <p>
+ * Schedules and months are kept in caches bounded by app.availability.max-entries. Lookups that fail, an unknown
+ * vet for instance, are not kept.
+ */
+@Slf4j
+@Component
+public class VetAvailabilityCalendar {
+
+    private static final int CHANGE_STRIPES = 64;
+
+    private final VetsClient vetsClient;
+    private final VisitSlotRepo visitSlotRepo;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<String, WeeklySchedule> schedules;
+    private final Cache<BookingKey, MonthBookings> bookings;
+    // changes of the months falling in each stripe, to tell whether a month changed while it was being loaded
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    public VetAvailabilityCalendar(VetsClient vetsClient,
+                                   VisitSlotRepo visitSlotRepo,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.availability.schedule-ttl-seconds:300}") long scheduleTtlSeconds,
+                                   @Value("${app.availability.bookings-ttl-seconds:60}") long bookingsTtlSeconds,
+                                   @Value("${app.availability.max-entries:10000}") long maxEntries) {
+        this.vetsClient = vetsClient;
+        this.visitSlotRepo = visitSlotRepo;
+        this.objectMapper = objectMapper;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(scheduleTtlSeconds))
+                .buildAsync();
+        this.bookings = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(bookingsTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Availability of every working day of a vet between two dates, both included
+     *
+     * @return The working days in order, or NotFoundException if the vet does not exist
+     */
+    public Flux<DayAvailabilityDTO> getDays(String vetId, LocalDate startDate, LocalDate endDate) {
+        return schedule(vetId)
+                .switchIfEmpty(Mono.error(new NotFoundException("No veterinarian found with vetId: " + vetId)))
+                .flatMapMany(schedule -> {
+                    List<LocalDate> workingDays = startDate.datesUntil(endDate.plusDays(1))
+                            .filter(date -> schedule.hours(date) != 0)
+                            .toList();
+                    if (workingDays.isEmpty()) {
+                        return Flux.empty();
+                    }
+
+                    return Flux.fromStream(workingDays.stream().map(YearMonth::from).distinct())
+                            .concatMap(month -> monthBookings(vetId, month))
+                            .collectMap(MonthBookings::getMonth)
+                            .flatMapIterable(months -> workingDays.stream()
+                                    .map(date -> toDay(date, schedule.hours(date), months.get(YearMonth.from(date)).booked(date)))
+                                    .toList());
+                });
+    }
+
+    /**
+     * Count a new booking in the loaded month it falls in
+     */
+    public void book(String vetId, LocalDateTime slotStart) {
+        if (vetId == null || slotStart == null) {
+            return;
+        }
+        BookingKey key = new BookingKey(vetId, YearMonth.from(slotStart));
+        changes.incrementAndGet(key.stripe());
+        MonthBookings month = bookings.getIfPresent(key);
+        if (month != null) {
+            month.book(slotStart);
+        }
+    }
+
+    /**
+     * Forget the loaded month of a released slot, so that it is loaded again on the next query
+     */
+    public void release(String vetId, LocalDateTime slotStart) {
+        if (vetId == null || slotStart == null) {
+            return;
+        }
+        BookingKey key = new BookingKey(vetId, YearMonth.from(slotStart));
+        changes.incrementAndGet(key.stripe());
+        bookings.invalidate(key);
+    }
+
+    // a vet that is not found completes the load with no schedule, which the cache drops like a failed load
+    private Mono<WeeklySchedule> schedule(String vetId) {
+        return Mono.fromFuture(() -> schedules.get(vetId, (id, executor) -> vetsClient.getVetByVetId(id)
+                        .map(vet -> WeeklySchedule.parse(vet.getWorkHoursJson(), objectMapper))
+                        .toFuture()), true);
+    }
+
+    private Mono<MonthBookings> monthBookings(String vetId, YearMonth month) {
+        BookingKey key = new BookingKey(vetId, month);
+        MonthBookings loaded = bookings.getIfPresent(key);
+        if (loaded != null) {
+            return Mono.just(loaded);
+        }
+
+        return Mono.defer(() -> {
+            long changesBefore = changes.get(key.stripe());
+            MonthBookings fresh = new MonthBookings(month);
+            return visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(
+                            vetId, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay())
+                    .doOnNext(slot -> fresh.book(slot.getSlotStart()))
+                    .then(Mono.fromSupplier(() -> bookings.asMap().compute(key, (k, current) -> {
+                        if (current != null) {
+                            return current;
+                        }
+                        return changes.get(k.stripe()) == changesBefore ? fresh : null;
+                    })))
+                    .defaultIfEmpty(fresh);
+        });
+    }
+
+    private static DayAvailabilityDTO toDay(LocalDate date, int workingHours, int bookedHours) {
+        List<TimeSlotDTO> slots = new ArrayList<>(Integer.bitCount(workingHours));
+        boolean available = false;
+        for (int hours = workingHours; hours != 0; hours &= hours - 1) {
+            int hour = Integer.numberOfTrailingZeros(hours);
+            boolean free = (bookedHours & 1 << hour) == 0;
+            slots.add(new TimeSlotDTO(date.atTime(hour, 0), date.atTime(hour, 0).plusHours(1), free));
+            available |= free;
+        }
+        return new DayAvailabilityDTO(date, slots, available);
+    }
+
+    private record BookingKey(String vetId, YearMonth month) {
+        int stripe() {
+            return (hashCode() & Integer.MAX_VALUE) % CHANGE_STRIPES;
+        }
+    }
+
+    /**
+     * Working hours of a vet, one bitset per day of the week where bit h stands for the hour starting at h
+     */
+    static final class WeeklySchedule {
+        private final int[] hoursByDay = new int[7];
+
+        int hours(LocalDate date) {
+            return hoursByDay[date.getDayOfWeek().getValue() - 1];
+        }
+
+        static WeeklySchedule parse(String workHoursJson, ObjectMapper objectMapper) {
+            WeeklySchedule schedule = new WeeklySchedule();
+            if (workHoursJson == null || workHoursJson.isBlank()) {
+                return schedule;
+            }
+
+            Map<String, List<String>> workHoursMap;
+            try {
+                workHoursMap = objectMapper.readValue(workHoursJson, new TypeReference<Map<String, List<String>>>() {});
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to parse workHoursJson. Returning empty schedule. Invalid JSON: '{}'. Error: {}",
+                        workHoursJson, e.getMessage());
+                return schedule;
+            }
+
+            workHoursMap.forEach((dayName, workHours) -> {
+                if (workHours == null) {
+                    return;
+                }
+                int day;
+                try {
+                    day = DayOfWeek.valueOf(dayName.toUpperCase()).getValue() - 1;
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring work hours of unknown day '{}'", dayName);
+                    return;
+                }
+                for (String workHour : workHours) {
+                    try {
+                        int start = WorkHourParser.getStartTime(workHour).getHour();
+                        int end = WorkHourParser.getEndTime(workHour).getHour();
+                        for (int hour = start; hour < end; hour++) {
+                            schedule.hoursByDay[day] |= 1 << hour;
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Ignoring invalid work hour '{}' of {}", workHour, dayName);
+                    }
+                }
+            });
+            return schedule;
+        }
+    }
+
+    /**
+     * Booked hours of a vet in one month, one bitset per day of the month
+     */
+    static final class MonthBookings {
+        private final YearMonth month;
+        private final AtomicIntegerArray bookedHours;
+
+        MonthBookings(YearMonth month) {
+            this.month = month;
+            this.bookedHours = new AtomicIntegerArray(month.lengthOfMonth());
+        }
+
+        YearMonth getMonth() {
+            return month;
+        }
+
+        void book(LocalDateTime slotStart) {
+            int hour = 1 << slotStart.getHour();
+            bookedHours.getAndUpdate(slotStart.getDayOfMonth() - 1, booked -> booked | hour);
+        }
+
+        int booked(LocalDate date) {
+            return bookedHours.get(date.getDayOfMonth() - 1);
+        }
+    }
+}
@@ -15,9 +15,11 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
+    private final IdGenerator idGenerator;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, IdGenerator idGenerator) {
         this.reviewRepository = reviewRepository;
+        this.idGenerator = idGenerator;
     }
 
     @Override
@@ -32,10 +34,11 @@ public class ReviewServiceImpl implements ReviewService {
         return reviewRequestDTOMono
                 .map(EntityDtoUtil::toReviewEntity)
                 // Generate new ID with current date and incremented sequence
-                .flatMap(review -> {
-                    review.setReviewId(IdGenerator.generateReviewId());
-                    return reviewRepository.save(review);
-                })
+                .flatMap(review -> idGenerator.generateReviewId()
+                        .flatMap(reviewId -> {
+                            review.setReviewId(reviewId);
+                            return reviewRepository.save(review);
+                        }))
                 .map(EntityDtoUtil::toReviewResponseDTO);
     }
 
@@ -1,11 +1,15 @@
 package com.petclinic.visits.visitsservicenew.BusinessLayer;
 
+import com.petclinic.visits.visitsservicenew.DataLayer.Status;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitBookingResultDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitRequestDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitResponseDTO;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 /**
  * Simple interface for all the request controller. Implemented in VisitServiceImpl
  */
@@ -23,6 +27,8 @@ public interface VisitService {
 
     Mono<VisitResponseDTO> addVisit(Mono<VisitRequestDTO> visitRequestDTOMono);
 
+    Flux<VisitBookingResultDTO> addVisits(Flux<VisitRequestDTO> visitRequestDTOs);
+
     Mono<VisitResponseDTO> updateVisit(String visitId, Mono<VisitRequestDTO> visitRequestDTOMono);
 
     Mono<VisitResponseDTO> updateStatusForVisitByVisitId(String visitId, String status);
@@ -38,7 +44,7 @@ public interface VisitService {
 
     Flux<VisitResponseDTO> getAllArchivedVisits();
 
-    Mono<InputStreamResource> exportVisitsToCSV();
+    Flux<DataBuffer> exportVisitsToCSV(LocalDate from, LocalDate to, Status status, boolean gzip);
 
 //    Mono<VetDTO> testingGetVetDTO(String vetId);
 //    Mono<PetResponseDTO> testingGetPetDTO(int petId);
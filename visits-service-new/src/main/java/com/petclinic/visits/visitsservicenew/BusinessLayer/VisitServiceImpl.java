@@ -1,9 +1,12 @@
 package com.petclinic.visits.visitsservicenew.BusinessLayer;
 
+import com.petclinic.visits.visitsservicenew.BusinessLayer.Availability.VetAvailabilityCalendar;
 import com.petclinic.visits.visitsservicenew.BusinessLayer.Prescriptions.PrescriptionService;
 import com.petclinic.visits.visitsservicenew.DataLayer.Status;
 import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
 import com.petclinic.visits.visitsservicenew.DataLayer.VisitRepo;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlot;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlotRepo;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Auth.AuthServiceClient;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Auth.UserDetails;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.FileService.FilesServiceClient;
@@ -16,21 +19,24 @@ import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetsClient;
 import com.petclinic.visits.visitsservicenew.Exceptions.BadRequestException;
 import com.petclinic.visits.visitsservicenew.Exceptions.DuplicateTimeException;
 import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitBookingResultDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitRequestDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitResponseDTO;
 import com.petclinic.visits.visitsservicenew.Utils.EntityDtoUtil;
 import com.petclinic.visits.visitsservicenew.Utils.IdGenerator;
+import com.petclinic.visits.visitsservicenew.Utils.VisitCsvWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
@@ -60,6 +66,20 @@ public class VisitServiceImpl implements VisitService {
 
     private final PrescriptionService prescriptionService;
     private final FilesServiceClient filesServiceClient;
+    /**
+     * Slots held by visits, unique per vet and start time
+     */
+    private final VisitSlotRepo slotRepo;
+    private final IdGenerator idGenerator;
+    /**
+     * Kept up to date with the slots booked and released here
+     */
+    private final VetAvailabilityCalendar availabilityCalendar;
+
+    /**
+     * Number of bookings of a bulk request worked on at once
+     */
+    private static final int BULK_BOOKING_CONCURRENCY = 8;
 
     /**
      * Get all visits from the repo
@@ -75,8 +95,7 @@ public class VisitServiceImpl implements VisitService {
         } else {
             visits = repo.findAll();
         }
-        return visits.flatMap(entityDtoUtil::toVisitResponseDTO);
-        //return repo.findAll().flatMap(entityDtoUtil::toVisitResponseDTO);
+        return entityDtoUtil.toVisitResponseDTOs(visits);
     }
 
     /**
@@ -89,8 +108,7 @@ public class VisitServiceImpl implements VisitService {
     public Flux<VisitResponseDTO> getVisitsForPet(String petId) {
         return validatePetId(petId)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("No pet was found with petId: " + petId))))
-                .thenMany(repo.findByPetId(petId)
-                        .flatMap(entityDtoUtil::toVisitResponseDTO));
+                .thenMany(entityDtoUtil.toVisitResponseDTOs(repo.findByPetId(petId)));
     }
 
     /**
@@ -124,8 +142,7 @@ public class VisitServiceImpl implements VisitService {
                 status = Status.COMPLETED;
                 break;
         }
-        return repo.findAllByStatus(statusString)
-                .flatMap(entityDtoUtil::toVisitResponseDTO);
+        return entityDtoUtil.toVisitResponseDTOs(repo.findAllByStatus(statusString));
     }
 
     /**
@@ -138,8 +155,7 @@ public class VisitServiceImpl implements VisitService {
     public Flux<VisitResponseDTO> getVisitsForPractitioner(String vetId) {
         return validateVetId(vetId)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("No vet was found with vetId: " + vetId))))
-                .thenMany(repo.findVisitsByPractitionerId(vetId))
-                .flatMap(entityDtoUtil::toVisitResponseDTO);
+                .thenMany(entityDtoUtil.toVisitResponseDTOs(repo.findVisitsByPractitionerId(vetId)));
     }
 
     /**
@@ -190,52 +206,109 @@ public class VisitServiceImpl implements VisitService {
                         .then(validatePetId(visitRequestDTO.getPetId()))//Validate the pet
                         .then(validateVetId(visitRequestDTO.getPractitionerId()))// Validate the Vet
                         .then(Mono.just(visitRequestDTO)) // Used to say we are continuing work with the RequestDTO
-                        .doOnNext(s -> {
-
-                            authServiceClient.getUserById(
-                                            visitRequestDTO.getJwtToken(),
-                                            visitRequestDTO.getOwnerId())
-                                    .subscribe(
-                                            //WILL HAVE TO BET MODIFIED IN ORDER TO USE THE NEW MAIL SERVICE
-                                            user -> mailService
-                                                    .sendMail(
-                                                            generateVisitRequestEmail(
-                                                                    user,
-                                                                    visitRequestDTO
-                                                                            .getPetId(),
-                                                                    visitRequestDTO
-                                                                            .getVisitDate()
-                                                            )
-                                                    )
-                                    );
-
-                            //                    Mono<UserDetails> user = getUserById(auth, ownerId);
-                            //                    try{
-                            //                        simpleJavaMailClient.sendMail(emailBuilder("test@email.com"));
-                            //                    }catch(Exception e){System.out.println("Email failed to send: "+e.getMessage());}
-                        })
+                        //Converts Request DTO ( JSON ) into an entity
+                        .map(entityDtoUtil::toVisitEntity)
+                        .flatMap(this::insertWithSlot)
+                        .doOnNext(visit -> sendVisitRequestEmail(visitRequestDTO))
                 )
-//                .doOnNext(v -> System.out.println("Request Date: " + v.getVisitDate())) // Debugging
-
-                //Converts Request DTO ( JSON ) into an entity
-                .map(entityDtoUtil::toVisitEntity)
-                // Generate new ID with current date and incremented sequence
-                .flatMap(visit -> {
-                    visit.setVisitId(IdGenerator.generateVisitId());
-                    return repo.findByVisitDateAndPractitionerId(visit.getVisitDate(), visit.getPractitionerId()) // FindVisits method in repository
-                            .collectList()
-                            .flatMap(existingVisits -> {
-                                if (existingVisits.isEmpty()) {// If there are no existing visits
-                                    return repo.insert(visit); // Insert the visit
-                                } else {
-                                    //return exception if a visits already exists at the specific day and time for a specific practitioner
-                                    return Mono.error(new DuplicateTimeException("A visit with the same time and practitioner already exists."));
-                                }
-                            });
-                })
                 .flatMap(entityDtoUtil::toVisitResponseDTO);
     }
 
+    /**
+     * Book several visits. Requests are booked concurrently, each one reserving its slot on its own, so a conflict or
+     * an invalid request only fails that request. Each pet and vet is checked once for the whole batch.
+     *
+     * @param visitRequestDTOs The visits to book
+     * @return One result per request, in the order they were sent
+     */
+    @Override
+    public Flux<VisitBookingResultDTO> addVisits(Flux<VisitRequestDTO> visitRequestDTOs) {
+        return Flux.defer(() -> {
+            Map<String, Mono<PetResponseDTO>> pets = new ConcurrentHashMap<>();
+            Map<String, Mono<VetDTO>> vets = new ConcurrentHashMap<>();
+
+            return visitRequestDTOs
+                    .index()
+                    .flatMapSequential(indexed -> {
+                        int index = indexed.getT1().intValue();
+                        VisitRequestDTO visitRequestDTO = indexed.getT2();
+
+                        return validateVisitRequest(visitRequestDTO)
+                                .then(Mono.defer(() -> Mono.zip(
+                                        pets.computeIfAbsent(visitRequestDTO.getPetId(), petId -> validatePetId(petId).cache()),
+                                        vets.computeIfAbsent(visitRequestDTO.getPractitionerId(), vetId -> validateVetId(vetId).cache()))))
+                                .flatMap(found -> insertWithSlot(entityDtoUtil.toVisitEntity(visitRequestDTO))
+                                        .doOnNext(visit -> sendVisitRequestEmail(visitRequestDTO))
+                                        .map(visit -> EntityDtoUtil.toVisitResponseDTO(visit, found.getT1(), found.getT2())))
+                                .map(visit -> new VisitBookingResultDTO(index, VisitBookingResultDTO.Outcome.BOOKED, visit, null))
+                                .onErrorResume(DuplicateTimeException.class, ex -> Mono.just(
+                                        new VisitBookingResultDTO(index, VisitBookingResultDTO.Outcome.CONFLICT, null, ex.getMessage())))
+                                .onErrorResume(ex -> Mono.just(
+                                        new VisitBookingResultDTO(index, VisitBookingResultDTO.Outcome.REJECTED, null, ex.getMessage())));
+                    }, BULK_BOOKING_CONCURRENCY);
+        });
+    }
+
+    /**
+     * Give the visit an ID, reserve its slot and insert it. The slot is given back if the visit cannot be saved.
+     *
+     * @param visit The new visit
+     * @return The inserted visit, or DuplicateTimeException if its vet is already booked at that time
+     */
+    private Mono<Visit> insertWithSlot(Visit visit) {
+        // Generate new ID with current date and incremented sequence
+        return idGenerator.generateVisitId()
+                .flatMap(visitId -> {
+                    visit.setVisitId(visitId);
+
+                    VisitSlot slot = VisitSlot.of(visit);
+                    if (slot == null) {
+                        return repo.insert(visit);
+                    }
+                    return reserveSlot(slot)
+                            .then(Mono.defer(() -> repo.insert(visit)))
+                            .onErrorResume(ex -> !(ex instanceof DuplicateTimeException),
+                                    ex -> releaseSlot(slot).then(Mono.error(ex)));
+                });
+    }
+
+    /**
+     * Save a visit whose date, vet or status may have changed. When the visit moves to another slot, the new slot is
+     * reserved before saving and the one it held is given back after.
+     *
+     * @param held  The slot the visit held before the change, or null
+     * @param visit The changed visit
+     * @return The saved visit, or DuplicateTimeException if the new slot is taken
+     */
+    private Mono<Visit> saveWithSlot(VisitSlot held, Visit visit) {
+        VisitSlot slot = VisitSlot.of(visit);
+        if (slot == null ? held == null : slot.isSameSlotAs(held)) {
+            return repo.save(visit);
+        }
+
+        Mono<Visit> save = Mono.defer(() -> repo.save(visit));
+        if (slot != null) {
+            save = reserveSlot(slot)
+                    .then(save)
+                    .onErrorResume(ex -> !(ex instanceof DuplicateTimeException),
+                            ex -> releaseSlot(slot).then(Mono.error(ex)));
+        }
+        return held == null ? save : save.flatMap(saved -> releaseSlot(held).thenReturn(saved));
+    }
+
+    private Mono<Void> reserveSlot(VisitSlot slot) {
+        return slotRepo.insert(slot)
+                .onErrorMap(DuplicateKeyException.class,
+                        ex -> new DuplicateTimeException("A visit with the same time and practitioner already exists."))
+                .doOnNext(reserved -> availabilityCalendar.book(reserved.getPractitionerId(), reserved.getSlotStart()))
+                .then();
+    }
+
+    private Mono<Void> releaseSlot(VisitSlot slot) {
+        return slotRepo.deleteByPractitionerIdAndSlotStartAndVisitId(slot.getPractitionerId(), slot.getSlotStart(), slot.getVisitId())
+                .doFinally(signal -> availabilityCalendar.release(slot.getPractitionerId(), slot.getSlotStart()));
+    }
+
 
     /**
      * Delete a visit with the visit ID.
@@ -249,7 +322,9 @@ public class VisitServiceImpl implements VisitService {
 
         return repo.findByVisitId(visitId)
                 .switchIfEmpty(Mono.error(new NotFoundException("No visit was found with visitId: " + visitId)))
-                .flatMap(foundVisit -> repo.deleteByVisitId(foundVisit.getVisitId()));
+                .flatMap(foundVisit -> repo.deleteByVisitId(foundVisit.getVisitId())
+                        .then(slotRepo.deleteByVisitId(foundVisit.getVisitId()))
+                        .doFinally(signal -> availabilityCalendar.release(foundVisit.getPractitionerId(), foundVisit.getVisitDate())));
     }
 
     /**
@@ -282,41 +357,21 @@ public class VisitServiceImpl implements VisitService {
 
     @Override
     public Flux<VisitResponseDTO> getAllArchivedVisits() {
-        return repo.findAllByStatus("ARCHIVED")
-                .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("No archived visits were found"))))
-                .flatMap(entityDtoUtil::toVisitResponseDTO);
+        return entityDtoUtil.toVisitResponseDTOs(repo.findAllByStatus("ARCHIVED")
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("No archived visits were found")))));
     }
 
     @Override
-    public Mono<InputStreamResource> exportVisitsToCSV() {
-        return repo.findAll()
-                .collectList()
-                .map(visits -> {
-                    // Create a ByteArrayOutputStream to store CSV data
-                    ByteArrayOutputStream out = new ByteArrayOutputStream();
-                    PrintWriter writer = new PrintWriter(out);
-
-                    // Write CSV header
-                    writer.println("VisitId,Description,VisitDate,PetId,PractitionerId,Status");
-
-                    // Write rows for each visit
-                    visits.forEach(visit -> {
-                        writer.println(String.join(",",
-                                visit.getVisitId(),
-                                "\"" + visit.getDescription().replace("\"", "\"\"") + "\"", // Escape quotes for CSV
-                                visit.getVisitDate().toString(),
-                                visit.getPetId(),
-                                visit.getPractitionerId(),
-                                visit.getStatus().toString()
-                        ));
-                    });
-
-                    writer.flush(); // Ensure all data is written
-                    writer.close(); // Close writer to release resources
-
-                    // Convert ByteArrayOutputStream to InputStreamResource
-                    return new InputStreamResource(new ByteArrayInputStream(out.toByteArray()));
-                });
+    public Flux<DataBuffer> exportVisitsToCSV(LocalDate from, LocalDate to, Status status, boolean gzip) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return Flux.error(new BadRequestException("The end date must not be before the start date."));
+        }
+
+        // Rows are written as they come off the cursor, only one chunk of them is held at a time
+        return VisitCsvWriter.write(repo.streamVisits(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                status), gzip);
     }
 
 
@@ -362,8 +417,8 @@ public class VisitServiceImpl implements VisitService {
                                         updatedVisit.setVisitDate(existingVisit.getVisitDate());
                                     }
                                 })
+                                .flatMap(updatedVisit -> saveWithSlot(VisitSlot.of(existingVisit), updatedVisit))
                 )
-                .flatMap(repo::save)
                 .flatMap(entityDtoUtil::toVisitResponseDTO);
     }
 
@@ -405,8 +460,11 @@ public class VisitServiceImpl implements VisitService {
         return repo.findByVisitId(visitId)
                 .switchIfEmpty(Mono.defer(() -> Mono.error(new NotFoundException("No visit was found with visitId: " + visitId)))
                 )
-                .doOnNext(v -> v.setStatus(newStatus))
-                .flatMap(repo::save)
+                .flatMap(v -> {
+                    VisitSlot held = VisitSlot.of(v);
+                    v.setStatus(newStatus);
+                    return saveWithSlot(held, v);
+                })
                 .flatMap(entityDtoUtil::toVisitResponseDTO);
     }
 
@@ -459,6 +517,20 @@ public class VisitServiceImpl implements VisitService {
         }
     }
 
+    /**
+     * Send the visit request email to the owner, without waiting for it
+     *
+     * @param visitRequestDTO The request of the booked visit
+     */
+    private void sendVisitRequestEmail(VisitRequestDTO visitRequestDTO) {
+        if (visitRequestDTO.getOwnerId() == null) {
+            return;
+        }
+        authServiceClient.getUserById(visitRequestDTO.getJwtToken(), visitRequestDTO.getOwnerId())
+                .subscribe(user -> mailService.sendMail(
+                        generateVisitRequestEmail(user, visitRequestDTO.getPetId(), visitRequestDTO.getVisitDate())));
+    }
+
     /**
      * Generates an email through an already defined template. Uses the mailer Service through
      *
@@ -538,13 +610,13 @@ public class VisitServiceImpl implements VisitService {
                 .switchIfEmpty(Mono.defer(() ->
                         Mono.error(new NotFoundException("Cannot find visit with id: " + visitId))
                 ))
-                // Update the status of the found Visit entity
-                .doOnNext(visit -> {
+                // Update the status of the found Visit entity and save it, moving its slot if it was cancelled or reopened
+                .flatMap(visit -> {
                     log.info("Current status: {}, New status: {}", visit.getStatus(), status);
+                    VisitSlot held = VisitSlot.of(visit);
                     visit.setStatus(Status.valueOf(status));
-                }) // Update status reactively
-                // Save the updated visit
-                .flatMap(repo::save)
+                    return saveWithSlot(held, visit);
+                })
                 .doOnNext(saved -> log.info("Saved visit with new status: {}", saved.getStatus()))
                 // Convert to VisitResponseDTO
                 .flatMap(entityDtoUtil::toVisitResponseDTO)
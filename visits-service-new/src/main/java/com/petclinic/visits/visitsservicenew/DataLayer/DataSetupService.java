@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -15,6 +16,7 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class DataSetupService implements CommandLineRunner {
     private final VisitRepo visitRepo;
+    private final VisitSlotRepo visitSlotRepo;
     private final ReviewRepository reviewRepository;
 
     @Override
@@ -58,7 +60,8 @@ public class DataSetupService implements CommandLineRunner {
         Visit visit16 = buildVisit("VIST-2401-2401", "2024-01-24 19:00", "this is a dummy description3", "ecb109cd-57ea-4b85-b51e-99751fd1c349", "69f852ca-625b-11ee-8c99-0242ac120002", Status.UPCOMING, LocalDateTime.parse("2024-01-24 19:00", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")).plusHours(1), false);
 
         Flux.just(visit1, visit2, visit3, visit4, visit5, visit6, visit7, visit8, visit9, visit10, visit11, visit12, visit13, visit14, visit15, visit16)
-                .flatMap(visitRepo::insert)
+                .flatMap(visit -> visitRepo.insert(visit)
+                        .flatMap(saved -> Mono.justOrEmpty(VisitSlot.of(saved)).flatMap(visitSlotRepo::insert)))
                 .subscribe();
     }
 
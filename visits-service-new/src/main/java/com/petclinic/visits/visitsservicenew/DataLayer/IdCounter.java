@@ -0,0 +1,22 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Last sequence number handed out for one ID prefix and day, e.g. VIST-2510-24
+ */
+@Document("id_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdCounter {
+
+    @Id
+    private String id;
+
+    private long seq;
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 
 import java.time.LocalDateTime;
@@ -12,6 +15,8 @@ import java.time.LocalDateTime;
 /**
  * Visit Entity
  */
+@Document
+@CompoundIndex(name = "status_visitDate_idx", def = "{'status': 1, 'visitDate': 1}")
 @Builder
 @Data
 @ToString
@@ -24,6 +29,7 @@ public class Visit {
 
     private String visitId;
 
+    @Indexed(name = "visitDate_idx")
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     LocalDateTime visitDate;
 
@@ -0,0 +1,55 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * When there are visits but no slots yet, fills in the slots of the existing visits at startup; a slot claimed twice
+ * by older visits is kept by the first one found. The indexes declared on {@link Visit} and {@link VisitSlot} are
+ * created first and waited for, rather than left to automatic index creation, since it is the unique index on the
+ * slots that turns the second claim away.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VisitIndexInitializer {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final VisitRepo visitRepo;
+    private final VisitSlotRepo visitSlotRepo;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        Flux.just(Visit.class, VisitSlot.class)
+                .flatMap(type -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                        .flatMap(index -> mongoTemplate.indexOps(type).ensureIndex(index)))
+                .doOnNext(name -> log.debug("Ensured index {}", name))
+                .then(visitSlotRepo.count())
+                .filter(slots -> slots == 0)
+                .flatMap(none -> backfillSlots())
+                .block();
+    }
+
+    private Mono<Long> backfillSlots() {
+        return visitRepo.findAll()
+                .mapNotNull(VisitSlot::of)
+                .concatMap(slot -> visitSlotRepo.insert(slot)
+                        .onErrorResume(DuplicateKeyException.class, ex -> {
+                            log.warn("Visit {} shares its slot with another visit, leaving it unreserved", slot.getVisitId());
+                            return Mono.empty();
+                        }))
+                .count()
+                .doOnNext(count -> log.info("Reserved {} slots for existing visits", count));
+    }
+}
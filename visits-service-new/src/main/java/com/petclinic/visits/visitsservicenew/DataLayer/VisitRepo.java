@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Interface not implemented. Basically use Mongo for a smart search throughout a database. Calling a function here will have result on the database.
  */
 @Repository
-public interface VisitRepo extends ReactiveMongoRepository<Visit, String> {
+public interface VisitRepo extends ReactiveMongoRepository<Visit, String>, VisitRepoCustom {
 
     Flux<Visit> findByPetId(String petId);
 
@@ -0,0 +1,17 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface VisitRepoCustom {
+
+    /**
+     * Visits in visit date order, read from the database as they are consumed
+     *
+     * @param from   Earliest visit date, included, or null
+     * @param to     Visit date to stop at, excluded, or null
+     * @param status Only visits with this status, or null for all
+     */
+    Flux<Visit> streamVisits(LocalDateTime from, LocalDateTime to, Status status);
+}
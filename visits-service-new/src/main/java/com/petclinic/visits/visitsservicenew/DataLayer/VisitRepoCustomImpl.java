@@ -0,0 +1,46 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class VisitRepoCustomImpl implements VisitRepoCustom {
+
+    /**
+     * Number of visits fetched from the cursor at a time
+     */
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Visit> streamVisits(LocalDateTime from, LocalDateTime to, Status status) {
+        Query query = new Query();
+
+        if (from != null || to != null) {
+            Criteria visitDate = Criteria.where("visitDate");
+            if (from != null) {
+                visitDate = visitDate.gte(from);
+            }
+            if (to != null) {
+                visitDate = visitDate.lt(to);
+            }
+            query.addCriteria(visitDate);
+        }
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+
+        // Served in order by the visitDate and status_visitDate indexes instead of sorting in memory
+        query.with(Sort.by(Sort.Direction.ASC, "visitDate"));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        return mongoTemplate.find(query, Visit.class);
+    }
+}
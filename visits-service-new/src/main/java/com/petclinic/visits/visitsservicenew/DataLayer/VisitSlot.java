@@ -0,0 +1,56 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reservation of a vet's time slot by a visit. The unique index on (practitionerId, slotStart) lets the database
+ * refuse a second booking of the same slot, so a booking is a single insert instead of a lookup followed by an insert.
+ */
+@Document("visit_slots")
+@CompoundIndex(name = "practitionerId_slotStart_idx", def = "{'practitionerId': 1, 'slotStart': 1}", unique = true)
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitSlot {
+
+    @Id
+    private String id;
+
+    private String practitionerId;
+
+    private LocalDateTime slotStart;
+
+    @Indexed
+    private String visitId;
+
+    private LocalDateTime reservedAt;
+
+    /**
+     * The slot a visit holds, or null if it holds none. Cancelled visits give their slot back.
+     * @param visit The visit
+     */
+    public static VisitSlot of(Visit visit) {
+        if (visit.getStatus() == Status.CANCELLED || visit.getPractitionerId() == null || visit.getVisitDate() == null) {
+            return null;
+        }
+        return VisitSlot.builder()
+                .practitionerId(visit.getPractitionerId())
+                .slotStart(visit.getVisitDate())
+                .visitId(visit.getVisitId())
+                .reservedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public boolean isSameSlotAs(VisitSlot other) {
+        return other != null
+                && practitionerId.equals(other.practitionerId)
+                && slotStart.equals(other.slotStart);
+    }
+}
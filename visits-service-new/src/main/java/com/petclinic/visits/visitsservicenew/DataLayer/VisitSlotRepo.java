@@ -0,0 +1,21 @@
+package com.petclinic.visits.visitsservicenew.DataLayer;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slots held by visits. Inserting a slot that is already held fails with a DuplicateKeyException.
+ */
+@Repository
+public interface VisitSlotRepo extends ReactiveMongoRepository<VisitSlot, String> {
+
+    Mono<Void> deleteByVisitId(String visitId);
+
+    Flux<VisitSlot> findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(String practitionerId, LocalDateTime from, LocalDateTime to);
+
+    Mono<Void> deleteByPractitionerIdAndSlotStartAndVisitId(String practitionerId, LocalDateTime slotStart, String visitId);
+}
@@ -47,4 +47,12 @@ public class AvailabilityController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         return availabilityService.getAvailableDatesForVet(vetId, startDate, endDate);
     }
+
+    @GetMapping(value = "/vets/{vetId}/calendar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DayAvailabilityDTO> getAvailabilityCalendar(
+            @PathVariable String vetId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return availabilityService.getAvailabilityCalendar(vetId, startDate, endDate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.petclinic.visits.visitsservicenew.PresentationLayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DayAvailabilityDTO {
+    private LocalDate date;
+    private List<TimeSlotDTO> slots;
+    private boolean available;
+}
@@ -0,0 +1,27 @@
+package com.petclinic.visits.visitsservicenew.PresentationLayer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one request of a bulk booking, in the position it was sent
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VisitBookingResultDTO {
+
+    public enum Outcome {
+        BOOKED,
+        CONFLICT,
+        REJECTED
+    }
+
+    private int index;
+    private Outcome outcome;
+    private VisitResponseDTO visit;
+    private String message;
+}
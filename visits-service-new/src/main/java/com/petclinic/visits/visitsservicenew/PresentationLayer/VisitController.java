@@ -3,6 +3,7 @@ package com.petclinic.visits.visitsservicenew.PresentationLayer;
 import com.petclinic.visits.visitsservicenew.BusinessLayer.Prescriptions.PrescriptionService;
 import com.petclinic.visits.visitsservicenew.BusinessLayer.Review.ReviewService;
 import com.petclinic.visits.visitsservicenew.BusinessLayer.VisitService;
+import com.petclinic.visits.visitsservicenew.DataLayer.Status;
 import com.petclinic.visits.visitsservicenew.Exceptions.BadRequestException;
 import com.petclinic.visits.visitsservicenew.Exceptions.InvalidInputException;
 import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
@@ -11,7 +12,8 @@ import com.petclinic.visits.visitsservicenew.PresentationLayer.Prescriptions.Pre
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Review.ReviewRequestDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Review.ReviewResponseDTO;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -20,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 
 /**
  * Application Endpoint for Visit
@@ -116,6 +120,19 @@ public class VisitController {
         return visitService.addVisit(visitRequestDTOMono);
     }
 
+    /**
+     * Book several visits at once, e.g. from the front desk. Each request is booked on its own and gets a result
+     * telling whether it was booked, hit a slot that is already taken, or was rejected.
+     * localhost:8080/visits/bulk @POST
+     *
+     * @param visitRequestDTOs The visits to book
+     * @return One result per request, in the order they were sent
+     */
+    @PostMapping("/bulk")
+    public Flux<VisitBookingResultDTO> addVisits(@RequestBody Flux<VisitRequestDTO> visitRequestDTOs) {
+        return visitService.addVisits(visitRequestDTOs);
+    }
+
     /**
      * Replace the information of a visit ( Not visit ID )
      * localhost:8080/visits,{existing visit ID} @PUT
@@ -280,12 +297,15 @@ public class VisitController {
 
 
     @GetMapping(value = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Mono<ResponseEntity<InputStreamResource>> exportVisitsToCSV() {
-        return visitService.exportVisitsToCSV()
-                .map(csvData -> ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv")
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .body(csvData));
+    public ResponseEntity<Flux<DataBuffer>> exportVisitsToCSV(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + (gzip ? "visits.csv.gz" : "visits.csv"))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(visitService.exportVisitsToCSV(from, to, status, gzip));
     }
 
     @PostMapping("/{visitId}/prescription")
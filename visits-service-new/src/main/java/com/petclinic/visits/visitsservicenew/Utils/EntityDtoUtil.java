@@ -15,9 +15,16 @@ import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitResponseDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Change one type to another
@@ -29,38 +36,85 @@ public class EntityDtoUtil {
     private final VetsClient vetsClient;
     private final PetsClient petsClient;
 
+    /**
+     * Number of visits whose pets and vets are looked up together by {@link #toVisitResponseDTOs(Flux)}
+     */
+    private static final int ENRICHMENT_WINDOW = 100;
+
+    /**
+     * Maximum number of pet or vet lookups in flight at once for one listing
+     */
+    private static final int LOOKUP_CONCURRENCY = 16;
+
     /**
      * Transform a visit into a Mono<VisitResponseDTO>
      * @param visit The visit to transform
      */
     public Mono<VisitResponseDTO> toVisitResponseDTO(Visit visit) {
-       // System.out.println("Entity Date in Mapping: " + visit.getVisitDate()); // Debugging
-
         Mono<PetResponseDTO> petResponseDTOMono = petsClient.getPetById(visit.getPetId());
         Mono<VetDTO> vetResponseDTOMono = vetsClient.getVetByVetId(visit.getPractitionerId());
 
         return Mono.zip(petResponseDTOMono, vetResponseDTOMono)
-                .flatMap(tuple -> {
-                    PetResponseDTO petResponseDTO = tuple.getT1();
-                    VetDTO vetResponseDTO = tuple.getT2();
-
-                    return Mono.just(VisitResponseDTO.builder()
-                            .visitId(visit.getVisitId())
-                            .visitDate(visit.getVisitDate())
-                            .description(visit.getDescription())
-                            .petId(visit.getPetId())
-                            .petName(petResponseDTO.getName())
-                            .petBirthDate(petResponseDTO.getBirthDate())
-                            .practitionerId(visit.getPractitionerId())
-                            .vetFirstName(vetResponseDTO.getFirstName())
-                            .vetLastName(vetResponseDTO.getLastName())
-                            .vetEmail(vetResponseDTO.getEmail())
-                            .vetPhoneNumber(vetResponseDTO.getPhoneNumber())
-                            .status(visit.getStatus())
-                            .visitEndDate(visit.getVisitDate().plusHours(1))
-                            .isEmergency(visit.getIsEmergency())
-                            .build());
-                });
+                .map(tuple -> toVisitResponseDTO(visit, tuple.getT1(), tuple.getT2()));
+    }
+
+    /**
+     * Transform a listing of visits. Visits are taken in windows, and each distinct pet and vet of the listing is
+     * fetched once, however many visits refer to it, instead of once per visit.
+     * A visit whose pet or vet cannot be found is left out, like {@link #toVisitResponseDTO(Visit)} would.
+     * @param visits The visits to transform
+     */
+    public Flux<VisitResponseDTO> toVisitResponseDTOs(Flux<Visit> visits) {
+        return Flux.defer(() -> {
+            Map<String, Mono<PetResponseDTO>> pets = new ConcurrentHashMap<>();
+            Map<String, Mono<VetDTO>> vets = new ConcurrentHashMap<>();
+
+            return visits
+                    .buffer(ENRICHMENT_WINDOW)
+                    .concatMap(window -> Mono.zip(
+                                    resolve(window, Visit::getPetId, pets, petsClient::getPetById),
+                                    resolve(window, Visit::getPractitionerId, vets, vetsClient::getVetByVetId))
+                            .flatMapIterable(lookups -> window.stream()
+                                    .filter(visit -> lookups.getT1().containsKey(visit.getPetId())
+                                            && lookups.getT2().containsKey(visit.getPractitionerId()))
+                                    .map(visit -> toVisitResponseDTO(visit,
+                                            lookups.getT1().get(visit.getPetId()),
+                                            lookups.getT2().get(visit.getPractitionerId())))
+                                    .collect(Collectors.toList())));
+        });
+    }
+
+    private static <T> Mono<Map<String, T>> resolve(List<Visit> window, Function<Visit, String> idOf,
+                                                    Map<String, Mono<T>> resolved, Function<String, Mono<T>> lookup) {
+        return Flux.fromStream(window.stream().map(idOf).filter(Objects::nonNull).distinct())
+                .flatMap(id -> resolved.computeIfAbsent(id, key -> lookup.apply(key).cache())
+                        .map(value -> Map.entry(id, value)), LOOKUP_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Transform a visit whose pet and vet were already fetched
+     * @param visit The visit to transform
+     * @param petResponseDTO The pet of the visit
+     * @param vetResponseDTO The vet of the visit
+     */
+    public static VisitResponseDTO toVisitResponseDTO(Visit visit, PetResponseDTO petResponseDTO, VetDTO vetResponseDTO) {
+        return VisitResponseDTO.builder()
+                .visitId(visit.getVisitId())
+                .visitDate(visit.getVisitDate())
+                .description(visit.getDescription())
+                .petId(visit.getPetId())
+                .petName(petResponseDTO.getName())
+                .petBirthDate(petResponseDTO.getBirthDate())
+                .practitionerId(visit.getPractitionerId())
+                .vetFirstName(vetResponseDTO.getFirstName())
+                .vetLastName(vetResponseDTO.getLastName())
+                .vetEmail(vetResponseDTO.getEmail())
+                .vetPhoneNumber(vetResponseDTO.getPhoneNumber())
+                .status(visit.getStatus())
+                .visitEndDate(visit.getVisitDate().plusHours(1))
+                .isEmergency(visit.getIsEmergency())
+                .build();
     }
 
     /**
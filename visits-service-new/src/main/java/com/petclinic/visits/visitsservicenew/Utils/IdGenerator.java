@@ -1,9 +1,32 @@
 package com.petclinic.visits.visitsservicenew.Utils;
 
+import com.petclinic.visits.visitsservicenew.DataLayer.IdCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates IDs like VIST-yyMM-ddSS, where SS is a sequence restarting every day.
+ * Sequence numbers are reserved in blocks from a counter document per prefix and day, so that replicas of the
+ * service never hand out the same ID, and are then handed out from memory without locking. Numbers left in a block
+ * when the service stops or the day changes are not reused, so the sequence of a day can have gaps.
+ */
+@Component
 public class IdGenerator {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyMM-dd");
@@ -12,75 +35,113 @@ public class IdGenerator {
 
     private static final String VISIT_PREFIX = "VIST";
     private static final String REVIEW_PREFIX = "REVIEW";
-    private static final int MINIMAL_SUFFIX_LENGTH = 2;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int blockSize;
+    private final Clock clock;
 
     // State holders per id type
-    private static final IdState VISIT_STATE = new IdState(VISIT_PREFIX);
-    private static final IdState REVIEW_STATE = new IdState(REVIEW_PREFIX);
+    private final IdState visitState = new IdState(VISIT_PREFIX);
+    private final IdState reviewState = new IdState(REVIEW_PREFIX);
+
+    @Autowired
+    public IdGenerator(ReactiveMongoTemplate mongoTemplate, @Value("${app.id-generator.block-size:10}") int blockSize) {
+        this(mongoTemplate, blockSize, Clock.system(TIMEZONE));
+    }
+
+    IdGenerator(ReactiveMongoTemplate mongoTemplate, int blockSize, Clock clock) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The ID block size must be at least 1");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.blockSize = blockSize;
+        this.clock = clock;
+    }
 
     // Generate a Visit ID like VIST-yyMM-ddSS
-    public static String generateVisitId() {
-        return VISIT_STATE.nextId();
+    public Mono<String> generateVisitId() {
+        return visitState.nextId();
     }
 
     // Generate a Review ID like REVIEW-yyMM-ddSS
-    public static String generateReviewId() {
-        return REVIEW_STATE.nextId();
+    public Mono<String> generateReviewId() {
+        return reviewState.nextId();
     }
 
-    private static final class IdState {
+    private final class IdState {
         private final String prefix;
-        // Start from 1 and use postfix increment when emitting IDs
-        private int suffix = 1;
-        private int width = MINIMAL_SUFFIX_LENGTH;
-        private volatile String latestDate;
-        // This is to avoid race condition
-        private final Object lock = new Object();
+        private final AtomicReference<IdBlock> currentBlock = new AtomicReference<>();
 
         private IdState(String prefix) {
             this.prefix = prefix;
         }
 
-        private String nextId() {
-            synchronized (lock) {
+        private Mono<String> nextId() {
+            return Mono.defer(() -> {
                 // Setting a specific timezone to ensure consistent id generation
-                String today = LocalDate.now(TIMEZONE).format(DATE_FORMAT);
-
-                // Reset counter when date changes
-                if (latestDate == null || !latestDate.equals(today)) {
-                    latestDate = today;
-                    suffix = 1; // restart sequence at 1 for a new day
-                    width = MINIMAL_SUFFIX_LENGTH;
-                }
-
-                // Get current suffix then increment for next call
-                int nextSuffix = suffix++;
+                String today = LocalDate.now(clock).format(DATE_FORMAT);
 
-                // Grow width if needed based on next suffix
-                int requiredWidth = calculateRequiredWidth(nextSuffix);
-                if (requiredWidth > width) {
-                    width = requiredWidth;
+                IdBlock block = currentBlock.get();
+                long suffix = block == null ? -1 : block.take(today);
+                if (suffix > 0) {
+                    return Mono.just(format(prefix, today, suffix));
                 }
 
-                return format(prefix, today, nextSuffix, width);
-            }
+                // The block is used up or from another day. Callers running out at the same time each reserve
+                // their own block; the last one stored is used by later calls.
+                return reserveBlock(prefix, today)
+                        .map(fresh -> {
+                            long first = fresh.take(today);
+                            currentBlock.set(fresh);
+                            return format(prefix, today, first);
+                        });
+            });
         }
     }
 
     /**
-     * Calculate the required width for a given (displayed) suffix value.
-     * Ensures a minimum width of 2.
+     * Reserve the next block of sequence numbers of a prefix and day, creating the day's counter when needed
+     */
+    private Mono<IdBlock> reserveBlock(String prefix, String day) {
+        Query counter = Query.query(Criteria.where("_id").is(prefix + "-" + day));
+        Update reserve = new Update().inc("seq", blockSize);
+
+        return mongoTemplate.findAndModify(counter, reserve, FindAndModifyOptions.options().upsert(true).returnNew(true), IdCounter.class)
+                // Two replicas creating the same day's counter at once: the loser retries against the created one
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))
+                .map(updated -> new IdBlock(day, updated.getSeq() - blockSize + 1, updated.getSeq()));
+    }
+
+    /**
+     * Sequence numbers first..last of a day, reserved by this instance
      */
-    private static int calculateRequiredWidth(int displayedSuffix) {
-        int digits = String.valueOf(displayedSuffix).length();
-        return Math.max(MINIMAL_SUFFIX_LENGTH, digits);
+    private static final class IdBlock {
+        private final String day;
+        private final AtomicLong next;
+        private final long last;
+
+        private IdBlock(String day, long first, long last) {
+            this.day = day;
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        /**
+         * @return The next number of the block, or -1 if it is used up or not for that day
+         */
+        private long take(String today) {
+            if (!day.equals(today)) {
+                return -1;
+            }
+            long suffix = next.getAndIncrement();
+            return suffix <= last ? suffix : -1;
+        }
     }
 
     /**
-     * Format the id as PREFIX-yyMM-ddSSS...
+     * Format the id as PREFIX-yyMM-ddSSS..., the sequence having at least 2 digits
      */
-    private static String format(String prefix, String datePart, int displayedSuffix, int suffixWidth) {
-        String paddedSuffix = String.format("%0" + suffixWidth + "d", displayedSuffix);
-        return String.format("%s-%s%s", prefix, datePart, paddedSuffix);
+    private static String format(String prefix, String datePart, long suffix) {
+        return String.format("%s-%s%02d", prefix, datePart, suffix);
     }
 }
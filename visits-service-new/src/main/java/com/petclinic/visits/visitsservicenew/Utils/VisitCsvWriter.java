@@ -0,0 +1,129 @@
+package com.petclinic.visits.visitsservicenew.Utils;
+
+import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes visits as CSV, a chunk of rows at a time, so that only one chunk is in memory whatever the number of visits
+ */
+public final class VisitCsvWriter {
+
+    public static final String HEADER = "VisitId,Description,VisitDate,PetId,PractitionerId,Status";
+
+    /**
+     * Number of rows written into one buffer
+     */
+    private static final int ROWS_PER_CHUNK = 200;
+
+    private VisitCsvWriter() {
+    }
+
+    /**
+     * @param visits The visits to write, consumed as the CSV is written
+     * @param gzip   Whether to gzip the CSV
+     * @return The CSV, with its header, in chunks
+     */
+    public static Flux<DataBuffer> write(Flux<Visit> visits, boolean gzip) {
+        return Flux.using(
+                () -> gzip ? new GzipChunkEncoder() : new ChunkEncoder(),
+                encoder -> Flux.concat(
+                                Mono.fromCallable(() -> encoder.encode(HEADER + "\n")),
+                                visits.buffer(ROWS_PER_CHUNK).map(chunk -> encoder.encode(toRows(chunk))),
+                                Mono.fromCallable(encoder::finish))
+                        .filter(bytes -> bytes.length > 0)
+                        .map(DefaultDataBufferFactory.sharedInstance::wrap),
+                ChunkEncoder::close);
+    }
+
+    private static String toRows(List<Visit> visits) {
+        StringBuilder rows = new StringBuilder(visits.size() * 128);
+        for (Visit visit : visits) {
+            rows.append(Objects.toString(visit.getVisitId(), "")).append(',')
+                    // Escape quotes for CSV
+                    .append('"').append(Objects.toString(visit.getDescription(), "").replace("\"", "\"\"")).append('"').append(',')
+                    .append(Objects.toString(visit.getVisitDate(), "")).append(',')
+                    .append(Objects.toString(visit.getPetId(), "")).append(',')
+                    .append(Objects.toString(visit.getPractitionerId(), "")).append(',')
+                    .append(Objects.toString(visit.getStatus(), "")).append('\n');
+        }
+        return rows.toString();
+    }
+
+    private static class ChunkEncoder {
+
+        byte[] encode(String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] finish() {
+            return new byte[0];
+        }
+
+        void close() {
+        }
+    }
+
+    /**
+     * Compresses each chunk as it is written; a sync flush after each chunk lets it be sent right away
+     */
+    private static final class GzipChunkEncoder extends ChunkEncoder {
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(8 * 1024);
+        private final GZIPOutputStream gzip;
+
+        private GzipChunkEncoder() {
+            try {
+                gzip = new GZIPOutputStream(compressed, 8 * 1024, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        byte[] encode(String text) {
+            try {
+                gzip.write(text.getBytes(StandardCharsets.UTF_8));
+                gzip.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return drain();
+        }
+
+        @Override
+        byte[] finish() {
+            try {
+                gzip.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return drain();
+        }
+
+        @Override
+        void close() {
+            try {
+                // Also frees the native memory of the deflater when the export is cancelled or fails
+                gzip.close();
+            } catch (IOException ignored) {
+                // Nothing left to write to
+            }
+        }
+
+        private byte[] drain() {
+            byte[] bytes = compressed.toByteArray();
+            compressed.reset();
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.petclinic.visits.visitsservicenew.BusinessLayer.Availability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlot;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlotRepo;
+import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetDTO;
+import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetsClient;
+import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.DayAvailabilityDTO;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.TimeSlotDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VetAvailabilityCalendarTest {
+
+    private static final String VET_ID = "vet-123";
+
+    private final VetsClient vetsClient = mock(VetsClient.class);
+    private final VisitSlotRepo visitSlotRepo = mock(VisitSlotRepo.class);
+
+    private final VetAvailabilityCalendar calendar =
+            new VetAvailabilityCalendar(vetsClient, visitSlotRepo, new ObjectMapper(), 300, 300, 100);
+
+    @BeforeEach
+    void setUp() {
+        VetDTO vet = new VetDTO();
+        vet.setVetId(VET_ID);
+        vet.setWorkHoursJson("{\"Monday\":[\"Hour_9_10\",\"Hour_10_11\"],\"Wednesday\":[\"Hour_14_15\"]}");
+        when(vetsClient.getVetByVetId(VET_ID)).thenReturn(Mono.just(vet));
+        when(vetsClient.getVetByVetId("unknown")).thenReturn(Mono.error(new NotFoundException("No veterinarian was found with vetId: unknown")));
+
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any()))
+                .thenReturn(Flux.just(slot(LocalDateTime.of(2025, 10, 13, 9, 30))));
+    }
+
+    @Test
+    void whenMonthIsRequested_thenWorkingDaysAreReturnedWithBookedHoursTaken() {
+        List<DayAvailabilityDTO> days = calendar.getDays(VET_ID, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))
+                .collectList().block();
+
+        // 4 Mondays and 5 Wednesdays in October 2025
+        assertEquals(9, days.size());
+        assertEquals(LocalDate.of(2025, 10, 1), days.get(0).getDate());
+
+        DayAvailabilityDTO monday = days.stream().filter(day -> day.getDate().equals(LocalDate.of(2025, 10, 13))).findFirst().orElseThrow();
+        assertEquals(List.of(
+                new TimeSlotDTO(LocalDateTime.of(2025, 10, 13, 9, 0), LocalDateTime.of(2025, 10, 13, 10, 0), false),
+                new TimeSlotDTO(LocalDateTime.of(2025, 10, 13, 10, 0), LocalDateTime.of(2025, 10, 13, 11, 0), true)),
+                monday.getSlots());
+        assertTrue(monday.isAvailable());
+
+        verify(vetsClient, times(1)).getVetByVetId(VET_ID);
+        verify(visitSlotRepo, times(1)).findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(
+                VET_ID, LocalDateTime.of(2025, 10, 1, 0, 0), LocalDateTime.of(2025, 11, 1, 0, 0));
+    }
+
+    @Test
+    void whenSlotIsBooked_thenLoadedMonthIsUpdatedWithoutQuerying() {
+        LocalDate wednesday = LocalDate.of(2025, 10, 15);
+        calendar.getDays(VET_ID, wednesday, wednesday).blockLast();
+
+        calendar.book(VET_ID, wednesday.atTime(14, 0));
+
+        DayAvailabilityDTO day = calendar.getDays(VET_ID, wednesday, wednesday).blockLast();
+        assertFalse(day.isAvailable());
+        assertFalse(day.getSlots().get(0).isAvailable());
+        verify(visitSlotRepo, times(1)).findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any());
+        verify(vetsClient, times(1)).getVetByVetId(VET_ID);
+    }
+
+    @Test
+    void whenSlotIsReleased_thenMonthIsLoadedAgain() {
+        LocalDate monday = LocalDate.of(2025, 10, 13);
+        calendar.getDays(VET_ID, monday, monday).blockLast();
+
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any()))
+                .thenReturn(Flux.empty());
+        calendar.release(VET_ID, monday.atTime(9, 30));
+
+        DayAvailabilityDTO day = calendar.getDays(VET_ID, monday, monday).blockLast();
+        assertTrue(day.getSlots().get(0).isAvailable());
+        verify(visitSlotRepo, times(2)).findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any());
+    }
+
+    @Test
+    void whenRangeHasNoWorkingDay_thenBookingsAreNotQueried() {
+        StepVerifier.create(calendar.getDays(VET_ID, LocalDate.of(2025, 10, 11), LocalDate.of(2025, 10, 12)))
+                .verifyComplete();
+
+        verifyNoInteractions(visitSlotRepo);
+    }
+
+    @Test
+    void whenVetDoesNotExist_thenNotFound() {
+        StepVerifier.create(calendar.getDays("unknown", LocalDate.of(2025, 10, 13), LocalDate.of(2025, 10, 13)))
+                .expectError(NotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void whenVetLookupFails_thenFailureIsNotKept() {
+        LocalDate monday = LocalDate.of(2025, 10, 13);
+        StepVerifier.create(calendar.getDays("unknown", monday, monday))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        when(vetsClient.getVetByVetId("unknown")).thenReturn(Mono.empty());
+        StepVerifier.create(calendar.getDays("unknown", monday, monday))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        verify(vetsClient, times(2)).getVetByVetId("unknown");
+    }
+
+    @Test
+    void whenSlotIsBookedWhileMonthIsLoading_thenLoadedMonthIsNotKept() {
+        LocalDate monday = LocalDate.of(2025, 10, 13);
+        TestPublisher<VisitSlot> slots = TestPublisher.create();
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any()))
+                .thenReturn(slots.flux(), Flux.just(slot(monday.atTime(10, 0))));
+
+        StepVerifier.create(calendar.getDays(VET_ID, monday, monday))
+                .then(() -> {
+                    calendar.book(VET_ID, monday.atTime(10, 0));
+                    slots.complete();
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        DayAvailabilityDTO day = calendar.getDays(VET_ID, monday, monday).blockLast();
+        assertFalse(day.getSlots().get(1).isAvailable());
+        verify(visitSlotRepo, times(2)).findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(eq(VET_ID), any(), any());
+    }
+
+    private static VisitSlot slot(LocalDateTime slotStart) {
+        return VisitSlot.builder().practitionerId(VET_ID).slotStart(slotStart).visitId("VIST-2510-1301").build();
+    }
+}
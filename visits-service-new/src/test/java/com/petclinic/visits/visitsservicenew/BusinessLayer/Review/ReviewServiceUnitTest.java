@@ -5,6 +5,7 @@ import com.petclinic.visits.visitsservicenew.DataLayer.Review.ReviewRepository;
 import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Review.ReviewRequestDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Review.ReviewResponseDTO;
+import com.petclinic.visits.visitsservicenew.Utils.IdGenerator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -30,6 +31,9 @@ class ReviewServiceUnitTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private IdGenerator idGenerator;
+
     Review review1 = Review.builder()
             .id(UUID.randomUUID().toString())
             .reviewId("REVIEW-2510-2401")
@@ -119,6 +123,7 @@ class ReviewServiceUnitTest {
     @Test
     public void whenAddReview_thenReturnReviewResponseDTO() {
         // Arrange
+        when(idGenerator.generateReviewId()).thenReturn(Mono.just(review1.getReviewId()));
         when(reviewRepository.save(any(Review.class))).thenReturn(Mono.just(review1));
 
         ReviewRequestDTO reviewRequestDTO = new ReviewRequestDTO();
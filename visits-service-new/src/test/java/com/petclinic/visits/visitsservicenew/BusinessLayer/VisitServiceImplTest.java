@@ -11,7 +11,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.springframework.test.util.ReflectionTestUtils;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Auth.UserDetails;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Mailing.Mail;
@@ -19,11 +18,14 @@ import java.time.LocalDateTime;
 import com.petclinic.visits.visitsservicenew.DataLayer.Status;
 import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
 import com.petclinic.visits.visitsservicenew.DataLayer.VisitRepo;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlot;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlotRepo;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Mailing.MailService;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.*;
 import com.petclinic.visits.visitsservicenew.Exceptions.BadRequestException;
 import com.petclinic.visits.visitsservicenew.Exceptions.DuplicateTimeException;
 import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
+import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitBookingResultDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitRequestDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.VisitResponseDTO;
 import com.petclinic.visits.visitsservicenew.Utils.EntityDtoUtil;
@@ -32,10 +34,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.DuplicateKeyException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -56,6 +62,12 @@ class VisitServiceImplTest {
     @MockBean
     private VisitRepo visitRepo;
 
+    @MockBean
+    private VisitSlotRepo visitSlotRepo;
+
+    @MockBean
+    private IdGenerator idGenerator;
+
     @MockBean
     private VetsClient vetsClient;
     @MockBean
@@ -75,6 +87,20 @@ class VisitServiceImplTest {
 
 //    private final Long dbSize = 2L;
 
+    @BeforeEach
+    void mapListingsOneVisitAtATime() {
+        when(entityDtoUtil.toVisitResponseDTOs(any())).thenAnswer(invocation ->
+                invocation.<Flux<Visit>>getArgument(0).concatMap(entityDtoUtil::toVisitResponseDTO));
+    }
+
+    @BeforeEach
+    void acceptSlotReservations() {
+        when(idGenerator.generateVisitId()).thenReturn(Mono.just("VIST-2510-2401"));
+        when(visitSlotRepo.insert(any(VisitSlot.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(visitSlotRepo.deleteByVisitId(anyString())).thenReturn(Mono.empty());
+        when(visitSlotRepo.deleteByPractitionerIdAndSlotStartAndVisitId(any(), any(), any())).thenReturn(Mono.empty());
+    }
+
     private final VisitResponseDTO visitResponseDTO = buildVisitResponseDTO();
     private final VisitRequestDTO visitRequestDTO = buildVisitRequestDTO();
     private final String PRAC_ID = visitResponseDTO.getPractitionerId();
@@ -332,17 +358,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit1)).thenReturn(Mono.just(visit1));
         when(entityDtoUtil.toVisitResponseDTO(any())).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(visitRequestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(visitRequestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectNextMatches(response -> response.equals(visitResponseDTO))
-                    .verifyComplete();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectNextMatches(response -> response.equals(visitResponseDTO))
+                .verifyComplete();
 
         verify(visitRepo, times(1)).insert(any(Visit.class));
     }
@@ -374,29 +396,70 @@ class VisitServiceImplTest {
 
         when(petsClient.getPetById(anyString())).thenReturn(Mono.just(mockPetResponse));
         when(vetsClient.getVetByVetId(anyString())).thenReturn(Mono.just(mockVetResponse)); // This ensures a non-null Mono is returned
-        when(visitRepo.findByVisitDateAndPractitionerId(any(), any()))
-                .thenReturn(Flux.just(existingVisit)); // Return existingVisit in case of conflict
+        when(visitSlotRepo.insert(any(VisitSlot.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("practitionerId_slotStart_idx"))); // The slot is already held by existingVisit
         when(entityDtoUtil.toVisitEntity(any())).thenReturn(visit1);
         when(visitRepo.insert(visit1)).thenReturn(Mono.just(visit1));
         when(entityDtoUtil.toVisitResponseDTO(any())).thenReturn(Mono.just(visitResponseDTO)); // This simulates finding a conflicting visit
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(visitRequestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(visitRequestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectErrorMatches(throwable -> throwable instanceof DuplicateTimeException
-                            && throwable.getMessage().contains("A visit with the same time and practitioner already exists."))
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof DuplicateTimeException
+                        && throwable.getMessage().contains("A visit with the same time and practitioner already exists."))
+                .verify();
 
         // Ensure no attempt was made to insert a new visit due to the conflict
         verify(visitRepo, times(0)).insert(any(Visit.class));
     }
 
+    @Test
+    void addVisits_ReportsEachBookingInRequestOrder() {
+        VisitRequestDTO free = validDto();
+        VisitRequestDTO taken = validDto();
+        taken.setVisitDate(free.getVisitDate().plusHours(1));
+        VisitRequestDTO noDescription = validDto();
+        noDescription.setDescription("");
+
+        when(petsClient.getPetById("pet-123")).thenReturn(Mono.just(petResponseDTO));
+        when(vetsClient.getVetByVetId("vet-456")).thenReturn(Mono.just(vet));
+        when(entityDtoUtil.toVisitEntity(any())).thenAnswer(invocation -> {
+            VisitRequestDTO dto = invocation.getArgument(0);
+            return Visit.builder().visitDate(dto.getVisitDate()).description(dto.getDescription()).petId(dto.getPetId())
+                    .practitionerId(dto.getPractitionerId()).status(dto.getStatus()).build();
+        });
+        when(visitSlotRepo.insert(any(VisitSlot.class))).thenAnswer(invocation -> {
+            VisitSlot slot = invocation.getArgument(0);
+            return slot.getSlotStart().equals(taken.getVisitDate())
+                    ? Mono.error(new DuplicateKeyException("practitionerId_slotStart_idx"))
+                    : Mono.just(slot);
+        });
+        when(visitRepo.insert(any(Visit.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(visitService.addVisits(Flux.just(free, taken, noDescription)))
+                .assertNext(result -> {
+                    assertEquals(0, result.getIndex());
+                    assertEquals(VisitBookingResultDTO.Outcome.BOOKED, result.getOutcome());
+                    assertEquals(free.getVisitDate(), result.getVisit().getVisitDate());
+                    assertEquals(vet.getFirstName(), result.getVisit().getVetFirstName());
+                })
+                .assertNext(result -> {
+                    assertEquals(1, result.getIndex());
+                    assertEquals(VisitBookingResultDTO.Outcome.CONFLICT, result.getOutcome());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.getIndex());
+                    assertEquals(VisitBookingResultDTO.Outcome.REJECTED, result.getOutcome());
+                })
+                .verifyComplete();
+
+        verify(petsClient, times(1)).getPetById("pet-123");
+        verify(vetsClient, times(1)).getVetByVetId("vet-456");
+        verify(visitRepo, times(1)).insert(any(Visit.class));
+    }
+
     @Test
     public void testAddVisit_NoDescription() {
         // Arrange
@@ -413,17 +476,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -442,17 +501,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -472,17 +527,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -502,17 +553,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -532,17 +579,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -562,17 +605,13 @@ class VisitServiceImplTest {
         when(visitRepo.insert(visit)).thenReturn(Mono.just(visit));
         when(entityDtoUtil.toVisitResponseDTO(visit)).thenReturn(Mono.just(visitResponseDTO));
 
-        // Using MockedStatic to stub the static IdGenerator method
-        try (MockedStatic<IdGenerator> mocked = mockStatic(IdGenerator.class)) {
-            mocked.when(IdGenerator::generateVisitId).thenReturn("VIST-2510-2401");
-            // Act
-            Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
+        // Act
+        Mono<VisitResponseDTO> result = visitService.addVisit(Mono.just(requestDTO));
 
-            // Assert
-            StepVerifier.create(result)
-                    .expectError(BadRequestException.class)
-                    .verify();
-        }
+        // Assert
+        StepVerifier.create(result)
+                .expectError(BadRequestException.class)
+                .verify();
     }
 
     @Test
@@ -788,20 +827,35 @@ class VisitServiceImplTest {
     @Test
     void exportVisitsToCSV_shouldReturnCSVFile() {
         Visit visit = buildVisit("Export test");
-        when(visitRepo.findAll()).thenReturn(Flux.just(visit));
-
-        StepVerifier.create(visitService.exportVisitsToCSV())
-                .consumeNextWith(resource -> {
-                    try {
-                        String csvContent = new String(resource.getInputStream().readAllBytes());
-                        assertTrue(csvContent.contains("VisitId,Description,VisitDate,PetId,PractitionerId,Status"));
-                        assertTrue(csvContent.contains(visit.getVisitId()));
-                        assertTrue(csvContent.contains("Export test"));
-                    } catch (Exception e) {
-                        fail("Failed to read InputStreamResource: " + e.getMessage());
-                    }
-                })
-                .verifyComplete();
+        when(visitRepo.streamVisits(null, null, null)).thenReturn(Flux.just(visit));
+
+        String csvContent = DataBufferUtils.join(visitService.exportVisitsToCSV(null, null, null, false))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+
+        assertTrue(csvContent.startsWith("VisitId,Description,VisitDate,PetId,PractitionerId,Status\n"));
+        assertTrue(csvContent.contains(visit.getVisitId()));
+        assertTrue(csvContent.contains("Export test"));
+    }
+
+    @Test
+    void exportVisitsToCSV_withDates_shouldQueryWholeDays() {
+        when(visitRepo.streamVisits(any(), any(), any())).thenReturn(Flux.empty());
+
+        DataBufferUtils.join(visitService.exportVisitsToCSV(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Status.COMPLETED, false))
+                .block();
+
+        verify(visitRepo, times(1)).streamVisits(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0), Status.COMPLETED);
+    }
+
+    @Test
+    void exportVisitsToCSV_withEndBeforeStart_shouldReturnBadRequest() {
+        StepVerifier.create(visitService.exportVisitsToCSV(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, false))
+                .expectError(BadRequestException.class)
+                .verify();
+
+        verify(visitRepo, never()).streamVisits(any(), any(), any());
     }
 
     @Test
@@ -1,8 +1,8 @@
 package com.petclinic.visits.visitsservicenew.PresentationLayer;
 
-import com.petclinic.visits.visitsservicenew.DataLayer.Status;
-import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
 import com.petclinic.visits.visitsservicenew.DataLayer.VisitRepo;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlot;
+import com.petclinic.visits.visitsservicenew.DataLayer.VisitSlotRepo;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetDTO;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetsClient;
 import org.junit.jupiter.api.Test;
@@ -20,11 +20,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.availability.schedule-ttl-seconds=0", "app.availability.bookings-ttl-seconds=0"})
 @AutoConfigureWebTestClient
 class AvailabilityControllerIntegrationTest {
 
@@ -37,6 +39,9 @@ class AvailabilityControllerIntegrationTest {
     @MockBean
     private VisitRepo visitRepo;
 
+    @MockBean
+    private VisitSlotRepo visitSlotRepo;
+
     private VetDTO createVetWithWorkHours() {
         VetDTO vet = new VetDTO();
         vet.setVetId("vet-123");
@@ -76,7 +81,7 @@ class AvailabilityControllerIntegrationTest {
     void getAvailableTimeSlots_withNoBookings_shouldReturnAllSlotsAvailable() {
         VetDTO vet = createVetWithWorkHours();
         when(vetsClient.getVetByVetId(anyString())).thenReturn(Mono.just(vet));
-        when(visitRepo.findByPractitionerIdAndVisitDateBetween(anyString(), any(), any()))
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(anyString(), any(), any()))
                 .thenReturn(Flux.empty());
 
         webTestClient.get()
@@ -92,17 +97,16 @@ class AvailabilityControllerIntegrationTest {
     void getAvailableTimeSlots_withBooking_shouldMarkSlotUnavailable() {
         VetDTO vet = createVetWithWorkHours();
 
-        // Create a booked visit at 9:30 AM
-        Visit bookedVisit = new Visit();
-        bookedVisit.setVisitId("visit-1");
-        bookedVisit.setVisitDate(LocalDateTime.of(2025, 10, 13, 9, 30));
-        bookedVisit.setPractitionerId("vet-123");
-        bookedVisit.setPetId("pet-1");
-        bookedVisit.setStatus(Status.CONFIRMED);
+        // Create a slot booked by a visit at 9:30 AM
+        VisitSlot bookedSlot = VisitSlot.builder()
+                .visitId("visit-1")
+                .slotStart(LocalDateTime.of(2025, 10, 13, 9, 30))
+                .practitionerId("vet-123")
+                .build();
 
         when(vetsClient.getVetByVetId(anyString())).thenReturn(Mono.just(vet));
-        when(visitRepo.findByPractitionerIdAndVisitDateBetween(anyString(), any(), any()))
-                .thenReturn(Flux.just(bookedVisit));
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(anyString(), any(), any()))
+                .thenReturn(Flux.just(bookedSlot));
 
         webTestClient.get()
                 .uri("/api/v1/availability/vets/vet-123/slots?date=2025-10-13")
@@ -110,7 +114,8 @@ class AvailabilityControllerIntegrationTest {
                 .exchange()
                 .expectStatus().isOk()
                 .expectBodyList(TimeSlotDTO.class)
-                .hasSize(3); // Still returns 3 slots, but one marked unavailable
+                .hasSize(3) // Still returns 3 slots, but one marked unavailable
+                .consumeWith(response -> assertFalse(response.getResponseBody().get(0).isAvailable()));
     }
 
     @Test
@@ -189,6 +194,31 @@ class AvailabilityControllerIntegrationTest {
                 });
     }
 
+    @Test
+    void getAvailabilityCalendar_shouldReturnWorkingDaysOfTheRange() {
+        VetDTO vet = createVetWithWorkHours();
+        when(vetsClient.getVetByVetId(anyString())).thenReturn(Mono.just(vet));
+        when(visitSlotRepo.findByPractitionerIdAndSlotStartGreaterThanEqualAndSlotStartLessThan(anyString(), any(), any()))
+                .thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/availability/vets/vet-123/calendar?startDate=2025-10-01&endDate=2025-10-31")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DayAvailabilityDTO.class)
+                .hasSize(8); // 4 Mondays and 4 Tuesdays in October 2025
+    }
+
+    @Test
+    void getAvailabilityCalendar_whenEndDateBeforeStartDate_shouldReturn400() {
+        webTestClient.get()
+                .uri("/api/v1/availability/vets/vet-123/calendar?startDate=2025-10-31&endDate=2025-10-01")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void getAvailableDates_whenVetNotFound_shouldReturn404() {
         when(vetsClient.getVetByVetId(anyString())).thenReturn(Mono.empty());
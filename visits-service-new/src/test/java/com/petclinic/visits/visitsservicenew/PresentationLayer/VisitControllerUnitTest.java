@@ -9,6 +9,7 @@ import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.SpecialtyDTO;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.VetDTO;
 import com.petclinic.visits.visitsservicenew.DomainClientLayer.Workday;
+import com.petclinic.visits.visitsservicenew.Exceptions.BadRequestException;
 import com.petclinic.visits.visitsservicenew.Exceptions.NotFoundException;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Prescriptions.PrescriptionResponseDTO;
 import com.petclinic.visits.visitsservicenew.PresentationLayer.Review.ReviewRequestDTO;
@@ -18,7 +19,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -26,9 +27,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
@@ -664,10 +665,8 @@ class VisitControllerUnitTest {
                 "1,\"Test Visit\",2024-10-17,123,456,ACTIVE\n";
         byte[] expectedContent = expectedCsv.getBytes(StandardCharsets.UTF_8);
 
-        // Create a ByteArrayInputStream with the expected content
-        ByteArrayInputStream csvData = new ByteArrayInputStream(expectedContent);
-
-        when(visitService.exportVisitsToCSV()).thenReturn(Mono.just(new InputStreamResource(csvData)));
+        when(visitService.exportVisitsToCSV(null, null, null, false))
+                .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(expectedContent)));
 
         webTestClient.get()
                 .uri("/visits/export")
@@ -680,7 +679,7 @@ class VisitControllerUnitTest {
                     // Assert that the response body matches the expected content
                     assertArrayEquals(expectedContent, responseBody);
                 });
-        verify(visitService, times(1)).exportVisitsToCSV();
+        verify(visitService, times(1)).exportVisitsToCSV(null, null, null, false);
     }
 
 
@@ -691,10 +690,8 @@ class VisitControllerUnitTest {
         String expectedCsv = "VisitId,Description,VisitDate,PetId,PractitionerId,Status\n";
         byte[] expectedContent = expectedCsv.getBytes(StandardCharsets.UTF_8);
 
-        ByteArrayInputStream csvData = new ByteArrayInputStream(expectedContent);
-
-        // Mock the service to return the InputStreamResource wrapped in a Mono
-        when(visitService.exportVisitsToCSV()).thenReturn(Mono.just(new InputStreamResource(csvData)));
+        when(visitService.exportVisitsToCSV(null, null, null, false))
+                .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(expectedContent)));
 
         webTestClient.get()
                 .uri("/visits/export")
@@ -706,13 +703,13 @@ class VisitControllerUnitTest {
                 .value(responseBody -> {
                     assertArrayEquals(expectedContent, responseBody);
                 });
-        verify(visitService, times(1)).exportVisitsToCSV();
+        verify(visitService, times(1)).exportVisitsToCSV(null, null, null, false);
     }
 
 
     @Test
     void exportVisitsToCSV_ShouldReturnServerError_WhenServiceFails() {
-        when(visitService.exportVisitsToCSV()).thenReturn(Mono.error(new RuntimeException("Service failed")));
+        when(visitService.exportVisitsToCSV(null, null, null, false)).thenReturn(Flux.error(new RuntimeException("Service failed")));
 
         webTestClient.get()
                 .uri("/visits/export")
@@ -720,6 +717,32 @@ class VisitControllerUnitTest {
                 .expectStatus().is5xxServerError();
     }
 
+    @Test
+    void exportVisitsToCSV_WithFiltersAndGzip_ShouldPassThemToServiceAndNameFileGz() {
+        byte[] content = "gzipped".getBytes(StandardCharsets.UTF_8);
+        when(visitService.exportVisitsToCSV(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Status.COMPLETED, true))
+                .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content)));
+
+        webTestClient.get()
+                .uri("/visits/export?from=2024-01-01&to=2024-01-31&status=COMPLETED&gzip=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=visits.csv.gz")
+                .expectBody(byte[].class)
+                .value(responseBody -> assertArrayEquals(content, responseBody));
+    }
+
+    @Test
+    void exportVisitsToCSV_ShouldReturnBadRequest_WhenRangeIsInvalid() {
+        when(visitService.exportVisitsToCSV(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, false))
+                .thenReturn(Flux.error(new BadRequestException("The end date must not be before the start date.")));
+
+        webTestClient.get()
+                .uri("/visits/export?from=2024-02-01&to=2024-01-01")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
 
 
 }
@@ -11,18 +11,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 
 @SpringBootTest
@@ -100,4 +103,50 @@ public class EntityDtoUtilTest {
                 })
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testToVisitResponseDTOs_ShouldLookUpEachPetAndVetOnce() {
+        String otherPetUUID = UUID.randomUUID().toString();
+        String missingPetUUID = UUID.randomUUID().toString();
+
+        when(petsClient.getPetById(eq(testPetUUID)))
+                .thenReturn(Mono.just(new PetResponseDTO("ownerId", "petName", new Date(2023, 2, 21), "petType", "newPhoto")));
+        when(petsClient.getPetById(eq(otherPetUUID)))
+                .thenReturn(Mono.just(new PetResponseDTO("ownerId", "otherPet", new Date(2022, 1, 1), "petType", "newPhoto")));
+        when(petsClient.getPetById(eq(missingPetUUID)))
+                .thenReturn(Mono.empty());
+        when(vetsClient.getVetByVetId(eq(testVetUUID)))
+                .thenReturn(Mono.just(VetDTO.builder().vetId(testVetUUID).firstName("Cristiano").lastName("Ronaldo").build()));
+
+        List<Visit> visits = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            visits.add(buildVisit(i % 2 == 0 ? testPetUUID : otherPetUUID));
+        }
+        visits.add(buildVisit(missingPetUUID));
+
+        StepVerifier.create(entityDtoUtil.toVisitResponseDTOs(Flux.fromIterable(visits)))
+                .recordWith(ArrayList::new)
+                .expectNextCount(250)
+                .consumeRecordedWith(dtos -> {
+                    assertEquals(visits.get(0).getVisitId(), dtos.iterator().next().getVisitId());
+                    assertTrue(dtos.stream().allMatch(dto -> dto.getVetFirstName().equals("Cristiano")));
+                    assertTrue(dtos.stream().noneMatch(dto -> dto.getPetId().equals(missingPetUUID)));
+                })
+                .verifyComplete();
+
+        verify(petsClient, times(1)).getPetById(testPetUUID);
+        verify(petsClient, times(1)).getPetById(otherPetUUID);
+        verify(petsClient, times(1)).getPetById(missingPetUUID);
+        verify(vetsClient, times(1)).getVetByVetId(testVetUUID);
+    }
+
+    private Visit buildVisit(String petId) {
+        Visit visit = new Visit();
+        visit.setVisitId(UUID.randomUUID().toString());
+        visit.setVisitDate(LocalDateTime.parse("2024-11-25 13:45", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+        visit.setDescription("Test description");
+        visit.setPetId(petId);
+        visit.setPractitionerId(testVetUUID);
+        return visit;
+    }
+}
@@ -1,102 +1,105 @@
 package com.petclinic.visits.visitsservicenew.Utils;
 
+import com.petclinic.visits.visitsservicenew.DataLayer.IdCounter;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
-@SpringBootTest
 public class IdGeneratorTest {
     private static final ZoneId TIMEZONE = ZoneId.of("America/Montreal");
+    private static final int BLOCK_SIZE = 5;
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void countLikeMongo() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(IdCounter.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    String id = query.getQueryObject().getString("_id");
+                    long seq = counters.computeIfAbsent(id, key -> new AtomicLong()).addAndGet(BLOCK_SIZE);
+                    return Mono.just(new IdCounter(id, seq));
+                });
+    }
 
     @Test
     public void testGenerateVisitIdDateAndIncrement() {
-        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yy");
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MM");
-        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("dd");
-
-        String expectedYear = LocalDate.now(TIMEZONE).format(yearFormatter);
-        String expectedMonth = LocalDate.now(TIMEZONE).format(monthFormatter);
-        String expectedDay = LocalDate.now(TIMEZONE).format(dayFormatter);
-
-        String id1 = IdGenerator.generateVisitId();
-        assertNotNull(id1);
-
-        String[] parts1 = id1.split("-");
-        assertEquals(3, parts1.length, "id should have three parts separated by hyphens");
-        assertEquals("VIST", parts1[0], "prefix should be VIST");
-        assertTrue(parts1[1].matches("\\d{4}"), "yyMM part should be 4 digits");
-        assertTrue(parts1[2].matches("\\d{4}"), "dd+seq part should be 4 digits");
-
-        // verify year+month and day
-        assertEquals(expectedYear + expectedMonth, parts1[1], "yyMM must match today");
-        assertEquals(expectedDay, parts1[2].substring(0, 2), "dd must match today");
-
-        // extract and validate sequence
-        String seq1Str = parts1[2].substring(2);
-        assertTrue(seq1Str.matches("\\d{2}"), "sequence must be two digits");
-        int seq1 = Integer.parseInt(seq1Str);
-        assertTrue(seq1 >= 1, "sequence must be >= 1");
-
-        // generate second id and assert increment
-        String id2 = IdGenerator.generateVisitId();
-        String[] parts2 = id2.split("-");
-        assertEquals(parts1[0], parts2[0], "prefix should remain the same");
-        assertEquals(parts1[1], parts2[1], "date part should remain the same for same day");
-
-        String seq2Str = parts2[2].substring(2);
-        assertTrue(seq2Str.matches("\\d{2}"), "sequence must be two digits");
-        int seq2 = Integer.parseInt(seq2Str);
-
-        assertEquals(seq1 + 1, seq2, "sequence should increment by 1 for consecutive calls");
-    }
+        IdGenerator idGenerator = new IdGenerator(mongoTemplate, BLOCK_SIZE, Clock.system(TIMEZONE));
+        String datePart = LocalDate.now(TIMEZONE).format(DateTimeFormatter.ofPattern("yyMM-dd"));
 
+        assertEquals("VIST-" + datePart + "01", idGenerator.generateVisitId().block());
+        assertEquals("VIST-" + datePart + "02", idGenerator.generateVisitId().block());
+    }
 
     @Test
     public void testGenerateReviewIdDateAndIncrement() {
-        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yy");
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MM");
-        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("dd");
-
-        String expectedYear = LocalDate.now(TIMEZONE).format(yearFormatter);
-        String expectedMonth = LocalDate.now(TIMEZONE).format(monthFormatter);
-        String expectedDay = LocalDate.now(TIMEZONE).format(dayFormatter);
-
-        String id1 = IdGenerator.generateReviewId();
-        assertNotNull(id1);
-
-        String[] parts1 = id1.split("-");
-        assertEquals(3, parts1.length, "id should split into three parts");
-        assertEquals("REVIEW", parts1[0], "prefix should be REVIEW");
-        assertTrue(parts1[1].matches("\\d{4}"), "yyMM part should be 4 digits");
-        assertTrue(parts1[2].matches("\\d{4}"), "dd+seq part should be 4 digits");
-
-        // verify year+month and day
-        assertEquals(expectedYear + expectedMonth, parts1[1], "yyMM must match today");
-        assertEquals(expectedDay, parts1[2].substring(0, 2), "dd must match today");
-
-        // extract and validate sequence
-        String seq1Str = parts1[2].substring(2);
-        assertTrue(seq1Str.matches("\\d{2}"), "sequence must be two digits");
-        int seq1 = Integer.parseInt(seq1Str);
-        assertTrue(seq1 >= 1, "sequence must be >= 1");
-
-        // generate second id and assert increment
-        String id2 = IdGenerator.generateReviewId();
-        String[] parts2 = id2.split("-");
-        assertEquals(parts1[0], parts2[0], "prefix should remain the same");
-        assertEquals(parts1[1], parts2[1], "date part should remain the same for same day");
-
-        String seq2Str = parts2[2].substring(2);
-        assertTrue(seq2Str.matches("\\d{2}"), "sequence must be two digits");
-        int seq2 = Integer.parseInt(seq2Str);
-
-        assertEquals(seq1 + 1, seq2, "sequence should increment by 1 for consecutive calls");
+        IdGenerator idGenerator = new IdGenerator(mongoTemplate, BLOCK_SIZE, Clock.system(TIMEZONE));
+        String datePart = LocalDate.now(TIMEZONE).format(DateTimeFormatter.ofPattern("yyMM-dd"));
+
+        assertEquals("REVIEW-" + datePart + "01", idGenerator.generateReviewId().block());
+        assertEquals("REVIEW-" + datePart + "02", idGenerator.generateReviewId().block());
     }
 
+    @Test
+    public void whenBlockIsUsedUp_thenNextBlockIsReserved() {
+        IdGenerator idGenerator = new IdGenerator(mongoTemplate, BLOCK_SIZE, fixedClock("2025-10-24T15:00:00Z"));
+
+        List<String> ids = Flux.range(0, 12).concatMap(i -> idGenerator.generateVisitId()).collectList().block();
 
+        assertEquals("VIST-2510-2401", ids.get(0));
+        assertEquals("VIST-2510-2412", ids.get(11));
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(IdCounter.class));
+    }
+
+    @Test
+    public void whenTwoInstancesShareTheCounter_thenIdsDoNotRepeat() {
+        Clock clock = fixedClock("2025-10-24T15:00:00Z");
+        IdGenerator replica1 = new IdGenerator(mongoTemplate, BLOCK_SIZE, clock);
+        IdGenerator replica2 = new IdGenerator(mongoTemplate, BLOCK_SIZE, clock);
+
+        Set<String> ids = Flux.range(0, 40)
+                .flatMap(i -> (i % 2 == 0 ? replica1 : replica2).generateVisitId().subscribeOn(Schedulers.parallel()))
+                .collect(Collectors.toSet())
+                .block();
+
+        assertEquals(40, ids.size());
+    }
+
+    @Test
+    public void whenDayChanges_thenSequenceRestarts() {
+        IdGenerator before = new IdGenerator(mongoTemplate, BLOCK_SIZE, fixedClock("2025-10-24T15:00:00Z"));
+        IdGenerator after = new IdGenerator(mongoTemplate, BLOCK_SIZE, fixedClock("2025-10-25T15:00:00Z"));
+
+        assertEquals("VIST-2510-2401", before.generateVisitId().block());
+        assertEquals("VIST-2510-2501", after.generateVisitId().block());
+    }
+
+    private static Clock fixedClock(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC).withZone(TIMEZONE);
+    }
 }
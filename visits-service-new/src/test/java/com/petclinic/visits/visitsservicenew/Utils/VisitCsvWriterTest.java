@@ -0,0 +1,78 @@
+package com.petclinic.visits.visitsservicenew.Utils;
+
+import com.petclinic.visits.visitsservicenew.DataLayer.Status;
+import com.petclinic.visits.visitsservicenew.DataLayer.Visit;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisitCsvWriterTest {
+
+    @Test
+    void whenVisitsAreWritten_thenRowsFollowTheHeaderWithDescriptionsQuoted() {
+        Visit visit = visit(1);
+        visit.setDescription("Said \"ouch\", twice");
+        visit.setStatus(null);
+
+        String csv = join(VisitCsvWriter.write(Flux.just(visit), false));
+
+        assertEquals(VisitCsvWriter.HEADER + "\n"
+                + "VIST-1,\"Said \"\"ouch\"\", twice\",2024-01-01T10:00,pet-1,vet-1,\n", csv);
+    }
+
+    @Test
+    void whenManyVisitsAreWritten_thenTheyAreSentInSeveralChunks() {
+        List<DataBuffer> chunks = VisitCsvWriter.write(Flux.range(0, 1000).map(VisitCsvWriterTest::visit), false)
+                .collectList()
+                .block();
+
+        assertTrue(chunks.size() > 2);
+        chunks.forEach(DataBufferUtils::release);
+    }
+
+    @Test
+    void whenGzipped_thenCsvIsTheSameOnceDecompressed() throws IOException {
+        Flux<Visit> visits = Flux.range(0, 1000).map(VisitCsvWriterTest::visit);
+        String csv = join(VisitCsvWriter.write(visits, false));
+
+        byte[] gzipped = DataBufferUtils.join(VisitCsvWriter.write(visits, true))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    return bytes;
+                })
+                .block();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(csv, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(gzipped.length < csv.length());
+    }
+
+    private static String join(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers)
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+
+    private static Visit visit(int number) {
+        return Visit.builder()
+                .visitId("VIST-" + number)
+                .description("Visit " + number)
+                .visitDate(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .petId("pet-" + number)
+                .practitionerId("vet-" + number)
+                .status(Status.UPCOMING)
+                .build();
+    }
+}